@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.backup.format.value.NuoDBValueFormatRegistry;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder;
+import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
+import com.nuodb.migrator.jdbc.commit.CommitExecutor;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.model.Field;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.TimeZone;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static com.nuodb.migrator.jdbc.model.FieldFactory.newField;
+import static java.sql.Types.BIGINT;
+import static java.sql.Types.DATE;
+import static java.sql.Types.DECIMAL;
+import static java.sql.Types.DOUBLE;
+import static java.sql.Types.INTEGER;
+import static java.sql.Types.TIME;
+import static java.sql.Types.TIMESTAMP;
+import static java.sql.Types.VARCHAR;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures per row cost of binding values read from a backup to the insert
+ * statement of a table through the value formats, of building the value
+ * handles of a statement and of adding rows to the batches of the batch commit
+ * strategy. Statement is a stub, so the driver cost is excluded. Tables vary in
+ * width and in the mix of column types: {@code string} columns only,
+ * {@code mixed} numbers, strings and temporals or {@code temporal} columns only.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+
+    private static final Object[][] STRING = { { VARCHAR, "value" } };
+    private static final Object[][] MIXED = { { INTEGER, "42" }, { BIGINT, "1234567890123" },
+            { DECIMAL, "12345.67" }, { DOUBLE, "3.14159" }, { VARCHAR, "value" },
+            { TIMESTAMP, "2013-07-21 10:12:42.123" }, { DATE, "2013-07-21" }, { TIME, "10:12:42" } };
+    private static final Object[][] TEMPORAL = { { TIMESTAMP, "2013-07-21 10:12:42.123" }, { DATE, "2013-07-21" },
+            { TIME, "10:12:42" } };
+
+    @Param({ "10", "50" })
+    private int columns;
+
+    @Param({ "string", "mixed", "temporal" })
+    private String types;
+
+    private Collection<Field> fields;
+    private Value[] values;
+    private Connection connection;
+    private PreparedStatement statement;
+    private ValueHandleList valueHandleList;
+    private CommitExecutor commitExecutor;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Object[][] mix = "mixed".equals(types) ? MIXED : "temporal".equals(types) ? TEMPORAL : STRING;
+        fields = newArrayList();
+        values = new Value[columns];
+        for (int index = 0; index < columns; index++) {
+            Object[] type = mix[index % mix.length];
+            Field field = newField("column" + index);
+            field.setTypeCode((Integer) type[0]);
+            fields.add(field);
+            values[index] = string((String) type[1]);
+        }
+        connection = createConnection();
+        statement = new StubPreparedStatement(connection);
+        valueHandleList = createBuilder().build();
+        commitExecutor = new BatchCommitStrategy().createCommitExecutor(statement, null);
+    }
+
+    protected ValueHandleListBuilder createBuilder() {
+        ValueHandleListBuilder builder = newBuilder(connection, statement);
+        builder.withDialect(new NuoDBDialect());
+        builder.withFields(fields);
+        builder.withTimeZone(TimeZone.getDefault());
+        builder.withValueFormatRegistry(new NuoDBValueFormatRegistry());
+        return builder;
+    }
+
+    /**
+     * Connection doing nothing, returns default values of the primitive
+     * return types and nulls otherwise
+     */
+    protected Connection createConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] { Connection.class },
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+                        Class<?> returnType = method.getReturnType();
+                        if (returnType == boolean.class) {
+                            return false;
+                        } else if (returnType == int.class) {
+                            return 0;
+                        } else {
+                            return null;
+                        }
+                    }
+                });
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        commitExecutor.finish();
+    }
+
+    @Benchmark
+    public Object buildValueHandleList() {
+        return createBuilder().build();
+    }
+
+    @Benchmark
+    public void bindValues() {
+        bind();
+    }
+
+    @Benchmark
+    public boolean batchCommit() throws SQLException {
+        bind();
+        return commitExecutor.execute();
+    }
+
+    protected void bind() {
+        int index = 0;
+        for (ValueHandle valueHandle : valueHandleList) {
+            valueHandle.getValueFormat().setValue(values[index++], valueHandle.getJdbcValueAccess(),
+                    valueHandle.getJdbcValueAccessOptions());
+        }
+    }
+}
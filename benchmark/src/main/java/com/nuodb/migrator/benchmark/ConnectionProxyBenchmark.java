@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.jdbc.connection.DelegatingPreparedStatement;
+import com.nuodb.migrator.jdbc.connection.LoggingConnectionProvider;
+import com.nuodb.migrator.jdbc.connection.LoggingPreparedStatement;
+import com.nuodb.migrator.jdbc.connection.SimpleQueryFormat;
+import com.nuodb.migrator.utils.aop.AopProxy;
+import com.nuodb.migrator.utils.aop.MethodMatcher;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static com.nuodb.migrator.utils.aop.AopProxyUtils.createAopProxy;
+import static com.nuodb.migrator.utils.aop.MethodAdvisors.newMethodAdvisor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Measures per row cost of binding parameters of a prepared statement and
+ * adding it to the batch through the driver statement directly ({@code raw}),
+ * the static delegating wrapper ({@code delegating}), the static logging
+ * wrapper ({@code logging}) and the reflection based AOP proxy capturing
+ * parameters the way the logging connection provider used to ({@code aop}).
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConnectionProxyBenchmark {
+
+    @Param({ "10", "50" })
+    private int columns;
+
+    private PreparedStatement raw;
+    private PreparedStatement delegating;
+    private PreparedStatement logging;
+    private PreparedStatement aop;
+    private long row;
+
+    @Setup
+    public void setUp() {
+        StringBuilder query = new StringBuilder("INSERT INTO T VALUES (");
+        for (int index = 0; index < columns; index++) {
+            query.append(index > 0 ? ", ?" : "?");
+        }
+        query.append(")");
+        raw = new StubPreparedStatement();
+        delegating = new DelegatingPreparedStatement(null, raw);
+        logging = new LoggingPreparedStatement(null, raw, query.toString(), new LoggingConnectionProvider(null));
+        aop = createAopStatement(raw, query.toString());
+    }
+
+    protected PreparedStatement createAopStatement(PreparedStatement statement, String query) {
+        final SimpleQueryFormat queryFormat = new SimpleQueryFormat(query);
+        AopProxy proxy = createAopProxy(statement, PreparedStatement.class);
+        proxy.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
+            @Override
+            public Object invoke(MethodInvocation invocation) throws Throwable {
+                Object[] arguments = invocation.getArguments();
+                queryFormat.setParameter(((Integer) arguments[0]) - 1, arguments[1]);
+                return invocation.proceed();
+            }
+        }, new MethodMatcher() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
+                return method.getDeclaringClass() == PreparedStatement.class && method.getName().startsWith("set");
+            }
+        }));
+        return (PreparedStatement) proxy;
+    }
+
+    @Benchmark
+    public void raw() throws SQLException {
+        bind(raw);
+    }
+
+    @Benchmark
+    public void delegating() throws SQLException {
+        bind(delegating);
+    }
+
+    @Benchmark
+    public void logging() throws SQLException {
+        bind(logging);
+    }
+
+    @Benchmark
+    public void aop() throws SQLException {
+        bind(aop);
+    }
+
+    protected void bind(PreparedStatement statement) throws SQLException {
+        row++;
+        for (int index = 1; index <= columns; index++) {
+            if (index % 2 == 0) {
+                statement.setLong(index, row);
+            } else {
+                statement.setString(index, "value");
+            }
+        }
+        statement.addBatch();
+    }
+}
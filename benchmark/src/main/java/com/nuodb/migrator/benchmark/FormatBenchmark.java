@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.benchmark;
+
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.Input;
+import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.bson.BsonInput;
+import com.nuodb.migrator.backup.format.bson.BsonOutput;
+import com.nuodb.migrator.backup.format.csv.CsvInput;
+import com.nuodb.migrator.backup.format.csv.CsvOutput;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+import com.nuodb.migrator.backup.format.xml.XmlInput;
+import com.nuodb.migrator.backup.format.xml.XmlOutput;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+
+import static com.google.common.collect.Iterables.get;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+/**
+ * Measures per row cost of writing and reading the CSV, BSON and XML formats on the row sets of different width. The
+ * {@code columnWalk} and {@code columnArray} benchmarks isolate resolution of the column value types by a walk over
+ * the columns collection versus a lookup in the positional array the formats resolve once per chunk.
+ *
+ * @author Sergey Bushik
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({ "10", "100", "300" })
+    private int columns;
+
+    private RowSet rowSet;
+    private Value[] values;
+    private CsvOutput csvOutput;
+    private BsonOutput bsonOutput;
+    private XmlOutput xmlOutput;
+    private byte[] csv;
+    private byte[] bson;
+    private byte[] xml;
+
+    @Setup
+    public void setUp() {
+        rowSet = new RowSet();
+        Collection<Column> columns = newArrayList();
+        values = new Value[this.columns];
+        for (int index = 0; index < this.columns; index++) {
+            ValueType valueType = index % 5 == 4 ? BINARY : STRING;
+            columns.add(new Column("column" + index, valueType));
+            values[index] = valueType == BINARY ? binary(new byte[] { 1, 2, 3, (byte) index })
+                    : string("value " + index);
+        }
+        rowSet.setColumns(columns);
+        csvOutput = createOutput(new CsvOutput(), new NullOutputStream());
+        bsonOutput = createOutput(new BsonOutput(), new NullOutputStream());
+        xmlOutput = createOutput(new XmlOutput(), new NullOutputStream());
+        csv = write(new CsvOutput());
+        bson = write(new BsonOutput());
+        xml = write(new XmlOutput());
+    }
+
+    protected byte[] write(Output output) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        createOutput(output, outputStream);
+        for (int row = 0; row < ROWS; row++) {
+            output.writeValues(values);
+        }
+        output.writeEnd();
+        output.close();
+        return outputStream.toByteArray();
+    }
+
+    protected <T extends Output> T createOutput(T output, OutputStream outputStream) {
+        output.setRowSet(rowSet);
+        output.setOutputStream(outputStream);
+        output.init();
+        output.writeStart();
+        return output;
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (Output output : new Output[] { csvOutput, bsonOutput, xmlOutput }) {
+            output.writeEnd();
+            output.close();
+        }
+    }
+
+    @Benchmark
+    public void columnWalk(Blackhole blackhole) {
+        Collection<Column> columns = rowSet.getColumns();
+        for (int index = 0; index < values.length; index++) {
+            blackhole.consume(get(columns, index).getValueType());
+        }
+    }
+
+    @Benchmark
+    public void columnArray(Blackhole blackhole) {
+        ValueType[] valueTypes = csvOutput.getValueTypes();
+        for (int index = 0; index < values.length; index++) {
+            blackhole.consume(valueTypes[index]);
+        }
+    }
+
+    @Benchmark
+    public void csvWriteValues() {
+        csvOutput.writeValues(values);
+    }
+
+    @Benchmark
+    public void bsonWriteValues() {
+        bsonOutput.writeValues(values);
+    }
+
+    @Benchmark
+    public void xmlWriteValues() {
+        xmlOutput.writeValues(values);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void csvReadValues(Blackhole blackhole) {
+        read(new CsvInput(), csv, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bsonReadValues(Blackhole blackhole) {
+        read(new BsonInput(), bson, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void xmlReadValues(Blackhole blackhole) {
+        read(new XmlInput(), xml, blackhole);
+    }
+
+    protected void read(Input input, byte[] data, Blackhole blackhole) {
+        input.setRowSet(rowSet);
+        input.setInputStream(new ByteArrayInputStream(data));
+        input.init();
+        input.readStart();
+        Value[] values;
+        while ((values = input.readValues()) != null) {
+            blackhole.consume(values);
+        }
+        input.readEnd();
+        input.close();
+    }
+}
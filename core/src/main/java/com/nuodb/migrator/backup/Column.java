@@ -37,6 +37,7 @@ public class Column {
 
     private String name;
     private ValueType valueType;
+    private boolean lobSideFiles;
     private transient RowSet rowSet;
 
     public Column() {
@@ -63,6 +64,18 @@ public class Column {
         this.valueType = valueType;
     }
 
+    /**
+     * @return true if values of the column are LOBs framed by
+     *         {@link com.nuodb.migrator.backup.format.value.LobSideFiles} and may be kept in side files
+     */
+    public boolean isLobSideFiles() {
+        return lobSideFiles;
+    }
+
+    public void setLobSideFiles(boolean lobSideFiles) {
+        this.lobSideFiles = lobSideFiles;
+    }
+
     public RowSet getRowSet() {
         return rowSet;
     }
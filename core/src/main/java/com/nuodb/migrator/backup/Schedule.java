@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+
+/**
+ * Plans the order in which the tables are dumped or loaded. Tasks are started
+ * largest first, so that the splits of the large tables are forked early and
+ * the small tables fill the threads around them, which keeps the makespan close
+ * to the size of the largest table. Tasks are weighted by their estimated size
+ * in bytes or by the estimated number of rows if the size is unknown.
+ *
+ * @author Sergey Bushik
+ */
+public class Schedule<T> {
+
+    private final int threads;
+    private final List<Task<T>> tasks = newArrayList();
+    private boolean sorted = true;
+
+    public Schedule(int threads) {
+        this.threads = max(threads, 1);
+    }
+
+    public void addTask(T item, String name, long rows, long bytes, int parts) {
+        tasks.add(new Task<T>(item, name, rows, bytes, max(parts, 1)));
+        sorted = false;
+    }
+
+    /**
+     * Returns tasks ordered by weight descending, tasks of the same weight keep
+     * the order they were added in
+     *
+     * @return ordered tasks
+     */
+    public List<Task<T>> getTasks() {
+        if (!sorted) {
+            Collections.sort(tasks, new Comparator<Task<T>>() {
+                @Override
+                public int compare(Task<T> task1, Task<T> task2) {
+                    return Long.compare(task2.getWeight(), task1.getWeight());
+                }
+            });
+            sorted = true;
+        }
+        return tasks;
+    }
+
+    public List<T> getItems() {
+        List<T> items = newArrayList();
+        for (Task<T> task : getTasks()) {
+            items.add(task.getItem());
+        }
+        return items;
+    }
+
+    /**
+     * Simulates execution of the ordered tasks, each part of a task is handed
+     * to the least loaded thread
+     *
+     * @return estimated weight processed by each of the threads
+     */
+    public long[] getLoads() {
+        long[] loads = new long[threads];
+        for (Task<T> task : getTasks()) {
+            long weight = task.getWeight();
+            int parts = task.getParts();
+            for (int part = 0; part < parts; part++) {
+                int thread = 0;
+                for (int index = 1; index < threads; index++) {
+                    if (loads[index] < loads[thread]) {
+                        thread = index;
+                    }
+                }
+                loads[thread] += weight / parts + (part < weight % parts ? 1 : 0);
+            }
+        }
+        return loads;
+    }
+
+    public long getMakespan() {
+        long makespan = 0;
+        for (long load : getLoads()) {
+            makespan = max(load, makespan);
+        }
+        return makespan;
+    }
+
+    public long getWeight() {
+        long weight = 0;
+        for (Task<T> task : tasks) {
+            weight += task.getWeight();
+        }
+        return weight;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Describes planned schedule in a single line
+     *
+     * @return schedule summary
+     */
+    public String summary() {
+        return format("Schedule of %d task(s) on %d thread(s), estimated makespan %d of total %d", tasks.size(),
+                threads, getMakespan(), getWeight());
+    }
+
+    /**
+     * Describes planned schedule, summary is followed by one task per line in
+     * the order the tasks will be started
+     *
+     * @return schedule report
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(summary());
+        int index = 0;
+        for (Task<T> task : getTasks()) {
+            report.append(format("%n%4d. %s rows %d, bytes %d, parts %d", ++index, task.getName(), task.getRows(),
+                    task.getBytes(), task.getParts()));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    public static class Task<T> {
+
+        private final T item;
+        private final String name;
+        private final long rows;
+        private final long bytes;
+        private final int parts;
+
+        public Task(T item, String name, long rows, long bytes, int parts) {
+            this.item = item;
+            this.name = name;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.parts = parts;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public int getParts() {
+            return parts;
+        }
+
+        public long getWeight() {
+            return bytes > 0 ? bytes : rows;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.session.Session;
+import org.slf4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Estimates of the table sizes used to build a {@link Schedule}
+ *
+ * @author Sergey Bushik
+ */
+public class ScheduleUtils {
+
+    private static transient final Logger logger = getLogger(ScheduleUtils.class);
+
+    public static final int LOB_SIZE = 4096;
+    public static final int MAX_COLUMN_SIZE = 1024;
+    public static final int DEFAULT_COLUMN_SIZE = 8;
+
+    private ScheduleUtils() {
+    }
+
+    /**
+     * Requests approximate row count from the database statistics, which is
+     * cheap comparing to the exact row count.
+     *
+     * @param session
+     *            source session
+     * @param table
+     *            to estimate row count of
+     * @param filter
+     *            optional filtering clause
+     * @return approximate row count or 0 if the dialect can't provide it
+     */
+    public static long getApproxRowCount(Session session, Table table, String filter) {
+        Dialect dialect = session.getDialect();
+        if (!dialect.supportsRowCount(table, null, filter, APPROX)) {
+            return 0;
+        }
+        try {
+            return dialect.createRowCountHandler(table, null, filter, APPROX).getRowCount(session.getConnection());
+        } catch (SQLException exception) {
+            if (logger.isWarnEnabled()) {
+                logger.warn(format("Failed estimating row count of %s", table.getQualifiedName(null)), exception);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Estimates size of a row in bytes from the declared column sizes
+     *
+     * @param columns
+     *            columns of a row
+     * @return estimated row size in bytes
+     */
+    public static long getRowSize(Collection<? extends Field> columns) {
+        long rowSize = 0;
+        for (Field column : columns) {
+            rowSize += getColumnSize(column);
+        }
+        return rowSize;
+    }
+
+    protected static long getColumnSize(Field column) {
+        switch (column.getTypeCode()) {
+        case Types.BLOB:
+        case Types.CLOB:
+        case Types.NCLOB:
+        case Types.LONGVARBINARY:
+        case Types.LONGVARCHAR:
+        case Types.LONGNVARCHAR:
+            return LOB_SIZE;
+        case Types.CHAR:
+        case Types.NCHAR:
+        case Types.VARCHAR:
+        case Types.NVARCHAR:
+        case Types.BINARY:
+        case Types.VARBINARY:
+            Long size = column.getSize();
+            return size != null && size > 0 ? min(size, MAX_COLUMN_SIZE) : DEFAULT_COLUMN_SIZE;
+        default:
+            return DEFAULT_COLUMN_SIZE;
+        }
+    }
+}
@@ -27,9 +27,12 @@
  */
 package com.nuodb.migrator.backup.format;
 
+import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.ValueType;
 import org.slf4j.Logger;
 
+import java.util.Collection;
 import java.util.Map;
 
 import static java.lang.Boolean.parseBoolean;
@@ -48,6 +51,7 @@ public abstract class FormatBase implements Format {
     private boolean buffering = BUFFERING;
     private int bufferSize = BUFFER_SIZE;
     private RowSet rowSet;
+    private ValueType[] valueTypes;
 
     @Override
     public Object getAttribute(String attribute) {
@@ -104,4 +108,24 @@ public abstract class FormatBase implements Format {
     public void setRowSet(RowSet rowSet) {
         this.rowSet = rowSet;
     }
+
+    /**
+     * Value types of the row set columns indexed by column position, resolved by {@link #initValueTypes()} once per
+     * chunk, so that per row code does not walk the columns collection
+     *
+     * @return value types of the columns
+     */
+    public ValueType[] getValueTypes() {
+        return valueTypes;
+    }
+
+    protected void initValueTypes() {
+        Collection<Column> columns = getRowSet().getColumns();
+        ValueType[] valueTypes = new ValueType[columns.size()];
+        int index = 0;
+        for (Column column : columns) {
+            valueTypes[index++] = column.getValueType();
+        }
+        this.valueTypes = valueTypes;
+    }
 }
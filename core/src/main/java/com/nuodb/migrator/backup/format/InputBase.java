@@ -27,16 +27,11 @@
  */
 package com.nuodb.migrator.backup.format;
 
-import com.nuodb.migrator.backup.Column;
-import com.nuodb.migrator.backup.format.value.ValueType;
-
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.Reader;
-import java.util.List;
 
-import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.io.Closeables.closeQuietly;
 
 /**
@@ -47,7 +42,6 @@ public abstract class InputBase extends FormatBase implements Input {
 
     private Reader reader;
     private InputStream inputStream;
-    private List<ValueType> valueTypes;
 
     public Reader getReader() {
         return reader;
@@ -83,18 +77,6 @@ public abstract class InputBase extends FormatBase implements Input {
 
     protected abstract void init(InputStream inputStream);
 
-    public List<ValueType> getValueTypes() {
-        return valueTypes;
-    }
-
-    protected void initValueTypes() {
-        List<ValueType> valueTypes = newArrayList();
-        for (Column column : getRowSet().getColumns()) {
-            valueTypes.add(column.getValueType());
-        }
-        this.valueTypes = valueTypes;
-    }
-
     protected boolean hasReader() {
         return reader != null;
     }
@@ -31,12 +31,20 @@ import com.nuodb.migrator.backup.format.value.Value;
 
 import java.io.OutputStream;
 import java.io.Writer;
+import java.util.concurrent.Executor;
 
 /**
  * @author Sergey Bushik
  */
 public interface Output extends Format {
 
+    /**
+     * Attribute name to enable/disable writing of buffered output by a dedicated thread, default is true
+     */
+    final String ATTRIBUTE_ASYNC = "async";
+
+    final boolean ASYNC = true;
+
     void writeStart();
 
     boolean canWrite();
@@ -52,4 +60,15 @@ public interface Output extends Format {
     OutputStream getOutputStream();
 
     void setOutputStream(OutputStream outputStream);
+
+    Executor getExecutor();
+
+    /**
+     * Sets executor writing buffered blocks of async output, blocks are written by the executor shared by the
+     * outputs if not set
+     *
+     * @param executor
+     *            executor running writer tasks
+     */
+    void setExecutor(Executor executor);
 }
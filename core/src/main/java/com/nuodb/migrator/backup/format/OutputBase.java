@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.backup.format;
 
+import com.nuodb.migrator.utils.AsyncOutputStream;
 import com.nuodb.migrator.utils.Counting;
 import com.nuodb.migrator.utils.CountingOutputStream;
 import com.nuodb.migrator.utils.CountingWriter;
@@ -35,6 +36,11 @@ import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.util.concurrent.Executor;
+
+import static com.nuodb.migrator.utils.AsyncOutputStream.BUFFERS;
+import static java.lang.Boolean.parseBoolean;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
 
 /**
  * @author Sergey Bushik
@@ -46,6 +52,8 @@ public abstract class OutputBase extends FormatBase implements Output {
     private OutputStream outputStream;
     private Long maxSize;
     private Counting counting;
+    private boolean async = ASYNC;
+    private Executor executor;
 
     protected OutputBase() {
     }
@@ -74,6 +82,16 @@ public abstract class OutputBase extends FormatBase implements Output {
         this.outputStream = outputStream;
     }
 
+    @Override
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
     @Override
     public void init() {
         if (hasWriter()) {
@@ -83,6 +101,7 @@ public abstract class OutputBase extends FormatBase implements Output {
         } else {
             throw new OutputException("Writer or stream is required to export backup");
         }
+        initValueTypes();
     }
 
     protected abstract void init(Writer writer);
@@ -111,7 +130,15 @@ public abstract class OutputBase extends FormatBase implements Output {
         return wrapOutputStream(outputStream);
     }
 
+    /**
+     * Wraps output stream, if both buffering and async are on buffered blocks are written to the underlying stream by a
+     * writer task run by the executor, so that encoding of the rows is overlapped with the file writes
+     */
     protected OutputStream wrapOutputStream(OutputStream outputStream) {
+        if (isBuffering() && isAsync()) {
+            outputStream = new AsyncOutputStream(outputStream, getBufferSize(), BUFFERS, getExecutor());
+            return isCounting() ? (OutputStream) (counting = new CountingOutputStream(outputStream)) : outputStream;
+        }
         outputStream = isCounting() ? (OutputStream) (counting = new CountingOutputStream(outputStream)) : outputStream;
         outputStream = isBuffering() ? new BufferedOutputStream(outputStream, getBufferSize()) : outputStream;
         return outputStream;
@@ -126,6 +153,15 @@ public abstract class OutputBase extends FormatBase implements Output {
         return !(getMaxSize() != null && counting != null) || counting.getCount() < getMaxSize();
     }
 
+    public boolean isAsync() {
+        String asyncValue = (String) getAttribute(ATTRIBUTE_ASYNC);
+        return isEmpty(asyncValue) ? async : parseBoolean(asyncValue);
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
     public boolean isCounting() {
         return getMaxSize() != null;
     }
@@ -30,6 +30,9 @@ package com.nuodb.migrator.backup.format;
 import com.nuodb.migrator.backup.format.bson.BsonFormat;
 import com.nuodb.migrator.backup.format.bson.BsonInput;
 import com.nuodb.migrator.backup.format.bson.BsonOutput;
+import com.nuodb.migrator.backup.format.columnar.ColumnarFormat;
+import com.nuodb.migrator.backup.format.columnar.ColumnarInput;
+import com.nuodb.migrator.backup.format.columnar.ColumnarOutput;
 import com.nuodb.migrator.backup.format.csv.CsvFormat;
 import com.nuodb.migrator.backup.format.csv.CsvInput;
 import com.nuodb.migrator.backup.format.csv.CsvOutput;
@@ -65,10 +68,12 @@ public class SimpleFormatFactory implements FormatFactory {
         addFormat(CsvFormat.TYPE, CsvInput.class);
         addFormat(XmlFormat.TYPE, XmlInput.class);
         addFormat(BsonFormat.TYPE, BsonInput.class);
+        addFormat(ColumnarFormat.TYPE, ColumnarInput.class);
 
         addFormat(CsvFormat.TYPE, CsvOutput.class);
         addFormat(XmlFormat.TYPE, XmlOutput.class);
         addFormat(BsonFormat.TYPE, BsonOutput.class);
+        addFormat(ColumnarFormat.TYPE, ColumnarOutput.class);
     }
 
     public void addFormat(String format, Class<? extends Format> formatClass) {
@@ -39,14 +39,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.BitSet;
-import java.util.List;
 
 import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
 import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_FLOAT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.EMPTY;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.fromByteArray;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.number;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static de.undercouch.bson4jackson.BsonGenerator.Feature.ENABLE_STREAMING;
 
@@ -102,28 +104,36 @@ public class BsonInput extends InputBase implements BsonFormat {
         Value[] values = null;
         try {
             if (isNextToken(START_ARRAY)) {
-                List<ValueType> valueTypes = getValueTypes();
-                int length = valueTypes.size();
+                ValueType[] valueTypes = getValueTypes();
+                int length = valueTypes.length;
                 values = new Value[length];
                 int index = 0;
                 BitSet nulls = isNextToken(VALUE_NULL) ? EMPTY : fromByteArray((byte[]) bsonReader.getEmbeddedObject());
                 while (index < length) {
                     Object value;
+                    JsonToken token = null;
                     if (nulls.get(index)) {
                         value = null;
                     } else {
-                        bsonReader.nextToken();
-                        value = bsonReader.getEmbeddedObject();
+                        token = bsonReader.nextToken();
+                        value = token == VALUE_NUMBER_INT || token == VALUE_NUMBER_FLOAT ? null
+                                : bsonReader.getEmbeddedObject();
                     }
-                    ValueType valueType = valueTypes.get(index);
+                    ValueType valueType = valueTypes[index];
                     valueType = valueType != null ? valueType : STRING;
-                    switch (valueType) {
-                    case BINARY:
-                        values[index] = binary((byte[]) value);
-                        break;
-                    case STRING:
-                        values[index] = string((String) value);
-                        break;
+                    if (token == VALUE_NUMBER_INT) {
+                        values[index] = number(bsonReader.getLongValue());
+                    } else if (token == VALUE_NUMBER_FLOAT) {
+                        values[index] = number(bsonReader.getDoubleValue());
+                    } else {
+                        switch (valueType) {
+                        case BINARY:
+                            values[index] = binary((byte[]) value);
+                            break;
+                        case STRING:
+                            values[index] = string((String) value);
+                            break;
+                        }
                     }
                     index++;
                 }
@@ -28,19 +28,18 @@
 package com.nuodb.migrator.backup.format.bson;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.format.OutputBase;
 import com.nuodb.migrator.backup.format.OutputException;
+import com.nuodb.migrator.backup.format.value.NumberValue;
 import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
 import de.undercouch.bson4jackson.BsonFactory;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.util.BitSet;
-import java.util.Collection;
 
-import static com.google.common.collect.Iterables.get;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.toByteArray;
 import static de.undercouch.bson4jackson.BsonGenerator.Feature.ENABLE_STREAMING;
 
@@ -50,6 +49,7 @@ import static de.undercouch.bson4jackson.BsonGenerator.Feature.ENABLE_STREAMING;
 public class BsonOutput extends OutputBase implements BsonFormat {
 
     private JsonGenerator bsonWriter;
+    private final BitSet nulls = new BitSet();
 
     public BsonOutput() {
         super(MAX_SIZE);
@@ -98,7 +98,8 @@ public class BsonOutput extends OutputBase implements BsonFormat {
     public void writeValues(Value[] values) {
         try {
             bsonWriter.writeStartArray();
-            BitSet nulls = new BitSet();
+            BitSet nulls = this.nulls;
+            nulls.clear();
             for (int i = 0; i < values.length; i++) {
                 nulls.set(i, values[i].isNull());
             }
@@ -107,16 +108,16 @@ public class BsonOutput extends OutputBase implements BsonFormat {
             } else {
                 bsonWriter.writeBinary(toByteArray(nulls));
             }
-            Collection<Column> columns = getRowSet().getColumns();
+            ValueType[] valueTypes = getValueTypes();
             for (int i = 0; i < values.length; i++) {
                 Value value = values[i];
                 if (!value.isNull()) {
-                    switch (get(columns, i).getValueType()) {
+                    switch (valueTypes[i]) {
                     case BINARY:
                         bsonWriter.writeBinary(value.asBytes());
                         break;
                     case STRING:
-                        bsonWriter.writeString(value.asString());
+                        writeString(value);
                         break;
                     }
                 }
@@ -127,6 +128,24 @@ public class BsonOutput extends OutputBase implements BsonFormat {
         }
     }
 
+    /**
+     * Writes whole and double numbers natively, other values including decimals are written as strings to preserve
+     * their precision
+     */
+    protected void writeString(Value value) throws IOException {
+        if (value instanceof NumberValue) {
+            NumberValue number = (NumberValue) value;
+            if (number.isLong()) {
+                bsonWriter.writeNumber(number.asLong());
+                return;
+            } else if (number.asNumber() instanceof Double) {
+                bsonWriter.writeNumber(number.asDouble());
+                return;
+            }
+        }
+        bsonWriter.writeString(value.asString());
+    }
+
     @Override
     public void writeEnd() {
         try {
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static java.lang.String.CASE_INSENSITIVE_ORDER;
+import static java.lang.String.format;
+import static java.util.Arrays.copyOf;
+import static org.apache.commons.io.IOUtils.readFully;
+
+/**
+ * Registry of the block codecs, custom codecs can be added with {@link #addBlockCodec(BlockCodec)}
+ *
+ * @author Sergey Bushik
+ */
+public class BlockCodecs {
+
+    public static final BlockCodec NONE = new NoneBlockCodec();
+    public static final BlockCodec DEFLATE = new DeflateBlockCodec();
+    public static final BlockCodec GZIP = new GZipBlockCodec();
+
+    private static final Map<String, BlockCodec> BLOCK_CODECS_BY_NAME = new TreeMap<String, BlockCodec>(
+            CASE_INSENSITIVE_ORDER);
+    private static final Map<Integer, BlockCodec> BLOCK_CODECS_BY_ID = newHashMap();
+
+    static {
+        addBlockCodec(NONE);
+        addBlockCodec(DEFLATE);
+        addBlockCodec(GZIP);
+    }
+
+    public static synchronized void addBlockCodec(BlockCodec blockCodec) {
+        BLOCK_CODECS_BY_NAME.put(blockCodec.getName(), blockCodec);
+        BLOCK_CODECS_BY_ID.put(blockCodec.getId(), blockCodec);
+    }
+
+    /**
+     * @return codec registered under the name or null if there's no such codec
+     */
+    public static synchronized BlockCodec getBlockCodec(String name) {
+        return BLOCK_CODECS_BY_NAME.get(name);
+    }
+
+    /**
+     * @return codec registered under the identifier or null if there's no such codec
+     */
+    public static synchronized BlockCodec getBlockCodec(int id) {
+        return BLOCK_CODECS_BY_ID.get(id);
+    }
+
+    static class NoneBlockCodec implements BlockCodec {
+
+        @Override
+        public int getId() {
+            return 0;
+        }
+
+        @Override
+        public String getName() {
+            return "none";
+        }
+
+        @Override
+        public byte[] encode(byte[] data, int length) {
+            return copyOf(data, length);
+        }
+
+        @Override
+        public byte[] decode(byte[] data, int length) {
+            return data;
+        }
+    }
+
+    static class DeflateBlockCodec implements BlockCodec {
+
+        @Override
+        public int getId() {
+            return 1;
+        }
+
+        @Override
+        public String getName() {
+            return "deflate";
+        }
+
+        @Override
+        public byte[] encode(byte[] data, int length) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(data, 0, length);
+                deflater.finish();
+                ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(length / 2, 64));
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    output.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return output.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] decode(byte[] data, int length) throws IOException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data);
+                byte[] result = new byte[length];
+                int offset = 0;
+                while (offset < length && !inflater.finished()) {
+                    int inflated = inflater.inflate(result, offset, length - offset);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    offset += inflated;
+                }
+                if (offset != length) {
+                    throw new IOException(format("Inflated %d bytes, expected %d", offset, length));
+                }
+                return result;
+            } catch (DataFormatException exception) {
+                throw new IOException(exception);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    static class GZipBlockCodec implements BlockCodec {
+
+        @Override
+        public int getId() {
+            return 2;
+        }
+
+        @Override
+        public String getName() {
+            return "gzip";
+        }
+
+        @Override
+        public byte[] encode(byte[] data, int length) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(length / 2, 64));
+            GZIPOutputStream gzip = new GZIPOutputStream(output);
+            gzip.write(data, 0, length);
+            gzip.close();
+            return output.toByteArray();
+        }
+
+        @Override
+        public byte[] decode(byte[] data, int length) throws IOException {
+            GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data));
+            try {
+                byte[] result = new byte[length];
+                readFully(gzip, result);
+                return result;
+            } finally {
+                gzip.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.value.NumberValue;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.*;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.decimal;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.number;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static java.lang.String.format;
+
+/**
+ * Encodes values of a column into a column block and decodes them back. Block starts with the encoding and a null
+ * bitmap followed by the non null values encoded with the most compact encoding the values allow: deltas for the whole
+ * numbers, 8 bytes per double, unscaled value and scale for decimals, a dictionary for low cardinality strings or plain
+ * length-prefixed bytes otherwise.
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnBlocks {
+
+    public static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Dictionary encoding is used when every distinct string repeats at least this number of times on average
+     */
+    private static final int DICTIONARY_RATIO = 2;
+
+    private static final int DICTIONARY_SIZE = 4096;
+
+    public static Block encode(Value[] values, int rows, ValueType valueType) {
+        Block block = new Block();
+        int encoding = getEncoding(values, rows, valueType);
+        block.write(encoding);
+        byte[] nulls = new byte[(rows + 7) / 8];
+        boolean hasNulls = false;
+        for (int row = 0; row < rows; row++) {
+            if (values[row].isNull()) {
+                nulls[row >> 3] |= 1 << (row & 7);
+                hasNulls = true;
+            }
+        }
+        block.write(hasNulls ? 1 : 0);
+        if (hasNulls) {
+            block.write(nulls, 0, nulls.length);
+        }
+        switch (encoding) {
+        case ENCODING_DELTA:
+            long previous = 0;
+            for (int row = 0; row < rows; row++) {
+                if (!values[row].isNull()) {
+                    long value = ((NumberValue) values[row]).asLong();
+                    block.writeSignedVarLong(value - previous);
+                    previous = value;
+                }
+            }
+            break;
+        case ENCODING_DOUBLE:
+            for (int row = 0; row < rows; row++) {
+                if (!values[row].isNull()) {
+                    block.writeLong(Double.doubleToRawLongBits(((NumberValue) values[row]).asDouble()));
+                }
+            }
+            break;
+        case ENCODING_DECIMAL:
+            for (int row = 0; row < rows; row++) {
+                if (!values[row].isNull()) {
+                    BigDecimal value = ((NumberValue) values[row]).asBigDecimal();
+                    block.writeSignedVarLong(value.unscaledValue().longValue());
+                    block.writeSignedVarLong(value.scale());
+                }
+            }
+            break;
+        case ENCODING_DICTIONARY:
+            Map<String, Integer> dictionary = newHashMap();
+            List<String> words = newArrayList();
+            for (int row = 0; row < rows; row++) {
+                if (!values[row].isNull()) {
+                    String value = values[row].asString();
+                    if (!dictionary.containsKey(value)) {
+                        dictionary.put(value, words.size());
+                        words.add(value);
+                    }
+                }
+            }
+            block.writeVarLong(words.size());
+            for (String word : words) {
+                block.writeBytes(word.getBytes(UTF_8));
+            }
+            for (int row = 0; row < rows; row++) {
+                if (!values[row].isNull()) {
+                    block.writeVarLong(dictionary.get(values[row].asString()));
+                }
+            }
+            break;
+        default:
+            for (int row = 0; row < rows; row++) {
+                if (!values[row].isNull()) {
+                    block.writeBytes(valueType == BINARY ? values[row].asBytes() : values[row].asString().getBytes(
+                            UTF_8));
+                }
+            }
+            break;
+        }
+        return block;
+    }
+
+    protected static int getEncoding(Value[] values, int rows, ValueType valueType) {
+        if (valueType == BINARY) {
+            return ENCODING_PLAIN;
+        }
+        boolean delta = true;
+        boolean doubles = true;
+        boolean decimals = true;
+        boolean strings = true;
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            Value value = values[row];
+            if (value.isNull()) {
+                continue;
+            }
+            count++;
+            if (value instanceof NumberValue) {
+                NumberValue number = (NumberValue) value;
+                strings = false;
+                delta &= number.isLong();
+                if (doubles || decimals) {
+                    Number asNumber = number.asNumber();
+                    doubles &= asNumber instanceof Double;
+                    decimals &= asNumber instanceof BigDecimal
+                            && ((BigDecimal) asNumber).unscaledValue().bitLength() < 64;
+                }
+            } else {
+                delta = doubles = decimals = false;
+            }
+        }
+        if (count == 0) {
+            return ENCODING_PLAIN;
+        } else if (delta) {
+            return ENCODING_DELTA;
+        } else if (doubles) {
+            return ENCODING_DOUBLE;
+        } else if (decimals) {
+            return ENCODING_DECIMAL;
+        } else if (strings && isDictionary(values, rows, count)) {
+            return ENCODING_DICTIONARY;
+        } else {
+            return ENCODING_PLAIN;
+        }
+    }
+
+    protected static boolean isDictionary(Value[] values, int rows, int count) {
+        int limit = Math.min(count / DICTIONARY_RATIO, DICTIONARY_SIZE);
+        Map<String, Boolean> distinct = newHashMap();
+        for (int row = 0; row < rows; row++) {
+            if (!values[row].isNull()) {
+                distinct.put(values[row].asString(), Boolean.TRUE);
+                if (distinct.size() > limit) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public static Value[] decode(byte[] data, int rows, ValueType valueType) throws IOException {
+        Cursor cursor = new Cursor(data);
+        int encoding = cursor.read();
+        boolean hasNulls = cursor.read() != 0;
+        byte[] nulls = null;
+        if (hasNulls) {
+            nulls = cursor.readBytes((rows + 7) / 8);
+        }
+        Value[] values = new Value[rows];
+        String[] dictionary = null;
+        if (encoding == ENCODING_DICTIONARY) {
+            dictionary = new String[(int) cursor.readVarLong()];
+            for (int index = 0; index < dictionary.length; index++) {
+                dictionary[index] = new String(cursor.readBytes((int) cursor.readVarLong()), UTF_8);
+            }
+        }
+        long previous = 0;
+        for (int row = 0; row < rows; row++) {
+            if (hasNulls && (nulls[row >> 3] & (1 << (row & 7))) != 0) {
+                values[row] = valueType == BINARY ? binary(null) : string(null);
+                continue;
+            }
+            switch (encoding) {
+            case ENCODING_DELTA:
+                previous += cursor.readSignedVarLong();
+                values[row] = number(previous);
+                break;
+            case ENCODING_DOUBLE:
+                values[row] = number(Double.longBitsToDouble(cursor.readLong()));
+                break;
+            case ENCODING_DECIMAL:
+                long unscaledValue = cursor.readSignedVarLong();
+                values[row] = decimal(unscaledValue, (int) cursor.readSignedVarLong());
+                break;
+            case ENCODING_DICTIONARY:
+                values[row] = string(dictionary[(int) cursor.readVarLong()]);
+                break;
+            case ENCODING_PLAIN:
+                byte[] bytes = cursor.readBytes((int) cursor.readVarLong());
+                values[row] = valueType == BINARY ? binary(bytes) : string(new String(bytes, UTF_8));
+                break;
+            default:
+                throw new IOException(format("Unknown column block encoding %d", encoding));
+            }
+        }
+        return values;
+    }
+
+    public static void writeVarLong(OutputStream output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    public static long readVarLong(InputStream input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = input.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length number");
+    }
+
+    /**
+     * Growable buffer the column block is encoded into
+     */
+    public static class Block extends ByteArrayOutputStream {
+
+        public Block() {
+            super(1024);
+        }
+
+        public byte[] getBuffer() {
+            return buf;
+        }
+
+        public void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        public void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        public void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        public void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    static class Cursor {
+
+        private final byte[] data;
+        private int position;
+
+        Cursor(byte[] data) {
+            this.data = data;
+        }
+
+        int read() throws IOException {
+            if (position >= data.length) {
+                throw new EOFException();
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length number");
+        }
+
+        long readSignedVarLong() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readLong() throws IOException {
+            long value = 0;
+            for (int index = 0; index < 8; index++) {
+                value = (value << 8) | read();
+            }
+            return value;
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            if (length < 0 || position + length > data.length) {
+                throw new EOFException();
+            }
+            byte[] bytes = new byte[length];
+            System.arraycopy(data, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+    }
+}
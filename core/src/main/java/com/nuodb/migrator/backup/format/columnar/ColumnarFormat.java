@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+/**
+ * Binary columnar format. Rows of a chunk are grouped into blocks of {@link #ATTRIBUTE_BLOCK_ROWS} rows, each group
+ * is written column by column as typed, length-prefixed, optionally compressed and CRC32 checked column blocks.
+ * Chunk ends with a footer indexing offsets of the groups and their column blocks, followed by the footer offset and
+ * the magic number.
+ *
+ * @author Sergey Bushik
+ */
+public interface ColumnarFormat {
+
+    final String TYPE = "columnar";
+
+    /**
+     * Number of rows in a group of column blocks, default is 4096
+     */
+    final String ATTRIBUTE_BLOCK_ROWS = "columnar.block.rows";
+
+    /**
+     * Column block compression codec, one of none, deflate or gzip, default is deflate
+     */
+    final String ATTRIBUTE_COMPRESSION = "columnar.compression";
+
+    final int BLOCK_ROWS = 4096;
+
+    final String COMPRESSION = "deflate";
+
+    final int MAGIC = 0x4e4d4346;
+
+    final int VERSION = 1;
+
+    final int GROUP = 1;
+
+    final int FOOTER = 2;
+
+    /**
+     * Values written as length-prefixed UTF-8 strings or raw bytes for the binary columns
+     */
+    final int ENCODING_PLAIN = 0;
+
+    /**
+     * Whole numbers written as zig-zag variable length deltas from the previous value
+     */
+    final int ENCODING_DELTA = 1;
+
+    /**
+     * Double numbers written as 8 byte IEEE 754 values
+     */
+    final int ENCODING_DOUBLE = 2;
+
+    /**
+     * Decimals written as zig-zag variable length unscaled values and scales
+     */
+    final int ENCODING_DECIMAL = 3;
+
+    /**
+     * Strings written once into a dictionary and referenced by their dictionary index
+     */
+    final int ENCODING_DICTIONARY = 4;
+}
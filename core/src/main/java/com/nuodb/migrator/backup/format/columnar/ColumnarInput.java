@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.InputBase;
+import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.zip.CRC32;
+
+import static com.nuodb.migrator.backup.format.columnar.BlockCodecs.getBlockCodec;
+import static com.nuodb.migrator.backup.format.columnar.ColumnBlocks.readVarLong;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static java.lang.String.format;
+
+/**
+ * Reads groups of column blocks sequentially, verifying checksums of the blocks, and returns their rows
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarInput extends InputBase implements ColumnarFormat {
+
+    private DataInputStream input;
+    private Value[][] columns;
+    private int rows;
+    private int row;
+    private boolean footer;
+
+    @Override
+    public String getFormat() {
+        return TYPE;
+    }
+
+    @Override
+    protected void init(InputStream inputStream) {
+        input = new DataInputStream(inputStream);
+    }
+
+    @Override
+    protected void init(Reader reader) {
+        throw new InputException("Columnar format requires input stream");
+    }
+
+    @Override
+    public void readStart() {
+        try {
+            if (input.readInt() != MAGIC) {
+                throw new InputException("Chunk is not in columnar format");
+            }
+            int version = input.read();
+            if (version != VERSION) {
+                throw new InputException(format("Columnar format version %d is not supported", version));
+            }
+            long columnCount = readVarLong(input);
+            if (columnCount != getValueTypes().length) {
+                throw new InputException(format("Chunk has %d columns, row set has %d", columnCount,
+                        getValueTypes().length));
+            }
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
+        rows = row = 0;
+        footer = false;
+    }
+
+    @Override
+    public Value[] readValues() {
+        if (row == rows && !readGroup()) {
+            return null;
+        }
+        Value[] values = new Value[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            values[column] = columns[column][row];
+        }
+        row++;
+        return values;
+    }
+
+    protected boolean readGroup() {
+        if (footer) {
+            return false;
+        }
+        try {
+            int marker = input.read();
+            if (marker != GROUP) {
+                footer = true;
+                return false;
+            }
+            rows = (int) readVarLong(input);
+            row = 0;
+            ValueType[] valueTypes = getValueTypes();
+            columns = new Value[valueTypes.length][];
+            CRC32 checksum = new CRC32();
+            for (int column = 0; column < valueTypes.length; column++) {
+                int codec = input.read();
+                BlockCodec blockCodec = getBlockCodec(codec);
+                if (blockCodec == null) {
+                    throw new InputException(format("Block codec %d is not supported", codec));
+                }
+                int length = (int) readVarLong(input);
+                byte[] data = new byte[(int) readVarLong(input)];
+                int crc = input.readInt();
+                input.readFully(data);
+                checksum.reset();
+                checksum.update(data, 0, data.length);
+                if ((int) checksum.getValue() != crc) {
+                    throw new InputException(format("Checksum mismatch in block of column %d", column));
+                }
+                ValueType valueType = valueTypes[column];
+                columns[column] = ColumnBlocks.decode(blockCodec.decode(data, length), rows,
+                        valueType != null ? valueType : STRING);
+            }
+        } catch (IOException exception) {
+            throw new InputException(exception);
+        }
+        return rows > 0 || readGroup();
+    }
+
+    @Override
+    public void readEnd() {
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.format.OutputBase;
+import com.nuodb.migrator.backup.format.OutputException;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueType;
+import com.nuodb.migrator.utils.CountingOutputStream;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.columnar.BlockCodecs.getBlockCodec;
+import static com.nuodb.migrator.backup.format.columnar.ColumnBlocks.writeVarLong;
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+import static java.lang.String.valueOf;
+import static java.util.Arrays.fill;
+
+/**
+ * Buffers rows into groups of column blocks and writes them to the chunk, see {@link ColumnarFormat} for the layout
+ *
+ * @author Sergey Bushik
+ */
+public class ColumnarOutput extends OutputBase implements ColumnarFormat {
+
+    private CountingOutputStream counter;
+    private DataOutputStream output;
+    private BlockCodec blockCodec;
+    private int blockRows;
+    private Value[][] columns;
+    private int rows;
+    private List<long[]> groups;
+
+    @Override
+    public String getFormat() {
+        return TYPE;
+    }
+
+    @Override
+    protected void init(OutputStream outputStream) {
+        counter = new CountingOutputStream(outputStream);
+        output = new DataOutputStream(counter);
+        String compression = valueOf(getAttribute(ATTRIBUTE_COMPRESSION, COMPRESSION));
+        blockCodec = getBlockCodec(compression);
+        if (blockCodec == null) {
+            throw new OutputException(format("Block compression %s is not supported", compression));
+        }
+        blockRows = parseInt(valueOf(getAttribute(ATTRIBUTE_BLOCK_ROWS, BLOCK_ROWS)));
+        if (blockRows <= 0) {
+            throw new OutputException(format("Block rows should be positive, got %d", blockRows));
+        }
+    }
+
+    @Override
+    protected void init(Writer writer) {
+        throw new OutputException("Columnar format requires output stream");
+    }
+
+    @Override
+    public void writeStart() {
+        columns = new Value[getValueTypes().length][blockRows];
+        rows = 0;
+        groups = newArrayList();
+        try {
+            output.writeInt(MAGIC);
+            output.write(VERSION);
+            writeVarLong(output, columns.length);
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+    }
+
+    @Override
+    public void writeValues(Value[] values) {
+        for (int column = 0; column < columns.length; column++) {
+            columns[column][rows] = values[column];
+        }
+        if (++rows == blockRows) {
+            writeGroup();
+        }
+    }
+
+    protected void writeGroup() {
+        ValueType[] valueTypes = getValueTypes();
+        long[] group = new long[columns.length + 2];
+        group[0] = counter.getCount();
+        group[1] = rows;
+        try {
+            output.write(GROUP);
+            writeVarLong(output, rows);
+            CRC32 checksum = new CRC32();
+            for (int column = 0; column < columns.length; column++) {
+                group[column + 2] = counter.getCount();
+                ColumnBlocks.Block block = ColumnBlocks.encode(columns[column], rows, valueTypes[column]);
+                byte[] data = blockCodec.encode(block.getBuffer(), block.size());
+                checksum.reset();
+                checksum.update(data, 0, data.length);
+                output.write(blockCodec.getId());
+                writeVarLong(output, block.size());
+                writeVarLong(output, data.length);
+                output.writeInt((int) checksum.getValue());
+                output.write(data);
+            }
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+        groups.add(group);
+        for (Value[] column : columns) {
+            fill(column, 0, rows, null);
+        }
+        rows = 0;
+    }
+
+    @Override
+    public void writeEnd() {
+        if (rows > 0) {
+            writeGroup();
+        }
+        try {
+            long footer = counter.getCount();
+            output.write(FOOTER);
+            writeVarLong(output, groups.size());
+            for (long[] group : groups) {
+                for (long value : group) {
+                    writeVarLong(output, value);
+                }
+            }
+            output.writeLong(footer);
+            output.writeInt(MAGIC);
+            output.flush();
+        } catch (IOException exception) {
+            throw new OutputException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException exception) {
+                throw new OutputException(exception);
+            }
+            output = null;
+        }
+    }
+}
@@ -42,9 +42,7 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.util.Iterator;
-import java.util.List;
 
-import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.*;
@@ -102,16 +100,18 @@ public class CsvInput extends InputBase implements CsvFormat {
 
     protected Value[] readRow() {
         CSVRecord record = iterator.next();
-        List<ValueType> valueTypes = getValueTypes();
-        Value[] values = new Value[valueTypes.size()];
+        ValueType[] valueTypes = getValueTypes();
+        Value[] values = new Value[valueTypes.length];
+        int size = record.size();
         int index = 0;
-        for (String value : newArrayList(record.iterator())) {
+        for (; index < size; index++) {
+            String value = record.get(index);
             if (doubleQuote.equals(value)) {
                 value = StringUtils.EMPTY;
             } else if (value != null && value.length() == 0) {
                 value = null;
             }
-            ValueType type = valueTypes.get(index);
+            ValueType type = valueTypes[index];
             type = type != null ? type : STRING;
             switch (type) {
             case BINARY:
@@ -121,7 +121,6 @@ public class CsvInput extends InputBase implements CsvFormat {
                 values[index] = string(value);
                 break;
             }
-            index++;
         }
         fill(values, valueTypes, index);
         return values;
@@ -28,6 +28,7 @@
 package com.nuodb.migrator.backup.format.csv;
 
 import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.value.ValueType;
 import com.nuodb.migrator.backup.format.OutputBase;
 import com.nuodb.migrator.backup.format.OutputException;
 import com.nuodb.migrator.backup.format.value.Value;
@@ -38,9 +39,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.Collection;
 
-import static com.google.common.collect.Iterables.get;
 import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
 import static java.lang.String.valueOf;
 import static java.nio.charset.Charset.forName;
@@ -53,6 +52,7 @@ public class CsvOutput extends OutputBase implements CsvFormat {
 
     private String doubleQuote;
     private CSVPrinter csvPrinter;
+    private String[] record;
 
     @Override
     public String getFormat() {
@@ -91,11 +91,14 @@ public class CsvOutput extends OutputBase implements CsvFormat {
     @Override
     public void writeValues(Value[] values) {
         try {
-            String[] record = new String[values.length];
-            Collection<Column> columns = getRowSet().getColumns();
+            String[] record = this.record;
+            if (record == null || record.length != values.length) {
+                this.record = record = new String[values.length];
+            }
+            ValueType[] valueTypes = getValueTypes();
             for (int i = 0; i < values.length; i++) {
                 String value = null;
-                switch (get(columns, i).getValueType()) {
+                switch (valueTypes[i]) {
                 case BINARY:
                     value = BASE64.encode(values[i].asBytes());
                     break;
@@ -108,7 +111,7 @@ public class CsvOutput extends OutputBase implements CsvFormat {
                 }
                 record[i] = value;
             }
-            csvPrinter.printRecord(record);
+            csvPrinter.printRecord((Object[]) record);
         } catch (IOException exception) {
             throw new OutputException(exception);
         }
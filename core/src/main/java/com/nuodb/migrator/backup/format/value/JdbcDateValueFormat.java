@@ -27,21 +27,22 @@
  */
 package com.nuodb.migrator.backup.format.value;
 
+import com.nuodb.migrator.backup.format.value.TemporalParser.Shape;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.type.JdbcTypeDesc;
 import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 
 import java.sql.Date;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.TemporalParser.getTemporalParser;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.STRING_NULL;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static java.lang.String.format;
+import static java.lang.String.valueOf;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
+import static org.apache.commons.lang3.StringUtils.leftPad;
 
 /**
  * @author Sergey Bushik
@@ -49,8 +50,7 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
 public class JdbcDateValueFormat extends ValueFormatBase<Date> {
 
     private static final String YEAR_TYPE = "YEAR";
-
-    private static final DateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy");
+    private static final Shape[] SHAPES = { Shape.DATE, Shape.YEAR };
 
     @Override
     protected Value doGetValue(JdbcValueAccess<Date> access, Map<String, Object> options) throws SQLException {
@@ -58,44 +58,28 @@ public class JdbcDateValueFormat extends ValueFormatBase<Date> {
         if (date == null) {
             return STRING_NULL;
         } else if (JdbcTypeDesc.equals(access.getField().getTypeName(), YEAR_TYPE)) {
-            return string(YEAR_FORMAT.format(date));
+            return string(leftPad(valueOf(date.toLocalDate().getYear()), 4, '0'));
         } else {
             return string(date.toString());
         }
     }
 
     @Override
-    protected void doSetValue(Value value, JdbcValueAccess<Date> access, Map<String, Object> options)
+    protected void doSetValue(Value variant, JdbcValueAccess<Date> access, Map<String, Object> options)
             throws SQLException {
-        if (!(doSetValueAsDate(access, value, options) || doSetValueAsYear(access, value, options))) {
-            throw new ValueFormatException(format("Value %s is not a date nor year", value));
-        }
-    }
-
-    protected boolean doSetValueAsDate(JdbcValueAccess<Date> jdbcValueAccess, Value variant,
-            Map<String, Object> valueAccessOptions) throws SQLException {
-        try {
-            final String value = variant.asString();
-            jdbcValueAccess.setValue(!isEmpty(value) ? Date.valueOf(value) : null, valueAccessOptions);
-            return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
-        }
-    }
-
-    protected boolean doSetValueAsYear(JdbcValueAccess<Date> jdbcValueAccess, Value variant,
-            Map<String, Object> valueAccessOptions) throws SQLException {
-        try {
-            final String value = variant.asString();
-            jdbcValueAccess.setValue(YEAR_FORMAT.parse(value), valueAccessOptions);
-            return true;
-        } catch (ParseException e) {
-            return false;
+        String value = variant.asString();
+        java.util.Date date = null;
+        if (!isEmpty(value)) {
+            date = getTemporalParser(options, SHAPES).parse(value);
+            if (date == null) {
+                throw new ValueFormatException(format("Value %s is not a date nor year", variant));
+            }
         }
+        access.setValue(date, options);
     }
 
     @Override
     public ValueType getValueType(Field field) {
         return ValueType.STRING;
     }
-}
\ No newline at end of file
+}
@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.backup.format.value;
 
+import com.nuodb.migrator.backup.format.value.TemporalParser.Shape;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 
@@ -34,6 +35,7 @@ import java.sql.SQLException;
 import java.sql.Time;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.TemporalParser.getTemporalParser;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -43,6 +45,8 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class JdbcTimeValueFormat extends ValueFormatBase<Time> {
 
+    private static final Shape[] SHAPES = { Shape.TIME, Shape.TIME_FRACTION };
+
     @Override
     protected Value doGetValue(JdbcValueAccess<Time> access, Map<String, Object> options) throws SQLException {
         Time time = access.getValue(options);
@@ -53,15 +57,18 @@ public class JdbcTimeValueFormat extends ValueFormatBase<Time> {
     protected void doSetValue(Value variant, JdbcValueAccess<Time> access, Map<String, Object> options)
             throws SQLException {
         final String value = variant.asString();
-        try {
-            access.setValue(!isEmpty(value) ? value : null, options);
-        } catch (IllegalArgumentException exception) {
-            throw new ValueFormatException(format("Value %s is not in the hh:mm:ss format", value));
+        java.util.Date time = null;
+        if (!isEmpty(value)) {
+            time = getTemporalParser(options, SHAPES).parse(value);
+            if (time == null) {
+                throw new ValueFormatException(format("Value %s is not in the hh:mm:ss format", value));
+            }
         }
+        access.setValue(time, options);
     }
 
     @Override
     public ValueType getValueType(Field field) {
         return ValueType.STRING;
     }
-}
\ No newline at end of file
+}
@@ -27,17 +27,15 @@
  */
 package com.nuodb.migrator.backup.format.value;
 
+import com.nuodb.migrator.backup.format.value.TemporalParser.Shape;
 import com.nuodb.migrator.jdbc.model.Field;
 import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
 
-import java.sql.Date;
 import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.TemporalParser.getTemporalParser;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -47,7 +45,7 @@ import static org.apache.commons.lang3.StringUtils.isEmpty;
  */
 public class JdbcTimestampValueFormat extends ValueFormatBase<Timestamp> {
 
-    private static final DateFormat YEAR_FORMAT = new SimpleDateFormat("yyyy");
+    private static final Shape[] SHAPES = { Shape.TIMESTAMP, Shape.DATE, Shape.YEAR };
 
     @Override
     protected Value doGetValue(JdbcValueAccess<Timestamp> access, Map<String, Object> options) throws SQLException {
@@ -56,49 +54,21 @@ public class JdbcTimestampValueFormat extends ValueFormatBase<Timestamp> {
     }
 
     @Override
-    protected void doSetValue(Value value, JdbcValueAccess<Timestamp> access, Map<String, Object> options)
+    protected void doSetValue(Value variant, JdbcValueAccess<Timestamp> access, Map<String, Object> options)
             throws SQLException {
-        if (!(doSetValueAsTimestamp(value, access, options) || doSetValueAsDate(value, access, options)
-                || doSetValueAsYear(value, access, options))) {
-            throw new ValueFormatException(format("Value %s is not a timestamp, date nor year", value));
-        }
-    }
-
-    protected boolean doSetValueAsTimestamp(Value variant, JdbcValueAccess<Timestamp> access,
-            Map<String, Object> options) throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(!isEmpty(value) ? Timestamp.valueOf(value) : null, options);
-            return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
-        }
-    }
-
-    protected boolean doSetValueAsDate(Value variant, JdbcValueAccess<Timestamp> access, Map<String, Object> options)
-            throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(!isEmpty(value) ? Date.valueOf(value) : null, options);
-            return true;
-        } catch (IllegalArgumentException exception) {
-            return false;
-        }
-    }
-
-    protected boolean doSetValueAsYear(Value variant, JdbcValueAccess<Timestamp> access, Map<String, Object> options)
-            throws SQLException {
-        try {
-            String value = variant.asString();
-            access.setValue(YEAR_FORMAT.parse(value), options);
-            return true;
-        } catch (ParseException e) {
-            return false;
+        String value = variant.asString();
+        java.util.Date timestamp = null;
+        if (!isEmpty(value)) {
+            timestamp = getTemporalParser(options, SHAPES).parse(value);
+            if (timestamp == null) {
+                throw new ValueFormatException(format("Value %s is not a timestamp, date nor year", variant));
+            }
         }
+        access.setValue(timestamp, options);
     }
 
     @Override
     public ValueType getValueType(Field field) {
         return ValueType.STRING;
     }
-}
\ No newline at end of file
+}
@@ -34,14 +34,18 @@ import javax.sql.rowset.serial.SerialRef;
 import java.io.*;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Ref;
 import java.sql.RowId;
 import java.sql.Types;
 import java.util.Map;
 
+import static com.nuodb.migrator.backup.format.value.LobSideFiles.LOB_SIDE_FILES;
 import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.number;
 import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
 import static java.lang.String.format;
 import static org.apache.commons.io.IOUtils.closeQuietly;
@@ -57,6 +61,7 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         Object result;
         Field field = access.getField();
         Value value;
+        LobSideFiles lobSideFiles;
         switch (field.getTypeCode()) {
         case Types.BIT:
         case Types.TINYINT:
@@ -69,7 +74,8 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         case Types.NUMERIC:
         case Types.DECIMAL:
             result = access.getValue(options);
-            value = string(result != null ? result.toString() : null);
+            value = result instanceof Number ? number((Number) result)
+                    : string(result != null ? result.toString() : null);
             break;
         case Types.CHAR:
         case Types.VARCHAR:
@@ -82,9 +88,13 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         case Types.BINARY:
         case Types.VARBINARY:
         case Types.LONGVARBINARY:
-        case Types.BLOB:
             value = binary(access.getValue(byte[].class, options));
             break;
+        case Types.BLOB:
+            lobSideFiles = getLobSideFiles(options);
+            value = lobSideFiles != null ? lobSideFiles.getValue(access.getValue(Blob.class, options))
+                    : binary(access.getValue(byte[].class, options));
+            break;
         case Types.OTHER:
         case Types.JAVA_OBJECT:
         case Types.STRUCT:
@@ -93,7 +103,9 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
             break;
         case Types.CLOB:
         case Types.NCLOB:
-            value = string(access.getValue(String.class, options));
+            lobSideFiles = getLobSideFiles(options);
+            value = lobSideFiles != null ? lobSideFiles.getValue(access.getValue(Clob.class, options))
+                    : string(access.getValue(String.class, options));
             break;
         case Types.REF:
             result = access.getValue(options);
@@ -124,7 +136,14 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
     @Override
     protected void doSetValue(Value value, JdbcValueAccess<Object> access, Map<String, Object> options)
             throws Exception {
+        if (value instanceof NumberValue && setNumber((NumberValue) value, access, options)) {
+            return;
+        }
         Field field = access.getField();
+        LobSideFiles lobSideFiles = getLobSideFiles(options);
+        if (lobSideFiles != null && setLobValue(lobSideFiles, value, access, options)) {
+            return;
+        }
         final String result = value.asString();
         switch (field.getTypeCode()) {
         case Types.BIT:
@@ -194,6 +213,73 @@ public class JdbcValueFormat extends ValueFormatBase<Object> {
         }
     }
 
+    /**
+     * Binds number value to the numeric column without conversion to the text, values which do not fit the column
+     * type are left to the text conversion, which reports them as before
+     *
+     * @return true if the value is bound
+     */
+    protected boolean setNumber(NumberValue value, JdbcValueAccess<Object> access, Map<String, Object> options)
+            throws Exception {
+        boolean set = true;
+        switch (access.getField().getTypeCode()) {
+        case Types.TINYINT:
+        case Types.SMALLINT:
+            if (set = value.isLong() && value.asLong() == (short) value.asLong()) {
+                access.setValue((short) value.asLong(), options);
+            }
+            break;
+        case Types.INTEGER:
+            if (set = value.isLong() && value.asLong() == (int) value.asLong()) {
+                access.setValue((int) value.asLong(), options);
+            }
+            break;
+        case Types.BIGINT:
+            if (set = value.isLong()) {
+                access.setValue(value.asLong(), options);
+            }
+            break;
+        case Types.DOUBLE:
+            access.setValue(value.asDouble(), options);
+            break;
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            access.setValue(value.asBigDecimal(), options);
+            break;
+        default:
+            set = false;
+            break;
+        }
+        return set;
+    }
+
+    /**
+     * Binds LOB value framed by the side files
+     *
+     * @return true if the value is bound
+     */
+    protected boolean setLobValue(LobSideFiles lobSideFiles, Value value, JdbcValueAccess<Object> access,
+            Map<String, Object> options) throws Exception {
+        boolean set = true;
+        switch (access.getField().getTypeCode()) {
+        case Types.BLOB:
+            lobSideFiles.setBlobValue(value, access, options);
+            break;
+        case Types.CLOB:
+        case Types.NCLOB:
+            lobSideFiles.setClobValue(value, access, options);
+            break;
+        default:
+            set = false;
+            break;
+        }
+        return set;
+    }
+
+    protected LobSideFiles getLobSideFiles(Map<String, Object> options) {
+        return options != null ? (LobSideFiles) options.get(LOB_SIDE_FILES) : null;
+    }
+
     protected byte[] write(Object object) throws IOException {
         if (object == null) {
             return null;
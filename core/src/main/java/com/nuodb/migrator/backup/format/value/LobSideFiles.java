@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.nuodb.migrator.backup.format.value.ValueUtils.BINARY_NULL;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.STRING_NULL;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOfRange;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * Streams LOBs larger than the threshold to side files of the backup instead
+ * of holding them in row values, so that memory taken by a row is bounded
+ * regardless of the LOB sizes. Values of the columns backed by side files are
+ * framed, the leading byte of a binary value or the leading character of a
+ * string value tells whether the rest of the value is the LOB itself or the
+ * name of its side file.
+ *
+ * @author Sergey Bushik
+ */
+public class LobSideFiles {
+
+    /**
+     * Key of the value access option holding side files of the column
+     */
+    public static final String LOB_SIDE_FILES = "lob.side.files";
+
+    /**
+     * Output format attribute with the size in bytes or characters above
+     * which LOBs are kept in side files
+     */
+    public static final String ATTRIBUTE_LOB_THRESHOLD = "lob.threshold";
+
+    private static final byte INLINE = 0;
+    private static final byte SIDE_FILE = 1;
+    private static final char INLINE_CHAR = '0';
+    private static final char SIDE_FILE_CHAR = '1';
+    private static final String EXTENSION = "lob";
+
+    private final BackupOps backupOps;
+    private final String prefix;
+    private final long threshold;
+    private final AtomicLong sideFiles = new AtomicLong();
+
+    /**
+     * Creates side files for reading LOBs on load.
+     */
+    public LobSideFiles(BackupOps backupOps) {
+        this(backupOps, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param backupOps
+     *            backup operations opening side files.
+     * @param prefix
+     *            prefix of the side file names.
+     * @param threshold
+     *            LOBs longer than the threshold are written to side files.
+     */
+    public LobSideFiles(BackupOps backupOps, String prefix, long threshold) {
+        this.backupOps = backupOps;
+        this.prefix = prefix;
+        this.threshold = threshold;
+    }
+
+    public Value getValue(Blob blob) throws Exception {
+        if (blob == null) {
+            return BINARY_NULL;
+        }
+        InputStream input = blob.getBinaryStream();
+        try {
+            if (blob.length() > threshold) {
+                String sideFile = createSideFile();
+                OutputStream output = openOutput(sideFile);
+                try {
+                    ByteStreams.copy(input, output);
+                } finally {
+                    output.close();
+                }
+                return binary(frame(SIDE_FILE, sideFile.getBytes(UTF_8)));
+            } else {
+                return binary(frame(INLINE, ByteStreams.toByteArray(input)));
+            }
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    public Value getValue(Clob clob) throws Exception {
+        if (clob == null) {
+            return STRING_NULL;
+        }
+        Reader reader = clob.getCharacterStream();
+        try {
+            if (clob.length() > threshold) {
+                String sideFile = createSideFile();
+                Writer writer = new OutputStreamWriter(openOutput(sideFile), UTF_8);
+                try {
+                    CharStreams.copy(reader, writer);
+                } finally {
+                    writer.close();
+                }
+                return string(SIDE_FILE_CHAR + sideFile);
+            } else {
+                return string(INLINE_CHAR + CharStreams.toString(reader));
+            }
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Binds framed binary value as bytes or as a stream of its side file.
+     */
+    public void setBlobValue(Value value, JdbcValueAccess<Object> access, Map<String, Object> options)
+            throws Exception {
+        byte[] bytes = value.asBytes();
+        if (bytes == null || bytes.length == 0) {
+            access.setValue(null, options);
+        } else if (bytes[0] == SIDE_FILE) {
+            String sideFile = new String(bytes, 1, bytes.length - 1, UTF_8);
+            setValue(sideFile, openInput(sideFile), access, options);
+        } else {
+            access.setValue(copyOfRange(bytes, 1, bytes.length), options);
+        }
+    }
+
+    /**
+     * Binds framed string value as a string or as a reader of its side file.
+     */
+    public void setClobValue(Value value, JdbcValueAccess<Object> access, Map<String, Object> options)
+            throws Exception {
+        String string = value.asString();
+        if (string == null || string.isEmpty()) {
+            access.setValue(null, options);
+        } else if (string.charAt(0) == SIDE_FILE_CHAR) {
+            String sideFile = string.substring(1);
+            setValue(sideFile, new InputStreamReader(openInput(sideFile), UTF_8), access, options);
+        } else {
+            access.setValue(string.substring(1), options);
+        }
+    }
+
+    /**
+     * LOB is created and filled from the stream when the value is bound, so
+     * the stream is closed and the side file is released right after.
+     */
+    protected void setValue(String sideFile, Closeable stream, JdbcValueAccess<Object> access,
+            Map<String, Object> options) throws Exception {
+        try {
+            access.setValue(stream, options);
+        } finally {
+            closeQuietly(stream);
+            release(sideFile);
+        }
+    }
+
+    protected OutputStream openOutput(String sideFile) throws Exception {
+        return backupOps.openOutput(sideFile);
+    }
+
+    protected InputStream openInput(String sideFile) throws Exception {
+        return backupOps.openInput(sideFile);
+    }
+
+    /**
+     * Invoked once the side file is bound, side files of a backup are kept.
+     *
+     * @param sideFile
+     *            name of the bound side file.
+     */
+    protected void release(String sideFile) {
+    }
+
+    protected String createSideFile() {
+        return prefix + "." + sideFiles.incrementAndGet() + "." + EXTENSION;
+    }
+
+    protected static byte[] frame(byte frame, byte[] bytes) {
+        byte[] framed = new byte[bytes.length + 1];
+        framed[0] = frame;
+        System.arraycopy(bytes, 0, framed, 1, bytes.length);
+        return framed;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.Input;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.synchronizedList;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * Row reader partitioning row set on chunk level. Each fork obtained with {@link #fork()} claims next unread chunk
+ * from the row set by advancing a shared atomic index and parses it with its own {@link Input}, so forks never block
+ * each other while reading rows.
+ *
+ * @author Sergey Bushik
+ */
+public class ParallelRowReader extends RowReaderBase {
+
+    private final RowSet rowSet;
+    private final BackupOps backupOps;
+    private final FormatFactory formatFactory;
+    private final Map<String, Object> formatAttributes;
+    private final List<Chunk> chunks;
+    private final AtomicInteger chunkIndex = new AtomicInteger();
+    private final Collection<RowReader> forks = synchronizedList(newArrayList());
+    private RowReader rowReader;
+
+    public ParallelRowReader(RowSet rowSet, BackupOps backupOps, FormatFactory formatFactory,
+            Map<String, Object> formatAttributes) {
+        this.rowSet = rowSet;
+        this.backupOps = backupOps;
+        this.formatFactory = formatFactory;
+        this.formatAttributes = formatAttributes;
+        this.chunks = newArrayList(rowSet.getChunks());
+    }
+
+    /**
+     * Creates reader which is intended to be used by a single thread only
+     *
+     * @return row reader reading rows from the chunks not yet claimed by other forks
+     */
+    public RowReader fork() {
+        RowReader fork = new ChunkRowReader();
+        forks.add(fork);
+        return fork;
+    }
+
+    /**
+     * Reads rows with a shared fork, readers calling this method are serialized
+     *
+     * @return next row or null if all chunks are read
+     */
+    @Override
+    public synchronized Row readRow() {
+        if (rowReader == null) {
+            rowReader = fork();
+        }
+        return rowReader.readRow();
+    }
+
+    @Override
+    public void close() {
+        synchronized (forks) {
+            for (RowReader fork : forks) {
+                closeQuietly(fork);
+            }
+        }
+    }
+
+    protected Chunk nextChunk() {
+        int index = chunkIndex.getAndIncrement();
+        return index < chunks.size() ? chunks.get(index) : null;
+    }
+
+    public RowSet getRowSet() {
+        return rowSet;
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    class ChunkRowReader implements RowReader {
+
+        private Chunk chunk;
+        private Input input;
+        private long number;
+
+        @Override
+        public Row readRow() {
+            long start = nanoTime();
+            Row row = null;
+            while (row == null && initInput()) {
+                Value[] values = null;
+                try {
+                    values = input.readValues();
+                } finally {
+                    if (values == null) {
+                        closeInput();
+                    }
+                }
+                row = values != null ? new Row(chunk, values, number++) : null;
+            }
+            onRowRead(row, nanoTime() - start);
+            return row;
+        }
+
+        protected boolean initInput() {
+            if (input == null) {
+                chunk = nextChunk();
+                if (chunk == null) {
+                    return false;
+                }
+                input = formatFactory.createInput(rowSet.getBackup().getFormat(), formatAttributes);
+                input.setInputStream(backupOps.openInput(chunk.getName()));
+                input.setRowSet(rowSet);
+                input.init();
+                input.readStart();
+                number = 0;
+            }
+            return true;
+        }
+
+        protected void closeInput() {
+            try {
+                input.readEnd();
+            } finally {
+                input.close();
+                input = null;
+                chunk = null;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (input != null) {
+                closeQuietly(input);
+                input = null;
+            }
+        }
+    }
+}
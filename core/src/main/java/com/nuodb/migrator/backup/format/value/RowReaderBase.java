@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base row reader collecting the number of rows read, the time spent parsing them and the time readers spent waiting
+ * for each other, so that contention and throughput can be reported per row set.
+ *
+ * @author Sergey Bushik
+ */
+public abstract class RowReaderBase implements RowReader {
+
+    private final AtomicLong rowCount = new AtomicLong();
+    private final AtomicLong readTime = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+
+    protected void onRowRead(Row row, long readTime) {
+        if (row != null) {
+            rowCount.incrementAndGet();
+        }
+        this.readTime.addAndGet(readTime);
+    }
+
+    protected void onWait(long waitTime) {
+        this.waitTime.addAndGet(waitTime);
+    }
+
+    public long getRowCount() {
+        return rowCount.get();
+    }
+
+    /**
+     * @return total time in nanoseconds spent parsing rows
+     */
+    public long getReadTime() {
+        return readTime.get();
+    }
+
+    /**
+     * @return total time in nanoseconds readers were blocked by each other
+     */
+    public long getWaitTime() {
+        return waitTime.get();
+    }
+}
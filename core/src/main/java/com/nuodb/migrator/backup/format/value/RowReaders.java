@@ -36,6 +36,7 @@ import com.nuodb.migrator.backup.format.Input;
 import java.util.Iterator;
 import java.util.Map;
 
+import static java.lang.System.nanoTime;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 
 /**
@@ -48,6 +49,11 @@ public class RowReaders {
         return new SequentialRowReader(rowSet, backupOps, formatFactory, formatAttributes);
     }
 
+    public static ParallelRowReader newParallelRowReader(RowSet rowSet, BackupOps backupOps,
+            FormatFactory formatFactory, Map<String, Object> formatAttributes) {
+        return new ParallelRowReader(rowSet, backupOps, formatFactory, formatAttributes);
+    }
+
     public static RowReader newSynchronizedRowReader(RowReader rowReader) {
         return new SynchronizedRowReader(rowReader);
     }
@@ -131,7 +137,7 @@ public class RowReaders {
         }
     }
 
-    static class SynchronizedRowReader implements RowReader {
+    static class SynchronizedRowReader extends RowReaderBase {
 
         private final RowReader rowReader;
         private final Object mutex;
@@ -148,8 +154,13 @@ public class RowReaders {
 
         @Override
         public Row readRow() {
+            long start = nanoTime();
             synchronized (mutex) {
-                return rowReader.readRow();
+                long acquired = nanoTime();
+                onWait(acquired - start);
+                Row row = rowReader.readRow();
+                onRowRead(row, nanoTime() - acquired);
+                return row;
             }
         }
 
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Parses textual temporal values of a single column. The shape of the text is
+ * detected from the first value and is kept for the following values, it's
+ * re-detected only if a value doesn't match the kept shape, so that mismatches
+ * are resolved by character checks rather than by the exceptions thrown by
+ * {@link Timestamp#valueOf(String)} and alike. Parser is cached in the value
+ * access options of the value handle.
+ *
+ * @author Sergey Bushik
+ */
+public class TemporalParser {
+
+    public static final String TEMPORAL_PARSER = "temporal.parser";
+
+    private final Shape[] shapes;
+    private volatile Shape shape;
+
+    public TemporalParser(Shape... shapes) {
+        this.shapes = shapes;
+    }
+
+    /**
+     * Returns parser cached in the options or caches a new one accepting the
+     * given shapes
+     *
+     * @param options
+     *            value access options of a value handle
+     * @param shapes
+     *            accepted shapes in the order of detection, the same array
+     *            instance is expected for the same column
+     * @return parser of the column
+     */
+    public static TemporalParser getTemporalParser(Map<String, Object> options, Shape... shapes) {
+        TemporalParser temporalParser = options != null ? (TemporalParser) options.get(TEMPORAL_PARSER) : null;
+        if (temporalParser == null || temporalParser.shapes != shapes) {
+            temporalParser = new TemporalParser(shapes);
+            if (options != null) {
+                options.put(TEMPORAL_PARSER, temporalParser);
+            }
+        }
+        return temporalParser;
+    }
+
+    /**
+     * Parses value with the kept shape or with the detected one
+     *
+     * @param value
+     *            non empty text to parse
+     * @return parsed value or null if the text doesn't match any of the
+     *         accepted shapes
+     */
+    public java.util.Date parse(String value) {
+        Shape shape = this.shape;
+        if (shape == null || !shape.matches(value)) {
+            shape = detect(value);
+            if (shape == null) {
+                return null;
+            }
+            this.shape = shape;
+        }
+        return shape.parse(value);
+    }
+
+    protected Shape detect(String value) {
+        for (Shape shape : shapes) {
+            if (shape.matches(value)) {
+                return shape;
+            }
+        }
+        return null;
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    public enum Shape {
+
+        /**
+         * yyyy-[m]m-[d]d [h]h:[m]m:[s]s[.f...]
+         */
+        TIMESTAMP {
+            @Override
+            public boolean matches(String value) {
+                int index = date(value, 0);
+                if (index < 0 || index == value.length() || value.charAt(index) != ' ') {
+                    return false;
+                }
+                index = time(value, index + 1);
+                return index >= 0 && fraction(value, index) == value.length();
+            }
+
+            @Override
+            public java.util.Date parse(String value) {
+                return Timestamp.valueOf(value);
+            }
+        },
+
+        /**
+         * yyyy-[m]m-[d]d
+         */
+        DATE {
+            @Override
+            public boolean matches(String value) {
+                return date(value, 0) == value.length();
+            }
+
+            @Override
+            public java.util.Date parse(String value) {
+                return Date.valueOf(value);
+            }
+        },
+
+        /**
+         * yyyy, parsed to the first day of the year
+         */
+        YEAR {
+            @Override
+            public boolean matches(String value) {
+                return digits(value, 0, 4, 4) == value.length();
+            }
+
+            @Override
+            public java.util.Date parse(String value) {
+                return Date.valueOf(LocalDate.of(Integer.parseInt(value), 1, 1));
+            }
+        },
+
+        /**
+         * [h]h:[m]m:[s]s
+         */
+        TIME {
+            @Override
+            public boolean matches(String value) {
+                return time(value, 0) == value.length();
+            }
+
+            @Override
+            public java.util.Date parse(String value) {
+                return Time.valueOf(value);
+            }
+        },
+
+        /**
+         * [h]h:[m]m:[s]s.f..., fraction of a second is truncated to
+         * milliseconds
+         */
+        TIME_FRACTION {
+            @Override
+            public boolean matches(String value) {
+                int index = time(value, 0);
+                return index >= 0 && index < value.length() && fraction(value, index) == value.length();
+            }
+
+            @Override
+            public java.util.Date parse(String value) {
+                int dot = value.indexOf('.');
+                Time time = Time.valueOf(value.substring(0, dot));
+                int millis = 0;
+                for (int index = dot + 1, scale = 100; index < value.length() && scale > 0; index++, scale /= 10) {
+                    millis += (value.charAt(index) - '0') * scale;
+                }
+                return new Time(time.getTime() + millis);
+            }
+        };
+
+        public abstract boolean matches(String value);
+
+        public abstract java.util.Date parse(String value);
+
+        private static int date(String value, int index) {
+            index = digits(value, index, 4, 4);
+            index = separator(value, index, '-');
+            index = digits(value, index, 1, 2);
+            index = separator(value, index, '-');
+            return digits(value, index, 1, 2);
+        }
+
+        private static int time(String value, int index) {
+            index = digits(value, index, 1, 2);
+            index = separator(value, index, ':');
+            index = digits(value, index, 1, 2);
+            index = separator(value, index, ':');
+            return digits(value, index, 1, 2);
+        }
+
+        private static int fraction(String value, int index) {
+            if (index == value.length()) {
+                return index;
+            }
+            return digits(value, separator(value, index, '.'), 1, 9);
+        }
+
+        private static int separator(String value, int index, char separator) {
+            return index >= 0 && index < value.length() && value.charAt(index) == separator ? index + 1 : -1;
+        }
+
+        private static int digits(String value, int index, int min, int max) {
+            if (index < 0) {
+                return -1;
+            }
+            int start = index;
+            while (index < value.length() && index - start < max && isDigit(value.charAt(index))) {
+                index++;
+            }
+            return index - start >= min ? index : -1;
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+}
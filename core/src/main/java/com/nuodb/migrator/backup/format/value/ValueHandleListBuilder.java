@@ -71,13 +71,31 @@ public abstract class ValueHandleListBuilder {
         };
     }
 
-    public static ValueHandleListBuilder newBuilder(final Connection connection, final PreparedStatement statement) {
+    public static ValueHandleListBuilder newBuilder(Connection connection, PreparedStatement statement) {
+        return newBuilder(connection, statement, 1);
+    }
+
+    /**
+     * Creates builder binding values to the parameters of the statement
+     * starting at the given index, which allows to bind several rows to a
+     * single statement.
+     *
+     * @param connection
+     *            connection of the statement.
+     * @param statement
+     *            statement to bind values to.
+     * @param column
+     *            index of the first parameter.
+     * @return value handle list builder.
+     */
+    public static ValueHandleListBuilder newBuilder(final Connection connection, final PreparedStatement statement,
+            final int column) {
         return new ValueHandleListBuilder() {
-            private int column = 1;
+            private int index = column;
 
             @Override
             protected JdbcValueAccess buildJdbcValueAccess(ValueHandle valueHandle) {
-                return getDialect().getJdbcValueAccessProvider().getJdbcValueGetter(connection, statement, column++,
+                return getDialect().getJdbcValueAccessProvider().getJdbcValueGetter(connection, statement, index++,
                         valueHandle);
             }
         };
@@ -142,8 +160,9 @@ public abstract class ValueHandleListBuilder {
         case Types.DATE:
         case Types.TIME:
         case Types.TIMESTAMP:
+            // holds temporal parser of the column
+            jdbcValueAccessOptions = newHashMap();
             if (dialect.supportsStatementWithTimezone()) {
-                jdbcValueAccessOptions = newHashMap();
                 jdbcValueAccessOptions.put(TIMEZONE, getTimeZone());
             }
             break;
@@ -27,11 +27,13 @@
  */
 package com.nuodb.migrator.backup.format.value;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Arrays;
-import java.util.List;
 
 import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
 import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static java.nio.charset.StandardCharsets.US_ASCII;
 
 /**
  * @author Sergey Bushik
@@ -41,9 +43,9 @@ public class ValueUtils {
     public static final Value BINARY_NULL = new BinaryValue(null);
     public static final Value STRING_NULL = new StringValue(null);
 
-    public static void fill(Value[] values, List<ValueType> valueTypes, int offset) {
+    public static void fill(Value[] values, ValueType[] valueTypes, int offset) {
         for (; offset < values.length; offset++) {
-            ValueType valueType = valueTypes.get(offset);
+            ValueType valueType = valueTypes[offset];
             valueType = valueType != null ? valueType : STRING;
             switch (valueType) {
             case BINARY:
@@ -56,6 +58,31 @@ public class ValueUtils {
         }
     }
 
+    /**
+     * Estimates number of bytes held by the values without converting them, numbers are counted as 8 bytes and
+     * strings as a byte per character
+     *
+     * @param values
+     *            values of a row
+     * @return estimated size of the values in bytes
+     */
+    public static long length(Value[] values) {
+        long length = 0;
+        for (Value value : values) {
+            if (value == null || value.isNull()) {
+                continue;
+            }
+            if (value instanceof NumberValue) {
+                length += 8;
+            } else if (value.getValueType() == BINARY) {
+                length += value.asBytes().length;
+            } else {
+                length += value.asString().length();
+            }
+        }
+        return length;
+    }
+
     public static Value binary(byte[] value) {
         return value == null ? BINARY_NULL : new BinaryValue(value);
     }
@@ -64,6 +91,50 @@ public class ValueUtils {
         return value == null ? STRING_NULL : new StringValue(value);
     }
 
+    /**
+     * Creates value holding integral numbers as primitive long, doubles as primitive double and decimals as unscaled
+     * long and scale, other numbers are held as text
+     *
+     * @param value
+     *            number to hold
+     * @return number value or string value for the numbers without native representation
+     */
+    public static Value number(Number value) {
+        if (value == null) {
+            return STRING_NULL;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            return number(value.longValue());
+        } else if (value instanceof Double) {
+            return number(value.doubleValue());
+        } else if (value instanceof BigDecimal) {
+            return decimal((BigDecimal) value);
+        } else {
+            return string(value.toString());
+        }
+    }
+
+    public static Value number(long value) {
+        return new LongValue(value);
+    }
+
+    public static Value number(double value) {
+        return new DoubleValue(value);
+    }
+
+    public static Value decimal(BigDecimal value) {
+        if (value == null) {
+            return STRING_NULL;
+        }
+        BigInteger unscaledValue = value.unscaledValue();
+        return unscaledValue.bitLength() < 64 ? decimal(unscaledValue.longValue(), value.scale())
+                : new DecimalValue(value);
+    }
+
+    public static Value decimal(long unscaledValue, int scale) {
+        return new DecimalValue(unscaledValue, scale);
+    }
+
     static class BinaryValue implements Value {
 
         private final byte[] value;
@@ -171,4 +242,249 @@ public class ValueUtils {
             return "String{'" + value + "'}";
         }
     }
+
+    static class LongValue implements NumberValue {
+
+        private final long value;
+
+        public LongValue(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isLong() {
+            return true;
+        }
+
+        @Override
+        public long asLong() {
+            return value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        public BigDecimal asBigDecimal() {
+            return BigDecimal.valueOf(value);
+        }
+
+        @Override
+        public Number asNumber() {
+            return value;
+        }
+
+        @Override
+        public String asString() {
+            return Long.toString(value);
+        }
+
+        @Override
+        public byte[] asBytes() {
+            return asString().getBytes(US_ASCII);
+        }
+
+        @Override
+        public boolean isNull() {
+            return false;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return STRING;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            LongValue that = (LongValue) o;
+
+            return value == that.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (value ^ (value >>> 32));
+        }
+
+        @Override
+        public String toString() {
+            return "Long{" + value + '}';
+        }
+    }
+
+    static class DoubleValue implements NumberValue {
+
+        private final double value;
+
+        public DoubleValue(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isLong() {
+            return false;
+        }
+
+        @Override
+        public long asLong() {
+            return (long) value;
+        }
+
+        @Override
+        public double asDouble() {
+            return value;
+        }
+
+        @Override
+        public BigDecimal asBigDecimal() {
+            return new BigDecimal(asString());
+        }
+
+        @Override
+        public Number asNumber() {
+            return value;
+        }
+
+        @Override
+        public String asString() {
+            return Double.toString(value);
+        }
+
+        @Override
+        public byte[] asBytes() {
+            return asString().getBytes(US_ASCII);
+        }
+
+        @Override
+        public boolean isNull() {
+            return false;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return STRING;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            DoubleValue that = (DoubleValue) o;
+
+            return Double.compare(value, that.value) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(value);
+            return (int) (bits ^ (bits >>> 32));
+        }
+
+        @Override
+        public String toString() {
+            return "Double{" + value + '}';
+        }
+    }
+
+    static class DecimalValue implements NumberValue {
+
+        private final long unscaledValue;
+        private final int scale;
+        private final boolean compact;
+        private volatile BigDecimal value;
+
+        public DecimalValue(BigDecimal value) {
+            this.unscaledValue = 0;
+            this.scale = value.scale();
+            this.compact = false;
+            this.value = value;
+        }
+
+        public DecimalValue(long unscaledValue, int scale) {
+            this.unscaledValue = unscaledValue;
+            this.scale = scale;
+            this.compact = true;
+        }
+
+        @Override
+        public boolean isLong() {
+            return compact && scale == 0;
+        }
+
+        @Override
+        public long asLong() {
+            return isLong() ? unscaledValue : asBigDecimal().longValue();
+        }
+
+        @Override
+        public double asDouble() {
+            return asBigDecimal().doubleValue();
+        }
+
+        @Override
+        public BigDecimal asBigDecimal() {
+            BigDecimal value = this.value;
+            if (value == null) {
+                this.value = value = BigDecimal.valueOf(unscaledValue, scale);
+            }
+            return value;
+        }
+
+        @Override
+        public Number asNumber() {
+            return asBigDecimal();
+        }
+
+        @Override
+        public String asString() {
+            return asBigDecimal().toString();
+        }
+
+        @Override
+        public byte[] asBytes() {
+            return asString().getBytes(US_ASCII);
+        }
+
+        @Override
+        public boolean isNull() {
+            return false;
+        }
+
+        @Override
+        public ValueType getValueType() {
+            return STRING;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            DecimalValue that = (DecimalValue) o;
+
+            return asBigDecimal().equals(that.asBigDecimal());
+        }
+
+        @Override
+        public int hashCode() {
+            return asBigDecimal().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Decimal{" + asString() + '}';
+        }
+    }
 }
@@ -39,7 +39,6 @@ import javax.xml.stream.XMLStreamReader;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.BitSet;
-import java.util.List;
 
 import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.EMPTY;
@@ -92,13 +91,13 @@ public class XmlInput extends InputBase implements XmlFormat {
         if (isNextElement(ELEMENT_ROW)) {
             String nullsAttribute = getAttributeValue(NULL_NS_URI, ATTRIBUTE_NULLS);
             BitSet nulls = nullsAttribute != null ? fromHexString(nullsAttribute) : EMPTY;
-            List<ValueType> valueTypes = getValueTypes();
-            int length = valueTypes.size();
+            ValueType[] valueTypes = getValueTypes();
+            int length = valueTypes.length;
             values = new Value[length];
             int index = 0;
             while (index < length) {
                 String value = null;
-                ValueType valueType = valueTypes.get(index);
+                ValueType valueType = valueTypes[index];
                 if (!nulls.get(index) && isNextElement(ELEMENT_COLUMN)) {
                     try {
                         ValueType valueLevel = VALUE_TYPES
@@ -27,7 +27,6 @@
  */
 package com.nuodb.migrator.backup.format.xml;
 
-import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.format.OutputBase;
 import com.nuodb.migrator.backup.format.OutputException;
 import com.nuodb.migrator.backup.format.value.Value;
@@ -39,9 +38,7 @@ import javax.xml.stream.XMLStreamWriter;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.util.BitSet;
-import java.util.Collection;
 
-import static com.google.common.collect.Iterables.get;
 import static com.nuodb.migrator.backup.format.utils.BinaryEncoder.BASE64;
 import static com.nuodb.migrator.backup.format.utils.BitSetUtils.toHexString;
 import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
@@ -54,6 +51,7 @@ import static javax.xml.stream.XMLOutputFactory.newInstance;
 public class XmlOutput extends OutputBase implements XmlFormat {
 
     private XMLStreamWriter xmlWriter;
+    private final BitSet nulls = new BitSet();
 
     @Override
     public String getFormat() {
@@ -93,7 +91,8 @@ public class XmlOutput extends OutputBase implements XmlFormat {
     public void writeValues(Value[] values) {
         try {
             xmlWriter.writeStartElement(ELEMENT_ROW);
-            BitSet nulls = new BitSet();
+            BitSet nulls = this.nulls;
+            nulls.clear();
             for (int i = 0; i < values.length; i++) {
                 nulls.set(i, values[i].isNull());
             }
@@ -101,10 +100,10 @@ public class XmlOutput extends OutputBase implements XmlFormat {
                 xmlWriter.writeAttribute(ATTRIBUTE_NULLS, toHexString(nulls));
             }
             int i = 0;
-            Collection<Column> columns = getRowSet().getColumns();
+            ValueType[] valueTypes = getValueTypes();
             for (Value value : values) {
                 if (!value.isNull()) {
-                    ValueType valueType = get(columns, i).getValueType();
+                    ValueType valueType = valueTypes[i];
                     xmlWriter.writeStartElement(ELEMENT_COLUMN);
                     String content;
                     if (valueType == BINARY) {
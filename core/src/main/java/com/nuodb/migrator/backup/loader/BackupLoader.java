@@ -38,7 +38,9 @@ import com.nuodb.migrator.backup.TableRowSet;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistryResolver;
+import com.nuodb.migrator.backup.metrics.Metrics;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.commit.PipelinedCommitStrategy;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.dialect.IdentifierNormalizer;
@@ -61,6 +63,7 @@ import com.nuodb.migrator.jdbc.metadata.generator.CompositeScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.GroupScriptsBy;
 import com.nuodb.migrator.jdbc.metadata.generator.HasTablesScriptGenerator;
 import com.nuodb.migrator.jdbc.metadata.generator.NamingStrategy;
+import com.nuodb.migrator.jdbc.metadata.generator.ParallelScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.ProxyScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.ScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorManager;
@@ -96,6 +99,7 @@ import static com.google.common.collect.Iterables.*;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.backup.metrics.Metrics.LOAD;
 import static com.nuodb.migrator.context.ContextUtils.createService;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.NUODB;
@@ -105,11 +109,17 @@ import static com.nuodb.migrator.jdbc.metadata.generator.HasTablesScriptGenerato
 import static com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorUtils.getUseSchema;
 import static com.nuodb.migrator.jdbc.query.InsertType.INSERT;
 import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionPool;
 import static com.nuodb.migrator.jdbc.type.JdbcTypeOptions.newOptions;
 import static com.nuodb.migrator.utils.Collections.contains;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
 import static com.nuodb.migrator.utils.Collections.removeAll;
 import static com.nuodb.migrator.utils.SequenceUtils.getStandaloneSequences;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.isVirtualThreadsSupported;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.newBlockingExecutorService;
+import static com.nuodb.migrator.spec.ScriptGeneratorJobSpecBase.SCRIPT_THREADS;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.join;
@@ -139,6 +149,10 @@ public class BackupLoader {
     private IdentifierNormalizer identifierNormalizer;
     private InsertTypeFactory insertTypeFactory;
     private InspectionManager inspectionManager;
+    private ExecutorService ioExecutorService;
+    private Integer ioThreads;
+    private Integer constraintThreads;
+    private int scriptThreads = SCRIPT_THREADS;
     private Parallelizer parallelizer = new TableLevelParallelizer();
     private MetaDataSpec metaDataSpec;
     private Collection<MigrationMode> migrationModes = MIGRATION_MODES;
@@ -151,6 +165,7 @@ public class BackupLoader {
     private TimeZone timeZone;
     private TranslationConfig translationConfig;
     private int threads = THREADS;
+    private boolean virtualThreads;
     private ScriptExporter scriptExporter;
     private ValueFormatRegistryResolver valueFormatRegistryResolver;
 
@@ -178,17 +193,22 @@ public class BackupLoader {
     }
 
     protected BackupLoaderContext createBackupLoaderContext(BackupOps backupOps, Map context) throws Exception {
-        BackupLoaderContext backupLoaderContext = new SimpleBackupLoaderContext();
-        backupLoaderContext.setBackup(backupOps.read(context));
+        BackupLoaderContext backupLoaderContext = createBackupLoaderContext();
+        backupLoaderContext.setBackup(readBackup(backupOps, context));
         backupLoaderContext.setBackupOps(backupOps);
         backupLoaderContext.setBackupOpsContext(context);
         backupLoaderContext.setCommitStrategy(getCommitStrategy());
 
         ExecutorService executorService = getExecutorService();
         backupLoaderContext.setExecutorService(executorService == null ? createExecutorService() : executorService);
+        ExecutorService ioExecutorService = getIoExecutorService();
+        backupLoaderContext.setIoExecutorService(
+                ioExecutorService == null ? createIoExecutorService() : ioExecutorService);
+        backupLoaderContext.setIoThreads(getIoThreads());
         backupLoaderContext.setFormatAttributes(getFormatAttributes());
         backupLoaderContext.setFormatFactory(getFormatFactory());
         backupLoaderContext.setInsertTypeFactory(getInsertTypeFactory());
+        backupLoaderContext.setMetrics(createMetrics());
         backupLoaderContext.setMigrationModes(getMigrationModes());
         backupLoaderContext.setParallelizer(getParallelizer());
         backupLoaderContext.setRowSetMapper(getRowSetMapper());
@@ -202,6 +222,18 @@ public class BackupLoader {
         return backupLoaderContext;
     }
 
+    protected BackupLoaderContext createBackupLoaderContext() {
+        return new SimpleBackupLoaderContext();
+    }
+
+    protected Backup readBackup(BackupOps backupOps, Map context) throws Exception {
+        Backup backup = backupOps.read(context);
+        if (backup != null && backup.getDatabase() != null) {
+            backup.getDatabase().freeze();
+        }
+        return backup;
+    }
+
     /**
      * Returns a filtered list of source tables to load depending on the
      * requested source table names and their patterns or all source tables if
@@ -233,7 +265,10 @@ public class BackupLoader {
         backupLoaderManager.setBackupLoaderContext(backupLoaderContext);
         // add listener after load constraints is created
         if (backupLoaderManager.isLoadSchema()) {
-            backupLoaderManager.addListener(new LoadConstraintListener(this, backupLoaderManager));
+            LoadConstraintScheduler loadConstraintScheduler = new LoadConstraintScheduler(this, backupLoaderManager,
+                    getConstraintThreads());
+            backupLoaderContext.setLoadConstraintScheduler(loadConstraintScheduler);
+            backupLoaderManager.addWorkListener(loadConstraintScheduler);
         }
         for (BackupLoaderListener listener : getListeners()) {
             backupLoaderManager.addListener(listener);
@@ -249,7 +284,33 @@ public class BackupLoader {
         return new ForkJoinPool(threads);
     }
 
-    protected void openSourceSession(BackupLoaderContext backupLoaderContext) throws SQLException {
+    /**
+     * Creates executor service running insert works, which block on executing batches in the target database and
+     * on reading chunks, the number of insert works executed concurrently is limited by the number of I/O threads,
+     * which is the size of the target session pool
+     *
+     * @return executor service for blocking works
+     */
+    protected ExecutorService createIoExecutorService() {
+        boolean virtualThreads = isVirtualThreads();
+        if (virtualThreads && !isVirtualThreadsSupported()) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Virtual threads are not supported by the JVM, platform threads are used");
+            }
+            virtualThreads = false;
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Using %s threads for %d I/O work(s)", virtualThreads ? "virtual" : "platform",
+                    getIoThreads()));
+        }
+        return newBlockingExecutorService("load-io", getIoThreads(), virtualThreads);
+    }
+
+    protected Metrics createMetrics() {
+        return new Metrics(LOAD);
+    }
+
+    protected void openSourceSession(BackupLoaderContext backupLoaderContext) throws Exception {
         Database database = backupLoaderContext.getBackup().getDatabase();
         SessionFactory sourceSessionFactory = newSessionFactory(database.getDialect(), database.getConnectionSpec());
         backupLoaderContext.setSourceSessionFactory(sourceSessionFactory);
@@ -261,7 +322,8 @@ public class BackupLoader {
 
     protected void openTargetSession(BackupLoaderContext backupLoaderContext) throws Exception {
         SessionFactory targetSessionFactory = getTargetSessionFactory();
-        backupLoaderContext.setTargetSessionFactory(targetSessionFactory);
+        backupLoaderContext.setTargetSessionFactory(newSessionPool(targetSessionFactory, getIoThreads()));
+        backupLoaderContext.setCommitSessionFactory(createCommitSessionFactory(targetSessionFactory));
         Session targetSession = targetSessionFactory.openSession();
         backupLoaderContext.setTargetSession(targetSession);
         backupLoaderContext.setTargetSpec(getTargetSpec());
@@ -274,14 +336,34 @@ public class BackupLoader {
         }
     }
 
+    /**
+     * Creates a pool of sessions executing batches of the pipelined commit. The pool is separate from the pool of
+     * the loading works and holds {@link PipelinedCommitStrategy#getBatchesInFlight()} sessions per I/O thread, so
+     * that a loading work holding its own session never waits for a session leased by another loading work.
+     *
+     * @param targetSessionFactory
+     *            target session factory
+     * @return session pool or null if the commit is not pipelined
+     */
+    protected SessionFactory createCommitSessionFactory(SessionFactory targetSessionFactory) {
+        CommitStrategy commitStrategy = getCommitStrategy();
+        if (!(commitStrategy instanceof PipelinedCommitStrategy)) {
+            return null;
+        }
+        int batchesInFlight = ((PipelinedCommitStrategy) commitStrategy).getBatchesInFlight();
+        return newSessionPool(targetSessionFactory, getIoThreads() * max(batchesInFlight, 1));
+    }
+
     protected Database openDatabase(Session session) throws SQLException {
         String catalog = getTargetSpec().getCatalog();
         String schema = getTargetSpec().getSchema();
         InspectionScope inspectionScope = new TableInspectionScope(catalog, schema, getTableTypes());
 
-        return getInspectionManager()
+        Database database = getInspectionManager()
                 .inspect(session.getConnection(), inspectionScope, DATABASE, CATALOG, SCHEMA, TABLE, COLUMN)
                 .getObject(DATABASE);
+        database.freeze();
+        return database;
     }
 
     protected ValueFormatRegistry createValueFormatRegistry(Session session) throws Exception {
@@ -294,8 +376,14 @@ public class BackupLoader {
         if (scriptExporter != null) {
             scriptExporters.add(scriptExporter);
         }
-        scriptExporters
-                .add(new ProxyScriptExporter(new SessionScriptExporter(backupLoaderContext.getTargetSession()), false));
+        int scriptThreads = min(getScriptThreads(), getIoThreads());
+        if (scriptThreads > 1) {
+            scriptExporters
+                    .add(new ParallelScriptExporter(backupLoaderContext.getTargetSessionFactory(), scriptThreads));
+        } else {
+            scriptExporters.add(
+                    new ProxyScriptExporter(new SessionScriptExporter(backupLoaderContext.getTargetSession()), false));
+        }
         return new CompositeScriptExporter(scriptExporters);
     }
 
@@ -354,6 +442,10 @@ public class BackupLoader {
 
     protected Backup load(BackupLoaderManager backupLoaderManager) throws Exception {
         HasTablesScriptGenerator hasTablesScriptGenerator = new HasTablesScriptGenerator<HasTables>();
+        Metrics metrics = backupLoaderManager.getBackupLoaderContext().getMetrics();
+        if (metrics != null) {
+            metrics.start();
+        }
         try {
             if (backupLoaderManager.isLoadSchema()) {
                 loadSchema(backupLoaderManager);
@@ -387,18 +479,20 @@ public class BackupLoader {
                     removeAll(newArrayList(objectTypes), newArrayList(PRIMARY_KEY, FOREIGN_KEY, INDEX)));
             Collection<Table> tables = backupLoaderContext.getSourceTables();
             Database database = backupLoaderContext.getBackup().getDatabase();
+            Collection<Script> scripts = newArrayList();
             if (isEmpty(tables)) {
-                scriptExporter.exportScripts(scriptGeneratorManager.getScripts(database));
+                scripts.addAll(scriptGeneratorManager.getScripts(database));
             } else {
-                scriptExporter.exportScripts(getSequencesScripts(database, scriptGeneratorManager));
+                scripts.addAll(getSequencesScripts(database, scriptGeneratorManager));
                 Schema schema = null;
                 for (Table table : tables) {
                     if (schema == null || !schema.equals(table.getSchema())) {
-                        scriptExporter.exportScript(getUseSchema(schema = table.getSchema(), scriptGeneratorManager));
+                        scripts.add(getUseSchema(schema = table.getSchema(), scriptGeneratorManager));
                     }
-                    scriptExporter.exportScripts(scriptGeneratorManager.getScripts(table));
+                    scripts.addAll(scriptGeneratorManager.getScripts(table));
                 }
             }
+            scriptExporter.exportScripts(scripts);
             Session targetSession = backupLoaderContext.getTargetSession();
             targetSession.getConnection().commit();
         } finally {
@@ -442,11 +536,16 @@ public class BackupLoader {
         backupLoaderContext
                 .setDatabase(database != null ? database : openDatabase(backupLoaderContext.getTargetSession()));
         initLoadTables(backupLoaderContext);
-        executeWork(new LoadTablesWork(backupLoaderManager), backupLoaderManager);
+        executeWork(createLoadTablesWork(backupLoaderManager), backupLoaderManager);
+    }
+
+    protected Work createLoadTablesWork(BackupLoaderManager backupLoaderManager) {
+        return new LoadTablesWork(backupLoaderManager);
     }
 
     /**
-     * Load constraints for source tables without row sets
+     * Starts loading constraints of the tables without row sets, constraints of the loaded tables are started by
+     * the load constraint scheduler as their data is loaded
      *
      * @param backupLoaderManager
      *            to manage this load
@@ -454,25 +553,7 @@ public class BackupLoader {
      *             if constraints loading caused error
      */
     protected void loadConstraints(BackupLoaderManager backupLoaderManager) throws Exception {
-        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
-        LoadConstraints loadConstraints = backupLoaderContext.getLoadConstraints();
-        LoadConstraints loadConstraintsNow = new LoadConstraints(
-                loadConstraints.getLoadConstraints(INDEX, PRIMARY_KEY));
-        LoadTables loadTables = backupLoaderContext.getLoadTables();
-        if (!isEmpty(loadTables)) {
-            for (LoadTable loadTable : loadTables) {
-                Table table = getTable(loadTable, backupLoaderContext);
-                if (table != null) {
-                    loadConstraintsNow.getLoadConstraints().removeAll(table);
-                }
-            }
-        }
-        for (LoadConstraint loadConstraint : loadConstraintsNow) {
-            loadConstraint(loadConstraint, backupLoaderManager);
-        }
-        if (isEmpty(loadConstraints)) {
-            backupLoaderManager.loadConstraintsDone();
-        }
+        backupLoaderManager.getBackupLoaderContext().getLoadConstraintScheduler().start();
     }
 
     protected void loadConstraint(LoadConstraint loadConstraint, BackupLoaderManager backupLoaderManager) {
@@ -480,15 +561,6 @@ public class BackupLoader {
         executeWork(work, backupLoaderManager);
     }
 
-    protected void loadConstraints(Collection<LoadConstraint> loadConstraints,
-            BackupLoaderManager backupLoaderManager) {
-        if (!isEmpty(loadConstraints)) {
-            for (LoadConstraint loadConstraint : loadConstraints) {
-                loadConstraint(loadConstraint, backupLoaderManager);
-            }
-        }
-    }
-
     protected LoadConstraints createLoadConstraints(BackupLoaderContext backupLoaderContext) {
         LoadConstraints loadConstraints = new LoadConstraints();
         boolean loadIndex = contains(getObjectTypes(), INDEX);
@@ -879,6 +951,55 @@ public class BackupLoader {
         this.threads = threads;
     }
 
+    public ExecutorService getIoExecutorService() {
+        return ioExecutorService;
+    }
+
+    public void setIoExecutorService(ExecutorService ioExecutorService) {
+        this.ioExecutorService = ioExecutorService;
+    }
+
+    /**
+     * @return number of concurrently executed I/O works, defaults to the number of threads
+     */
+    public int getIoThreads() {
+        return ioThreads != null ? ioThreads : getThreads();
+    }
+
+    public void setIoThreads(Integer ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    /**
+     * @return number of indexes, primary keys and foreign keys loaded at a time, defaults to a half of I/O threads
+     */
+    public int getConstraintThreads() {
+        return constraintThreads != null ? constraintThreads : max(getIoThreads() / 2, 1);
+    }
+
+    public void setConstraintThreads(Integer constraintThreads) {
+        this.constraintThreads = constraintThreads;
+    }
+
+    /**
+     * @return number of sessions executing schema scripts in parallel, capped by the number of I/O threads
+     */
+    public int getScriptThreads() {
+        return scriptThreads;
+    }
+
+    public void setScriptThreads(int scriptThreads) {
+        this.scriptThreads = scriptThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     public ScriptExporter getScriptExporter() {
         return scriptExporter;
     }
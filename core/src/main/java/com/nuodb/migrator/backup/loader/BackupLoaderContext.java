@@ -31,6 +31,7 @@ import com.nuodb.migrator.backup.Backup;
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.backup.metrics.Metrics;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.Table;
@@ -79,6 +80,18 @@ public interface BackupLoaderContext {
 
     void setExecutorService(ExecutorService executorService);
 
+    ExecutorService getIoExecutorService();
+
+    void setIoExecutorService(ExecutorService ioExecutorService);
+
+    int getIoThreads();
+
+    void setIoThreads(int ioThreads);
+
+    Metrics getMetrics();
+
+    void setMetrics(Metrics metrics);
+
     Map<String, Object> getFormatAttributes();
 
     void setFormatAttributes(Map<String, Object> formatAttributes);
@@ -99,6 +112,10 @@ public interface BackupLoaderContext {
 
     void setLoadConstraints(LoadConstraints loadConstraints);
 
+    LoadConstraintScheduler getLoadConstraintScheduler();
+
+    void setLoadConstraintScheduler(LoadConstraintScheduler loadConstraintScheduler);
+
     LoadTables getLoadTables();
 
     void setLoadTables(LoadTables loadTables);
@@ -139,6 +156,10 @@ public interface BackupLoaderContext {
 
     void setTargetSessionFactory(SessionFactory targetSessionFactory);
 
+    SessionFactory getCommitSessionFactory();
+
+    void setCommitSessionFactory(SessionFactory commitSessionFactory);
+
     ScriptExporter getScriptExporter();
 
     void setScriptExporter(ScriptExporter scriptExporter);
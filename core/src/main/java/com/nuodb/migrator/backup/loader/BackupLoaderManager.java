@@ -54,6 +54,15 @@ public interface BackupLoaderManager extends WorkManager<BackupLoaderListener> {
 
     void afterLoadRow(Work work, LoadTable loadTable, Row row);
 
+    /**
+     * Adds listener notified of the work events only, loaded chunks and rows are not reported to it, so that no
+     * load events are created for the rows unless there is a listener consuming them.
+     *
+     * @param listener
+     *            work listener
+     */
+    void addWorkListener(BackupLoaderListener listener);
+
     BackupLoaderContext getBackupLoaderContext();
 
     void setBackupLoaderContext(BackupLoaderContext backupLoaderContext);
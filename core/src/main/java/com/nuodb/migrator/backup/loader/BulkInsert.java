@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.jdbc.commit.CommitExecutor;
+import com.nuodb.migrator.jdbc.commit.MultiRowCommitStrategy;
+import com.nuodb.migrator.jdbc.dialect.BulkInsertHandler;
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newTreeMap;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Buffers rows of a table and inserts them with bulk insert statements of the
+ * target dialect. Full buffers are inserted with the statement for the maximum
+ * number of rows, the rows left on finish are split into groups sized by
+ * powers of two, so that a prepared statement is reused for each group size.
+ * Groups handed to the batch of a statement are pending until that batch is
+ * executed, and are reported by {@link #inserted(int)} in the order they were
+ * added.
+ *
+ * @author Sergey Bushik
+ */
+public abstract class BulkInsert {
+
+    private final Connection connection;
+    private final BulkInsertHandler bulkInsertHandler;
+    private final MultiRowCommitStrategy commitStrategy;
+    private final int columns;
+    private final int maxRows;
+    private final Value[][] rows;
+    private final Map<Integer, BulkInsertStatement> statements = newTreeMap();
+    private final Deque<BulkInsertGroup> groups = new ArrayDeque<BulkInsertGroup>();
+    private int size;
+
+    public BulkInsert(Connection connection, BulkInsertHandler bulkInsertHandler,
+            MultiRowCommitStrategy commitStrategy) {
+        this.connection = connection;
+        this.bulkInsertHandler = bulkInsertHandler;
+        this.commitStrategy = commitStrategy;
+        this.columns = bulkInsertHandler.getInsertQuery().getColumns().size();
+        this.maxRows = max(1, min(commitStrategy.getRowsPerStatement(), bulkInsertHandler.getMaxRows()));
+        this.rows = new Value[maxRows][];
+    }
+
+    public void addRow(Value[] values) throws SQLException {
+        rows[size++] = values;
+        if (size == maxRows) {
+            insert(0, maxRows);
+            size = 0;
+        }
+    }
+
+    public void finish() throws SQLException {
+        int offset = 0;
+        while (offset < size) {
+            int count = highestOneBit(size - offset);
+            insert(offset, count);
+            offset += count;
+        }
+        size = 0;
+        for (BulkInsertStatement statement : statements.values()) {
+            statement.commitExecutor.finish();
+            executed(statement);
+        }
+    }
+
+    protected void insert(int offset, int count) throws SQLException {
+        BulkInsertStatement statement = getStatement(count);
+        for (int row = 0; row < count; row++) {
+            setValues(rows[offset + row], statement.valueHandleLists[row]);
+            rows[offset + row] = null;
+        }
+        groups.add(new BulkInsertGroup(statement, count));
+        if (statement.commitExecutor.execute()) {
+            executed(statement);
+        }
+    }
+
+    /**
+     * Marks groups batched on the statement as inserted and reports the oldest
+     * inserted groups, a group batched on another statement which is not
+     * executed yet holds back the groups added after it.
+     *
+     * @param statement
+     *            statement which batch is executed.
+     */
+    protected void executed(BulkInsertStatement statement) {
+        for (BulkInsertGroup group : groups) {
+            if (group.statement == statement) {
+                group.executed = true;
+            }
+        }
+        int rows = 0;
+        while (!groups.isEmpty() && groups.peek().executed) {
+            rows += groups.poll().rows;
+        }
+        if (rows > 0) {
+            inserted(rows);
+        }
+    }
+
+    /**
+     * Invoked once the given number of the oldest buffered rows are inserted,
+     * which is when the batches holding them are executed and committed. Rows
+     * of a failed batch are never reported. Does nothing by default.
+     *
+     * @param rows
+     *            number of inserted rows.
+     */
+    protected void inserted(int rows) {
+    }
+
+    protected void setValues(Value[] values, ValueHandleList valueHandleList) throws SQLException {
+        int index = 0;
+        for (ValueHandle valueHandle : valueHandleList) {
+            valueHandle.getValueFormat().setValue(values[index++], valueHandle.getJdbcValueAccess(),
+                    valueHandle.getJdbcValueAccessOptions());
+        }
+    }
+
+    protected BulkInsertStatement getStatement(int rows) throws SQLException {
+        BulkInsertStatement statement = statements.get(rows);
+        if (statement == null) {
+            Query query = bulkInsertHandler.createBulkInsertQuery(rows);
+            PreparedStatement preparedStatement = connection.prepareStatement(query.toString());
+            ValueHandleList[] valueHandleLists = new ValueHandleList[rows];
+            for (int row = 0; row < rows; row++) {
+                valueHandleLists[row] = createValueHandleList(preparedStatement, row * columns + 1);
+            }
+            statement = new BulkInsertStatement(preparedStatement, valueHandleLists,
+                    createCommitExecutor(preparedStatement, query, rows));
+            statements.put(rows, statement);
+        }
+        return statement;
+    }
+
+    protected CommitExecutor createCommitExecutor(PreparedStatement statement, Query query, int rows) {
+        return commitStrategy.createCommitExecutor(statement, query, rows);
+    }
+
+    /**
+     * Creates value handles binding a single row to the parameters of the
+     * statement.
+     *
+     * @param statement
+     *            bulk insert statement.
+     * @param column
+     *            index of the first parameter of the row.
+     * @return value handles of the row.
+     */
+    protected abstract ValueHandleList createValueHandleList(PreparedStatement statement, int column);
+
+    public void close() {
+        for (BulkInsertStatement statement : statements.values()) {
+            closeQuietly(statement.preparedStatement);
+        }
+        statements.clear();
+        groups.clear();
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    static class BulkInsertGroup {
+
+        private final BulkInsertStatement statement;
+        private final int rows;
+        private boolean executed;
+
+        BulkInsertGroup(BulkInsertStatement statement, int rows) {
+            this.statement = statement;
+            this.rows = rows;
+        }
+    }
+
+    static class BulkInsertStatement {
+
+        private final PreparedStatement preparedStatement;
+        private final ValueHandleList[] valueHandleLists;
+        private final CommitExecutor commitExecutor;
+
+        BulkInsertStatement(PreparedStatement preparedStatement, ValueHandleList[] valueHandleLists,
+                CommitExecutor commitExecutor) {
+            this.preparedStatement = preparedStatement;
+            this.valueHandleLists = valueHandleLists;
+            this.commitExecutor = commitExecutor;
+        }
+    }
+}
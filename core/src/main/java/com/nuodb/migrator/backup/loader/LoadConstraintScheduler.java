@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.jdbc.session.WorkEvent;
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.reverse;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Maps.newIdentityHashMap;
+import static com.google.common.collect.Maps.newLinkedHashMap;
+import static com.google.common.collect.Queues.newArrayDeque;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.FOREIGN_KEY;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.apache.commons.lang3.StringUtils.join;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Schedules indexes, primary keys and foreign keys as a graph of dependencies. An index or a primary key is loaded
+ * once the data of its table is loaded, a foreign key is loaded once the data of both referencing and referenced
+ * tables is loaded and their indexes and primary keys are built. Ready constraints are loaded in the order they
+ * become ready, at most {@link #getThreads()} at a time, so that the index builds don't take over the target
+ * sessions from the inserts. Once all the constraints are loaded the critical path of the graph is reported, which
+ * is the chain of table data and constraints each waiting for the previous one.
+ *
+ * @author Sergey Bushik
+ */
+public class LoadConstraintScheduler extends BackupLoaderAdapter {
+
+    private transient Logger logger = getLogger(getClass());
+
+    private final BackupLoader backupLoader;
+    private final BackupLoaderManager backupLoaderManager;
+    private final int threads;
+    private final Map<Table, Node> tables = newLinkedHashMap();
+    private final Map<LoadConstraint, Node> constraints = newIdentityHashMap();
+    private final Deque<Node> ready = newArrayDeque();
+    private final long startTime = nanoTime();
+    private int running;
+    private int pending;
+    private boolean done;
+
+    public LoadConstraintScheduler(BackupLoader backupLoader, BackupLoaderManager backupLoaderManager, int threads) {
+        this.backupLoader = backupLoader;
+        this.backupLoaderManager = backupLoaderManager;
+        this.threads = max(threads, 1);
+        LoadConstraints loadConstraints = backupLoaderManager.getBackupLoaderContext().getLoadConstraints();
+        Map<Table, Collection<Node>> indexes = newHashMap();
+        Collection<LoadConstraint> foreignKeys = newArrayList();
+        for (LoadConstraint loadConstraint : loadConstraints) {
+            if (loadConstraint.getConstraint().getObjectType() == FOREIGN_KEY) {
+                foreignKeys.add(loadConstraint);
+            } else {
+                Node index = addConstraint(loadConstraint, getTable(loadConstraint.getTable()));
+                Collection<Node> tableIndexes = indexes.get(loadConstraint.getTable());
+                if (tableIndexes == null) {
+                    indexes.put(loadConstraint.getTable(), tableIndexes = newArrayList());
+                }
+                tableIndexes.add(index);
+            }
+        }
+        for (LoadConstraint loadConstraint : foreignKeys) {
+            ForeignKey foreignKey = (ForeignKey) loadConstraint.getConstraint();
+            Collection<Table> foreignKeyTables = newLinkedHashSet(newArrayList(loadConstraint.getTable(),
+                    foreignKey.getPrimaryTable()));
+            Collection<Node> dependencies = newLinkedHashSet();
+            for (Table table : foreignKeyTables) {
+                if (table != null) {
+                    dependencies.add(getTable(table));
+                    Collection<Node> tableIndexes = indexes.get(table);
+                    if (tableIndexes != null) {
+                        dependencies.addAll(tableIndexes);
+                    }
+                }
+            }
+            addConstraint(loadConstraint, dependencies.toArray(new Node[dependencies.size()]));
+        }
+    }
+
+    protected Node getTable(Table table) {
+        Node node = tables.get(table);
+        if (node == null) {
+            tables.put(table, node = new Node(format("data of %s", table.getQualifiedName(null)), null));
+        }
+        return node;
+    }
+
+    protected Node addConstraint(LoadConstraint loadConstraint, Node... dependencies) {
+        Node node = new Node(getName(loadConstraint), loadConstraint);
+        for (Node dependency : dependencies) {
+            node.dependencies++;
+            dependency.dependants.add(node);
+        }
+        constraints.put(loadConstraint, node);
+        pending++;
+        return node;
+    }
+
+    /**
+     * Starts loading constraints of the tables having no data to load, the other tables are started as their data
+     * is loaded
+     */
+    public void start() {
+        Collection<Table> loadTables = newArrayList();
+        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+        if (backupLoaderContext.getLoadTables() != null) {
+            for (LoadTable loadTable : backupLoaderContext.getLoadTables()) {
+                loadTables.add(backupLoader.getTable(loadTable, backupLoaderContext));
+            }
+        }
+        Collection<Table> tables;
+        synchronized (this) {
+            tables = newArrayList(this.tables.keySet());
+        }
+        tables.removeAll(loadTables);
+        for (Table table : tables) {
+            loadTableDone(table);
+        }
+        loadConstraints();
+    }
+
+    @Override
+    public void onExecuteStart(WorkEvent event) {
+        Work work = event.getWork();
+        if (work instanceof LoadTableWork) {
+            Table table = getTable((LoadTableWork) work);
+            synchronized (this) {
+                Node node = table != null ? tables.get(table) : null;
+                if (node != null) {
+                    node.startTime = nanoTime();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onExecuteEnd(WorkEvent event) {
+        Work work = event.getWork();
+        if (work instanceof LoadTableWork) {
+            Table table = getTable((LoadTableWork) work);
+            if (table != null) {
+                loadTableDone(table);
+            }
+        } else if (work instanceof LoadConstraintWork) {
+            loadConstraintDone(((LoadConstraintWork) work).getLoadConstraint());
+        }
+        loadConstraints();
+    }
+
+    protected Table getTable(LoadTableWork loadTableWork) {
+        return backupLoader.getTable(loadTableWork.getLoadTable(), backupLoaderManager.getBackupLoaderContext());
+    }
+
+    protected synchronized void loadTableDone(Table table) {
+        Node node = tables.get(table);
+        if (node != null && node.endTime == 0) {
+            long time = nanoTime();
+            node.startTime = node.startTime != 0 ? node.startTime : time;
+            done(node, time);
+        }
+    }
+
+    protected synchronized void loadConstraintDone(LoadConstraint loadConstraint) {
+        Node node = constraints.get(loadConstraint);
+        if (node != null && node.endTime == 0) {
+            running--;
+            pending--;
+            done(node, nanoTime());
+        }
+    }
+
+    private void done(Node node, long time) {
+        node.endTime = time;
+        for (Node dependant : node.dependants) {
+            if (dependant.critical == null || dependant.critical.endTime < time) {
+                dependant.critical = node;
+            }
+            if (--dependant.dependencies == 0) {
+                dependant.readyTime = time;
+                ready.add(dependant);
+            }
+        }
+    }
+
+    /**
+     * Loads ready constraints unless the limit of the constraints loaded at a time is reached, signals completion to
+     * the backup loader manager once all the constraints are loaded
+     */
+    protected void loadConstraints() {
+        Collection<LoadConstraint> loadConstraints = newArrayList();
+        boolean loadConstraintsDone = false;
+        synchronized (this) {
+            while (running < threads && !ready.isEmpty()) {
+                Node node = ready.poll();
+                node.startTime = nanoTime();
+                running++;
+                loadConstraints.add(node.loadConstraint);
+            }
+            if (pending == 0 && !done) {
+                done = true;
+                loadConstraintsDone = true;
+            }
+        }
+        for (LoadConstraint loadConstraint : loadConstraints) {
+            loadConstraint(loadConstraint);
+        }
+        if (loadConstraintsDone) {
+            if (!constraints.isEmpty() && logger.isInfoEnabled()) {
+                logger.info(report());
+            }
+            loadConstraintsDone();
+        }
+    }
+
+    protected void loadConstraint(LoadConstraint loadConstraint) {
+        backupLoader.loadConstraint(loadConstraint, backupLoaderManager);
+    }
+
+    protected void loadConstraintsDone() {
+        backupLoaderManager.loadConstraintsDone();
+    }
+
+    /**
+     * @return critical path of the loaded constraints starting from the table data
+     */
+    public synchronized List<String> getCriticalPath() {
+        Node last = null;
+        for (Node node : constraints.values()) {
+            if (node.endTime != 0 && (last == null || node.endTime > last.endTime)) {
+                last = node;
+            }
+        }
+        List<String> criticalPath = newArrayList();
+        for (Node node = last; node != null; node = node.critical) {
+            criticalPath.add(node.toString());
+        }
+        return reverse(criticalPath);
+    }
+
+    public String report() {
+        return format("Loaded %d constraint(s) in %d ms by %d thread(s), critical path:%n  %s", constraints.size(),
+                NANOSECONDS.toMillis(nanoTime() - startTime), threads, join(getCriticalPath(), format("%n  ")));
+    }
+
+    protected String getName(LoadConstraint loadConstraint) {
+        Collection<String> names = newArrayList();
+        if (loadConstraint instanceof LoadIndexes) {
+            for (Index index : ((LoadIndexes) loadConstraint).getIndexes()) {
+                names.add(index.getName());
+            }
+        } else {
+            names.add(loadConstraint.getConstraint().getName());
+        }
+        MetaDataType objectType = loadConstraint.getConstraint().getObjectType();
+        return format("%s %s on %s", objectType.getObjectType().getSimpleName(), join(names, ","),
+                loadConstraint.getTable().getQualifiedName(null));
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    static class Node {
+
+        private final String name;
+        private final LoadConstraint loadConstraint;
+        private final Collection<Node> dependants = newArrayList();
+        private int dependencies;
+        private Node critical;
+        private long readyTime;
+        private long startTime;
+        private long endTime;
+
+        public Node(String name, LoadConstraint loadConstraint) {
+            this.name = name;
+            this.loadConstraint = loadConstraint;
+        }
+
+        @Override
+        public String toString() {
+            long time = NANOSECONDS.toMillis(endTime - startTime);
+            return loadConstraint != null
+                    ? format("%s waited %d ms, loaded in %d ms", name, NANOSECONDS.toMillis(startTime - readyTime),
+                            time)
+                    : format("%s loaded in %d ms", name, time);
+        }
+    }
+}
@@ -57,13 +57,13 @@ public class LoadConstraints implements Iterable<LoadConstraint> {
 
     public LoadConstraint addIndex(Index index) {
         LoadConstraint loadConstraint = new LoadConstraint(index);
-        addLoadConstraint(new LoadConstraint(index));
+        addLoadConstraint(loadConstraint);
         return loadConstraint;
     }
 
     public LoadConstraint addPrimaryKey(PrimaryKey primaryKey) {
         LoadConstraint loadConstraint = new LoadConstraint(primaryKey);
-        addLoadConstraint(new LoadConstraint(primaryKey));
+        addLoadConstraint(loadConstraint);
         return loadConstraint;
     }
 
@@ -29,25 +29,44 @@ package com.nuodb.migrator.backup.loader;
 
 import com.google.common.base.Function;
 import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.value.LobSideFiles;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.backup.format.value.RowReader;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueHandle;
 import com.nuodb.migrator.backup.format.value.ValueHandleList;
 import com.nuodb.migrator.backup.format.value.ValueHandleListBuilder;
+import com.nuodb.migrator.backup.metrics.Metrics;
+import com.nuodb.migrator.backup.metrics.MetricsSampler;
+import com.nuodb.migrator.backup.metrics.TableMetrics;
+import com.nuodb.migrator.jdbc.commit.AdaptiveCommitExecutor;
 import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.CommitExecutor;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.commit.MultiRowCommitStrategy;
+import com.nuodb.migrator.jdbc.commit.PipelinedCommitExecutor;
+import com.nuodb.migrator.jdbc.commit.PipelinedCommitStrategy;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.model.Field;
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
 import org.slf4j.Logger;
 
 import java.sql.PreparedStatement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
 
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLE_FORK_WORK;
+import static com.nuodb.migrator.backup.format.value.LobSideFiles.LOB_SIDE_FILES;
 import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.length;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -70,6 +89,13 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
     private PreparedStatement statement;
     private CommitExecutor commitExecutor;
     private ValueHandleList valueHandleList;
+    private PreparedStatement valueHandleStatement;
+    private Map<PreparedStatement, ValueHandleList> valueHandleLists = newHashMap();
+    private Map<PreparedStatement, Session> pipelineSessions = newHashMap();
+    private BulkInsert bulkInsert;
+    private Deque<Row> bulkRows = new ArrayDeque<Row>();
+    private LobSideFiles lobSideFiles;
+    private MetricsSampler metricsSampler;
 
     public LoadTableForkWork(LoadTable loadTable, RowReader rowReader, int thread,
             BackupLoaderManager backupLoaderManager) {
@@ -88,58 +114,240 @@ public class LoadTableForkWork extends WorkForkJoinTaskBase {
     @Override
     protected void init() throws Exception {
         backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
-        statement = getSession().getConnection().prepareStatement(loadTable.getQuery().toString());
+        metricsSampler = new MetricsSampler(getTableMetrics().getPart(thread));
         CommitStrategy commitStrategy = backupLoaderContext.getCommitStrategy() != null
                 ? backupLoaderContext.getCommitStrategy()
                 : new BatchCommitStrategy();
-        commitExecutor = commitStrategy.createCommitExecutor(statement, loadTable.getQuery());
+        if (commitStrategy instanceof MultiRowCommitStrategy) {
+            bulkInsert = createBulkInsert((MultiRowCommitStrategy) commitStrategy);
+        }
+        if (bulkInsert == null) {
+            statement = getSession().getConnection().prepareStatement(loadTable.getQuery().toString());
+            if (commitStrategy instanceof PipelinedCommitStrategy) {
+                commitExecutor = createPipelinedCommitExecutor((PipelinedCommitStrategy) commitStrategy);
+            } else {
+                commitExecutor = commitStrategy.createCommitExecutor(statement, loadTable.getQuery());
+            }
+            commitExecutor.setCommitListener(metricsSampler.getTableMetrics());
+        }
+    }
+
+    /**
+     * Returns metrics of the loaded table, forks loading the same table record to the parts of the same metrics
+     *
+     * @return table metrics
+     */
+    protected TableMetrics getTableMetrics() {
+        Metrics metrics = backupLoaderContext.getMetrics();
+        String name = loadTable.getRowSet().getName();
+        return metrics != null ? metrics.getTableMetrics(name) : new TableMetrics(name);
+    }
+
+    /**
+     * Opens a session per batch in flight and prepares the insert statement on
+     * each, so that batches are executed and committed on their own connections
+     * while rows are bound to the next statement. Sessions are leased from the
+     * commit session factory, not from the pool of the loading works, as the
+     * work already holds a session of that pool.
+     *
+     * @param commitStrategy
+     *            pipelined commit strategy.
+     * @return commit executor using statement of the work session and
+     *         statements of the opened sessions in turns.
+     */
+    protected PipelinedCommitExecutor createPipelinedCommitExecutor(PipelinedCommitStrategy commitStrategy)
+            throws Exception {
+        List<PreparedStatement> statements = newArrayList(statement);
+        for (int index = 0; index < commitStrategy.getBatchesInFlight(); index++) {
+            Session session = backupLoaderContext.getCommitSessionFactory().openSession();
+            PreparedStatement pipelineStatement;
+            try {
+                pipelineStatement = session.getConnection().prepareStatement(loadTable.getQuery().toString());
+            } catch (Exception exception) {
+                closeQuietly(session);
+                throw exception;
+            }
+            pipelineSessions.put(pipelineStatement, session);
+            statements.add(pipelineStatement);
+        }
+        return commitStrategy.createCommitExecutor(statements, loadTable.getQuery());
+    }
+
+    /**
+     * Creates bulk insert for the table if the target dialect supports bulk
+     * inserts of the table.
+     *
+     * @param commitStrategy
+     *            multi row commit strategy.
+     * @return bulk insert or null if the table is loaded row by row.
+     */
+    protected BulkInsert createBulkInsert(MultiRowCommitStrategy commitStrategy) {
+        Dialect dialect = getSession().getDialect();
+        Query query = loadTable.getQuery();
+        if (!(query instanceof InsertQuery) || !dialect.supportsBulkInsert((InsertQuery) query)) {
+            return null;
+        }
+        return new BulkInsert(getSession().getConnection(), dialect.createBulkInsertHandler((InsertQuery) query),
+                commitStrategy) {
+            @Override
+            protected ValueHandleList createValueHandleList(PreparedStatement statement, int column) {
+                return LoadTableForkWork.this.createValueHandleList(statement, column);
+            }
+
+            @Override
+            protected CommitExecutor createCommitExecutor(PreparedStatement statement, Query query, int rows) {
+                CommitExecutor commitExecutor = super.createCommitExecutor(statement, query, rows);
+                commitExecutor.setCommitListener(metricsSampler.getTableMetrics());
+                return commitExecutor;
+            }
+
+            @Override
+            protected void inserted(int rows) {
+                LoadTableForkWork.this.inserted(rows);
+            }
+        };
+    }
+
+    /**
+     * Reports rows of the bulk insert buffer once they are inserted, so that
+     * rows lost with a failed bulk insert are neither counted nor passed to
+     * the listeners.
+     *
+     * @param rows
+     *            number of the oldest buffered rows which are inserted.
+     */
+    protected void inserted(int rows) {
+        for (int index = 0; index < rows; index++) {
+            Row row = bulkRows.poll();
+            backupLoaderManager.afterLoadRow(this, loadTable, row);
+            metricsSampler.addRow(length(row.getValues()));
+        }
     }
 
     @Override
     public void execute() throws Exception {
+        MetricsSampler metricsSampler = this.metricsSampler;
+        metricsSampler.start();
         try {
             Row row;
+            metricsSampler.startRow();
             while ((row = rowReader.readRow()) != null && backupLoaderManager.canExecute(this)) {
+                metricsSampler.fetched();
                 backupLoaderManager.beforeLoadRow(this, loadTable, row);
-                int index = 0;
                 Value[] values = row.getValues();
-                initValueHandleList();
-                for (ValueHandle valueHandle : valueHandleList) {
-                    valueHandle.getValueFormat().setValue(values[index++], valueHandle.getJdbcValueAccess(),
-                            valueHandle.getJdbcValueAccessOptions());
+                if (bulkInsert != null) {
+                    bulkRows.add(row);
+                    bulkInsert.addRow(values);
+                    metricsSampler.written();
+                    metricsSampler.endRow();
+                } else {
+                    long length = length(values);
+                    int index = 0;
+                    initValueHandleList();
+                    for (ValueHandle valueHandle : valueHandleList) {
+                        valueHandle.getValueFormat().setValue(values[index++], valueHandle.getJdbcValueAccess(),
+                                valueHandle.getJdbcValueAccessOptions());
+                    }
+                    metricsSampler.encoded();
+                    if (commitExecutor instanceof AdaptiveCommitExecutor) {
+                        ((AdaptiveCommitExecutor) commitExecutor).addBytes(length);
+                    }
+                    commitExecutor.execute();
+                    metricsSampler.written();
+                    backupLoaderManager.afterLoadRow(this, loadTable, row);
+                    metricsSampler.endRow(length);
                 }
-                commitExecutor.execute();
-                backupLoaderManager.afterLoadRow(this, loadTable, row);
+                metricsSampler.startRow();
+            }
+            if (bulkInsert != null) {
+                bulkInsert.finish();
+            } else {
+                commitExecutor.finish();
             }
-            commitExecutor.finish();
         } catch (Exception exception) {
             System.out.println("--> LoadTableForkWork.execute: " + this.getLoadTable().getTable().getQualifiedName());
             exception.printStackTrace();
             throw exception;
+        } finally {
+            metricsSampler.finish();
         }
     }
 
+    /**
+     * Resolves value handles bound to the statement of the commit executor,
+     * which changes between batches if the commit is pipelined.
+     */
     protected void initValueHandleList() {
-        if (valueHandleList == null) {
-            ValueHandleListBuilder builder = newBuilder(getSession().getConnection(), statement);
-            builder.withDialect(getSession().getDialect());
-            builder.withFields(
-                    newArrayList(transform(loadTable.getRowSet().getColumns(), new Function<Column, Field>() {
-                        @Override
-                        public Field apply(Column column) {
-                            return loadTable.getTable().getColumn(column.getName());
-                        }
-                    })));
-            builder.withTimeZone(backupLoaderContext.getTimeZone());
-            builder.withValueFormatRegistry(backupLoaderContext.getValueFormatRegistry());
-            valueHandleList = builder.build();
+        PreparedStatement statement = (PreparedStatement) commitExecutor.getStatement();
+        if (valueHandleStatement != statement) {
+            valueHandleStatement = statement;
+            valueHandleList = valueHandleLists.get(statement);
+            if (valueHandleList == null) {
+                Session session = pipelineSessions.get(statement);
+                valueHandleList = createValueHandleList(session != null ? session : getSession(), statement, 1);
+                valueHandleLists.put(statement, valueHandleList);
+            }
         }
     }
 
+    protected ValueHandleList createValueHandleList(PreparedStatement statement, int column) {
+        return createValueHandleList(getSession(), statement, column);
+    }
+
+    protected ValueHandleList createValueHandleList(Session session, PreparedStatement statement, int column) {
+        ValueHandleListBuilder builder = newBuilder(session.getConnection(), statement, column);
+        builder.withDialect(session.getDialect());
+        builder.withFields(newArrayList(transform(loadTable.getRowSet().getColumns(), new Function<Column, Field>() {
+            @Override
+            public Field apply(Column column) {
+                return loadTable.getTable().getColumn(column.getName());
+            }
+        })));
+        builder.withTimeZone(backupLoaderContext.getTimeZone());
+        builder.withValueFormatRegistry(backupLoaderContext.getValueFormatRegistry());
+        ValueHandleList valueHandleList = builder.build();
+        initLobSideFiles(valueHandleList);
+        return valueHandleList;
+    }
+
+    /**
+     * Binds LOBs of the columns framed by the side files from the side files.
+     */
+    protected void initLobSideFiles(ValueHandleList valueHandleList) {
+        int index = 0;
+        for (Column column : loadTable.getRowSet().getColumns()) {
+            ValueHandle valueHandle = valueHandleList.get(index++);
+            if (column.isLobSideFiles()) {
+                if (lobSideFiles == null) {
+                    lobSideFiles = createLobSideFiles();
+                }
+                Map<String, Object> options = valueHandle.getJdbcValueAccessOptions();
+                if (options == null) {
+                    valueHandle.setJdbcValueAccessOptions(options = newHashMap());
+                }
+                options.put(LOB_SIDE_FILES, lobSideFiles);
+            }
+        }
+    }
+
+    protected LobSideFiles createLobSideFiles() {
+        return new LobSideFiles(backupLoaderContext.getBackupOps());
+    }
+
     @Override
     public void close() throws Exception {
         super.close();
+        if (commitExecutor instanceof PipelinedCommitExecutor) {
+            ((PipelinedCommitExecutor) commitExecutor).close();
+        }
         closeQuietly(statement);
+        for (Map.Entry<PreparedStatement, Session> pipelineSession : pipelineSessions.entrySet()) {
+            closeQuietly(pipelineSession.getKey());
+            closeQuietly(pipelineSession.getValue());
+        }
+        if (bulkInsert != null) {
+            bulkInsert.close();
+        }
     }
 
     public int getThread() {
@@ -27,7 +27,10 @@
  */
 package com.nuodb.migrator.backup.loader;
 
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.ParallelRowReader;
 import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.backup.format.value.RowReaderBase;
 import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
 import org.slf4j.Logger;
 
@@ -35,9 +38,12 @@ import java.util.Collection;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLE_WORK;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newParallelRowReader;
 import static com.nuodb.migrator.backup.format.value.RowReaders.newSequentialRowReader;
 import static com.nuodb.migrator.backup.format.value.RowReaders.newSynchronizedRowReader;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -68,37 +74,84 @@ public class LoadTableWork extends WorkForkJoinTaskBase {
 
     @Override
     protected void init() throws Exception {
+        this.rowReader = createRowReader();
+    }
+
+    /**
+     * Creates row reader shared by the forks. If there are at least as many chunks as threads each fork parses its
+     * own chunks, otherwise the forks are served by a single synchronized sequential reader.
+     */
+    protected RowReader createRowReader() {
         BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
-        RowReader rowReader = newSequentialRowReader(loadTable.getRowSet(), backupLoaderContext.getBackupOps(),
-                backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes());
+        RowSet rowSet = loadTable.getRowSet();
         int threads = loadTable.getThreads();
-        if (threads > 1) {
-            rowReader = newSynchronizedRowReader(rowReader);
+        RowReader rowReader;
+        if (threads > 1 && rowSet.getChunks().size() >= threads) {
+            rowReader = newParallelRowReader(rowSet, backupLoaderContext.getBackupOps(),
+                    backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes());
+        } else {
+            rowReader = newSequentialRowReader(rowSet, backupLoaderContext.getBackupOps(),
+                    backupLoaderContext.getFormatFactory(), backupLoaderContext.getFormatAttributes());
+            if (threads > 1) {
+                rowReader = newSynchronizedRowReader(rowReader);
+            }
         }
-        this.rowReader = rowReader;
+        return rowReader;
+    }
+
+    protected RowReader createForkRowReader(int thread) {
+        return rowReader instanceof ParallelRowReader ? ((ParallelRowReader) rowReader).fork() : rowReader;
     }
 
     @Override
     public void execute() throws Exception {
+        joinLoadTableForkWorks(forkLoadTableForkWorks());
+    }
+
+    protected Collection<LoadTableForkWork> forkLoadTableForkWorks() {
         Collection<LoadTableForkWork> loadTableForkWorks = newArrayList();
         for (int thread = 0; thread < loadTable.getThreads(); thread++) {
-            LoadTableForkWork loadTableForkWork = new LoadTableForkWork(loadTable, rowReader, thread,
-                    backupLoaderManager);
-            loadTableForkWork.fork();
+            LoadTableForkWork loadTableForkWork = createLoadTableForkWork(thread);
+            loadTableForkWork.fork(getBackupLoaderManager().getBackupLoaderContext().getIoExecutorService());
             loadTableForkWorks.add(loadTableForkWork);
         }
+        return loadTableForkWorks;
+    }
+
+    protected void joinLoadTableForkWorks(Collection<LoadTableForkWork> loadTableForkWorks) {
         for (LoadTableForkWork loadTableForkWork : loadTableForkWorks) {
             loadTableForkWork.join();
         }
     }
 
+    protected LoadTableForkWork createLoadTableForkWork(int thread) {
+        return new LoadTableForkWork(loadTable, createForkRowReader(thread), thread, backupLoaderManager);
+    }
+
     @Override
     public void close() throws Exception {
         super.close();
         closeQuietly(rowReader);
+        if (rowReader instanceof RowReaderBase && logger.isDebugEnabled()) {
+            RowReaderBase rowReaderBase = (RowReaderBase) rowReader;
+            long rowCount = rowReaderBase.getRowCount();
+            long readTime = NANOSECONDS.toMillis(rowReaderBase.getReadTime());
+            logger.debug(format("Read %d rows of %s by %d threads, parsed in %d ms (%d rows/s), waited %d ms", rowCount,
+                    loadTable.getRowSet().getName(), loadTable.getThreads(), readTime,
+                    readTime > 0 ? rowCount * 1000 / readTime : rowCount,
+                    NANOSECONDS.toMillis(rowReaderBase.getWaitTime())));
+        }
     }
 
     public LoadTable getLoadTable() {
         return loadTable;
     }
+
+    protected BackupLoaderManager getBackupLoaderManager() {
+        return backupLoaderManager;
+    }
+
+    protected RowReader getRowReader() {
+        return rowReader;
+    }
 }
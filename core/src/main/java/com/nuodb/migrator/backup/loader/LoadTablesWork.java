@@ -27,20 +27,30 @@
  */
 package com.nuodb.migrator.backup.loader;
 
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.Schedule;
+import com.nuodb.migrator.jdbc.commit.AdaptiveBatchSize;
+import com.nuodb.migrator.jdbc.commit.AdaptiveCommitStrategy;
+import com.nuodb.migrator.jdbc.commit.CommitStrategy;
 import com.nuodb.migrator.jdbc.session.WorkRunnableBase;
 import com.nuodb.migrator.utils.concurrent.ForkJoinTask;
+import org.slf4j.Logger;
 
 import java.util.Collection;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.LOAD_TABLES_WORK;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static java.lang.String.format;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * @author Sergey Bushik
  */
 public class LoadTablesWork extends WorkRunnableBase {
 
+    private transient Logger logger = getLogger(getClass());
+
     private BackupLoaderManager backupLoaderManager;
 
     public LoadTablesWork(BackupLoaderManager backupLoaderManager) {
@@ -56,15 +66,83 @@ public class LoadTablesWork extends WorkRunnableBase {
     @Override
     public void execute() throws Exception {
         LoadTables loadTables = backupLoaderManager.getBackupLoaderContext().getLoadTables();
+        Schedule<LoadTable> schedule = createSchedule(loadTables);
+        if (logger.isDebugEnabled()) {
+            logger.debug(schedule.report());
+        } else if (logger.isInfoEnabled()) {
+            logger.info(schedule.summary());
+        }
         Collection<LoadTableWork> loadTableWorks = newArrayList();
-        for (LoadTable loadTable : loadTables) {
-            LoadTableWork loadTableWork = new LoadTableWork(loadTable, backupLoaderManager);
-            loadTableWork.fork();
+        for (LoadTable loadTable : schedule.getItems()) {
+            LoadTableWork loadTableWork = createLoadTableWork(loadTable);
+            forkLoadTableWork(loadTableWork);
             loadTableWorks.add(loadTableWork);
         }
         for (LoadTableWork loadTableWork : loadTableWorks) {
             loadTableWork.join();
         }
+        CommitStrategy commitStrategy = backupLoaderManager.getBackupLoaderContext().getCommitStrategy();
+        if (commitStrategy instanceof AdaptiveCommitStrategy) {
+            reportBatchSizes(loadTables, (AdaptiveCommitStrategy) commitStrategy);
+        }
         backupLoaderManager.loadDataDone();
     }
+
+    /**
+     * Forks work loading a table, all the table works are forked at once and
+     * their insert works are queued on the I/O executor.
+     *
+     * @param loadTableWork
+     *            to fork
+     * @throws Exception
+     */
+    protected void forkLoadTableWork(LoadTableWork loadTableWork) throws Exception {
+        loadTableWork.fork();
+    }
+
+    /**
+     * Orders tables largest first by the size of their row sets, large tables
+     * are split between {@link LoadTable#getThreads()} insert works which are
+     * forked before the small tables.
+     *
+     * @param loadTables
+     *            to schedule
+     * @return planned schedule
+     */
+    protected Schedule<LoadTable> createSchedule(LoadTables loadTables) {
+        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+        Schedule<LoadTable> schedule = new Schedule<LoadTable>(backupLoaderContext.getIoThreads());
+        for (LoadTable loadTable : loadTables) {
+            addTask(schedule, loadTable);
+        }
+        return schedule;
+    }
+
+    protected void addTask(Schedule<LoadTable> schedule, LoadTable loadTable) {
+        RowSet rowSet = loadTable.getRowSet();
+        schedule.addTask(loadTable, loadTable.getTable().getQualifiedName(), rowSet.getRowCount(),
+                rowSet.getSize(backupLoaderManager.getBackupLoaderContext().getBackupOps()), loadTable.getThreads());
+    }
+
+    protected void reportBatchSizes(LoadTables loadTables, AdaptiveCommitStrategy commitStrategy) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        for (LoadTable loadTable : loadTables) {
+            AdaptiveBatchSize batchSize = commitStrategy.getBatchSizes().get(loadTable.getQuery());
+            if (batchSize != null) {
+                logger.info(format("Loaded %s in %d batches with batch size %d (%d rows/s, %d bytes per batch)",
+                        loadTable.getTable().getQualifiedName(), batchSize.getBatches(), batchSize.getBatchSize(),
+                        batchSize.getRowsPerSecond(), batchSize.getBytesPerBatch()));
+            }
+        }
+    }
+
+    protected LoadTableWork createLoadTableWork(LoadTable loadTable) {
+        return new LoadTableWork(loadTable, backupLoaderManager);
+    }
+
+    protected BackupLoaderManager getBackupLoaderManager() {
+        return backupLoaderManager;
+    }
 }
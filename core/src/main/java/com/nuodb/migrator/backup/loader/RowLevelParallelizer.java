@@ -29,7 +29,6 @@ package com.nuodb.migrator.backup.loader;
 
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.RowSet;
-import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
 
 import java.util.Iterator;
 import java.util.Map;
@@ -84,8 +83,7 @@ public class RowLevelParallelizer implements Parallelizer {
     }
 
     protected int getThreads(BackupLoaderContext backupLoaderContext) {
-        ForkJoinPool forkJoinPool = (ForkJoinPool) backupLoaderContext.getExecutorService();
-        return forkJoinPool.getParallelism();
+        return backupLoaderContext.getIoThreads();
     }
 
     protected long getMinThreadsPerRowSet(LoadTable loadTable, BackupLoaderContext backupLoaderContext) {
@@ -31,6 +31,7 @@ import com.nuodb.migrator.backup.Backup;
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.backup.metrics.Metrics;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.Table;
@@ -65,10 +66,14 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
     private CommitStrategy commitStrategy;
     private Database database;
     private ExecutorService executorService;
+    private ExecutorService ioExecutorService;
+    private int ioThreads;
+    private Metrics metrics;
     private FormatFactory formatFactory;
     private Map<String, Object> formatAttributes;
     private InsertTypeFactory insertTypeFactory;
     private LoadConstraints loadConstraints;
+    private LoadConstraintScheduler loadConstraintScheduler;
     private LoadTables loadTables;
     private Parallelizer parallelizer;
     private Collection<MigrationMode> migrationModes;
@@ -80,6 +85,7 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
     private ConnectionSpec targetSpec;
     private Session targetSession;
     private SessionFactory targetSessionFactory;
+    private SessionFactory commitSessionFactory;
     private ScriptExporter scriptExporter;
     private TimeZone timeZone;
     private ScriptGeneratorManager scriptGeneratorManager;
@@ -155,6 +161,36 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
         this.executorService = executorService;
     }
 
+    @Override
+    public ExecutorService getIoExecutorService() {
+        return ioExecutorService;
+    }
+
+    @Override
+    public void setIoExecutorService(ExecutorService ioExecutorService) {
+        this.ioExecutorService = ioExecutorService;
+    }
+
+    @Override
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    @Override
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public Map<String, Object> getFormatAttributes() {
         return formatAttributes;
@@ -205,6 +241,16 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
         this.loadConstraints = loadConstraints;
     }
 
+    @Override
+    public LoadConstraintScheduler getLoadConstraintScheduler() {
+        return loadConstraintScheduler;
+    }
+
+    @Override
+    public void setLoadConstraintScheduler(LoadConstraintScheduler loadConstraintScheduler) {
+        this.loadConstraintScheduler = loadConstraintScheduler;
+    }
+
     @Override
     public LoadTables getLoadTables() {
         return loadTables;
@@ -294,6 +340,16 @@ public class SimpleBackupLoaderContext implements BackupLoaderContext {
         this.targetSessionFactory = targetSessionFactory;
     }
 
+    @Override
+    public SessionFactory getCommitSessionFactory() {
+        return commitSessionFactory;
+    }
+
+    @Override
+    public void setCommitSessionFactory(SessionFactory commitSessionFactory) {
+        this.commitSessionFactory = commitSessionFactory;
+    }
+
     @Override
     public ScriptExporter getScriptExporter() {
         return scriptExporter;
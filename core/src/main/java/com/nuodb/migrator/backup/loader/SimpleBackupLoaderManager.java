@@ -32,8 +32,13 @@ import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.jdbc.session.SimpleWorkManager;
 import com.nuodb.migrator.jdbc.session.Work;
 
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
+import static com.google.common.base.Predicates.in;
+import static com.google.common.base.Predicates.not;
+import static com.google.common.collect.Iterables.filter;
+import static com.google.common.collect.Sets.newCopyOnWriteArraySet;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static com.nuodb.migrator.utils.ValidationUtils.isNotNull;
 import static java.lang.Long.MAX_VALUE;
@@ -47,6 +52,30 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
 
     private BackupLoaderSync backupLoaderSync;
     private BackupLoaderContext backupLoaderContext;
+    private Set<BackupLoaderListener> workListeners = newCopyOnWriteArraySet();
+
+    @Override
+    public void addWorkListener(BackupLoaderListener listener) {
+        workListeners.add(listener);
+        addListener(listener);
+    }
+
+    @Override
+    public void removeListener(BackupLoaderListener listener) {
+        super.removeListener(listener);
+        workListeners.remove(listener);
+    }
+
+    /**
+     * @return true if there are listeners of loaded chunks and rows
+     */
+    public boolean hasLoadListeners() {
+        return getListeners().size() > workListeners.size();
+    }
+
+    protected Iterable<BackupLoaderListener> getLoadListeners() {
+        return filter(getListeners(), not(in(workListeners)));
+    }
 
     @Override
     public boolean canExecute(Work work) {
@@ -61,14 +90,14 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
             if (logger.isTraceEnabled()) {
                 logger.trace(format("Loading %d rows from %s chunk", chunk.getRowCount(), chunk.getName()));
             }
-            if (hasListeners()) {
+            if (hasLoadListeners()) {
                 onStartChunk(new LoadChunkEvent(work, loadTable, row.getChunk()));
             }
         }
     }
 
     protected void onStartChunk(LoadChunkEvent loadChunkEvent) {
-        for (BackupLoaderListener listener : getListeners()) {
+        for (BackupLoaderListener listener : getLoadListeners()) {
             listener.onLoadStart(loadChunkEvent);
         }
     }
@@ -81,21 +110,23 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
             if (logger.isTraceEnabled()) {
                 logger.trace(format("Rows from %s chunk loaded", chunk.getName()));
             }
-            if (hasListeners()) {
+            if (hasLoadListeners()) {
                 onEndChunk(new LoadChunkEvent(work, loadTable, row.getChunk()));
             }
         }
-        onLoadRow(new LoadRowEvent(work, loadTable, row));
+        if (hasLoadListeners()) {
+            onLoadRow(new LoadRowEvent(work, loadTable, row));
+        }
     }
 
     protected void onEndChunk(LoadChunkEvent loadChunkEvent) {
-        for (BackupLoaderListener listener : getListeners()) {
+        for (BackupLoaderListener listener : getLoadListeners()) {
             listener.onLoadEnd(loadChunkEvent);
         }
     }
 
     protected void onLoadRow(LoadRowEvent event) {
-        for (BackupLoaderListener listener : getListeners()) {
+        for (BackupLoaderListener listener : getLoadListeners()) {
             listener.onLoadRow(event);
         }
     }
@@ -167,8 +198,17 @@ public class SimpleBackupLoaderManager extends SimpleWorkManager<BackupLoaderLis
                     logger.trace("Executor termination interrupted", exception);
                 }
             }
+            if (backupLoaderContext.getIoExecutorService() != null) {
+                backupLoaderContext.getIoExecutorService().shutdown();
+            }
+            if (backupLoaderContext.getMetrics() != null) {
+                backupLoaderContext.getMetrics().close();
+            }
             closeQuietly(backupLoaderContext.getSourceSession());
             closeQuietly(backupLoaderContext.getTargetSession());
+            closeQuietly(backupLoaderContext.getSourceSessionFactory());
+            closeQuietly(backupLoaderContext.getTargetSessionFactory());
+            closeQuietly(backupLoaderContext.getCommitSessionFactory());
             closeQuietly(backupLoaderContext.getScriptExporter());
         }
         super.close();
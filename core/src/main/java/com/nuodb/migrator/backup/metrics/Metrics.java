@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.metrics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
+import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static javax.management.ObjectName.quote;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Registry of the metrics of the dumped or loaded tables. Metrics of each table are exposed as an MXBean named
+ * {@code com.nuodb.migrator:type=<job>,name=<table>} and are periodically logged by
+ * {@code com.nuodb.migrator.backup.metrics} logger as JSON lines, one line per table and per each part of the table
+ * split into several parts.
+ *
+ * @author Sergey Bushik
+ */
+public class Metrics implements Closeable {
+
+    public static final String DOMAIN = "com.nuodb.migrator";
+    public static final String DUMP = "dump";
+    public static final String LOAD = "load";
+    public static final String MIGRATE = "migrate";
+    public static final long REPORT_PERIOD = 10000;
+
+    private static final Logger progress = getLogger("com.nuodb.migrator.backup.metrics");
+    protected final Logger logger = getLogger(getClass());
+
+    private final String job;
+    private final ConcurrentMap<String, TableMetrics> tables = newConcurrentMap();
+    private final Collection<ObjectName> objectNames = synchronizedList(newArrayList());
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private volatile MBeanServer mBeanServer;
+    private ScheduledExecutorService reporter;
+    private long reportPeriod = REPORT_PERIOD;
+
+    public Metrics(String job) {
+        this.job = job;
+    }
+
+    public TableMetrics getTableMetrics(String name) {
+        TableMetrics tableMetrics = tables.get(name);
+        if (tableMetrics == null) {
+            TableMetrics newTableMetrics = new TableMetrics(name);
+            tableMetrics = tables.putIfAbsent(name, newTableMetrics);
+            if (tableMetrics == null) {
+                tableMetrics = newTableMetrics;
+                register(tableMetrics);
+            }
+        }
+        return tableMetrics;
+    }
+
+    public Collection<TableMetrics> getTableMetrics() {
+        return tables.values();
+    }
+
+    protected void register(TableMetrics tableMetrics) {
+        if (mBeanServer == null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(
+                    format("%s:type=%s,name=%s", DOMAIN, job, quote(tableMetrics.getName())));
+            mBeanServer.registerMBean(tableMetrics, objectName);
+            objectNames.add(objectName);
+        } catch (Exception exception) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Metrics of %s are not registered", tableMetrics.getName()), exception);
+            }
+        }
+    }
+
+    /**
+     * Starts exposing metrics through the platform MBean server and reporting them periodically if the report period
+     * is positive
+     */
+    public synchronized void start() {
+        if (mBeanServer == null) {
+            mBeanServer = getPlatformMBeanServer();
+            for (TableMetrics tableMetrics : tables.values()) {
+                register(tableMetrics);
+            }
+        }
+        if (reporter == null && reportPeriod > 0 && progress.isInfoEnabled()) {
+            reporter = newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("metrics-" + job).setDaemon(true).build());
+            reporter.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    report();
+                }
+            }, reportPeriod, reportPeriod, MILLISECONDS);
+        }
+    }
+
+    public void report() {
+        if (!progress.isInfoEnabled()) {
+            return;
+        }
+        long time = currentTimeMillis();
+        for (TableMetrics tableMetrics : tables.values()) {
+            progress.info(report(tableMetrics, time));
+            if (tableMetrics.getParts() > 1) {
+                for (TableMetrics part : tableMetrics.getPartMetrics()) {
+                    progress.info(report(part, time));
+                }
+            }
+        }
+    }
+
+    /**
+     * Formats metrics of a table or of a table part as a single line JSON object
+     *
+     * @param tableMetrics
+     *            metrics of a table or a table part
+     * @param time
+     *            time of the report in milliseconds
+     * @return JSON line
+     */
+    public String report(TableMetrics tableMetrics, long time) {
+        StringWriter writer = new StringWriter();
+        try {
+            JsonGenerator generator = jsonFactory.createGenerator(writer);
+            generator.writeStartObject();
+            generator.writeNumberField("time", time);
+            generator.writeStringField("job", job);
+            generator.writeStringField("table", tableMetrics.getName());
+            if (tableMetrics.getPart() >= 0) {
+                generator.writeNumberField("part", tableMetrics.getPart());
+            }
+            generator.writeNumberField("rows", tableMetrics.getRows());
+            generator.writeNumberField("bytes", tableMetrics.getBytes());
+            generator.writeNumberField("rowsPerSecond", tableMetrics.getRowsPerSecond());
+            generator.writeNumberField("bytesPerSecond", tableMetrics.getBytesPerSecond());
+            generator.writeNumberField("fetchTime", tableMetrics.getFetchTime());
+            generator.writeNumberField("encodeTime", tableMetrics.getEncodeTime());
+            generator.writeNumberField("writeTime", tableMetrics.getWriteTime());
+            generator.writeNumberField("executeTime", tableMetrics.getExecuteTime());
+            generator.writeNumberField("executeTime99", tableMetrics.getExecuteTime99());
+            generator.writeNumberField("commitTime", tableMetrics.getCommitTime());
+            generator.writeNumberField("commitTime99", tableMetrics.getCommitTime99());
+            if (tableMetrics.getPart() < 0) {
+                generator.writeNumberField("queueDepth", tableMetrics.getQueueDepth());
+                generator.writeNumberField("maxQueueDepth", tableMetrics.getMaxQueueDepth());
+            }
+            generator.writeEndObject();
+            generator.close();
+        } catch (IOException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Stops periodic reporting, reports final metrics and unregisters MXBeans
+     */
+    @Override
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+        report();
+        if (mBeanServer != null) {
+            synchronized (objectNames) {
+                for (ObjectName objectName : objectNames) {
+                    try {
+                        mBeanServer.unregisterMBean(objectName);
+                    } catch (Exception exception) {
+                        if (logger.isDebugEnabled()) {
+                            logger.debug(format("Failed unregistering %s", objectName), exception);
+                        }
+                    }
+                }
+                objectNames.clear();
+            }
+            mBeanServer = null;
+        }
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public long getReportPeriod() {
+        return reportPeriod;
+    }
+
+    /**
+     * @param reportPeriod
+     *            period of the progress report in milliseconds, non positive value disables periodic reporting
+     */
+    public void setReportPeriod(long reportPeriod) {
+        this.reportPeriod = reportPeriod;
+    }
+}
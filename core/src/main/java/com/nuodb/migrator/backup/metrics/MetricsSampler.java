@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.metrics;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Records rows processed by a single thread to the table metrics. Rows and bytes are accumulated locally and flushed
+ * to the metrics once per {@link #SAMPLE_RATE} rows, the time of each stage is measured for the flushing rows only,
+ * so the hot loop doesn't read the clock or touch shared counters for the most of the rows.
+ *
+ * <pre>
+ * sampler.startRow();
+ * // fetch
+ * sampler.fetched();
+ * // encode
+ * sampler.encoded();
+ * // write
+ * sampler.written();
+ * sampler.endRow(bytes);
+ * </pre>
+ *
+ * Rows buffered by the writer are ended with {@link #endRow()} and counted with {@link #addRow(long)} once they are
+ * actually written.
+ *
+ * @author Sergey Bushik
+ */
+public class MetricsSampler {
+
+    public static final int SAMPLE_RATE = 64;
+
+    private final TableMetrics tableMetrics;
+    private long samples;
+    private long rows;
+    private long bytes;
+    private long flushedRows;
+    private boolean sampled;
+    private long time;
+
+    public MetricsSampler(TableMetrics tableMetrics) {
+        this.tableMetrics = tableMetrics;
+    }
+
+    public void start() {
+        tableMetrics.start();
+    }
+
+    public void startRow() {
+        sampled = (samples & (SAMPLE_RATE - 1)) == 0;
+        if (sampled) {
+            time = nanoTime();
+        }
+    }
+
+    public void fetched() {
+        if (sampled) {
+            tableMetrics.recordFetchTime(lap());
+        }
+    }
+
+    public void encoded() {
+        if (sampled) {
+            tableMetrics.recordEncodeTime(lap());
+        }
+    }
+
+    public void written() {
+        if (sampled) {
+            tableMetrics.recordWriteTime(lap());
+        }
+    }
+
+    public void endRow(long bytes) {
+        addRow(bytes);
+        endRow();
+    }
+
+    public void endRow() {
+        samples++;
+        if (sampled) {
+            flush();
+        }
+    }
+
+    public void addRow(long bytes) {
+        this.rows++;
+        this.bytes += bytes;
+    }
+
+    public void flush() {
+        if (rows > flushedRows) {
+            tableMetrics.addRows(rows - flushedRows, bytes);
+            flushedRows = rows;
+            bytes = 0;
+        }
+    }
+
+    public void finish() {
+        flush();
+        tableMetrics.finish();
+    }
+
+    protected long lap() {
+        long now = nanoTime();
+        long lap = now - time;
+        time = now;
+        return lap;
+    }
+
+    public TableMetrics getTableMetrics() {
+        return tableMetrics;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.metrics;
+
+import com.nuodb.migrator.jdbc.commit.CommitListener;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Throughput and latency of a dumped or loaded table. Counters are striped, timings are kept in histograms and are
+ * expected to be recorded for a sample of rows only, see {@link MetricsSampler}. Each split or loading thread records
+ * to its own part, which propagates everything it records to the table.
+ *
+ * @author Sergey Bushik
+ */
+public class TableMetrics implements TableMetricsMXBean, CommitListener {
+
+    private final String name;
+    private final TableMetrics table;
+    private final int part;
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final Histogram fetchTime = new Histogram();
+    private final Histogram encodeTime = new Histogram();
+    private final Histogram writeTime = new Histogram();
+    private final Histogram executeTime = new Histogram();
+    private final Histogram commitTime = new Histogram();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong startTime = new AtomicLong();
+    private volatile long endTime;
+    private final ConcurrentMap<Integer, TableMetrics> parts = newConcurrentMap();
+
+    public TableMetrics(String name) {
+        this(name, null, -1);
+    }
+
+    protected TableMetrics(String name, TableMetrics table, int part) {
+        this.name = name;
+        this.table = table;
+        this.part = part;
+    }
+
+    /**
+     * Returns metrics of a split or of a loading thread
+     *
+     * @param part
+     *            index of the split or of the thread
+     * @return metrics of the part
+     */
+    public TableMetrics getPart(int part) {
+        TableMetrics metrics = parts.get(part);
+        if (metrics == null) {
+            TableMetrics newMetrics = new TableMetrics(name, this, part);
+            metrics = parts.putIfAbsent(part, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+
+    public Collection<TableMetrics> getPartMetrics() {
+        return parts.values();
+    }
+
+    public void start() {
+        startTime.compareAndSet(0, nanoTime());
+        active.incrementAndGet();
+        endTime = 0;
+        if (table != null) {
+            table.start();
+        }
+    }
+
+    public void finish() {
+        if (active.decrementAndGet() <= 0) {
+            endTime = nanoTime();
+        }
+        if (table != null) {
+            table.finish();
+        }
+    }
+
+    public void addRows(long rows, long bytes) {
+        this.rows.add(rows);
+        this.bytes.add(bytes);
+        if (table != null) {
+            table.addRows(rows, bytes);
+        }
+    }
+
+    public void recordFetchTime(long fetchTime) {
+        this.fetchTime.record(fetchTime);
+        if (table != null) {
+            table.recordFetchTime(fetchTime);
+        }
+    }
+
+    public void recordEncodeTime(long encodeTime) {
+        this.encodeTime.record(encodeTime);
+        if (table != null) {
+            table.recordEncodeTime(encodeTime);
+        }
+    }
+
+    public void recordWriteTime(long writeTime) {
+        this.writeTime.record(writeTime);
+        if (table != null) {
+            table.recordWriteTime(writeTime);
+        }
+    }
+
+    @Override
+    public void afterExecute(long executeTime) {
+        this.executeTime.record(executeTime);
+        if (table != null) {
+            table.afterExecute(executeTime);
+        }
+    }
+
+    @Override
+    public void afterCommit(long commitTime) {
+        this.commitTime.record(commitTime);
+        if (table != null) {
+            table.afterCommit(commitTime);
+        }
+    }
+
+    /**
+     * Adds units of work queued for processing, such as splits forked but not yet started
+     *
+     * @param units
+     *            number of queued units
+     */
+    public void enqueue(long units) {
+        updateMaxQueueDepth(queueDepth.addAndGet(units));
+    }
+
+    public void dequeue(long units) {
+        queueDepth.addAndGet(-units);
+    }
+
+    /**
+     * Records observed size of a queue, such as rows buffered between reading and inserting threads
+     *
+     * @param depth
+     *            number of queued items
+     */
+    public void recordQueueDepth(long depth) {
+        queueDepth.set(depth);
+        updateMaxQueueDepth(depth);
+    }
+
+    protected void updateMaxQueueDepth(long depth) {
+        long max = maxQueueDepth.get();
+        while (depth > max && !maxQueueDepth.compareAndSet(max, depth)) {
+            max = maxQueueDepth.get();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public int getPart() {
+        return part;
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public long getRowsPerSecond() {
+        return getPerSecond(getRows());
+    }
+
+    @Override
+    public long getBytesPerSecond() {
+        return getPerSecond(getBytes());
+    }
+
+    protected long getPerSecond(long value) {
+        long startTime = this.startTime.get();
+        if (startTime == 0) {
+            return 0;
+        }
+        long endTime = this.endTime;
+        long elapsed = (endTime != 0 ? endTime : nanoTime()) - startTime;
+        return elapsed > 0 ? (long) (value * (double) SECONDS.toNanos(1) / elapsed) : 0;
+    }
+
+    @Override
+    public long getFetchTime() {
+        return NANOSECONDS.toMicros(fetchTime.getMean());
+    }
+
+    @Override
+    public long getEncodeTime() {
+        return NANOSECONDS.toMicros(encodeTime.getMean());
+    }
+
+    @Override
+    public long getWriteTime() {
+        return NANOSECONDS.toMicros(writeTime.getMean());
+    }
+
+    @Override
+    public long getExecuteTime() {
+        return NANOSECONDS.toMicros(executeTime.getMean());
+    }
+
+    @Override
+    public long getExecuteTime99() {
+        return NANOSECONDS.toMicros(executeTime.getPercentile(99));
+    }
+
+    @Override
+    public long getCommitTime() {
+        return NANOSECONDS.toMicros(commitTime.getMean());
+    }
+
+    @Override
+    public long getCommitTime99() {
+        return NANOSECONDS.toMicros(commitTime.getPercentile(99));
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    @Override
+    public int getParts() {
+        return parts.size();
+    }
+
+    public Histogram getFetchTimeHistogram() {
+        return fetchTime;
+    }
+
+    public Histogram getEncodeTimeHistogram() {
+        return encodeTime;
+    }
+
+    public Histogram getWriteTimeHistogram() {
+        return writeTime;
+    }
+
+    public Histogram getExecuteTimeHistogram() {
+        return executeTime;
+    }
+
+    public Histogram getCommitTimeHistogram() {
+        return commitTime;
+    }
+}
@@ -36,7 +36,7 @@ import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.csv.CsvFormat;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistryResolver;
-import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.backup.metrics.Metrics;
 import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.HasTables;
@@ -47,7 +47,6 @@ import com.nuodb.migrator.jdbc.metadata.filter.MetaDataFilter;
 import com.nuodb.migrator.jdbc.metadata.inspector.InspectionManager;
 import com.nuodb.migrator.jdbc.metadata.inspector.InspectionScope;
 import com.nuodb.migrator.jdbc.metadata.inspector.TableInspectionScope;
-import com.nuodb.migrator.jdbc.query.Query;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
@@ -71,16 +70,17 @@ import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 import static com.nuodb.migrator.backup.XmlMetaDataHandlerBase.INSPECTION_SCOPE;
 import static com.nuodb.migrator.backup.XmlMetaDataHandlerBase.META_DATA_SPEC;
+import static com.nuodb.migrator.backup.metrics.Metrics.DUMP;
 import static com.nuodb.migrator.context.ContextUtils.createService;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
-import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.DATABASE;
 import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionPool;
 import static com.nuodb.migrator.jdbc.split.QuerySplitters.*;
-import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newCachingStrategy;
-import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newHandlerStrategy;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.isVirtualThreadsSupported;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.newBlockingExecutorService;
 import static java.lang.Runtime.getRuntime;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.ArrayUtils.indexOf;
@@ -102,6 +102,8 @@ public class BackupWriter {
     private Database database;
     private ExecutorService executorService;
     private InspectionManager inspectionManager;
+    private ExecutorService ioExecutorService;
+    private Integer ioThreads;
     private String format = FORMAT;
     private Map<String, Object> formatAttributes = newHashMap();
     private FormatFactory formatFactory;
@@ -113,6 +115,7 @@ public class BackupWriter {
     private SessionFactory sourceSessionFactory;
     private TimeZone timeZone;
     private Integer threads = THREADS;
+    private boolean virtualThreads;
     private ValueFormatRegistryResolver valueFormatRegistryResolver;
     private Collection<WriteQuery> writeQueries = newArrayList();
 
@@ -235,9 +238,15 @@ public class BackupWriter {
 
         ExecutorService executorService = getExecutorService();
         backupWriterContext.setExecutorService(executorService == null ? createExecutorService() : executorService);
+        ExecutorService ioExecutorService = getIoExecutorService();
+        backupWriterContext.setIoExecutorService(
+                ioExecutorService == null ? createIoExecutorService() : ioExecutorService);
+        backupWriterContext.setWriteExecutorService(createWriteExecutorService());
+        backupWriterContext.setIoThreads(getIoThreads());
         backupWriterContext.setFormat(getFormat());
         backupWriterContext.setFormatAttributes(getFormatAttributes());
         backupWriterContext.setFormatFactory(getFormatFactory());
+        backupWriterContext.setMetrics(createMetrics());
         backupWriterContext.setMigrationModes(getMigrationModes());
         backupWriterContext.setThreads(getThreads());
         backupWriterContext.setTimeZone(getTimeZone());
@@ -277,6 +286,42 @@ public class BackupWriter {
         return new ForkJoinPool(threads);
     }
 
+    /**
+     * Creates executor service running split works, which block on fetching rows from the source database and on
+     * writing chunks, the number of splits executed concurrently is limited by the number of I/O threads, which is
+     * the size of the source session pool
+     *
+     * @return executor service for blocking works
+     */
+    protected ExecutorService createIoExecutorService() {
+        boolean virtualThreads = isVirtualThreads();
+        if (virtualThreads && !isVirtualThreadsSupported()) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Virtual threads are not supported by the JVM, platform threads are used");
+            }
+            virtualThreads = false;
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Using %s threads for %d I/O work(s)", virtualThreads ? "virtual" : "platform",
+                    getIoThreads()));
+        }
+        return newBlockingExecutorService("dump-io", getIoThreads(), virtualThreads);
+    }
+
+    /**
+     * Creates executor service writing buffered blocks of the chunks to the files, it's separate from the executor
+     * service running split works, as the split works wait for their blocks to be written
+     *
+     * @return executor service for the writer tasks of asynchronous outputs
+     */
+    protected ExecutorService createWriteExecutorService() {
+        return newBlockingExecutorService("dump-write", getIoThreads(), false);
+    }
+
+    protected Metrics createMetrics() {
+        return new Metrics(DUMP);
+    }
+
     protected ValueFormatRegistry createValueFormatRegistry(Session session) throws Exception {
         return getValueFormatRegistryResolver().resolve(session);
     }
@@ -284,7 +329,7 @@ public class BackupWriter {
     protected void openSourceSession(BackupWriterContext backupWriterContext) throws Exception {
         SessionFactory sourceSessionFactory = getSourceSessionFactory();
         Session sourceSession = sourceSessionFactory.openSession();
-        backupWriterContext.setSourceSessionFactory(sourceSessionFactory);
+        backupWriterContext.setSourceSessionFactory(newSessionPool(sourceSessionFactory, getIoThreads()));
         backupWriterContext.setSourceSession(sourceSession);
         try {
             backupWriterContext.setValueFormatRegistry(createValueFormatRegistry(sourceSession));
@@ -298,12 +343,21 @@ public class BackupWriter {
 
     protected Database openDatabase(BackupWriterContext backupWriterContext) throws Exception {
         Session session = backupWriterContext.getSourceSession();
-        return getInspectionManager()
+        InspectionManager inspectionManager = getInspectionManager();
+        inspectionManager.setSessionFactory(backupWriterContext.getSourceSessionFactory());
+        inspectionManager.setThreads(getInspectionThreads());
+        Database database = inspectionManager
                 .inspect(session.getConnection(), getInspectionScope(), getObjectTypes().toArray(new MetaDataType[0]))
                 .getObject(DATABASE);
+        database.freeze();
+        return database;
     }
 
     protected Backup write(BackupWriterManager backupWriterManager) throws Exception {
+        Metrics metrics = backupWriterManager.getBackupWriterContext().getMetrics();
+        if (metrics != null) {
+            metrics.start();
+        }
         try {
             if (backupWriterManager.isWriteData()) {
                 writeData(backupWriterManager);
@@ -397,17 +451,7 @@ public class BackupWriter {
 
     protected QuerySplitter createQuerySplitter(Table table, Collection<Column> columns, String filter,
             QueryLimit queryLimit) {
-        QuerySplitter querySplitter;
-        Query query = newQuery(table, columns, filter);
-        Dialect dialect = table.getDatabase().getDialect();
-        if (queryLimit != null && supportsLimitSplitter(dialect, table, filter)) {
-            querySplitter = newLimitSplitter(dialect,
-                    newCachingStrategy(newHandlerStrategy(dialect.createRowCountHandler(table, null, filter, EXACT))),
-                    query, queryLimit);
-        } else {
-            querySplitter = newNoLimitSplitter(query);
-        }
-        return querySplitter;
+        return newTableSplitter(table, columns, filter, queryLimit);
     }
 
     protected Collection<MetaDataType> getObjectTypes() {
@@ -420,6 +464,11 @@ public class BackupWriter {
         return metaDataSpec != null ? metaDataSpec.getTableTypes() : null;
     }
 
+    protected int getInspectionThreads() {
+        final MetaDataSpec metaDataSpec = getMetaDataSpec();
+        return metaDataSpec != null ? metaDataSpec.getInspectionThreads() : InspectionManager.THREADS;
+    }
+
     protected MetaDataFilter getMetaDataFilter(MetaDataType objectType) {
         final MetaDataSpec metaDataSpec = getMetaDataSpec();
         return metaDataSpec != null ? metaDataSpec.getMetaDataFilter(objectType) : null;
@@ -546,6 +595,33 @@ public class BackupWriter {
         this.executorService = null;
     }
 
+    public ExecutorService getIoExecutorService() {
+        return ioExecutorService;
+    }
+
+    public void setIoExecutorService(ExecutorService ioExecutorService) {
+        this.ioExecutorService = ioExecutorService;
+    }
+
+    /**
+     * @return number of concurrently executed I/O works, defaults to the number of threads
+     */
+    public Integer getIoThreads() {
+        return ioThreads != null ? ioThreads : getThreads();
+    }
+
+    public void setIoThreads(Integer ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     public ValueFormatRegistryResolver getValueFormatRegistryResolver() {
         return valueFormatRegistryResolver;
     }
@@ -31,6 +31,7 @@ import com.nuodb.migrator.backup.Backup;
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.backup.metrics.Metrics;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
@@ -70,6 +71,22 @@ public interface BackupWriterContext {
 
     void setExecutorService(ExecutorService executor);
 
+    ExecutorService getIoExecutorService();
+
+    void setIoExecutorService(ExecutorService ioExecutorService);
+
+    ExecutorService getWriteExecutorService();
+
+    void setWriteExecutorService(ExecutorService writeExecutorService);
+
+    int getIoThreads();
+
+    void setIoThreads(int ioThreads);
+
+    Metrics getMetrics();
+
+    void setMetrics(Metrics metrics);
+
     String getFormat();
 
     void setFormat(String format);
@@ -31,6 +31,7 @@ import com.nuodb.migrator.backup.Backup;
 import com.nuodb.migrator.backup.BackupOps;
 import com.nuodb.migrator.backup.format.FormatFactory;
 import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.backup.metrics.Metrics;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.SessionFactory;
@@ -59,6 +60,10 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
     private Map backupOpsContext;
     private Database database;
     private ExecutorService executorService;
+    private ExecutorService ioExecutorService;
+    private ExecutorService writeExecutorService;
+    private int ioThreads;
+    private Metrics metrics;
     private String format;
     private Map<String, Object> formatAttributes;
     private FormatFactory formatFactory;
@@ -130,6 +135,46 @@ public class SimpleBackupWriterContext implements BackupWriterContext {
         this.executorService = executorService;
     }
 
+    @Override
+    public ExecutorService getIoExecutorService() {
+        return ioExecutorService;
+    }
+
+    @Override
+    public void setIoExecutorService(ExecutorService ioExecutorService) {
+        this.ioExecutorService = ioExecutorService;
+    }
+
+    @Override
+    public ExecutorService getWriteExecutorService() {
+        return writeExecutorService;
+    }
+
+    @Override
+    public void setWriteExecutorService(ExecutorService writeExecutorService) {
+        this.writeExecutorService = writeExecutorService;
+    }
+
+    @Override
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    @Override
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public String getFormat() {
         return format;
@@ -205,7 +205,17 @@ public class SimpleBackupWriterManager extends SimpleWorkManager<BackupWriterLis
                     logger.trace("Executor termination interrupted", exception);
                 }
             }
+            if (backupWriterContext.getIoExecutorService() != null) {
+                backupWriterContext.getIoExecutorService().shutdown();
+            }
+            if (backupWriterContext.getWriteExecutorService() != null) {
+                backupWriterContext.getWriteExecutorService().shutdown();
+            }
+            if (backupWriterContext.getMetrics() != null) {
+                backupWriterContext.getMetrics().close();
+            }
             closeQuietly(backupWriterContext.getSourceSession());
+            closeQuietly(backupWriterContext.getSourceSessionFactory());
         }
         super.close();
     }
@@ -28,23 +28,37 @@
 package com.nuodb.migrator.backup.writer;
 
 import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.Schedule;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.session.WorkRunnableBase;
+import com.nuodb.migrator.jdbc.split.LimitQuerySplitter;
 import com.nuodb.migrator.jdbc.split.QuerySplit;
 import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import org.slf4j.Logger;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.Collection;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.backup.BackupMessages.WRITE_QUERIES_WORK;
+import static com.nuodb.migrator.backup.ScheduleUtils.getApproxRowCount;
+import static com.nuodb.migrator.backup.ScheduleUtils.getRowSize;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static java.lang.Math.ceil;
+import static java.lang.Math.min;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * @author Sergey Bushik
  */
 public class WriteQueriesWork extends WorkRunnableBase {
 
+    private static final String QUERY = "query";
+
+    private transient Logger logger = getLogger(getClass());
+
     private final BackupWriterManager backupWriterManager;
 
     public WriteQueriesWork(BackupWriterManager backupWriterManager) {
@@ -64,16 +78,24 @@ public class WriteQueriesWork extends WorkRunnableBase {
         Session session = backupWriterContext.getSourceSession();
         Connection connection = session.getConnection();
         Collection<WriteQueryWork> writeQueryWorks = newArrayList();
-
         for (WriteQuery writeQuery : backupWriterContext.getWriteQueries()) {
             backup.addRowSet(writeQuery.getRowSet());
+        }
+        Schedule<WriteQuery> schedule = createSchedule(backupWriterContext.getWriteQueries());
+        if (logger.isDebugEnabled()) {
+            logger.debug(schedule.report());
+        } else if (logger.isInfoEnabled()) {
+            logger.info(schedule.summary());
+        }
+        for (WriteQuery writeQuery : schedule.getItems()) {
             QuerySplitter querySplitter = writeQuery.getQuerySplitter();
             while (writeQuery.getQuerySplitter().hasNextQuerySplit(session.getConnection())) {
                 QuerySplit nextQuerySplit = querySplitter.getNextQuerySplit(connection);
                 boolean hasNextQuerySplit = querySplitter.hasNextQuerySplit(connection);
                 WriteQueryWork writeQueryWork = new WriteQueryWork(writeQuery, nextQuerySplit, hasNextQuerySplit,
                         backupWriterManager);
-                writeQueryWork.fork();
+                writeQueryWork.getTableMetrics().enqueue(1);
+                writeQueryWork.fork(backupWriterContext.getIoExecutorService());
                 writeQueryWorks.add(writeQueryWork);
             }
         }
@@ -82,4 +104,62 @@ public class WriteQueriesWork extends WorkRunnableBase {
         }
         backupWriterManager.writeDataDone();
     }
+
+    /**
+     * Orders write queries largest first by the approximate row count of the
+     * dumped tables, so that splits of the large tables are forked before the
+     * small tables.
+     *
+     * @param writeQueries
+     *            to schedule
+     * @return planned schedule
+     * @throws SQLException
+     */
+    protected Schedule<WriteQuery> createSchedule(Collection<WriteQuery> writeQueries) throws SQLException {
+        BackupWriterContext backupWriterContext = backupWriterManager.getBackupWriterContext();
+        Session session = backupWriterContext.getSourceSession();
+        Schedule<WriteQuery> schedule = new Schedule<WriteQuery>(backupWriterContext.getIoThreads());
+        for (WriteQuery writeQuery : writeQueries) {
+            String name = QUERY;
+            long rows = 0;
+            long bytes = 0;
+            if (writeQuery instanceof WriteTable) {
+                WriteTable writeTable = (WriteTable) writeQuery;
+                name = writeTable.getTable().getQualifiedName(null);
+                rows = getRowCount(session, writeTable);
+                bytes = rows * getRowSize(writeTable.getColumns());
+            }
+            schedule.addTask(writeQuery, name, rows, bytes,
+                    getParts(writeQuery, rows, backupWriterContext.getIoThreads()));
+        }
+        return schedule;
+    }
+
+    /**
+     * Limit query splitter counts rows of the table to plan its pages and
+     * caches the count, so the same count is reused for the schedule and the
+     * splits. Other splitters don't count rows and the count is estimated from
+     * the database statistics.
+     *
+     * @param session
+     *            source session
+     * @param writeTable
+     *            to count rows of
+     * @return row count or 0 if it's unknown
+     * @throws SQLException
+     */
+    protected long getRowCount(Session session, WriteTable writeTable) throws SQLException {
+        QuerySplitter querySplitter = writeTable.getQuerySplitter();
+        if (querySplitter instanceof LimitQuerySplitter) {
+            return ((LimitQuerySplitter) querySplitter).getRowCountStrategy().getRowCount(session.getConnection());
+        } else {
+            return getApproxRowCount(session, writeTable.getTable(), writeTable.getFilter());
+        }
+    }
+
+    protected int getParts(WriteQuery writeQuery, long rows, int threads) {
+        QueryLimit queryLimit = writeQuery.getQuerySplitter().getQueryLimit();
+        Long count = queryLimit != null ? queryLimit.getCount() : null;
+        return count != null && count > 0 ? (int) min(ceil(rows / (double) count), threads) : 1;
+    }
 }
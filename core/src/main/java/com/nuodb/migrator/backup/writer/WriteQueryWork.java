@@ -32,10 +32,14 @@ import com.nuodb.migrator.backup.Column;
 import com.nuodb.migrator.backup.QueryRowSet;
 import com.nuodb.migrator.backup.RowSet;
 import com.nuodb.migrator.backup.format.Output;
+import com.nuodb.migrator.backup.format.value.LobSideFiles;
 import com.nuodb.migrator.backup.format.value.Row;
 import com.nuodb.migrator.backup.format.value.Value;
 import com.nuodb.migrator.backup.format.value.ValueHandle;
 import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.backup.metrics.Metrics;
+import com.nuodb.migrator.backup.metrics.MetricsSampler;
+import com.nuodb.migrator.backup.metrics.TableMetrics;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.dialect.FetchMode;
 import com.nuodb.migrator.jdbc.metadata.Table;
@@ -45,25 +49,35 @@ import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
 import com.nuodb.migrator.jdbc.split.QuerySplit;
 import com.nuodb.migrator.utils.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.Collection;
+import java.util.Map;
 
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.indexOf;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
 import static com.nuodb.migrator.backup.BackupMessages.WRITE_QUERY_WORK;
+import static com.nuodb.migrator.backup.format.value.LobSideFiles.ATTRIBUTE_LOB_THRESHOLD;
+import static com.nuodb.migrator.backup.format.value.LobSideFiles.LOB_SIDE_FILES;
 import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.length;
 import static com.nuodb.migrator.context.ContextUtils.getMessage;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static com.nuodb.migrator.jdbc.model.FieldFactory.newFieldList;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
 import static com.nuodb.migrator.utils.Predicates.equalTo;
 import static com.nuodb.migrator.utils.Predicates.instanceOf;
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static org.apache.commons.lang3.StringUtils.lowerCase;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Work executed by a thread, which exports table rows to a row set. Row set is
@@ -76,6 +90,8 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
 
     private static final String QUERY = "query";
 
+    private transient Logger logger = getLogger(getClass());
+
     private final BackupWriterManager backupWriterManager;
     private final WriteQuery writeQuery;
     private final QuerySplit querySplit;
@@ -86,6 +102,9 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
     private Collection<Chunk> chunks;
     private BackupWriterContext backupWriterContext;
     private ValueHandleList valueHandleList;
+    private TableMetrics tableMetrics;
+    private MetricsSampler metricsSampler;
+    private boolean outputOpen;
 
     public WriteQueryWork(WriteQuery writeQuery, QuerySplit querySplit, boolean hasNextQuerySplit,
             BackupWriterManager backupWriterManager) {
@@ -104,6 +123,8 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
     @Override
     public void init() throws Exception {
         backupWriterContext = backupWriterManager.getBackupWriterContext();
+        getTableMetrics().dequeue(1);
+        metricsSampler = new MetricsSampler(getTableMetrics().getPart(querySplit.getSplitIndex()));
 
         final Dialect dialect = getSession().getDialect();
         resultSet = querySplit.getResultSet(getSession().getConnection(), new StatementCallback() {
@@ -130,14 +151,48 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
             rowSet.setColumns(columns);
         }
         rowSet.setName(getRowSetName());
+        initLobSideFiles(rowSet);
 
         output = backupWriterContext.getFormatFactory().createOutput(backupWriterContext.getFormat(),
                 backupWriterContext.getFormatAttributes());
         output.setRowSet(rowSet);
+        output.setExecutor(backupWriterContext.getWriteExecutorService());
 
         chunks = newArrayList();
     }
 
+    /**
+     * Streams LOBs larger than the threshold set by the lob.threshold format
+     * attribute to side files, LOB columns are marked as framed by the side
+     * files.
+     */
+    protected void initLobSideFiles(RowSet rowSet) {
+        Object lobThreshold = backupWriterContext.getFormatAttributes() != null
+                ? backupWriterContext.getFormatAttributes().get(ATTRIBUTE_LOB_THRESHOLD)
+                : null;
+        if (lobThreshold == null || StringUtils.isEmpty(lobThreshold.toString())) {
+            return;
+        }
+        LobSideFiles lobSideFiles = new LobSideFiles(backupWriterContext.getBackupOps(), getLobSideFilePrefix(),
+                parseLong(lobThreshold.toString()));
+        int index = 0;
+        for (Column column : rowSet.getColumns()) {
+            ValueHandle valueHandle = valueHandleList.get(index++);
+            switch (valueHandle.getTypeCode()) {
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+                Map<String, Object> options = valueHandle.getJdbcValueAccessOptions();
+                if (options == null) {
+                    valueHandle.setJdbcValueAccessOptions(options = newHashMap());
+                }
+                options.put(LOB_SIDE_FILES, lobSideFiles);
+                column.setLobSideFiles(true);
+                break;
+            }
+        }
+    }
+
     @Override
     public void execute() throws Exception {
         backupWriterManager.writeStart(this, writeQuery);
@@ -146,23 +201,37 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
         Chunk chunk = null;
         long number = 0;
         Value[] values = new Value[valueHandleList.size()];
-        while (backupWriterManager.canExecute(this) && resultSet.next()) {
-            if (chunk == null) {
-                writeStart(chunk = addChunk());
+        MetricsSampler metricsSampler = getMetricsSampler();
+        metricsSampler.start();
+        try {
+            while (backupWriterManager.canExecute(this)) {
+                metricsSampler.startRow();
+                if (!resultSet.next()) {
+                    break;
+                }
+                metricsSampler.fetched();
+                if (chunk == null) {
+                    writeStart(chunk = addChunk());
+                }
+                if (!output.canWrite()) {
+                    writeEnd(chunk);
+                    writeStart(chunk = addChunk());
+                }
+                Row row = new Row(chunk, values, number);
+                int index = 0;
+                for (ValueHandle valueHandle : valueHandleList) {
+                    values[index++] = valueHandle.getValueFormat().getValue(valueHandle.getJdbcValueAccess(),
+                            valueHandle.getJdbcValueAccessOptions());
+                }
+                metricsSampler.encoded();
+                output.writeValues(values);
+                metricsSampler.written();
+                chunk.incrementRowCount();
+                backupWriterManager.writeRow(this, writeQuery, row);
+                metricsSampler.endRow(length(values));
             }
-            if (!output.canWrite()) {
-                writeEnd(chunk);
-                writeStart(chunk = addChunk());
-            }
-            Row row = new Row(chunk, values, number);
-            int index = 0;
-            for (ValueHandle valueHandle : valueHandleList) {
-                values[index++] = valueHandle.getValueFormat().getValue(valueHandle.getJdbcValueAccess(),
-                        valueHandle.getJdbcValueAccessOptions());
-            }
-            output.writeValues(values);
-            chunk.incrementRowCount();
-            backupWriterManager.writeRow(this, writeQuery, row);
+        } finally {
+            metricsSampler.finish();
         }
         if (chunk != null) {
             writeEnd(chunk);
@@ -170,14 +239,29 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
         backupWriterManager.writeEnd(this, writeQuery);
     }
 
+    /**
+     * Closes output of the chunk left open if the work failed, so that the buffered bytes are written and the file
+     * is released
+     */
     @Override
     public void close() throws Exception {
         super.close();
         closeQuietly(resultSet);
+        if (outputOpen) {
+            outputOpen = false;
+            try {
+                output.close();
+            } catch (Exception exception) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn(format("Failed closing output of %s", getName()), exception);
+                }
+            }
+        }
     }
 
     protected void writeStart(Chunk chunk) throws Exception {
         output.setOutputStream(backupWriterContext.getBackupOps().openOutput(chunk.getName()));
+        outputOpen = true;
         output.init();
         output.writeStart();
         backupWriterManager.writeStart(this, writeQuery, chunk);
@@ -185,6 +269,7 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
 
     protected void writeEnd(Chunk chunk) throws Exception {
         output.writeEnd();
+        outputOpen = false;
         output.close();
         backupWriterManager.writeEnd(this, writeQuery, chunk);
     }
@@ -214,6 +299,15 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
         return lowerCase(StringUtils.join(names, "."));
     }
 
+    protected String getLobSideFilePrefix() {
+        Collection names = newArrayList(getRowSetName());
+        int splitIndex = getQuerySplit().getSplitIndex();
+        if (splitIndex != 0 || isHasNextQuerySplit()) {
+            names.add(splitIndex + 1);
+        }
+        return lowerCase(StringUtils.join(names, "."));
+    }
+
     protected String getRowSetName() {
         String rowSetName;
         if (writeQuery instanceof WriteTable) {
@@ -228,6 +322,25 @@ public class WriteQueryWork extends WorkForkJoinTaskBase {
         return lowerCase(rowSetName);
     }
 
+    /**
+     * Returns metrics of the dumped row set, split works of the same row set record to the parts of the same table
+     * metrics
+     *
+     * @return table metrics
+     */
+    public TableMetrics getTableMetrics() {
+        if (tableMetrics == null) {
+            Metrics metrics = backupWriterManager.getBackupWriterContext().getMetrics();
+            tableMetrics = metrics != null ? metrics.getTableMetrics(getRowSetName())
+                    : new TableMetrics(getRowSetName());
+        }
+        return tableMetrics;
+    }
+
+    protected MetricsSampler getMetricsSampler() {
+        return metricsSampler;
+    }
+
     public WriteQuery getWriteQuery() {
         return writeQuery;
     }
@@ -101,6 +101,11 @@ public interface CliMessages {
     final String EXECUTOR_GROUP_NAME = "com.nuodb.migrator.executor.group.name";
     final String THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.threads.option.description";
     final String THREADS_ARGUMENT_NAME = "com.nuodb.migrator.threads.argument.name";
+    final String IO_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.io.threads.option.description";
+    final String IO_THREADS_ARGUMENT_NAME = "com.nuodb.migrator.io.threads.argument.name";
+    final String VIRTUAL_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.virtual.threads.option.description";
+    final String CONSTRAINT_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.constraint.threads.option.description";
+    final String CONSTRAINT_THREADS_ARGUMENT_NAME = "com.nuodb.migrator.constraint.threads.argument.name";
     final String PARALLELIZER_OPTION_DESCRIPTION = "com.nuodb.migrator.parallelizer.option.description";
     final String PARALLELIZER_ARGUMENT_NAME = "com.nuodb.migrator.parallelizer.argument.name";
     final String PARALLELIZER_ATTRIBUTES_OPTION_DESCRIPTION = "com.nuodb.migrator.parallelizer.attributes.option.description";
@@ -110,6 +115,13 @@ public interface CliMessages {
     final String QUERY_LIMIT_ARGUMENT_NAME = "com.nuodb.migrator.query.limit.argument.name";
 
     final String LOAD_GROUP_NAME = "com.nuodb.migrator.load.group.name";
+    final String MIGRATE_GROUP_NAME = "com.nuodb.migrator.migrate.group.name";
+    final String ROW_QUEUE_SIZE_OPTION_DESCRIPTION = "com.nuodb.migrator.row.queue.size.option.description";
+    final String ROW_QUEUE_SIZE_ARGUMENT_NAME = "com.nuodb.migrator.row.queue.size.argument.name";
+    final String LOB_THRESHOLD_OPTION_DESCRIPTION = "com.nuodb.migrator.lob.threshold.option.description";
+    final String LOB_THRESHOLD_ARGUMENT_NAME = "com.nuodb.migrator.lob.threshold.argument.name";
+    final String INSPECTION_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.inspection.threads.option.description";
+    final String INSPECTION_THREADS_ARGUMENT_NAME = "com.nuodb.migrator.inspection.threads.argument.name";
     final String TARGET_GROUP_NAME = "com.nuodb.migrator.target.group.name";
     final String TARGET_DRIVER_OPTION_DESCRIPTION = "com.nuodb.migrator.target.driver.option.description";
     final String TARGET_DRIVER_ARGUMENT_NAME = "com.nuodb.migrator.target.driver.argument.name";
@@ -155,6 +167,8 @@ public interface CliMessages {
 
     final String GROUP_SCRIPTS_BY_OPTION_DESCRIPTION = "com.nuodb.migrator.group.scripts.by.option.description";
     final String GROUP_SCRIPTS_BY_ARGUMENT_NAME = "com.nuodb.migrator.group.scripts.by.argument.name";
+    final String SCRIPT_THREADS_OPTION_DESCRIPTION = "com.nuodb.migrator.script.threads.option.description";
+    final String SCRIPT_THREADS_ARGUMENT_NAME = "com.nuodb.migrator.script.threads.argument.name";
     final String IDENTIFIER_QUOTING_OPTION_DESCRIPTION = "com.nuodb.migrator.identifier.quoting.option.description";
     final String IDENTIFIER_QUOTING_ARGUMENT_NAME = "com.nuodb.migrator.identifier.quoting.argument.name";
     final String IDENTIFIER_NORMALIZER_OPTION_DESCRIPTION = "com.nuodb.migrator.identifier.normalize.option.description";
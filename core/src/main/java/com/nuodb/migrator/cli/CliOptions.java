@@ -57,6 +57,7 @@ public interface CliOptions {
 
     final String DUMP = "dump";
     final String LOAD = "load";
+    final String MIGRATE = "migrate";
     final String SCHEMA = "schema";
 
     final String SOURCE_DRIVER = "source.driver";
@@ -86,8 +87,13 @@ public interface CliOptions {
 
     final String THREADS = "threads";
     final String THREADS_SHORT = "t";
+    final String IO_THREADS = "io.threads";
+    final String VIRTUAL_THREADS = "virtual.threads";
+    final String CONSTRAINT_THREADS = "constraint.threads";
 
     final String QUERY_LIMIT = "query.limit";
+    final String ROW_QUEUE_SIZE = "row.queue.size";
+    final String LOB_THRESHOLD = "lob.threshold";
 
     final String QUERY = "query";
 
@@ -112,10 +118,12 @@ public interface CliOptions {
     final String INPUT_PATH = "input.path";
 
     final String META_DATA = "meta.data.*";
+    final String INSPECTION_THREADS = "inspection.threads";
     final String FAIL_ON_EMPTY_DATABASE = "fail.on.empty.database";
     final String NAMING_STRATEGY = "naming.strategy";
     final String SCRIPT_TYPE = "script.type";
     final String GROUP_SCRIPTS_BY = "group.scripts.by";
+    final String SCRIPT_THREADS = "script.threads";
     final String IDENTIFIER_QUOTING = "identifier.quoting";
     final String IDENTIFIER_NORMALIZER = "identifier.normalizer";
 
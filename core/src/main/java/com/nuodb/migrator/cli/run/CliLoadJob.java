@@ -59,6 +59,10 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
         super(LOAD);
     }
 
+    protected CliLoadJob(String command) {
+        super(command);
+    }
+
     @Override
     protected Option createOption() {
         GroupBuilder group = newGroupBuilder().withName(getMessage(LOAD_GROUP_NAME)).withRequired(true);
@@ -125,6 +129,12 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
                 .withArgument(newArgumentBuilder().withName(getMessage(PARALLELIZER_ARGUMENT_NAME)).build()).build();
         group.withOption(parallelizer);
 
+        Option constraintThreads = newBasicOptionBuilder().withName(CONSTRAINT_THREADS)
+                .withDescription(getMessage(CONSTRAINT_THREADS_OPTION_DESCRIPTION))
+                .withArgument(newArgumentBuilder().withName(getMessage(CONSTRAINT_THREADS_ARGUMENT_NAME)).build())
+                .build();
+        group.withOption(constraintThreads);
+
         OptionFormat optionFormat = new OptionFormat(getOptionFormat());
         optionFormat.setValuesSeparator(null);
 
@@ -158,6 +168,9 @@ public class CliLoadJob extends CliJob<LoadJobSpec> {
 
     protected void parseExecutorGroup(OptionSet optionSet, LoadJobSpec jobSpec) {
         jobSpec.setThreads(parseThreadsOption(optionSet, this));
+        jobSpec.setIoThreads(parseIoThreadsOption(optionSet, this));
+        jobSpec.setVirtualThreads(parseVirtualThreadsOption(optionSet, this));
+        jobSpec.setConstraintThreads(parseConstraintThreadsOption(optionSet, this));
         String parallelizerValue = (String) optionSet.getValue(PARALLELIZER, PARALLELIZER_TABLE_LEVEL);
         Parallelizer parallelizer = createParallelizerMapping().get(parallelizerValue);
         if (parallelizer == null) {
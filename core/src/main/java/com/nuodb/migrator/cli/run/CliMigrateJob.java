@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.cli.run;
+
+import com.nuodb.migrator.cli.parse.Option;
+import com.nuodb.migrator.cli.parse.OptionSet;
+import com.nuodb.migrator.cli.parse.option.GroupBuilder;
+import com.nuodb.migrator.migrate.RowQueue;
+import com.nuodb.migrator.spec.MigrateJobSpec;
+
+import java.util.Map;
+
+import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static java.lang.Integer.parseInt;
+import static java.lang.Long.parseLong;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Migrates source database to the target database directly, rows are passed
+ * from the source to the target through bounded in-memory queues.
+ *
+ * @author Sergey Bushik
+ */
+public class CliMigrateJob extends CliLoadJob {
+
+    public CliMigrateJob() {
+        super(MIGRATE);
+    }
+
+    @Override
+    protected Option createOption() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(MIGRATE_GROUP_NAME)).withRequired(true);
+        group.withOption(createSourceGroup());
+        group.withOption(createTargetGroup());
+        group.withOption(createMigrationModeGroup());
+        group.withOption(createDataMigrationGroup());
+        group.withOption(createSchemaMigrationGroup());
+        group.withOption(createExecutorGroup());
+        return group.build();
+    }
+
+    @Override
+    protected void bind(OptionSet optionSet) {
+        MigrateJobSpec jobSpec = new MigrateJobSpec();
+        jobSpec.setSourceSpec(parseSourceGroup(optionSet, this));
+        jobSpec.setTargetSpec(parseTargetGroup(optionSet, this));
+        jobSpec.setMigrationModes(parseMigrationModeGroup(optionSet, this));
+        parseDataMigrationGroup(optionSet, jobSpec);
+        parseSchemaMigrationGroup(optionSet, jobSpec, this);
+        parseExecutorGroup(optionSet, jobSpec);
+        setJobSpec(jobSpec);
+    }
+
+    @Override
+    public void execute(Map<Object, Object> context) {
+        getMigrator().execute((MigrateJobSpec) getJobSpec(), context);
+    }
+
+    @Override
+    protected Option createDataMigrationGroup() {
+        GroupBuilder group = newGroupBuilder().withName(getMessage(DATA_MIGRATION_GROUP_NAME));
+        group.withOption(createMetaDataFilterManagerGroup());
+        group.withOption(createCommitGroup());
+        group.withOption(createInsertTypeGroup());
+        group.withOption(createTimeZoneOption());
+        group.withOption(createQueryLimitOption());
+        group.withOption(createRowQueueSizeOption());
+        group.withOption(createLobThresholdOption());
+        return group.build();
+    }
+
+    protected Option createRowQueueSizeOption() {
+        return newBasicOptionBuilder().withName(ROW_QUEUE_SIZE)
+                .withDescription(getMessage(ROW_QUEUE_SIZE_OPTION_DESCRIPTION))
+                .withArgument(newArgumentBuilder().withName(getMessage(ROW_QUEUE_SIZE_ARGUMENT_NAME)).build())
+                .build();
+    }
+
+    protected Option createLobThresholdOption() {
+        return newBasicOptionBuilder().withName(LOB_THRESHOLD)
+                .withDescription(getMessage(LOB_THRESHOLD_OPTION_DESCRIPTION))
+                .withArgument(newArgumentBuilder().withName(getMessage(LOB_THRESHOLD_ARGUMENT_NAME)).build())
+                .build();
+    }
+
+    protected void parseDataMigrationGroup(OptionSet optionSet, MigrateJobSpec jobSpec) {
+        super.parseDataMigrationGroup(optionSet, jobSpec);
+        jobSpec.setQueryLimit(parseQueryLimitOption(optionSet, this));
+        jobSpec.setRowQueueSize(parseRowQueueSizeOption(optionSet, this));
+        jobSpec.setLobThreshold(parseLobThresholdOption(optionSet, this));
+    }
+
+    protected int parseRowQueueSizeOption(OptionSet optionSet, Option option) {
+        String rowQueueSizeValue = (String) optionSet.getValue(ROW_QUEUE_SIZE);
+        return !isEmpty(rowQueueSizeValue) ? parseInt(rowQueueSizeValue) : RowQueue.ROW_QUEUE_SIZE;
+    }
+
+    protected Long parseLobThresholdOption(OptionSet optionSet, Option option) {
+        String lobThresholdValue = (String) optionSet.getValue(LOB_THRESHOLD);
+        return !isEmpty(lobThresholdValue) ? parseLong(lobThresholdValue) : null;
+    }
+}
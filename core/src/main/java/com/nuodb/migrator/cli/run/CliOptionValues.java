@@ -29,8 +29,11 @@ package com.nuodb.migrator.cli.run;
 
 import com.nuodb.migrator.cli.parse.Option;
 import com.nuodb.migrator.cli.parse.OptionException;
+import com.nuodb.migrator.jdbc.commit.AdaptiveCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.BatchCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.CommitStrategy;
+import com.nuodb.migrator.jdbc.commit.MultiRowCommitStrategy;
+import com.nuodb.migrator.jdbc.commit.PipelinedCommitStrategy;
 import com.nuodb.migrator.jdbc.commit.SingleCommitStrategy;
 import com.nuodb.migrator.jdbc.dialect.IdentifierNormalizer;
 import com.nuodb.migrator.jdbc.dialect.IdentifierQuoting;
@@ -97,6 +100,9 @@ public class CliOptionValues {
      */
     public static final String COMMIT_STRATEGY_SINGLE = "single";
     public static final String COMMIT_STRATEGY_BATCH = "batch";
+    public static final String COMMIT_STRATEGY_MULTI_ROW = "multi-row";
+    public static final String COMMIT_STRATEGY_PIPELINED = "pipelined";
+    public static final String COMMIT_STRATEGY_ADAPTIVE = "adaptive";
 
     private CliOptionValues() {
     }
@@ -164,6 +170,9 @@ public class CliOptionValues {
         Map<String, CommitStrategy> commitStrategyMapping = new TreeMap<String, CommitStrategy>(CASE_INSENSITIVE_ORDER);
         commitStrategyMapping.put(COMMIT_STRATEGY_SINGLE, new SingleCommitStrategy());
         commitStrategyMapping.put(COMMIT_STRATEGY_BATCH, new BatchCommitStrategy());
+        commitStrategyMapping.put(COMMIT_STRATEGY_MULTI_ROW, new MultiRowCommitStrategy());
+        commitStrategyMapping.put(COMMIT_STRATEGY_PIPELINED, new PipelinedCommitStrategy());
+        commitStrategyMapping.put(COMMIT_STRATEGY_ADAPTIVE, new AdaptiveCommitStrategy());
         return commitStrategyMapping;
     }
 }
@@ -64,9 +64,11 @@ import com.nuodb.migrator.jdbc.metadata.generator.SequenceQualifyNamingStrategy;
 import com.nuodb.migrator.jdbc.metadata.generator.TriggerAutoNamingStrategy;
 import com.nuodb.migrator.jdbc.metadata.generator.TriggerHashNamingStrategy;
 import com.nuodb.migrator.jdbc.metadata.generator.TriggerQualifyNamingStrategy;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.type.JdbcTypeCodes;
 import com.nuodb.migrator.spec.DriverConnectionSpec;
 import com.nuodb.migrator.spec.JdbcTypeSpec;
+import com.nuodb.migrator.spec.MetaDataSpec;
 import com.nuodb.migrator.spec.MigrationMode;
 import com.nuodb.migrator.spec.ResourceSpec;
 import com.nuodb.migrator.spec.ScriptGeneratorJobSpecBase;
@@ -413,6 +415,11 @@ public class CliRunSupport extends CliSupport {
                 .build();
         group.withOption(identifierNormalizer);
 
+        Option scriptThreads = newBasicOptionBuilder().withName(SCRIPT_THREADS)
+                .withDescription(getMessage(SCRIPT_THREADS_OPTION_DESCRIPTION))
+                .withArgument(newArgumentBuilder().withName(getMessage(SCRIPT_THREADS_ARGUMENT_NAME)).build()).build();
+        group.withOption(scriptThreads);
+
         return group.build();
     }
 
@@ -515,6 +522,27 @@ public class CliRunSupport extends CliSupport {
                 .withDescription(getMessage(THREADS_OPTION_DESCRIPTION))
                 .withArgument(newArgumentBuilder().withName(getMessage(THREADS_ARGUMENT_NAME)).build()).build();
         group.withOption(threads);
+
+        Option ioThreads = newBasicOptionBuilder().withName(IO_THREADS)
+                .withDescription(getMessage(IO_THREADS_OPTION_DESCRIPTION))
+                .withArgument(newArgumentBuilder().withName(getMessage(IO_THREADS_ARGUMENT_NAME)).build()).build();
+        group.withOption(ioThreads);
+
+        Option virtualThreads = newBasicOptionBuilder().withName(VIRTUAL_THREADS)
+                .withDescription(getMessage(VIRTUAL_THREADS_OPTION_DESCRIPTION)).build();
+        group.withOption(virtualThreads);
+    }
+
+    protected Option createInspectionThreadsOption() {
+        return newBasicOptionBuilder().withName(INSPECTION_THREADS)
+                .withDescription(getMessage(INSPECTION_THREADS_OPTION_DESCRIPTION))
+                .withArgument(newArgumentBuilder().withName(getMessage(INSPECTION_THREADS_ARGUMENT_NAME)).build())
+                .build();
+    }
+
+    protected Option createQueryLimitOption() {
+        return newBasicOptionBuilder().withName(QUERY_LIMIT).withDescription(getMessage(QUERY_LIMIT_OPTION_DESCRIPTION))
+                .withArgument(newArgumentBuilder().withName(getMessage(QUERY_LIMIT_ARGUMENT_NAME)).build()).build();
     }
 
     protected MetaDataFilterManager parseMetaDataFilterManagerGroup(OptionSet optionSet, Option option) {
@@ -699,6 +727,7 @@ public class CliRunSupport extends CliSupport {
         jobSpec.setIdentifierQuoting(parseIdentifierQuoting(optionSet, option));
         jobSpec.setIdentifierNormalizer(parseIdentifierNormalizer(optionSet, option));
         jobSpec.setTableTypes(parseTableTypes(optionSet));
+        jobSpec.setScriptThreads(parseScriptThreadsOption(optionSet, option));
     }
 
     protected TranslationConfig parseTranslationConfig(OptionSet optionSet, Option option) {
@@ -850,11 +879,42 @@ public class CliRunSupport extends CliSupport {
         return objectTypes;
     }
 
+    protected QueryLimit parseQueryLimitOption(OptionSet optionSet, Option option) {
+        String queryLimitValue = (String) optionSet.getValue(QUERY_LIMIT);
+        return !isEmpty(queryLimitValue) ? new QueryLimit(parseLong(queryLimitValue)) : null;
+    }
+
+    protected int parseInspectionThreadsOption(OptionSet optionSet, Option option) {
+        String inspectionThreadsValue = (String) optionSet.getValue(INSPECTION_THREADS);
+        return !StringUtils.isEmpty(inspectionThreadsValue) ? parseInt(inspectionThreadsValue)
+                : MetaDataSpec.INSPECTION_THREADS;
+    }
+
+    protected int parseScriptThreadsOption(OptionSet optionSet, Option option) {
+        String scriptThreadsValue = (String) optionSet.getValue(SCRIPT_THREADS);
+        return !StringUtils.isEmpty(scriptThreadsValue) ? parseInt(scriptThreadsValue)
+                : ScriptGeneratorJobSpecBase.SCRIPT_THREADS;
+    }
+
     protected Integer parseThreadsOption(OptionSet optionSet, Option option) {
         String threadsValue = (String) optionSet.getValue(THREADS);
         return !StringUtils.isEmpty(threadsValue) ? parseInt(threadsValue) : null;
     }
 
+    protected Integer parseIoThreadsOption(OptionSet optionSet, Option option) {
+        String ioThreadsValue = (String) optionSet.getValue(IO_THREADS);
+        return !StringUtils.isEmpty(ioThreadsValue) ? parseInt(ioThreadsValue) : null;
+    }
+
+    protected Integer parseConstraintThreadsOption(OptionSet optionSet, Option option) {
+        String constraintThreadsValue = (String) optionSet.getValue(CONSTRAINT_THREADS);
+        return !StringUtils.isEmpty(constraintThreadsValue) ? parseInt(constraintThreadsValue) : null;
+    }
+
+    protected boolean parseVirtualThreadsOption(OptionSet optionSet, Option option) {
+        return optionSet.hasOption(VIRTUAL_THREADS);
+    }
+
     public TimeZone getDefaultTimeZone() {
         return defaultTimeZone;
     }
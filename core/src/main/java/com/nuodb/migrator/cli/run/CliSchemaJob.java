@@ -86,6 +86,7 @@ public class CliSchemaJob extends CliJob<SchemaJobSpec> {
                 .withArgument(newArgumentBuilder().withName(getMessage(FAIL_ON_EMPTY_DATABASE_ARGUMENT_NAME)).build())
                 .build();
         group.addOption(failOnEmptyDatabase);
+        group.addOption(createInspectionThreadsOption());
         return group;
     }
 
@@ -104,6 +105,7 @@ public class CliSchemaJob extends CliJob<SchemaJobSpec> {
         super.parseSchemaMigrationGroup(optionSet, jobSpec, option);
         String value = (String) optionSet.getValue(FAIL_ON_EMPTY_DATABASE);
         jobSpec.setFailOnEmptyDatabase(!isEmpty(value) ? parseBoolean(value) : FAIL_ON_EMPTY_DATABASE_DEFAULT);
+        jobSpec.setInspectionThreads(parseInspectionThreadsOption(optionSet, option));
     }
 
     @Override
@@ -85,6 +85,8 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
         backupWriter.setSourceSessionFactory(createSourceSessionFactory());
         backupWriter.setTimeZone(getTimeZone());
         backupWriter.setThreads(getThreads() != null ? getThreads() : THREADS);
+        backupWriter.setIoThreads(getIoThreads());
+        backupWriter.setVirtualThreads(isVirtualThreads());
         backupWriter.setValueFormatRegistryResolver(createValueFormatRegistryResolver());
         setBackupWriter(backupWriter);
     }
@@ -171,4 +173,12 @@ public class DumpJob extends HasServicesJobBase<DumpJobSpec> {
     protected Integer getThreads() {
         return getJobSpec().getThreads();
     }
+
+    protected Integer getIoThreads() {
+        return getJobSpec().getIoThreads();
+    }
+
+    protected boolean isVirtualThreads() {
+        return getJobSpec().isVirtualThreads();
+    }
 }
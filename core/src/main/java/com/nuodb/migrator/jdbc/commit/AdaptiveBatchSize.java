@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.utils.ObjectUtils;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.round;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Batch size of a query shared by the threads loading it. Each batch reports
+ * number of rows, bytes and time taken to execute and commit it, the next
+ * batch size is the number of rows expected to commit within the target
+ * latency at the measured rate. Batch size grows at most twice per batch and
+ * shrinks immediately, it's kept within the floor and ceiling.
+ *
+ * @author Sergey Bushik
+ */
+public class AdaptiveBatchSize {
+
+    private final long minBatchSize;
+    private final long maxBatchSize;
+    private final long targetLatency;
+    private long batchSize;
+    private long batches;
+    private long rows;
+    private long bytes;
+    private long time;
+
+    /**
+     * @param batchSize
+     *            initial batch size.
+     * @param minBatchSize
+     *            batch size floor.
+     * @param maxBatchSize
+     *            batch size ceiling.
+     * @param targetLatency
+     *            target latency of a batch execution and commit in
+     *            milliseconds.
+     */
+    public AdaptiveBatchSize(long batchSize, long minBatchSize, long maxBatchSize, long targetLatency) {
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = max(minBatchSize, maxBatchSize);
+        this.targetLatency = MILLISECONDS.toNanos(targetLatency);
+        this.batchSize = clamp(batchSize);
+    }
+
+    /**
+     * Records executed batch and adjusts batch size.
+     *
+     * @param rows
+     *            number of rows in the batch.
+     * @param bytes
+     *            estimated size of the rows in bytes.
+     * @param time
+     *            time in nanoseconds the batch was executed and committed.
+     * @param adjust
+     *            adjust batch size, partial batches executed at the end of
+     *            load are recorded only, as their latency is dominated by the
+     *            fixed cost of a round trip.
+     */
+    public synchronized void update(long rows, long bytes, long time, boolean adjust) {
+        this.batches++;
+        this.rows += rows;
+        this.bytes += bytes;
+        this.time += time;
+        if (adjust && rows > 0) {
+            double estimate = time > 0 ? (double) rows * targetLatency / time : maxBatchSize;
+            batchSize = clamp(round(min(estimate, batchSize * 2.0)));
+        }
+    }
+
+    protected long clamp(long batchSize) {
+        return min(maxBatchSize, max(minBatchSize, batchSize));
+    }
+
+    public synchronized long getBatchSize() {
+        return batchSize;
+    }
+
+    public synchronized long getBatches() {
+        return batches;
+    }
+
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return total time in nanoseconds spent executing and committing
+     *         batches.
+     */
+    public synchronized long getTime() {
+        return time;
+    }
+
+    public synchronized long getRowsPerSecond() {
+        return time > 0 ? rows * 1000000000L / time : 0;
+    }
+
+    public synchronized long getBytesPerBatch() {
+        return batches > 0 ? bytes / batches : 0;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectUtils.toString(this);
+    }
+}
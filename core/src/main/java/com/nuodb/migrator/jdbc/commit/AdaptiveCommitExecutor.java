@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static java.lang.System.nanoTime;
+
+/**
+ * Batches rows until the batch size of the query is reached, measures
+ * execution and commit of each batch and reports it to the shared
+ * {@link AdaptiveBatchSize}.
+ *
+ * @author Sergey Bushik
+ */
+public class AdaptiveCommitExecutor extends CommitExecutorBase<PreparedStatement> {
+
+    private final AdaptiveBatchSize batchSize;
+    private long rows;
+    private long bytes;
+
+    public AdaptiveCommitExecutor(PreparedStatement statement, Query query, AdaptiveBatchSize batchSize) {
+        super(statement, query);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds estimated size of the row bound to the statement to the size of the
+     * current batch.
+     *
+     * @param bytes
+     *            estimated size of the row in bytes.
+     */
+    public void addBytes(long bytes) {
+        this.bytes += bytes;
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        statement.addBatch();
+        rows++;
+        if (rows >= batchSize.getBatchSize()) {
+            executeBatch(true);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        if (rows > 0) {
+            executeBatch(false);
+        }
+    }
+
+    protected void executeBatch(boolean adjust) throws SQLException {
+        long start = nanoTime();
+        executeBatch(statement);
+        batchSize.update(rows, bytes, nanoTime() - start, adjust);
+        rows = 0;
+        bytes = 0;
+    }
+
+    public AdaptiveBatchSize getBatchSize() {
+        return batchSize;
+    }
+}
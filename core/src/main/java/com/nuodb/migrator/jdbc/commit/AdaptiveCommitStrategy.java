@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static com.nuodb.migrator.utils.ValidationUtils.instanceOf;
+import static java.lang.Long.parseLong;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Batch commit strategy tuning batch size of each query towards the target
+ * latency of batch execution and commit. Batch size is the initial size, it's
+ * kept between {@code batch.size.min} and {@code batch.size.max}. Threads
+ * loading the same query share its {@link AdaptiveBatchSize}, which collects
+ * the rows, bytes and time of executed batches.
+ *
+ * @author Sergey Bushik
+ */
+public class AdaptiveCommitStrategy extends BatchCommitStrategy {
+
+    public static final String ATTRIBUTE_MIN_BATCH_SIZE = "batch.size.min";
+
+    public static final String ATTRIBUTE_MAX_BATCH_SIZE = "batch.size.max";
+
+    public static final String ATTRIBUTE_TARGET_LATENCY = "target.latency";
+
+    public static final long MIN_BATCH_SIZE = 50;
+
+    public static final long MAX_BATCH_SIZE = 50000;
+
+    /**
+     * Target latency of batch execution and commit in milliseconds
+     */
+    public static final long TARGET_LATENCY = 1000;
+
+    private long minBatchSize = MIN_BATCH_SIZE;
+    private long maxBatchSize = MAX_BATCH_SIZE;
+    private long targetLatency = TARGET_LATENCY;
+    private final ConcurrentMap<Query, AdaptiveBatchSize> batchSizes = newConcurrentMap();
+
+    @Override
+    public void setAttributes(Map<String, Object> attributes) {
+        super.setAttributes(attributes);
+        Object minBatchSizeValue = attributes.get(ATTRIBUTE_MIN_BATCH_SIZE);
+        if (minBatchSizeValue instanceof String && !isEmpty((String) minBatchSizeValue)) {
+            setMinBatchSize(parseLong((String) minBatchSizeValue));
+        }
+        Object maxBatchSizeValue = attributes.get(ATTRIBUTE_MAX_BATCH_SIZE);
+        if (maxBatchSizeValue instanceof String && !isEmpty((String) maxBatchSizeValue)) {
+            setMaxBatchSize(parseLong((String) maxBatchSizeValue));
+        }
+        Object targetLatencyValue = attributes.get(ATTRIBUTE_TARGET_LATENCY);
+        if (targetLatencyValue instanceof String && !isEmpty((String) targetLatencyValue)) {
+            setTargetLatency(parseLong((String) targetLatencyValue));
+        }
+    }
+
+    @Override
+    public CommitExecutor createCommitExecutor(Statement statement, Query query) {
+        instanceOf(statement, PreparedStatement.class);
+        return new AdaptiveCommitExecutor((PreparedStatement) statement, query, getBatchSize(query));
+    }
+
+    /**
+     * Returns batch size of the query, which is created on the first call.
+     *
+     * @param query
+     *            query executed in batches.
+     * @return batch size shared by the commit executors of the query.
+     */
+    public AdaptiveBatchSize getBatchSize(Query query) {
+        AdaptiveBatchSize batchSize = batchSizes.get(query);
+        if (batchSize == null) {
+            AdaptiveBatchSize newBatchSize = new AdaptiveBatchSize(getBatchSize(), minBatchSize, maxBatchSize,
+                    targetLatency);
+            batchSize = batchSizes.putIfAbsent(query, newBatchSize);
+            if (batchSize == null) {
+                batchSize = newBatchSize;
+            }
+        }
+        return batchSize;
+    }
+
+    /**
+     * @return batch sizes of the queries executed so far.
+     */
+    public Map<Query, AdaptiveBatchSize> getBatchSizes() {
+        return batchSizes;
+    }
+
+    public long getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    public void setMinBatchSize(long minBatchSize) {
+        this.minBatchSize = minBatchSize;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(long maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getTargetLatency() {
+        return targetLatency;
+    }
+
+    public void setTargetLatency(long targetLatency) {
+        this.targetLatency = targetLatency;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        if (!super.equals(o))
+            return false;
+
+        AdaptiveCommitStrategy that = (AdaptiveCommitStrategy) o;
+
+        if (minBatchSize != that.minBatchSize)
+            return false;
+        if (maxBatchSize != that.maxBatchSize)
+            return false;
+        if (targetLatency != that.targetLatency)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (int) (minBatchSize ^ (minBatchSize >>> 32));
+        result = 31 * result + (int) (maxBatchSize ^ (maxBatchSize >>> 32));
+        result = 31 * result + (int) (targetLatency ^ (targetLatency >>> 32));
+        return result;
+    }
+}
@@ -60,11 +60,14 @@ public class BatchCommitStrategy implements CommitStrategy {
 
     @Override
     public CommitExecutor createCommitExecutor(Statement statement, Query query) {
+        return createCommitExecutor(statement, query, getBatchSize());
+    }
+
+    protected CommitExecutor createCommitExecutor(Statement statement, Query query, final long batchSize) {
         instanceOf(statement, PreparedStatement.class);
         return new CommitExecutorBase<PreparedStatement>((PreparedStatement) statement, query) {
 
             private long batches;
-            private long batchSize = getBatchSize();
 
             @Override
             public boolean execute() throws SQLException {
@@ -86,8 +89,7 @@ public class BatchCommitStrategy implements CommitStrategy {
             }
 
             protected void executeBatch() throws SQLException {
-                statement.executeBatch();
-                statement.getConnection().commit();
+                executeBatch(statement);
                 batches = 0;
             }
         };
@@ -44,4 +44,8 @@ public interface CommitExecutor<S extends Statement> {
     boolean execute() throws SQLException;
 
     void finish() throws SQLException;
+
+    CommitListener getCommitListener();
+
+    void setCommitListener(CommitListener commitListener);
 }
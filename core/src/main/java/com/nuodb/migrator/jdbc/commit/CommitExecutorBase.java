@@ -29,8 +29,12 @@ package com.nuodb.migrator.jdbc.commit;
 
 import com.nuodb.migrator.jdbc.query.Query;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Statement;
 
+import static java.lang.System.nanoTime;
+
 /**
  * @author Sergey Bushik
  */
@@ -38,6 +42,7 @@ public abstract class CommitExecutorBase<S extends Statement> implements CommitE
 
     protected S statement;
     protected Query query;
+    protected CommitListener commitListener;
 
     public CommitExecutorBase(S statement, Query query) {
         this.statement = statement;
@@ -54,6 +59,40 @@ public abstract class CommitExecutorBase<S extends Statement> implements CommitE
         return query;
     }
 
+    /**
+     * Executes batch of the statement and commits it on the connection of the statement, reports execution and commit
+     * time to the commit listener if it's set
+     *
+     * @param statement
+     *            holding a batch
+     * @throws SQLException
+     *             if batch fails
+     */
+    protected void executeBatch(PreparedStatement statement) throws SQLException {
+        CommitListener commitListener = this.commitListener;
+        if (commitListener == null) {
+            statement.executeBatch();
+            statement.getConnection().commit();
+        } else {
+            long start = nanoTime();
+            statement.executeBatch();
+            long executed = nanoTime();
+            commitListener.afterExecute(executed - start);
+            statement.getConnection().commit();
+            commitListener.afterCommit(nanoTime() - executed);
+        }
+    }
+
+    @Override
+    public CommitListener getCommitListener() {
+        return commitListener;
+    }
+
+    @Override
+    public void setCommitListener(CommitListener commitListener) {
+        this.commitListener = commitListener;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
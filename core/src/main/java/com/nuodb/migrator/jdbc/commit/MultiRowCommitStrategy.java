@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.Statement;
+import java.util.Map;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.Math.max;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Batch commit strategy inserting several rows with a single statement, if
+ * the dialect of the target database supports bulk inserts. Batch size is
+ * the number of rows inserted between commits, the number of batched
+ * statements is scaled down by the number of rows each statement inserts.
+ *
+ * @author Sergey Bushik
+ */
+public class MultiRowCommitStrategy extends BatchCommitStrategy {
+
+    public static final String ATTRIBUTE_ROWS_PER_STATEMENT = "rows.per.statement";
+
+    public static final int ROWS_PER_STATEMENT = 100;
+
+    private int rowsPerStatement = ROWS_PER_STATEMENT;
+
+    @Override
+    public void setAttributes(Map<String, Object> attributes) {
+        super.setAttributes(attributes);
+        Object rowsPerStatementValue = attributes.get(ATTRIBUTE_ROWS_PER_STATEMENT);
+        if (rowsPerStatementValue instanceof String && !isEmpty((String) rowsPerStatementValue)) {
+            setRowsPerStatement(parseInt((String) rowsPerStatementValue));
+        }
+    }
+
+    /**
+     * Creates commit executor for a statement inserting the given number of
+     * rows at once.
+     *
+     * @param statement
+     *            bulk insert statement.
+     * @param query
+     *            bulk insert query.
+     * @param rows
+     *            number of rows inserted by a single statement execution.
+     * @return commit executor.
+     */
+    public CommitExecutor createCommitExecutor(Statement statement, Query query, int rows) {
+        return createCommitExecutor(statement, query, max(1, getBatchSize() / rows));
+    }
+
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+
+    public void setRowsPerStatement(int rowsPerStatement) {
+        this.rowsPerStatement = rowsPerStatement;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        if (!super.equals(o))
+            return false;
+
+        MultiRowCommitStrategy that = (MultiRowCommitStrategy) o;
+
+        if (rowsPerStatement != that.rowsPerStatement)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + rowsPerStatement;
+        return result;
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Throwables.propagateIfPossible;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.newBlockingExecutorService;
+import static java.lang.Long.MAX_VALUE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Executes batches of a prepared statement asynchronously, so that the next
+ * batch is built on another statement while the previous batch is executed
+ * and committed. Statements are used in turns, each should be prepared on its
+ * own connection. Batches are executed one by one in the order they are
+ * built and at most {@code statements - 1} batches are in flight. A failure of
+ * a batch is rethrown from the next {@link #execute()} or {@link #finish()}
+ * call made by the loading thread. Batches run on a named daemon thread, which
+ * retires when the executor is idle, so an executor left unfinished by a failed
+ * fork doesn't keep the JVM alive.
+ *
+ * @author Sergey Bushik
+ */
+public class PipelinedCommitExecutor extends CommitExecutorBase<PreparedStatement> {
+
+    private static final String COMMIT = "commit";
+
+    private final List<PreparedStatement> statements;
+    private final Future[] batches;
+    private final long batchSize;
+    private final ExecutorService executorService;
+    private volatile boolean failed;
+    private int current;
+    private long rows;
+
+    public PipelinedCommitExecutor(List<? extends PreparedStatement> statements, Query query, long batchSize) {
+        super(statements.get(0), query);
+        this.statements = newArrayList(statements);
+        this.batches = new Future[statements.size()];
+        this.batchSize = batchSize;
+        this.executorService = newBlockingExecutorService(COMMIT, 1, false);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        statement.addBatch();
+        rows++;
+        if (rows > batchSize) {
+            executeBatch();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void finish() throws SQLException {
+        try {
+            if (rows > 0) {
+                executeBatch();
+            }
+            for (int index = 0; index < batches.length; index++) {
+                await(index);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Stops executing batches and waits for the batch in flight to complete, so
+     * that the statements and their connections can be closed afterwards.
+     */
+    public void close() {
+        failed = true;
+        executorService.shutdown();
+        boolean interrupted = false;
+        while (!executorService.isTerminated()) {
+            try {
+                executorService.awaitTermination(MAX_VALUE, SECONDS);
+            } catch (InterruptedException exception) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    protected void executeBatch() throws SQLException {
+        final PreparedStatement batch = statement;
+        batches[current] = executorService.submit(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                if (!failed) {
+                    try {
+                        executeBatch(batch);
+                    } catch (Exception exception) {
+                        failed = true;
+                        throw exception;
+                    }
+                }
+                return null;
+            }
+        });
+        rows = 0;
+        current = (current + 1) % statements.size();
+        await(current);
+        statement = statements.get(current);
+    }
+
+    protected void await(int index) throws SQLException {
+        Future batch = batches[index];
+        if (batch == null) {
+            return;
+        }
+        batches[index] = null;
+        try {
+            batch.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for batch execution", exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            propagateIfPossible(cause);
+            throw new SQLException(cause);
+        }
+    }
+
+    public List<PreparedStatement> getStatements() {
+        return statements;
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+}
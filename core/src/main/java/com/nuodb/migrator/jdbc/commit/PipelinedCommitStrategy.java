@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static com.nuodb.migrator.utils.ValidationUtils.instanceOf;
+import static java.lang.Integer.parseInt;
+import static java.util.Collections.singletonList;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Batch commit strategy overlapping execution and commit of a batch with
+ * binding rows of the next one. Each loading thread prepares the statement on
+ * {@code batches.in.flight + 1} connections and builds batches on them in
+ * turns, see {@link PipelinedCommitExecutor}.
+ *
+ * @author Sergey Bushik
+ */
+public class PipelinedCommitStrategy extends BatchCommitStrategy {
+
+    public static final String ATTRIBUTE_BATCHES_IN_FLIGHT = "batches.in.flight";
+
+    public static final int BATCHES_IN_FLIGHT = 1;
+
+    private int batchesInFlight = BATCHES_IN_FLIGHT;
+
+    @Override
+    public void setAttributes(Map<String, Object> attributes) {
+        super.setAttributes(attributes);
+        Object batchesInFlightValue = attributes.get(ATTRIBUTE_BATCHES_IN_FLIGHT);
+        if (batchesInFlightValue instanceof String && !isEmpty((String) batchesInFlightValue)) {
+            setBatchesInFlight(parseInt((String) batchesInFlightValue));
+        }
+    }
+
+    @Override
+    public CommitExecutor createCommitExecutor(Statement statement, Query query) {
+        instanceOf(statement, PreparedStatement.class);
+        return createCommitExecutor(singletonList((PreparedStatement) statement), query);
+    }
+
+    /**
+     * Creates commit executor building batches on the given statements in
+     * turns.
+     *
+     * @param statements
+     *            same query prepared on {@link #getBatchesInFlight()} + 1
+     *            distinct connections.
+     * @param query
+     *            prepared query.
+     * @return pipelined commit executor.
+     */
+    public PipelinedCommitExecutor createCommitExecutor(List<? extends PreparedStatement> statements, Query query) {
+        return new PipelinedCommitExecutor(statements, query, getBatchSize());
+    }
+
+    public int getBatchesInFlight() {
+        return batchesInFlight;
+    }
+
+    public void setBatchesInFlight(int batchesInFlight) {
+        this.batchesInFlight = batchesInFlight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        if (!super.equals(o))
+            return false;
+
+        PipelinedCommitStrategy that = (PipelinedCommitStrategy) o;
+
+        if (batchesInFlight != that.batchesInFlight)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + batchesInFlight;
+        return result;
+    }
+}
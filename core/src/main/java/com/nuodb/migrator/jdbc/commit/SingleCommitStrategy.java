@@ -35,6 +35,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Map;
 
+import static java.lang.System.nanoTime;
+
 /**
  * @author Sergey Bushik
  */
@@ -54,17 +56,25 @@ public class SingleCommitStrategy implements CommitStrategy {
 
             @Override
             public boolean execute() throws SQLException {
+                long start = commitListener != null ? nanoTime() : 0;
                 if (statement instanceof PreparedStatement) {
                     ((PreparedStatement) statement).execute();
                 } else {
                     statement.execute(query.toString());
                 }
+                if (commitListener != null) {
+                    commitListener.afterExecute(nanoTime() - start);
+                }
                 return true;
             }
 
             @Override
             public void finish() throws SQLException {
+                long start = commitListener != null ? nanoTime() : 0;
                 statement.getConnection().commit();
+                if (commitListener != null) {
+                    commitListener.afterCommit(nanoTime() - start);
+                }
             }
         };
     }
@@ -28,14 +28,10 @@
 package com.nuodb.migrator.jdbc.connection;
 
 import com.nuodb.migrator.spec.ConnectionSpec;
-import com.nuodb.migrator.utils.aop.AopProxy;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 
-import static com.nuodb.migrator.utils.aop.AopProxyUtils.createAopProxy;
-import static com.nuodb.migrator.utils.aop.MethodInterceptors.newIntroduceInterfacesInterceptor;
-
 /**
  * @author Sergey Bushik
  */
@@ -50,27 +46,11 @@ public abstract class ConnectionProxyProviderBase<C extends ConnectionSpec> exte
 
     @Override
     protected Connection openConnection() throws SQLException {
-        final AopProxy aopProxy = createConnectionProxy(createConnection());
-        initConnectionProxy(aopProxy);
-        return (Connection) aopProxy;
-    }
-
-    protected AopProxy createConnectionProxy(Connection connection) {
-        return createAopProxy(connection, Connection.class, ConnectionProxy.class);
+        return createConnectionProxy(createConnection());
     }
 
-    protected void initConnectionProxy(final AopProxy connection) {
-        connection.addAdvice(newIntroduceInterfacesInterceptor(new ConnectionProxy<C>() {
-            @Override
-            public Connection getConnection() {
-                return ConnectionProxyProviderBase.this.getConnection((Connection) connection.getTarget());
-            }
-
-            @Override
-            public C getConnectionSpec() {
-                return ConnectionProxyProviderBase.this.getConnectionSpec();
-            }
-        }, ConnectionProxy.class));
+    protected Connection createConnectionProxy(Connection connection) {
+        return new SimpleConnectionProxy<C>(connection, this);
     }
 
     @SuppressWarnings("unchecked")
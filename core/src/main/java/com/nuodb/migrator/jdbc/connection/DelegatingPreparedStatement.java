@@ -0,0 +1,411 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * Prepared statement forwarding calls to the target statement. Every bound
+ * parameter is reported to {@link #beforeSetParameter(int, Object)} and every
+ * execution to {@link #beforeExecute()} before the call reaches the target.
+ *
+ * @author Sergey Bushik
+ */
+public class DelegatingPreparedStatement extends DelegatingStatement<PreparedStatement> implements PreparedStatement {
+
+    public DelegatingPreparedStatement(Connection connection, PreparedStatement statement) {
+        super(connection, statement);
+    }
+
+    /**
+     * Invoked for each parameter bound to the statement, does nothing by
+     * default.
+     *
+     * @param parameterIndex
+     *            1-based index of the parameter.
+     * @param value
+     *            bound value, null for setNull() calls.
+     */
+    protected void beforeSetParameter(int parameterIndex, Object value) {
+    }
+
+    /**
+     * Invoked before the prepared query is executed, does nothing by default.
+     *
+     * @throws SQLException
+     *             if the statement can't be executed.
+     */
+    protected void beforeExecute() throws SQLException {
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        beforeExecute();
+        return getTarget().executeQuery();
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        beforeExecute();
+        return getTarget().executeUpdate();
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        beforeExecute();
+        return getTarget().execute();
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        getTarget().clearParameters();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        getTarget().addBatch();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return getTarget().getMetaData();
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return getTarget().getParameterMetaData();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        beforeSetParameter(parameterIndex, null);
+        getTarget().setNull(parameterIndex, sqlType);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setBoolean(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setByte(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setShort(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setInt(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setLong(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setFloat(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setDouble(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setBigDecimal(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setString(parameterIndex, x);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setBytes(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setDate(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setTime(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setTimestamp(parameterIndex, x);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setUnicodeStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setObject(parameterIndex, x, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setObject(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        beforeSetParameter(parameterIndex, reader);
+        getTarget().setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setRef(parameterIndex, x);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setBlob(parameterIndex, x);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setClob(parameterIndex, x);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setArray(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar calendar) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setDate(parameterIndex, x, calendar);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar calendar) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setTime(parameterIndex, x, calendar);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar calendar) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setTimestamp(parameterIndex, x, calendar);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        beforeSetParameter(parameterIndex, null);
+        getTarget().setNull(parameterIndex, sqlType, typeName);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setURL(parameterIndex, x);
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setRowId(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        beforeSetParameter(parameterIndex, value);
+        getTarget().setNString(parameterIndex, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        beforeSetParameter(parameterIndex, value);
+        getTarget().setNCharacterStream(parameterIndex, value, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        beforeSetParameter(parameterIndex, value);
+        getTarget().setNClob(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        beforeSetParameter(parameterIndex, reader);
+        getTarget().setClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        beforeSetParameter(parameterIndex, inputStream);
+        getTarget().setBlob(parameterIndex, inputStream, length);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        beforeSetParameter(parameterIndex, reader);
+        getTarget().setNClob(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        beforeSetParameter(parameterIndex, xmlObject);
+        getTarget().setSQLXML(parameterIndex, xmlObject);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setAsciiStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setBinaryStream(parameterIndex, x, length);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        beforeSetParameter(parameterIndex, reader);
+        getTarget().setCharacterStream(parameterIndex, reader, length);
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setAsciiStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        beforeSetParameter(parameterIndex, x);
+        getTarget().setBinaryStream(parameterIndex, x);
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        beforeSetParameter(parameterIndex, reader);
+        getTarget().setCharacterStream(parameterIndex, reader);
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        beforeSetParameter(parameterIndex, value);
+        getTarget().setNCharacterStream(parameterIndex, value);
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        beforeSetParameter(parameterIndex, reader);
+        getTarget().setClob(parameterIndex, reader);
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        beforeSetParameter(parameterIndex, inputStream);
+        getTarget().setBlob(parameterIndex, inputStream);
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        beforeSetParameter(parameterIndex, reader);
+        getTarget().setNClob(parameterIndex, reader);
+    }
+}
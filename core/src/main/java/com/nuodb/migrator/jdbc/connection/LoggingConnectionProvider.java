@@ -29,19 +29,15 @@ package com.nuodb.migrator.jdbc.connection;
 
 import com.nuodb.migrator.spec.ConnectionSpec;
 import com.nuodb.migrator.utils.aop.AopProxy;
-import com.nuodb.migrator.utils.aop.MethodMatcher;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
-import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Collection;
 
-import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.utils.aop.AopProxyUtils.createAopProxy;
 import static com.nuodb.migrator.utils.aop.MethodAdvisors.newMethodAdvisor;
 import static com.nuodb.migrator.utils.aop.MethodMatchers.newMethodMatcher;
@@ -53,17 +49,7 @@ import static org.slf4j.LoggerFactory.getLogger;
 @SuppressWarnings("unchecked")
 public class LoggingConnectionProvider extends ConnectionProxyProviderBase {
 
-    private static final String GET_META_DATA_METHOD = "getMetaData";
     private static final String GET_CONNECTION_METHOD = "getConnection";
-    private static final String CREATE_STATEMENT_METHOD = "createStatement";
-    private static final String PREPARE_STATEMENT_METHOD = "prepareStatement";
-    private static final Collection<String> EXECUTE_METHODS = newArrayList("execute", "executeQuery", "executeUpdate");
-    private static final String SET_NULL_METHOD = "setNull";
-    private static final Collection<String> SET_METHODS = newArrayList("setNull", "setBoolean", "setByte", "setShort",
-            "setInt", "setLong", "setFloat", "setDouble", "setBigDecimal", "setString", "setBytes", "setDate",
-            "setTime", "setTimestamp", "setAsciiStream", "setUnicodeStream", "setBinaryStream", "setObject",
-            "setCharacterStream", "setRef", "setBlob", "setClob", "setArray", "setURL", "setRowId", "setNString",
-            "setNCharacterStream", "setNClob", "setSQLXML");
 
     private final ConnectionProvider connectionProvider;
     private final QueryLogger queryLogger;
@@ -96,122 +82,39 @@ public class LoggingConnectionProvider extends ConnectionProxyProviderBase {
         }
     }
 
+    /**
+     * Wraps connection into a logging one only if the queries are logged, so
+     * that driver statements are used directly otherwise.
+     *
+     * @param connection
+     *            driver connection.
+     * @return connection proxy.
+     */
     @Override
-    protected void initConnectionProxy(final AopProxy connection) {
-        super.initConnectionProxy(connection);
-
-        connection.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                AopProxy metaData = createAopProxy(invocation.proceed(), DatabaseMetaData.class);
-                initMetaDataProxy(connection, metaData);
-                return metaData;
-            }
-        }, newMethodMatcher(Connection.class, GET_META_DATA_METHOD)));
-
-        // statement advices
-        connection.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                final AopProxy statement = createAopProxy(invocation.proceed(), Statement.class);
-                initStatementProxy(connection, statement);
-                return statement;
-            }
-        }, new MethodMatcher() {
-            @Override
-            public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                return method.getName().startsWith(CREATE_STATEMENT_METHOD);
-            }
-        }));
-
-        // prepared statement advices
-        connection.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                final AopProxy statement = createAopProxy(invocation.proceed(), PreparedStatement.class);
-                initPreparedStatementProxy(connection, statement, (String) invocation.getArguments()[0]);
-                return statement;
-            }
-        }, new MethodMatcher() {
-            @Override
-            public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                return method.getName().startsWith(PREPARE_STATEMENT_METHOD);
-            }
-        }));
+    protected Connection createConnectionProxy(Connection connection) {
+        return queryLogger.isEnabled() ? new LoggingConnection(connection, this)
+                : super.createConnectionProxy(connection);
     }
 
-    protected void initMetaDataProxy(final AopProxy connection, final AopProxy metaData) {
+    protected DatabaseMetaData createMetaDataProxy(final Connection connection, DatabaseMetaData metaData) {
+        AopProxy proxy = createAopProxy(metaData, DatabaseMetaData.class);
         // metaData.getConnection() returns proxy
-        metaData.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
+        proxy.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
             @Override
             public Object invoke(MethodInvocation invocation) throws Throwable {
                 return connection;
             }
         }, newMethodMatcher(DatabaseMetaData.class, GET_CONNECTION_METHOD)));
+        return (DatabaseMetaData) proxy;
     }
 
-    protected void initStatementProxy(final AopProxy connection, final AopProxy statement) {
-        // statement.getConnection() returns proxy connection
-        statement.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                return connection;
-            }
-        }, newMethodMatcher(Statement.class, GET_CONNECTION_METHOD)));
-
-        // statement.execute(query), statement.executeQuery(query),
-        // statement.executeUpdate(query) logs query string
-        statement.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                log((Statement) statement, (String) invocation.getArguments()[0]);
-                return invocation.proceed();
-            }
-        }, new MethodMatcher() {
-            @Override
-            public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                return method.getDeclaringClass() == Statement.class && EXECUTE_METHODS.contains(method.getName());
-            }
-        }));
+    protected Statement createStatementProxy(Connection connection, Statement statement) {
+        return new LoggingStatement(connection, statement, this);
     }
 
-    protected void initPreparedStatementProxy(final AopProxy connection, final AopProxy statement, final String query) {
-        initStatementProxy(connection, statement);
-
-        final QueryFormat queryFormat = createQueryFormat((Statement) statement, query);
-        // statement.setXXX() capture parameters
-        statement.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                Object[] arguments = invocation.getArguments();
-                Object parameter = arguments[0];
-                if (parameter instanceof Integer) {
-                    Object value = SET_NULL_METHOD.equals(invocation.getMethod().getName()) ? null : arguments[1];
-                    queryFormat.setParameter(((Integer) parameter) - 1, value);
-                }
-                return invocation.proceed();
-            }
-        }, new MethodMatcher() {
-            @Override
-            public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                return method.getDeclaringClass() == PreparedStatement.class && SET_METHODS.contains(method.getName());
-            }
-        }));
-        // statement.execute(), statement.executeQuery(),
-        // statement.executeUpdate() logs query string
-        statement.addAdvisor(newMethodAdvisor(new MethodInterceptor() {
-            @Override
-            public Object invoke(MethodInvocation invocation) throws Throwable {
-                log((Statement) statement, queryFormat.format());
-                return invocation.proceed();
-            }
-        }, new MethodMatcher() {
-            @Override
-            public boolean matches(Method method, Class<?> targetClass, Object[] arguments) {
-                return method.getDeclaringClass() == PreparedStatement.class
-                        && EXECUTE_METHODS.contains(method.getName());
-            }
-        }));
+    protected PreparedStatement createPreparedStatementProxy(Connection connection, PreparedStatement statement,
+            String query) {
+        return new LoggingPreparedStatement(connection, statement, query, this);
     }
 
     protected QueryFormat createQueryFormat(Statement statement, String query) {
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Prepared statement capturing bound parameters and logging the query with
+ * parameters substituted once it's executed.
+ *
+ * @author Sergey Bushik
+ */
+public class LoggingPreparedStatement extends DelegatingPreparedStatement {
+
+    private final LoggingConnectionProvider connectionProvider;
+    private final QueryFormat queryFormat;
+
+    public LoggingPreparedStatement(Connection connection, PreparedStatement statement, String query,
+            LoggingConnectionProvider connectionProvider) {
+        super(connection, statement);
+        this.connectionProvider = connectionProvider;
+        this.queryFormat = connectionProvider.createQueryFormat(statement, query);
+    }
+
+    @Override
+    protected void beforeSetParameter(int parameterIndex, Object value) {
+        queryFormat.setParameter(parameterIndex - 1, value);
+    }
+
+    @Override
+    protected void beforeExecute(String sql) throws SQLException {
+        connectionProvider.log(this, sql);
+    }
+
+    @Override
+    protected void beforeExecute() throws SQLException {
+        connectionProvider.log(queryFormat.format());
+    }
+}
@@ -32,5 +32,13 @@ package com.nuodb.migrator.jdbc.connection;
  */
 public interface QueryLogger {
 
+    /**
+     * Checks if queries are actually logged, so that capturing of the queries
+     * can be skipped altogether if not.
+     *
+     * @return true if logged queries are written out.
+     */
+    boolean isEnabled();
+
     void log(String query);
 }
@@ -28,6 +28,7 @@
 package com.nuodb.migrator.jdbc.dialect;
 
 import com.nuodb.migrator.jdbc.metadata.*;
+import com.nuodb.migrator.jdbc.query.InsertQuery;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.session.Session;
 import com.nuodb.migrator.jdbc.type.*;
@@ -103,6 +104,10 @@ public interface Dialect {
 
     RowCountHandler createRowCountHandler(Table table, Column column, String filter, RowCountType rowCountType);
 
+    boolean supportsBulkInsert(InsertQuery insertQuery);
+
+    BulkInsertHandler createBulkInsertHandler(InsertQuery insertQuery);
+
     boolean addScriptsInCreateTable(Table table);
 
     boolean addConstraintsInCreateTable();
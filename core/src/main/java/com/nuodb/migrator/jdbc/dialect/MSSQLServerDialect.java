@@ -110,6 +110,14 @@ public class MSSQLServerDialect extends SimpleDialect {
         return (rowCountType == APPROX && column == null && filter == null) || rowCountType == EXACT;
     }
 
+    /**
+     * SQL Server rejects requests with 2100 or more parameters
+     */
+    @Override
+    protected int getMaxBulkInsertParameters() {
+        return 2099;
+    }
+
     @Override
     public boolean supportsLimit() {
         return true;
@@ -248,6 +248,11 @@ public class MySQLDialect extends SimpleDialect {
         return true;
     }
 
+    @Override
+    protected int getMaxBulkInsertParameters() {
+        return 65535;
+    }
+
     @Override
     public boolean supportsLimit() {
         return true;
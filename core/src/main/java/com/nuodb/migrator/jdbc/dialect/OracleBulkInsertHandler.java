@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+
+import static com.nuodb.migrator.jdbc.query.InsertType.INSERT;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+
+/**
+ * Oracle has no multi row values clause, rows are inserted with
+ * {@code INSERT ALL INTO ... VALUES (...) INTO ... VALUES (...) SELECT 1 FROM DUAL}
+ * instead.
+ *
+ * @author Sergey Bushik
+ */
+public class OracleBulkInsertHandler extends SimpleBulkInsertHandler {
+
+    public OracleBulkInsertHandler(Dialect dialect, InsertQuery insertQuery, int maxParameters, int maxRows) {
+        super(dialect, insertQuery, maxParameters, maxRows);
+    }
+
+    @Override
+    public Query createBulkInsertQuery(int rows) {
+        String into = createInsertQuery(1).toString().substring(INSERT.getCommand().length() + 1);
+        StringBuilder query = new StringBuilder(INSERT.getCommand()).append(" ALL");
+        for (int row = 0; row < rows; row++) {
+            query.append(' ').append(into);
+        }
+        query.append(" SELECT 1 FROM DUAL");
+        return newQuery(query.toString());
+    }
+}
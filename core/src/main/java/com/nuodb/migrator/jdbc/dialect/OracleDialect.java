@@ -31,6 +31,7 @@ import com.nuodb.migrator.jdbc.JdbcUtils;
 import com.nuodb.migrator.jdbc.metadata.Column;
 import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
 import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.InsertQuery;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.type.*;
 import com.nuodb.migrator.jdbc.url.JdbcUrl;
@@ -46,6 +47,7 @@ import java.util.TimeZone;
 import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
+import static com.nuodb.migrator.jdbc.query.InsertType.REPLACE;
 import static com.nuodb.migrator.match.AntRegexCompiler.INSTANCE;
 import static com.nuodb.migrator.utils.Collections.isEmpty;
 import static java.sql.Connection.TRANSACTION_READ_COMMITTED;
@@ -267,6 +269,21 @@ public class OracleDialect extends SimpleDialect {
         return cycle ? "CYCLE" : "NOCYCLE";
     }
 
+    @Override
+    public boolean supportsBulkInsert(InsertQuery insertQuery) {
+        return super.supportsBulkInsert(insertQuery) && insertQuery.getInsertType() != REPLACE;
+    }
+
+    @Override
+    public BulkInsertHandler createBulkInsertHandler(InsertQuery insertQuery) {
+        return new OracleBulkInsertHandler(this, insertQuery, getMaxBulkInsertParameters(), getMaxBulkInsertRows());
+    }
+
+    @Override
+    protected int getMaxBulkInsertParameters() {
+        return 65535;
+    }
+
     @Override
     public boolean supportsLimit() {
         return true;
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import com.nuodb.migrator.jdbc.query.Query;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Inserts rows with a multi row {@code INSERT INTO ... VALUES (...), (...)}
+ * statement.
+ *
+ * @author Sergey Bushik
+ */
+public class SimpleBulkInsertHandler implements BulkInsertHandler {
+
+    private final Dialect dialect;
+    private final InsertQuery insertQuery;
+    private final int maxParameters;
+    private final int maxRows;
+
+    public SimpleBulkInsertHandler(Dialect dialect, InsertQuery insertQuery, int maxParameters, int maxRows) {
+        this.dialect = dialect;
+        this.insertQuery = insertQuery;
+        this.maxParameters = maxParameters;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public int getMaxRows() {
+        return max(1, min(maxRows, maxParameters / max(1, insertQuery.getColumns().size())));
+    }
+
+    @Override
+    public Query createBulkInsertQuery(int rows) {
+        return createInsertQuery(rows);
+    }
+
+    protected InsertQuery createInsertQuery(int rows) {
+        InsertQuery bulkInsertQuery = new InsertQuery();
+        bulkInsertQuery.setInsertType(insertQuery.getInsertType());
+        bulkInsertQuery.setDialect(insertQuery.getDialect());
+        bulkInsertQuery.setQualifyNames(insertQuery.isQualifyNames());
+        bulkInsertQuery.setInto(insertQuery.getInto());
+        bulkInsertQuery.setColumns(insertQuery.getColumns());
+        bulkInsertQuery.setRows(rows);
+        return bulkInsertQuery;
+    }
+
+    @Override
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    @Override
+    public InsertQuery getInsertQuery() {
+        return insertQuery;
+    }
+
+    public int getMaxParameters() {
+        return maxParameters;
+    }
+}
@@ -36,6 +36,7 @@ import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.metadata.Trigger;
 import com.nuodb.migrator.jdbc.metadata.TriggerEvent;
 import com.nuodb.migrator.jdbc.metadata.TriggerTime;
+import com.nuodb.migrator.jdbc.query.InsertQuery;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.metadata.resolver.SimpleServiceResolverAware;
 import com.nuodb.migrator.jdbc.session.Session;
@@ -81,6 +82,9 @@ import static org.apache.commons.lang3.StringUtils.equalsIgnoreCase;
  */
 public class SimpleDialect extends SimpleServiceResolverAware<Dialect> implements Dialect {
 
+    public static final int MAX_BULK_INSERT_PARAMETERS = 32767;
+    public static final int MAX_BULK_INSERT_ROWS = 1000;
+
     private static final Pattern ALLOWED_IDENTIFIER_PATTERN = Pattern.compile("[a-zA-Z0-9_]*");
     private static final ScriptEscapeUtils SCRIPT_ESCAPE_UTILS = new ScriptEscapeUtils(new LookupTranslator(
             new String[][] { { "\0", "\\0" }, { "'", "''" }, { "\"", "\\\"" }, { "\\", "\\\\" } }));
@@ -435,6 +439,34 @@ public class SimpleDialect extends SimpleServiceResolverAware<Dialect> implement
         return new SimpleTableRowCountHandler(this, table, column, filter, rowCountType);
     }
 
+    @Override
+    public boolean supportsBulkInsert(InsertQuery insertQuery) {
+        return !insertQuery.getColumns().isEmpty();
+    }
+
+    @Override
+    public BulkInsertHandler createBulkInsertHandler(InsertQuery insertQuery) {
+        return new SimpleBulkInsertHandler(this, insertQuery, getMaxBulkInsertParameters(), getMaxBulkInsertRows());
+    }
+
+    /**
+     * Maximum number of parameters a bulk insert statement can bind.
+     *
+     * @return maximum number of parameters.
+     */
+    protected int getMaxBulkInsertParameters() {
+        return MAX_BULK_INSERT_PARAMETERS;
+    }
+
+    /**
+     * Maximum number of rows a bulk insert statement can insert.
+     *
+     * @return maximum number of rows.
+     */
+    protected int getMaxBulkInsertRows() {
+        return MAX_BULK_INSERT_ROWS;
+    }
+
     @Override
     public boolean addScriptsInCreateTable(Table table) {
         return true;
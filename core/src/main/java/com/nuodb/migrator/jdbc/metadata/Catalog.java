@@ -27,6 +27,8 @@
  */
 package com.nuodb.migrator.jdbc.metadata;
 
+import com.google.common.collect.ImmutableList;
+
 import java.util.Collection;
 import java.util.Map;
 
@@ -35,11 +37,13 @@ import static com.google.common.collect.Maps.newLinkedHashMap;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.CATALOG;
 import static java.lang.String.format;
+import static java.util.Collections.unmodifiableMap;
 
 public class Catalog extends IdentifiableBase implements HasSchemas {
 
     private Map<Identifier, Schema> schemas = newLinkedHashMap();
     private Database database;
+    private Collection<Table> tables;
 
     public Catalog() {
         super(CATALOG);
@@ -85,6 +89,7 @@ public class Catalog extends IdentifiableBase implements HasSchemas {
     }
 
     public Schema addSchema(Schema schema) {
+        checkNotFrozen();
         schema.setDatabase(database);
         schema.setCatalog(this);
         schemas.put(schema.getIdentifier(), schema);
@@ -100,6 +105,7 @@ public class Catalog extends IdentifiableBase implements HasSchemas {
     }
 
     public void removeSchema(Schema schema) {
+        checkNotFrozen();
         schemas.remove(schema.getIdentifier());
     }
 
@@ -117,6 +123,9 @@ public class Catalog extends IdentifiableBase implements HasSchemas {
 
     @Override
     public Collection<Table> getTables() {
+        if (this.tables != null) {
+            return this.tables;
+        }
         Collection<Table> tables = newArrayList();
         for (Schema schema : getSchemas()) {
             tables.addAll(schema.getTables());
@@ -142,6 +151,18 @@ public class Catalog extends IdentifiableBase implements HasSchemas {
         return userDefinedTypes;
     }
 
+    @Override
+    protected void freeze(Map<String, Identifier> identifiers) {
+        Map<Identifier, Schema> schemas = newLinkedHashMap();
+        for (Schema schema : this.schemas.values()) {
+            schema.freeze(identifiers);
+            schemas.put(schema.getIdentifier(), schema);
+        }
+        this.schemas = unmodifiableMap(schemas);
+        this.tables = ImmutableList.copyOf(getTables());
+        super.freeze(identifiers);
+    }
+
     @Override
     public void output(int indent, StringBuilder buffer) {
         super.output(indent, buffer);
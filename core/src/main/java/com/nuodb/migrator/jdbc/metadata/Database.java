@@ -29,6 +29,7 @@ package com.nuodb.migrator.jdbc.metadata;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.spec.ConnectionSpec;
@@ -40,14 +41,20 @@ import java.util.Map;
 import static com.google.common.collect.Iterables.filter;
 import static com.google.common.collect.Iterables.get;
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Maps.newLinkedHashMap;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableMap;
 import static org.apache.commons.lang3.StringUtils.split;
 
 public class Database extends IdentifiableBase implements HasSchemas {
 
-    private final Map<Identifier, Catalog> catalogs = newLinkedHashMap();
+    private Map<Identifier, Catalog> catalogs = newLinkedHashMap();
+    private Collection<Schema> schemas;
+    private Collection<Table> tables;
+    private Map<Identifier, Collection<Table>> tablesByName;
 
     private Dialect dialect;
     private DriverInfo driverInfo;
@@ -115,12 +122,14 @@ public class Database extends IdentifiableBase implements HasSchemas {
     }
 
     public Catalog addCatalog(Catalog catalog) {
+        checkNotFrozen();
         catalog.setDatabase(this);
         catalogs.put(catalog.getIdentifier(), catalog);
         return catalog;
     }
 
     public void removeCatalog(Catalog catalog) {
+        checkNotFrozen();
         catalogs.remove(catalog.getIdentifier());
     }
 
@@ -172,6 +181,9 @@ public class Database extends IdentifiableBase implements HasSchemas {
 
     @Override
     public Collection<Schema> getSchemas() {
+        if (this.schemas != null) {
+            return this.schemas;
+        }
         Collection<Schema> schemas = newArrayList();
         for (Catalog catalog : getCatalogs()) {
             schemas.addAll(catalog.getSchemas());
@@ -181,6 +193,9 @@ public class Database extends IdentifiableBase implements HasSchemas {
 
     @Override
     public Collection<Table> getTables() {
+        if (this.tables != null) {
+            return this.tables;
+        }
         Collection<Table> tables = newArrayList();
         for (Schema schema : getSchemas()) {
             tables.addAll(schema.getTables());
@@ -207,23 +222,15 @@ public class Database extends IdentifiableBase implements HasSchemas {
     }
 
     public Collection<Table> getTables(String tableName) {
-        final Identifier tableId = valueOf(tableName);
-        return newArrayList(filter(getTables(), new Predicate<Table>() {
-            @Override
-            public boolean apply(Table table) {
-                return ObjectUtils.equals(table.getIdentifier(), tableId);
-            }
-        }));
+        return newArrayList(getTables(valueOf(tableName)));
     }
 
     public Collection<Table> getTables(String schemaName, String tableName) {
         final Identifier schemaId = valueOf(schemaName);
-        final Identifier tableId = valueOf(tableName);
-        return newArrayList(filter(getTables(), new Predicate<Table>() {
+        return newArrayList(filter(getTables(valueOf(tableName)), new Predicate<Table>() {
             @Override
             public boolean apply(Table table) {
-                return ObjectUtils.equals(table.getSchema().getIdentifier(), schemaId)
-                        && ObjectUtils.equals(table.getIdentifier(), tableId);
+                return ObjectUtils.equals(table.getSchema().getIdentifier(), schemaId);
             }
         }));
     }
@@ -231,17 +238,72 @@ public class Database extends IdentifiableBase implements HasSchemas {
     public Collection<Table> getTables(String catalogName, String schemaName, String tableName) {
         final Identifier catalogId = valueOf(catalogName);
         final Identifier schemaId = valueOf(schemaName);
-        final Identifier tableId = valueOf(tableName);
-        return newArrayList(filter(getTables(), new Predicate<Table>() {
+        return newArrayList(filter(getTables(valueOf(tableName)), new Predicate<Table>() {
             @Override
             public boolean apply(Table table) {
                 return ObjectUtils.equals(table.getCatalog().getIdentifier(), catalogId)
-                        && ObjectUtils.equals(table.getSchema().getIdentifier(), schemaId)
-                        && ObjectUtils.equals(table.getIdentifier(), tableId);
+                        && ObjectUtils.equals(table.getSchema().getIdentifier(), schemaId);
             }
         }));
     }
 
+    /**
+     * Returns tables of all catalogs and schemas having the name, a frozen database looks the tables up in the index
+     * by name instead of scanning the tables
+     *
+     * @param tableId
+     *            table name
+     * @return tables with the name
+     */
+    protected Iterable<Table> getTables(final Identifier tableId) {
+        if (tablesByName != null) {
+            Collection<Table> tables = tablesByName.get(tableId);
+            return tables != null ? tables : emptyList();
+        }
+        return filter(getTables(), new Predicate<Table>() {
+            @Override
+            public boolean apply(Table table) {
+                return ObjectUtils.equals(table.getIdentifier(), tableId);
+            }
+        });
+    }
+
+    /**
+     * Freezes the inspected database turning it into a read only snapshot. Objects of the snapshot share equal
+     * identifiers, lists of schemas and tables and the columns ordered by position are built once, tables are
+     * indexed by name. Catalogs, schemas, tables and their columns, indexes and constraints can't be added or
+     * removed from the frozen snapshot, the attempts fail with {@link MetaDataException}.
+     */
+    public void freeze() {
+        if (isFrozen()) {
+            return;
+        }
+        Map<String, Identifier> identifiers = newHashMap();
+        freeze(identifiers);
+    }
+
+    @Override
+    protected void freeze(Map<String, Identifier> identifiers) {
+        Map<Identifier, Catalog> catalogs = newLinkedHashMap();
+        for (Catalog catalog : this.catalogs.values()) {
+            catalog.freeze(identifiers);
+            catalogs.put(catalog.getIdentifier(), catalog);
+        }
+        this.catalogs = unmodifiableMap(catalogs);
+        this.schemas = ImmutableList.copyOf(getSchemas());
+        this.tables = ImmutableList.copyOf(getTables());
+        Map<Identifier, Collection<Table>> tablesByName = newHashMap();
+        for (Table table : this.tables) {
+            Collection<Table> namesakes = tablesByName.get(table.getIdentifier());
+            if (namesakes == null) {
+                tablesByName.put(table.getIdentifier(), namesakes = newArrayList());
+            }
+            namesakes.add(table);
+        }
+        this.tablesByName = tablesByName;
+        super.freeze(identifiers);
+    }
+
     @Override
     public void output(int indent, StringBuilder buffer) {
         output(indent, buffer, "database");
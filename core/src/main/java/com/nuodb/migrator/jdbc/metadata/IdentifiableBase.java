@@ -30,9 +30,11 @@ package com.nuodb.migrator.jdbc.metadata;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
 
 import java.util.Collection;
+import java.util.Map;
 
 import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
+import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.join;
 
 /**
@@ -43,6 +45,7 @@ public class IdentifiableBase extends IndentedBase implements Identifiable {
     private boolean qualified;
     private Identifier identifier;
     private MetaDataType objectType;
+    private boolean frozen;
 
     public IdentifiableBase(MetaDataType objectType) {
         this(objectType, Identifier.EMPTY);
@@ -78,6 +81,7 @@ public class IdentifiableBase extends IndentedBase implements Identifiable {
 
     @Override
     public void setName(String name) {
+        checkNotFrozen();
         this.identifier = valueOf(name);
     }
 
@@ -122,9 +126,46 @@ public class IdentifiableBase extends IndentedBase implements Identifiable {
 
     @Override
     public void setIdentifier(Identifier identifier) {
+        checkNotFrozen();
         this.identifier = identifier;
     }
 
+    /**
+     * @return true if the object belongs to a frozen snapshot of the database, see {@link Database#freeze()}
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Freezes the object replacing its identifier with an equal identifier shared by the other objects of the
+     * snapshot
+     *
+     * @param identifiers
+     *            interned identifiers of the snapshot keyed by their values
+     */
+    protected void freeze(Map<String, Identifier> identifiers) {
+        identifier = intern(identifier, identifiers);
+        frozen = true;
+    }
+
+    protected void checkNotFrozen() {
+        if (frozen) {
+            throw new MetaDataException(format("%s %s is frozen", objectType, getName()));
+        }
+    }
+
+    protected static Identifier intern(Identifier identifier, Map<String, Identifier> identifiers) {
+        if (identifier == null) {
+            return null;
+        }
+        Identifier interned = identifiers.get(identifier.value());
+        if (interned == null) {
+            identifiers.put(identifier.value(), interned = identifier);
+        }
+        return interned;
+    }
+
     @Override
     public MetaDataType getObjectType() {
         return objectType;
@@ -33,7 +33,12 @@ public class Identifier implements Comparable<Identifier>, Serializable {
 
     public static final Identifier EMPTY = Identifier.valueOf(null);
 
-    private String value;
+    private final String value;
+    /**
+     * Hash of the lower cased value, computed once as identifiers are looked up in the maps of tables, columns and
+     * indexes over and over
+     */
+    private transient int hash;
 
     protected Identifier(String value) {
         this.value = value;
@@ -77,7 +82,11 @@ public class Identifier implements Comparable<Identifier>, Serializable {
 
     @Override
     public int hashCode() {
-        return value != null ? value.toLowerCase().hashCode() : 0;
+        int hash = this.hash;
+        if (hash == 0 && value != null) {
+            this.hash = hash = value.toLowerCase().hashCode();
+        }
+        return hash;
     }
 
     @Override
@@ -35,14 +35,16 @@ import static com.google.common.collect.Maps.newLinkedHashMap;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.SCHEMA;
 import static java.lang.String.format;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableMap;
 
 public class Schema extends IdentifiableBase implements HasTables {
 
     private Database database;
     private Catalog catalog;
-    private final Collection<Sequence> sequences = newArrayList();
-    private final Map<Identifier, UserDefinedType> userDefinedTypes = newLinkedHashMap();
-    private final Map<Identifier, Table> tables = newLinkedHashMap();
+    private Collection<Sequence> sequences = newArrayList();
+    private Map<Identifier, UserDefinedType> userDefinedTypes = newLinkedHashMap();
+    private Map<Identifier, Table> tables = newLinkedHashMap();
 
     public Schema() {
         super(SCHEMA);
@@ -80,12 +82,14 @@ public class Schema extends IdentifiableBase implements HasTables {
     }
 
     public void addSequence(Sequence sequence) {
+        checkNotFrozen();
         if (sequences.add(sequence)) {
             sequence.setSchema(this);
         }
     }
 
     public void removeSequence(Sequence sequence) {
+        checkNotFrozen();
         if (sequences.remove(sequence)) {
             sequence.setSchema(null);
         }
@@ -106,6 +110,7 @@ public class Schema extends IdentifiableBase implements HasTables {
     }
 
     public void addUserDefinedType(UserDefinedType userDefinedType) {
+        checkNotFrozen();
         userDefinedType.setSchema(this);
         userDefinedTypes.put(userDefinedType.getIdentifier(), userDefinedType);
     }
@@ -140,6 +145,7 @@ public class Schema extends IdentifiableBase implements HasTables {
     }
 
     public void addTable(Table table) {
+        checkNotFrozen();
         table.setDatabase(catalog != null ? catalog.getDatabase() : null);
         table.setCatalog(catalog);
         table.setSchema(this);
@@ -167,6 +173,7 @@ public class Schema extends IdentifiableBase implements HasTables {
     }
 
     public void removeTable(Table table) {
+        checkNotFrozen();
         tables.remove(table.getIdentifier());
     }
 
@@ -175,6 +182,22 @@ public class Schema extends IdentifiableBase implements HasTables {
         return tables.values();
     }
 
+    @Override
+    protected void freeze(Map<String, Identifier> identifiers) {
+        Map<Identifier, Table> tables = newLinkedHashMap();
+        for (Table table : this.tables.values()) {
+            table.freeze(identifiers);
+            tables.put(table.getIdentifier(), table);
+        }
+        for (Sequence sequence : sequences) {
+            sequence.freeze(identifiers);
+        }
+        this.tables = unmodifiableMap(tables);
+        this.sequences = unmodifiableCollection(sequences);
+        this.userDefinedTypes = unmodifiableMap(userDefinedTypes);
+        super.freeze(identifiers);
+    }
+
     @Override
     public void output(int indent, StringBuilder buffer) {
         super.output(indent, buffer);
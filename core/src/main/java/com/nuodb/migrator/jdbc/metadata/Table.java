@@ -27,6 +27,7 @@
  */
 package com.nuodb.migrator.jdbc.metadata;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
 import com.nuodb.migrator.jdbc.dialect.Dialect;
 
@@ -35,6 +36,7 @@ import java.util.Comparator;
 import java.util.Map;
 
 import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Maps.newLinkedHashMap;
 import static com.google.common.collect.Sets.*;
 import static com.google.common.collect.Sets.newTreeSet;
@@ -42,6 +44,8 @@ import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.utils.Collections.addIgnoreNull;
 import static java.lang.String.format;
 import static java.util.Collections.singleton;
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableMap;
 
 public class Table extends IdentifiableBase {
 
@@ -57,6 +61,8 @@ public class Table extends IdentifiableBase {
     private Map<Identifier, Column> columns = newLinkedHashMap();
     private Map<Identifier, Index> indexes = newLinkedHashMap();
     private Collection<ForeignKey> foreignKeys = newLinkedHashSet();
+    private Map<Identifier, ForeignKey> foreignKeysByName;
+    private Collection<Column> columnsByPosition;
 
     private Collection<Trigger> triggers = newHashSet();
     private PrimaryKey primaryKey;
@@ -84,6 +90,7 @@ public class Table extends IdentifiableBase {
     }
 
     public void addForeignKey(ForeignKey foreignKey) {
+        checkNotFrozen();
         foreignKey.setTable(this);
         foreignKeys.add(foreignKey);
     }
@@ -92,7 +99,20 @@ public class Table extends IdentifiableBase {
         return foreignKeys;
     }
 
+    public ForeignKey getForeignKey(Identifier identifier) {
+        if (foreignKeysByName != null) {
+            return foreignKeysByName.get(identifier);
+        }
+        for (ForeignKey foreignKey : foreignKeys) {
+            if (identifier != null && identifier.equals(foreignKey.getIdentifier())) {
+                return foreignKey;
+            }
+        }
+        return null;
+    }
+
     public void setPrimaryKey(PrimaryKey primaryKey) {
+        checkNotFrozen();
         primaryKey.setTable(this);
         this.primaryKey = primaryKey;
     }
@@ -102,6 +122,7 @@ public class Table extends IdentifiableBase {
     }
 
     public Index addIndex(Index index) {
+        checkNotFrozen();
         index.setTable(this);
         indexes.put(index.getIdentifier(), index);
         return index;
@@ -116,6 +137,7 @@ public class Table extends IdentifiableBase {
     }
 
     public Check addCheck(Check check) {
+        checkNotFrozen();
         check.setTable(this);
         checks.add(check);
         return check;
@@ -178,6 +200,7 @@ public class Table extends IdentifiableBase {
     }
 
     public Trigger addTrigger(Trigger trigger) {
+        checkNotFrozen();
         trigger.setTable(this);
         triggers.add(trigger);
         return trigger;
@@ -188,6 +211,7 @@ public class Table extends IdentifiableBase {
     }
 
     public void setTriggers(Collection<Trigger> triggers) {
+        checkNotFrozen();
         this.triggers = triggers;
     }
 
@@ -230,12 +254,19 @@ public class Table extends IdentifiableBase {
     }
 
     public Column addColumn(Column column) {
+        checkNotFrozen();
         column.setTable(this);
         columns.put(column.getIdentifier(), column);
         return column;
     }
 
+    /**
+     * @return columns ordered by their positions, frozen table returns the columns ordered once on freezing
+     */
     public Collection<Column> getColumns() {
+        if (columnsByPosition != null) {
+            return columnsByPosition;
+        }
         Collection<Column> columns = newTreeSet(new Comparator<Column>() {
             @Override
             public int compare(Column o1, Column o2) {
@@ -253,9 +284,42 @@ public class Table extends IdentifiableBase {
     }
 
     public void setChecks(Collection<Check> checks) {
+        checkNotFrozen();
         this.checks = checks;
     }
 
+    @Override
+    protected void freeze(Map<String, Identifier> identifiers) {
+        Map<Identifier, Column> columns = newLinkedHashMap();
+        for (Column column : this.columns.values()) {
+            column.freeze(identifiers);
+            columns.put(column.getIdentifier(), column);
+        }
+        Map<Identifier, Index> indexes = newLinkedHashMap();
+        for (Index index : this.indexes.values()) {
+            index.freeze(identifiers);
+            indexes.put(index.getIdentifier(), index);
+        }
+        Map<Identifier, ForeignKey> foreignKeysByName = newHashMap();
+        for (ForeignKey foreignKey : foreignKeys) {
+            foreignKey.freeze(identifiers);
+            if (foreignKey.getIdentifier() != null) {
+                foreignKeysByName.put(foreignKey.getIdentifier(), foreignKey);
+            }
+        }
+        if (primaryKey != null) {
+            primaryKey.freeze(identifiers);
+        }
+        this.columnsByPosition = ImmutableList.copyOf(getColumns());
+        this.columns = unmodifiableMap(columns);
+        this.indexes = unmodifiableMap(indexes);
+        this.foreignKeys = unmodifiableCollection(foreignKeys);
+        this.foreignKeysByName = foreignKeysByName;
+        this.triggers = unmodifiableCollection(triggers);
+        this.checks = unmodifiableCollection(checks);
+        super.freeze(identifiers);
+    }
+
     @Override
     public void output(int indent, StringBuilder buffer) {
         super.output(indent, buffer);
@@ -66,8 +66,8 @@ public class CompositeScriptExporter implements ScriptExporter {
 
     @Override
     public void exportScripts(Collection<Script> scripts) throws Exception {
-        for (Script script : scripts) {
-            exportScript(script);
+        for (ScriptExporter scriptExporter : getScriptExporters()) {
+            scriptExporter.exportScripts(scripts);
         }
     }
 
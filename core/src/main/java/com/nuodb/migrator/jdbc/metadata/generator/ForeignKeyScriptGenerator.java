@@ -188,7 +188,7 @@ public class ForeignKeyScriptGenerator extends ScriptGeneratorBase<ForeignKey>
      */
     protected ScriptGeneratorManager getPrimaryScriptGeneratorManager(ForeignKey foreignKey,
             ScriptGeneratorManager scriptGeneratorManager) {
-        ScriptGeneratorManager primaryScriptGeneratorManager = new ScriptGeneratorManager(scriptGeneratorManager);
+        ScriptGeneratorManager primaryScriptGeneratorManager = scriptGeneratorManager.createContext();
         if (scriptGeneratorManager.getTargetCatalog() == null && scriptGeneratorManager.getTargetSchema() == null) {
 
             Table primaryTable = foreignKey.getPrimaryTable();
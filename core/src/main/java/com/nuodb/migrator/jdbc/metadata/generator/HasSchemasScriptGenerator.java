@@ -42,6 +42,7 @@ import static com.google.common.collect.Maps.newLinkedHashMap;
 import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
 import static com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorUtils.getDropSchema;
 import static com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorUtils.getUseSchema;
+import static com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorUtils.newUseSchema;
 
 /**
  * @author Sergey Bushik
@@ -85,9 +86,9 @@ public class HasSchemasScriptGenerator extends HasTablesScriptGenerator<HasSchem
                     scripts.add(getDropSchema(schema, scriptGeneratorManager));
                 }
                 if (useSchema) {
-                    scripts.add(schema.getIdentifier() != null
-                            ? new Script(dialect.getUseSchema(scriptGeneratorManager.getName(schema)))
-                            : new Script(dialect.getUseSchema(scriptGeneratorManager.getName(schema.getCatalog()))));
+                    scripts.add(newUseSchema(schema.getIdentifier() != null
+                            ? dialect.getUseSchema(scriptGeneratorManager.getName(schema))
+                            : dialect.getUseSchema(scriptGeneratorManager.getName(schema.getCatalog())), schema));
                 }
                 scripts.addAll(schemaScript.getValue());
             }
@@ -0,0 +1,391 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.generator;
+
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Constraint;
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.Sequence;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newIdentityHashMap;
+import static com.google.common.collect.Queues.newArrayDeque;
+import static com.google.common.collect.Sets.newLinkedHashSet;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.utils.StringUtils.isEmpty;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.newBlockingExecutorService;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.Collections.singleton;
+
+/**
+ * Executes scripts over several sessions. Exported scripts are ordered in a dependency graph: a script on a table
+ * runs after the preceding scripts on the same table, a script creating a table runs after its sequences, a foreign
+ * key runs after the preceding scripts on its primary table. Scripts not bound to a table or a sequence, such as
+ * scripts on schemas, run alone after all the preceding scripts. Use schema scripts are replayed on each session
+ * before the scripts following them.
+ *
+ * @author Sergey Bushik
+ */
+public class ParallelScriptExporter extends ScriptExporterBase {
+
+    private final SessionFactory sessionFactory;
+    private final int threads;
+    private final Deque<WorkerScriptExporter> scriptExporters = newArrayDeque();
+    private final Collection<WorkerScriptExporter> openedScriptExporters = newArrayList();
+    private ExecutorService executorService;
+    private Script useSchema;
+
+    private Deque<Node> ready;
+    private int pending;
+    private Exception failure;
+
+    public ParallelScriptExporter(SessionFactory sessionFactory, int threads) {
+        this.sessionFactory = sessionFactory;
+        this.threads = threads;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        executorService = newBlockingExecutorService("script", threads, false);
+    }
+
+    @Override
+    protected void doExportScript(Script script) throws Exception {
+        exportScripts(singleton(script));
+    }
+
+    @Override
+    public void exportScripts(Collection<Script> scripts) throws Exception {
+        if (scripts == null) {
+            return;
+        }
+        if (executorService == null) {
+            throw new GeneratorException("Script exporter is not opened");
+        }
+        Collection<Node> nodes = createNodes(scripts);
+        if (nodes.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            ready = newArrayDeque();
+            for (Node node : nodes) {
+                if (node.dependencies == 0) {
+                    ready.add(node);
+                }
+            }
+            pending = nodes.size();
+            failure = null;
+        }
+        List<Future<Void>> futures = newArrayList();
+        for (int worker = 0; worker < min(threads, nodes.size()); worker++) {
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    exportScripts();
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException exception) {
+                fail(exception.getCause() instanceof Exception ? (Exception) exception.getCause()
+                        : new GeneratorException(exception.getCause()));
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    protected Collection<Node> createNodes(Collection<Script> scripts) {
+        Collection<Node> nodes = newArrayList();
+        Map<MetaData, Node> writers = newIdentityHashMap();
+        Map<MetaData, Collection<Node>> readers = newIdentityHashMap();
+        Collection<Node> barrierNodes = newArrayList();
+        Node barrier = null;
+        for (Script script : scripts) {
+            if (script == null || isEmpty(script.getSQL())) {
+                continue;
+            }
+            if (script.isUseSchema()) {
+                useSchema = script;
+                continue;
+            }
+            Node node = new Node(script, useSchema);
+            Collection<MetaData> writes = newArrayList();
+            Collection<MetaData> reads = newArrayList();
+            addObjects(script, writes, reads);
+            if (writes.isEmpty()) {
+                for (Node previous : barrierNodes) {
+                    if (previous.dependants.isEmpty()) {
+                        previous.addDependant(node);
+                    }
+                }
+                if (barrier != null) {
+                    barrier.addDependant(node);
+                }
+                writers.clear();
+                readers.clear();
+                barrierNodes.clear();
+                barrier = node;
+            } else {
+                if (barrier != null) {
+                    barrier.addDependant(node);
+                }
+                for (MetaData read : reads) {
+                    Node writer = writers.get(read);
+                    if (writer != null) {
+                        writer.addDependant(node);
+                    }
+                    Collection<Node> nodeReaders = readers.get(read);
+                    if (nodeReaders == null) {
+                        readers.put(read, nodeReaders = newArrayList());
+                    }
+                    nodeReaders.add(node);
+                }
+                for (MetaData write : writes) {
+                    Node writer = writers.get(write);
+                    if (writer != null) {
+                        writer.addDependant(node);
+                    }
+                    Collection<Node> nodeReaders = readers.remove(write);
+                    if (nodeReaders != null) {
+                        for (Node reader : nodeReaders) {
+                            reader.addDependant(node);
+                        }
+                    }
+                    writers.put(write, node);
+                }
+                barrierNodes.add(node);
+            }
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    /**
+     * Collects objects modified and referenced by the script. Script modifying no object is executed alone.
+     *
+     * @param script
+     *            to collect objects for
+     * @param writes
+     *            tables and sequences created, altered or dropped by the script
+     * @param reads
+     *            tables and sequences referenced by the script
+     */
+    protected void addObjects(Script script, Collection<MetaData> writes, Collection<MetaData> reads) {
+        MetaData object = script.getObject();
+        if (object instanceof Table) {
+            Table table = (Table) object;
+            writes.add(table);
+            for (Column column : table.getColumns()) {
+                if (column.getSequence() != null) {
+                    reads.add(column.getSequence());
+                }
+            }
+            for (ForeignKey foreignKey : table.getForeignKeys()) {
+                if (foreignKey.getPrimaryTable() != null && foreignKey.getPrimaryTable() != table) {
+                    reads.add(foreignKey.getPrimaryTable());
+                }
+            }
+        } else if (object instanceof Sequence) {
+            writes.add(object);
+        } else if (object instanceof ForeignKey) {
+            ForeignKey foreignKey = (ForeignKey) object;
+            writes.add(foreignKey.getTable());
+            if (foreignKey.getPrimaryTable() != null && foreignKey.getPrimaryTable() != foreignKey.getTable()) {
+                reads.add(foreignKey.getPrimaryTable());
+            }
+        } else if (object instanceof Constraint) {
+            writes.add(((Constraint) object).getTable());
+        } else if (object instanceof Column) {
+            writes.add(((Column) object).getTable());
+        }
+        if (!writes.isEmpty() && script.requiresLock() && script.getTableToLock() != null
+                && !writes.contains(script.getTableToLock())) {
+            writes.add(script.getTableToLock());
+        }
+    }
+
+    protected void exportScripts() throws Exception {
+        WorkerScriptExporter scriptExporter;
+        try {
+            scriptExporter = openScriptExporter();
+        } catch (Exception exception) {
+            fail(exception);
+            return;
+        }
+        try {
+            Node node;
+            while ((node = take()) != null) {
+                try {
+                    exportScript(scriptExporter, node);
+                } catch (Exception exception) {
+                    fail(exception);
+                    break;
+                }
+                done(node);
+            }
+        } finally {
+            releaseScriptExporter(scriptExporter);
+        }
+    }
+
+    protected void exportScript(WorkerScriptExporter scriptExporter, Node node) throws Exception {
+        if (node.useSchema != null && node.useSchema != scriptExporter.useSchema) {
+            scriptExporter.exportScript(node.useSchema);
+            scriptExporter.useSchema = node.useSchema;
+        }
+        scriptExporter.exportScript(node.script);
+        // makes the changes visible to the dependant scripts executed by the other sessions
+        Connection connection = scriptExporter.getConnection();
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    protected synchronized Node take() throws InterruptedException {
+        while (ready.isEmpty() && pending > 0 && failure == null) {
+            wait();
+        }
+        return failure == null ? ready.poll() : null;
+    }
+
+    protected synchronized void done(Node node) {
+        for (Node dependant : node.dependants) {
+            if (--dependant.dependencies == 0) {
+                ready.add(dependant);
+            }
+        }
+        pending--;
+        notifyAll();
+    }
+
+    protected synchronized void fail(Exception exception) {
+        if (failure == null) {
+            failure = exception;
+        }
+        notifyAll();
+    }
+
+    protected synchronized WorkerScriptExporter openScriptExporter() throws Exception {
+        WorkerScriptExporter scriptExporter = scriptExporters.pollFirst();
+        if (scriptExporter == null) {
+            scriptExporter = new WorkerScriptExporter(sessionFactory.openSession());
+            openedScriptExporters.add(scriptExporter);
+            scriptExporter.open();
+        }
+        return scriptExporter;
+    }
+
+    protected synchronized void releaseScriptExporter(WorkerScriptExporter scriptExporter) {
+        scriptExporters.addFirst(scriptExporter);
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (executorService != null) {
+            executorService.shutdown();
+            executorService = null;
+        }
+        synchronized (this) {
+            for (WorkerScriptExporter scriptExporter : openedScriptExporters) {
+                closeQuietly(scriptExporter);
+            }
+            openedScriptExporters.clear();
+            scriptExporters.clear();
+        }
+    }
+
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    static class Node {
+
+        private final Script script;
+        private final Script useSchema;
+        private final Collection<Node> dependants = newLinkedHashSet();
+        private int dependencies;
+
+        public Node(Script script, Script useSchema) {
+            this.script = script;
+            this.useSchema = useSchema;
+        }
+
+        public void addDependant(Node dependant) {
+            if (dependants.add(dependant)) {
+                dependant.dependencies++;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return format("%s waits for %d script(s)", script.getSQL(), dependencies);
+        }
+    }
+
+    /**
+     * Closes the session leaving its connection open, so that the sessions leased from a session pool are reused
+     */
+    static class WorkerScriptExporter extends ConnectionScriptExporter {
+
+        private Script useSchema;
+
+        public WorkerScriptExporter(Session session) {
+            super(session);
+        }
+
+        @Override
+        protected void doClose() throws Exception {
+            closeQuietly(statement);
+            closeQuietly(session);
+        }
+    }
+}
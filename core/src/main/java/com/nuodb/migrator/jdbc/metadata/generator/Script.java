@@ -27,12 +27,15 @@
  */
 package com.nuodb.migrator.jdbc.metadata.generator;
 
+import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.Table;
 
 public class Script {
     protected String sql;
     protected boolean requiresLock;
     protected Table tableToLock;
+    protected MetaData object;
+    protected boolean useSchema;
 
     public Script(String sql) {
         this.sql = sql;
@@ -57,6 +60,32 @@ public class Script {
         return tableToLock;
     }
 
+    /**
+     * Meta data object this script was generated for, used to order scripts executed in parallel
+     *
+     * @return generated object or null if the script does not belong to a single object
+     */
+    public MetaData getObject() {
+        return object;
+    }
+
+    public void setObject(MetaData object) {
+        this.object = object;
+    }
+
+    /**
+     * Use schema script switches the schema of the session and is replayed on each session executing scripts
+     *
+     * @return true for use schema script
+     */
+    public boolean isUseSchema() {
+        return useSchema;
+    }
+
+    public void setUseSchema(boolean useSchema) {
+        this.useSchema = useSchema;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == null || other.getClass() != this.getClass()) {
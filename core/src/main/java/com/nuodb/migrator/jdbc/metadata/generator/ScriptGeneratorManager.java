@@ -28,6 +28,7 @@
 package com.nuodb.migrator.jdbc.metadata.generator;
 
 import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.IdentifiableBase;
 import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
 import com.nuodb.migrator.jdbc.metadata.filter.MetaDataFilterManager;
@@ -37,6 +38,8 @@ import com.nuodb.migrator.utils.PrioritySet;
 import java.util.Collection;
 import java.util.Map;
 
+import static com.google.common.base.Objects.equal;
+import static com.google.common.collect.Maps.newConcurrentMap;
 import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Sets.newHashSet;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataHandlerUtils.getHandler;
@@ -45,6 +48,8 @@ import static com.nuodb.migrator.jdbc.metadata.generator.ScriptType.CREATE;
 import static com.nuodb.migrator.jdbc.metadata.generator.ScriptType.DROP;
 import static com.nuodb.migrator.utils.Collections.newPrioritySet;
 import static com.nuodb.migrator.utils.Priority.LOW;
+import static java.lang.System.identityHashCode;
+import static java.util.Collections.singleton;
 
 /**
  * @author Sergey Bushik
@@ -79,6 +84,9 @@ public class ScriptGeneratorManager {
      */
     public static final String UNIQUE_CONSTRAINTS = "unique.constraints";
 
+    private static final Collection<ScriptType> CREATE_SCRIPT_TYPES = singleton(CREATE);
+    private static final Collection<ScriptType> DROP_SCRIPT_TYPES = singleton(DROP);
+
     private String sourceCatalog;
     private String sourceSchema;
     private Session sourceSession;
@@ -87,8 +95,8 @@ public class ScriptGeneratorManager {
     private Dialect targetDialect;
 
     private Map<String, Object> attributes = newHashMap();
-    private PrioritySet<NamingStrategy<? extends MetaData>> namingStrategies = newPrioritySet();
-    private PrioritySet<ScriptGenerator<? extends MetaData>> scriptGenerators = newPrioritySet();
+    private boolean copyAttributes;
+    private Handlers handlers = new Handlers();
     private Collection<ScriptType> scriptTypes = newHashSet(ScriptType.values());
     private Collection<MetaDataType> objectTypes = newHashSet(TYPES);
     private MetaDataFilterManager metaDataFilterManager = new MetaDataFilterManager();
@@ -122,75 +130,163 @@ public class ScriptGeneratorManager {
         scriptTypes = newHashSet(scriptGeneratorManager.getScriptTypes());
         objectTypes = newHashSet(scriptGeneratorManager.getObjectTypes());
 
-        namingStrategies.addAll(scriptGeneratorManager.getNamingStrategies());
-        scriptGenerators.addAll(scriptGeneratorManager.getScriptGenerators());
+        handlers.namingStrategies.addAll(scriptGeneratorManager.getNamingStrategies());
+        handlers.scriptGenerators.addAll(scriptGeneratorManager.getScriptGenerators());
 
         metaDataFilterManager = scriptGeneratorManager.getMetaDataFilterManager();
     }
 
+    /**
+     * Creates a lightweight context sharing script generators, naming strategies, resolved handlers and memoized
+     * names with this manager. Attributes are copied on the first modification, script and object types are shared
+     * until replaced.
+     *
+     * @return script generator context derived from this manager
+     */
+    public ScriptGeneratorManager createContext() {
+        ScriptGeneratorManager context = new ScriptGeneratorManager(handlers);
+        context.sourceCatalog = sourceCatalog;
+        context.sourceSchema = sourceSchema;
+        context.sourceSession = sourceSession;
+        context.targetCatalog = targetCatalog;
+        context.targetSchema = targetSchema;
+        context.targetDialect = targetDialect;
+        context.attributes = attributes;
+        context.copyAttributes = true;
+        context.scriptTypes = scriptTypes;
+        context.objectTypes = objectTypes;
+        context.metaDataFilterManager = metaDataFilterManager;
+        return context;
+    }
+
+    private ScriptGeneratorManager(Handlers handlers) {
+        this.handlers = handlers;
+    }
+
     public String getName(MetaData object) {
-        return getNamingStrategy(object).getName(object, this, true);
+        return getName(object, true);
     }
 
     public String getName(MetaData object, boolean normalize) {
-        return getNamingStrategy(object).getName(object, this, normalize);
+        NamingStrategy namingStrategy = getNamingStrategy(object);
+        if (!isMemoizeName(object, namingStrategy)) {
+            return namingStrategy.getName(object, this, normalize);
+        }
+        Name key = new Name(object, false, null, null, normalize, this);
+        String name = handlers.names.get(key);
+        if (name == null) {
+            name = namingStrategy.getName(object, this, normalize);
+            if (name != null) {
+                handlers.names.put(key, name);
+            }
+        }
+        return name;
     }
 
     public String getQualifiedName(MetaData object) {
-        return getNamingStrategy(object).getQualifiedName(object, this, getTargetCatalog(), getTargetSchema(), true);
+        return getQualifiedName(object, getTargetCatalog(), getTargetSchema(), true);
     }
 
     public String getQualifiedName(MetaData object, boolean normalize) {
-        return getNamingStrategy(object).getQualifiedName(object, this, getTargetCatalog(), getTargetSchema(),
-                normalize);
+        return getQualifiedName(object, getTargetCatalog(), getTargetSchema(), normalize);
     }
 
     public String getQualifiedName(MetaData object, String catalog, String schema, boolean normalize) {
-        return getNamingStrategy(object).getQualifiedName(object, this, catalog, schema, normalize);
+        NamingStrategy namingStrategy = getNamingStrategy(object);
+        if (!isMemoizeName(object, namingStrategy)) {
+            return namingStrategy.getQualifiedName(object, this, catalog, schema, normalize);
+        }
+        Name key = new Name(object, true, catalog, schema, normalize, this);
+        String qualifiedName = handlers.names.get(key);
+        if (qualifiedName == null) {
+            qualifiedName = namingStrategy.getQualifiedName(object, this, catalog, schema, normalize);
+            if (qualifiedName != null) {
+                handlers.names.put(key, qualifiedName);
+            }
+        }
+        return qualifiedName;
+    }
+
+    /**
+     * Names generated by composite naming strategies, such as hash or qualify naming strategies, are memoized for
+     * the objects of a frozen database, as their names do not change.
+     */
+    protected boolean isMemoizeName(MetaData object, NamingStrategy namingStrategy) {
+        return namingStrategy instanceof CompositeNamingStrategy && object instanceof IdentifiableBase
+                && ((IdentifiableBase) object).isFrozen();
     }
 
     public void addNamingStrategy(NamingStrategy<? extends MetaData> namingStrategy) {
-        namingStrategies.add(namingStrategy);
+        handlers.namingStrategies.add(namingStrategy);
+        handlers.clear();
     }
 
     public void addNamingStrategy(NamingStrategy<? extends MetaData> namingStrategy, int priority) {
-        namingStrategies.add(namingStrategy, priority);
+        handlers.namingStrategies.add(namingStrategy, priority);
+        handlers.clear();
     }
 
     public NamingStrategy getNamingStrategy(MetaData object) {
-        return (NamingStrategy) getHandler(namingStrategies, object);
+        return getNamingStrategy(object.getObjectType());
     }
 
     public NamingStrategy getNamingStrategy(MetaDataType objectType) {
-        return (NamingStrategy) getHandler(namingStrategies, objectType);
+        NamingStrategy namingStrategy = handlers.namingStrategiesByType.get(objectType);
+        if (namingStrategy == null) {
+            namingStrategy = (NamingStrategy) getHandler(handlers.namingStrategies, objectType);
+            handlers.namingStrategiesByType.put(objectType, namingStrategy);
+        }
+        return namingStrategy;
     }
 
     public void addScriptGenerator(ScriptGenerator<? extends MetaData> scriptGenerator) {
-        scriptGenerators.add(scriptGenerator);
+        handlers.scriptGenerators.add(scriptGenerator);
+        handlers.clear();
     }
 
     public void addScriptGenerator(ScriptGenerator<? extends MetaData> scriptGenerator, int priority) {
-        scriptGenerators.add(scriptGenerator, priority);
+        handlers.scriptGenerators.add(scriptGenerator, priority);
+        handlers.clear();
     }
 
     public ScriptGenerator getScriptGenerator(MetaData object) {
-        return (ScriptGenerator) getHandler(scriptGenerators, object);
+        MetaDataType objectType = object.getObjectType();
+        ScriptGenerator scriptGenerator = handlers.scriptGeneratorsByType.get(objectType);
+        if (scriptGenerator == null) {
+            scriptGenerator = (ScriptGenerator) getHandler(handlers.scriptGenerators, objectType);
+            handlers.scriptGeneratorsByType.put(objectType, scriptGenerator);
+        }
+        return scriptGenerator;
     }
 
     public Collection<Script> getScripts(MetaData object) {
-        return getScriptGenerator(object).getScripts(object, this);
+        return setObject(getScriptGenerator(object).getScripts(object, this), object);
     }
 
     public Collection<Script> getCreateScripts(MetaData object) {
-        ScriptGeneratorManager context = new ScriptGeneratorManager(this);
-        context.setScriptTypes(newHashSet(CREATE));
-        return getScriptGenerator(object).getScripts(object, context);
+        ScriptGeneratorManager context = createContext();
+        context.setScriptTypes(CREATE_SCRIPT_TYPES);
+        return setObject(getScriptGenerator(object).getScripts(object, context), object);
     }
 
     public Collection<Script> getDropScripts(MetaData object) {
-        ScriptGeneratorManager context = new ScriptGeneratorManager(this);
-        context.setScriptTypes(newHashSet(DROP));
-        return getScriptGenerator(object).getScripts(object, context);
+        ScriptGeneratorManager context = createContext();
+        context.setScriptTypes(DROP_SCRIPT_TYPES);
+        return setObject(getScriptGenerator(object).getScripts(object, context), object);
+    }
+
+    /**
+     * Assigns generated object to the scripts, which are not yet assigned to the nested objects
+     */
+    protected Collection<Script> setObject(Collection<Script> scripts, MetaData object) {
+        if (scripts != null) {
+            for (Script script : scripts) {
+                if (script != null && script.getObject() == null) {
+                    script.setObject(object);
+                }
+            }
+        }
+        return scripts;
     }
 
     public String getSourceCatalog() {
@@ -254,19 +350,24 @@ public class ScriptGeneratorManager {
     }
 
     public void addAttribute(String attribute, Object value) {
-        attributes.put(attribute, value);
+        getAttributes().put(attribute, value);
     }
 
     public void removeAttribute(String attribute) {
-        attributes.remove(attribute);
+        getAttributes().remove(attribute);
     }
 
     public Map<String, Object> getAttributes() {
+        if (copyAttributes) {
+            attributes = newHashMap(attributes);
+            copyAttributes = false;
+        }
         return attributes;
     }
 
     public void setAttributes(Map<String, Object> attributes) {
         this.attributes = attributes;
+        this.copyAttributes = false;
     }
 
     public Collection<MetaDataType> getObjectTypes() {
@@ -286,10 +387,82 @@ public class ScriptGeneratorManager {
     }
 
     public PrioritySet<NamingStrategy<? extends MetaData>> getNamingStrategies() {
-        return namingStrategies;
+        return handlers.namingStrategies;
     }
 
     public PrioritySet<ScriptGenerator<? extends MetaData>> getScriptGenerators() {
-        return scriptGenerators;
+        return handlers.scriptGenerators;
+    }
+
+    /**
+     * Script generators and naming strategies with handlers resolved per object type and memoized names, shared by
+     * the manager and the contexts derived from it
+     */
+    static class Handlers {
+
+        private final PrioritySet<NamingStrategy<? extends MetaData>> namingStrategies = newPrioritySet();
+        private final PrioritySet<ScriptGenerator<? extends MetaData>> scriptGenerators = newPrioritySet();
+        private final Map<MetaDataType, NamingStrategy> namingStrategiesByType = newConcurrentMap();
+        private final Map<MetaDataType, ScriptGenerator> scriptGeneratorsByType = newConcurrentMap();
+        private final Map<Name, String> names = newConcurrentMap();
+
+        public void clear() {
+            namingStrategiesByType.clear();
+            scriptGeneratorsByType.clear();
+            names.clear();
+        }
+    }
+
+    /**
+     * Memoized name key, holds named object and target dialect by identity along with the catalog and schema names
+     * passed to and used by the naming strategies
+     */
+    static class Name {
+
+        private final MetaData object;
+        private final boolean qualified;
+        private final String catalog;
+        private final String schema;
+        private final boolean normalize;
+        private final Dialect targetDialect;
+        private final String targetCatalog;
+        private final String targetSchema;
+
+        public Name(MetaData object, boolean qualified, String catalog, String schema, boolean normalize,
+                ScriptGeneratorManager scriptGeneratorManager) {
+            this.object = object;
+            this.qualified = qualified;
+            this.catalog = catalog;
+            this.schema = schema;
+            this.normalize = normalize;
+            this.targetDialect = scriptGeneratorManager.getTargetDialect();
+            this.targetCatalog = scriptGeneratorManager.getTargetCatalog();
+            this.targetSchema = scriptGeneratorManager.getTargetSchema();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            Name that = (Name) o;
+
+            return object == that.object && qualified == that.qualified && normalize == that.normalize
+                    && targetDialect == that.targetDialect && equal(catalog, that.catalog)
+                    && equal(schema, that.schema) && equal(targetCatalog, that.targetCatalog)
+                    && equal(targetSchema, that.targetSchema);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = identityHashCode(object);
+            result = 31 * result + (qualified ? 1 : 0);
+            result = 31 * result + (normalize ? 1 : 0);
+            result = 31 * result + (catalog != null ? catalog.hashCode() : 0);
+            result = 31 * result + (schema != null ? schema.hashCode() : 0);
+            return result;
+        }
     }
 }
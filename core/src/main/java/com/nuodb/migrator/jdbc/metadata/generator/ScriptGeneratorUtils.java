@@ -61,7 +61,14 @@ public class ScriptGeneratorUtils {
             useSchema = schema.getIdentifier() != null ? dialect.getUseSchema(scriptGeneratorManager.getName(schema))
                     : dialect.getUseSchema(scriptGeneratorManager.getName(schema.getCatalog()));
         }
-        return new Script(useSchema);
+        return newUseSchema(useSchema, schema);
+    }
+
+    public static Script newUseSchema(String useSchema, Schema schema) {
+        Script script = new Script(useSchema);
+        script.setObject(schema);
+        script.setUseSchema(true);
+        return script;
     }
 
     public static Script getDropSchema(Schema schema, ScriptGeneratorManager scriptGeneratorManager) {
@@ -76,7 +83,9 @@ public class ScriptGeneratorUtils {
             dropSchema = schema.getIdentifier() != null ? dialect.getDropSchema(scriptGeneratorManager.getName(schema))
                     : dialect.getDropSchema(scriptGeneratorManager.getName(schema.getCatalog()));
         }
-        return new Script(dropSchema);
+        Script script = new Script(dropSchema);
+        script.setObject(schema);
+        return script;
     }
 
     public static Collection<Script> getCreateMultipleIndexes(Collection<Index> indexes,
@@ -83,4 +83,9 @@ public class DB2CheckInspector extends TableInspectorBase<Table, TableInspection
             inspectionResults.addObject(check);
         }
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABNAME";
+    }
 }
@@ -31,6 +31,7 @@ import com.nuodb.migrator.jdbc.dialect.DialectResolver;
 import com.nuodb.migrator.jdbc.metadata.Database;
 import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
 import org.slf4j.Logger;
 
 import java.sql.Connection;
@@ -53,8 +54,12 @@ import static org.slf4j.LoggerFactory.getLogger;
  */
 public class InspectionManager {
 
+    public static final int THREADS = 1;
+
     private final transient Logger logger = getLogger(getClass());
     private DialectResolver dialectResolver;
+    private SessionFactory sessionFactory;
+    private int threads = THREADS;
     private Collection<Inspector> inspectors = newPrioritySet();
 
     public InspectionManager() {
@@ -206,8 +211,13 @@ public class InspectionManager {
 
     protected InspectionContext createInspectionContext(Connection connection, InspectionResults inspectionResults,
             MetaDataType... objectTypes) throws SQLException {
-        InspectionContext inspectionContext = new SimpleInspectionContext(this, connection, inspectionResults,
-                objectTypes);
+        InspectionContext inspectionContext;
+        if (threads > 1 && sessionFactory != null) {
+            inspectionContext = new ParallelInspectionContext(this, connection, inspectionResults, sessionFactory,
+                    threads, objectTypes);
+        } else {
+            inspectionContext = new SimpleInspectionContext(this, connection, inspectionResults, objectTypes);
+        }
         inspectionContext.init();
         return inspectionContext;
     }
@@ -237,4 +247,35 @@ public class InspectionManager {
     public void setDialectResolver(DialectResolver dialectResolver) {
         this.dialectResolver = dialectResolver;
     }
+
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    /**
+     * Sets session factory supplying connections for parallel inspection of
+     * the tables.
+     *
+     * @param sessionFactory
+     *            to open inspection sessions with, typically a session pool.
+     */
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets number of threads inspecting tables in parallel, each thread uses a
+     * separate connection opened from the session factory.
+     *
+     * @param threads
+     *            number of inspection threads, 1 inspects serially on the
+     *            provided connection.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
 }
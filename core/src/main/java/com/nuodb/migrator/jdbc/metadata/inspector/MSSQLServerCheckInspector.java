@@ -92,4 +92,9 @@ public class MSSQLServerCheckInspector extends TableInspectorBase<Table, TableIn
             inspectionResults.addObject(check);
         }
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLE_NAME";
+    }
 }
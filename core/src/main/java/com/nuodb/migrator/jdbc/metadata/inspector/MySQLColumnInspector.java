@@ -90,6 +90,9 @@ public class MySQLColumnInspector extends SimpleColumnInspector {
                 ResultSet columns = statement.executeQuery();
 
                 while (columns.next()) {
+                    if (!isInspected(tableInspectionScope, columns.getString("TABLE_NAME"))) {
+                        continue;
+                    }
                     Table table = addTable(inspectionResults, columns.getString("TABLE_SCHEMA"), null,
                             columns.getString("TABLE_NAME"));
                     Column column = table.addColumn(columns.getString("COLUMN_NAME"));
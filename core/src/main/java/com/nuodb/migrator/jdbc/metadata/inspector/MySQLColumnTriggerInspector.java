@@ -107,4 +107,9 @@ public class MySQLColumnTriggerInspector extends TableInspectorBase<Table, Table
             }
         }
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLE_NAME";
+    }
 }
@@ -52,6 +52,8 @@ public class NuoDBCheckInspector extends TableInspectorBase<Table, TableInspecti
 
     public static final String QUERY = "SELECT T.SCHEMA, T.TABLENAME, T.CONSTRAINTNAME, T.CONSTRAINTTEXT FROM SYSTEM.TABLECONSTRAINTS AS T "
             + "WHERE T.SCHEMA=? AND T.TABLENAME=?";
+    public static final String BULK_QUERY = "SELECT T.SCHEMA, T.TABLENAME, T.CONSTRAINTNAME, T.CONSTRAINTTEXT "
+            + "FROM SYSTEM.TABLECONSTRAINTS AS T WHERE T.SCHEMA=?";
 
     public NuoDBCheckInspector() {
         super(CHECK, TableInspectionScope.class);
@@ -61,6 +63,9 @@ public class NuoDBCheckInspector extends TableInspectorBase<Table, TableInspecti
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         Collection<Object> parameters = newArrayList();
         parameters.add(tableInspectionScope.getSchema());
+        if (tableInspectionScope.getTable() == null) {
+            return new ParameterizedQuery(newQuery(BULK_QUERY), parameters);
+        }
         parameters.add(tableInspectionScope.getTable());
         return new ParameterizedQuery(newQuery(QUERY), parameters);
     }
@@ -88,4 +93,9 @@ public class NuoDBCheckInspector extends TableInspectorBase<Table, TableInspecti
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
         return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLENAME";
+    }
 }
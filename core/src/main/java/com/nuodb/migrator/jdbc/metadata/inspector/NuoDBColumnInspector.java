@@ -29,6 +29,7 @@ package com.nuodb.migrator.jdbc.metadata.inspector;
 
 import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Schema;
 import com.nuodb.migrator.jdbc.metadata.Sequence;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.ParameterizedQuery;
@@ -57,8 +58,9 @@ public class NuoDBColumnInspector extends TableInspectorBase<Table, TableInspect
 
     private static final String QUERY = "SELECT * FROM SYSTEM.FIELDS AS F INNER JOIN SYSTEM.DATATYPES AS D ON F.DATATYPE = D.ID\n"
             + "WHERE F.SCHEMA=? AND F.TABLENAME=? ORDER BY F.FIELDPOSITION ASC";
-    private String schema;
-    private String tableName;
+    private static final String BULK_QUERY = "SELECT * FROM SYSTEM.FIELDS AS F "
+            + "INNER JOIN SYSTEM.DATATYPES AS D ON F.DATATYPE = D.ID\n"
+            + "WHERE F.SCHEMA=? ORDER BY F.TABLENAME, F.FIELDPOSITION ASC";
 
     public NuoDBColumnInspector() {
         super(COLUMN, TableInspectionScope.class);
@@ -67,45 +69,56 @@ public class NuoDBColumnInspector extends TableInspectorBase<Table, TableInspect
     @Override
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         Collection<Object> parameters = newArrayList();
-        schema = tableInspectionScope.getSchema();
-        tableName = tableInspectionScope.getTable();
-        parameters.add(schema);
-        parameters.add(tableName);
+        parameters.add(tableInspectionScope.getSchema());
+        if (tableInspectionScope.getTable() == null) {
+            return new ParameterizedQuery(newQuery(BULK_QUERY), parameters);
+        }
+        parameters.add(tableInspectionScope.getTable());
         return new ParameterizedQuery(newQuery(QUERY), parameters);
     }
 
     @Override
-    protected void processResultSet(InspectionContext inspectionContext, ResultSet columns) throws SQLException {
+    protected void processResultSet(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope,
+            ResultSet columns) throws SQLException {
         InspectionResults inspectionResults = inspectionContext.getInspectionResults();
         Dialect dialect = inspectionContext.getDialect();
+        String schema = tableInspectionScope.getSchema();
+        String tableName = tableInspectionScope.getTable();
 
-        // Get the fields' type from databaseMetaData
+        // Get the fields' type from databaseMetaData, keyed by table and field
         DatabaseMetaData databaseMetaData = inspectionContext.getConnection().getMetaData();
-        Map<String, JdbcTypeDesc> fieldsType = new HashMap<String, JdbcTypeDesc>();
+        Map<String, Map<String, JdbcTypeDesc>> tablesFieldsType = new HashMap<String, Map<String, JdbcTypeDesc>>();
         try (ResultSet columnsFromDatabaseMetaData = databaseMetaData.getColumns(null, schema, tableName, null)) {
             if (columnsFromDatabaseMetaData.next()) {
                 do {
                     JdbcTypeDesc typeDescAlias = dialect.getJdbcTypeAlias(
                             columnsFromDatabaseMetaData.getInt("DATA_TYPE"),
                             columnsFromDatabaseMetaData.getString("TYPE_NAME"));
+                    String table = tableName != null ? tableName : columnsFromDatabaseMetaData.getString("TABLE_NAME");
+                    Map<String, JdbcTypeDesc> fieldsType = tablesFieldsType.get(table);
+                    if (fieldsType == null) {
+                        tablesFieldsType.put(table, fieldsType = new HashMap<String, JdbcTypeDesc>());
+                    }
                     fieldsType.put(columnsFromDatabaseMetaData.getString("COLUMN_NAME"), typeDescAlias);
                 } while (columnsFromDatabaseMetaData.next());
-            } else {
+            } else if (tableName != null) {
                 throw new SQLException(
                         "Failed to get columns of table " + schema + "." + tableName + " from the database meta data");
             }
         }
 
         while (columns.next()) {
-            Table table = addTable(inspectionResults, null, schema, tableName);
+            Table table = addTable(inspectionResults, null, schema,
+                    tableName != null ? tableName : columns.getString("TABLENAME"));
 
             Column column = table.addColumn(columns.getString("FIELD"));
             JdbcType jdbcType = new JdbcType();
 
-            JdbcTypeDesc typeDescAlias = fieldsType.get(columns.getString("FIELD"));
+            Map<String, JdbcTypeDesc> fieldsType = tablesFieldsType.get(table.getName());
+            JdbcTypeDesc typeDescAlias = fieldsType != null ? fieldsType.get(columns.getString("FIELD")) : null;
             if (typeDescAlias == null) {
                 throw new SQLException("The type of the field " + columns.getString("FIELD") + " of table " + schema
-                        + "." + tableName + " does not exist in the map of fields type: " + fieldsType.toString());
+                        + "." + table.getName() + " does not exist in the map of fields type: " + fieldsType);
             }
 
             jdbcType.setTypeCode(typeDescAlias.getTypeCode());
@@ -125,7 +138,11 @@ public class NuoDBColumnInspector extends TableInspectorBase<Table, TableInspect
             if (identifier != null) {
                 Sequence sequence = new Sequence(identifier);
                 column.setSequence(sequence);
-                column.getTable().getSchema().addSequence(sequence);
+                Schema tableSchema = column.getTable().getSchema();
+                // tables of the same schema may be inspected by parallel inspection threads
+                synchronized (tableSchema) {
+                    tableSchema.addSequence(sequence);
+                }
             }
             column.setAutoIncrement(identifier != null);
 
@@ -137,4 +154,9 @@ public class NuoDBColumnInspector extends TableInspectorBase<Table, TableInspect
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
         return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLENAME";
+    }
 }
@@ -149,4 +149,9 @@ public class NuoDBColumnTriggerInspector extends TableInspectorBase<Table, Table
         }
         return triggerBody;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLENAME";
+    }
 }
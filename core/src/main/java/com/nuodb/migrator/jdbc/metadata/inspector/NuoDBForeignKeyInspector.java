@@ -48,7 +48,7 @@ import static com.nuodb.migrator.utils.StringUtils.equalsIgnoreCase;
  */
 public class NuoDBForeignKeyInspector extends ForeignKeyInspectorBase {
 
-    private static final String QUERY = "SELECT PRIMARYTABLE.SCHEMA AS PKTABLE_SCHEM, PRIMARYTABLE.TABLENAME AS PKTABLE_NAME,\n"
+    private static final String SELECT = "SELECT PRIMARYTABLE.SCHEMA AS PKTABLE_SCHEM, PRIMARYTABLE.TABLENAME AS PKTABLE_NAME,\n"
             + "       PRIMARYFIELD.FIELD AS PKCOLUMN_NAME, FOREIGNTABLE.SCHEMA AS FKTABLE_SCHEM,\n"
             + "       FOREIGNTABLE.TABLENAME AS FKTABLE_NAME, FOREIGNFIELD.FIELD AS FKCOLUMN_NAME,\n"
             + "       FOREIGNKEYS.FOREIGNKEYNAME AS FK_NAME,\n"
@@ -62,14 +62,22 @@ public class NuoDBForeignKeyInspector extends ForeignKeyInspectorBase {
             + "INNER JOIN SYSTEM.TABLES FOREIGNTABLE ON FOREIGNTABLEID=FOREIGNTABLE.TABLEID\n"
             + "INNER JOIN SYSTEM.FIELDS FOREIGNFIELD ON FOREIGNTABLE.SCHEMA=FOREIGNFIELD.SCHEMA\n"
             + "AND FOREIGNTABLE.TABLENAME=FOREIGNFIELD.TABLENAME\n"
-            + "AND FOREIGNKEYS.FOREIGNFIELDID=FOREIGNFIELD.FIELDID\n"
+            + "AND FOREIGNKEYS.FOREIGNFIELDID=FOREIGNFIELD.FIELDID\n";
+
+    private static final String QUERY = SELECT
             + "WHERE FOREIGNTABLE.SCHEMA=? AND FOREIGNTABLE.TABLENAME=? ORDER BY PKTABLE_SCHEM, PKTABLE_NAME, "
             + "KEY_SEQ ASC";
 
+    private static final String BULK_QUERY = SELECT
+            + "WHERE FOREIGNTABLE.SCHEMA=? ORDER BY FKTABLE_NAME, PKTABLE_SCHEM, PKTABLE_NAME, KEY_SEQ ASC";
+
     @Override
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         Collection<Object> parameters = newArrayList();
         parameters.add(tableInspectionScope.getSchema());
+        if (tableInspectionScope.getTable() == null) {
+            return new ParameterizedQuery(newQuery(BULK_QUERY), parameters);
+        }
         parameters.add(tableInspectionScope.getTable());
         return new ParameterizedQuery(newQuery(QUERY), parameters);
     }
@@ -88,12 +96,19 @@ public class NuoDBForeignKeyInspector extends ForeignKeyInspectorBase {
             final Table primaryTable = addTable(inspectionResults, null, primarySchemaName, primaryTableName,
                     addObject);
 
-            final Column primaryColumn = primaryTable.addColumn(foreignKeys.getString("PKCOLUMN_NAME"));
+            final Column primaryColumn;
+            // primary table may be inspected by a parallel inspection thread at the same time
+            synchronized (primaryTable) {
+                primaryColumn = primaryTable.addColumn(foreignKeys.getString("PKCOLUMN_NAME"));
+            }
             int position = foreignKeys.getInt("KEY_SEQ");
 
             Table foreignTable = addTable(inspectionResults, null, foreignKeys.getString("FKTABLE_SCHEM"),
                     foreignKeys.getString("FKTABLE_NAME"));
-            final Column foreignColumn = foreignTable.addColumn(foreignKeys.getString("FKCOLUMN_NAME"));
+            final Column foreignColumn;
+            synchronized (foreignTable) {
+                foreignColumn = foreignTable.addColumn(foreignKeys.getString("FKCOLUMN_NAME"));
+            }
 
             if (position == 1) {
                 foreignTable.addForeignKey(foreignKey = new ForeignKey(foreignKeys.getString("FK_NAME")));
@@ -114,4 +129,9 @@ public class NuoDBForeignKeyInspector extends ForeignKeyInspectorBase {
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
         return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "FKTABLE_NAME";
+    }
 }
@@ -79,4 +79,9 @@ public class NuoDBIndexInspector extends TableInspectorBase<Table, TableInspecti
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
         return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLENAME";
+    }
 }
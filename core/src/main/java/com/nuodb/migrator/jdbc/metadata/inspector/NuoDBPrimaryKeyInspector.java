@@ -75,4 +75,9 @@ public class NuoDBPrimaryKeyInspector extends TableInspectorBase<Table, TableIns
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
         return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLENAME";
+    }
 }
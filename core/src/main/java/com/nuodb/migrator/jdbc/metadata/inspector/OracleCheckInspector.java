@@ -95,4 +95,9 @@ public class OracleCheckInspector extends TableInspectorBase<Table, TableInspect
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
         return tableInspectionScope.getSchema() != null && tableInspectionScope.getTable() != null;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLE_NAME";
+    }
 }
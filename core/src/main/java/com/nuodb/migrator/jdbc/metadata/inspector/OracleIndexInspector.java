@@ -130,4 +130,9 @@ public class OracleIndexInspector extends SimpleIndexInspector {
         }
         return expression;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLE_NAME";
+    }
 }
@@ -64,4 +64,9 @@ public class OraclePrimaryKeyInspector extends SimplePrimaryKeyInspector {
         }
         return new ParameterizedQuery(query, parameters);
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLE_NAME";
+    }
 }
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.google.common.collect.Lists;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Throwables.propagateIfPossible;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.google.common.collect.Sets.newTreeSet;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.*;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Inspects objects belonging to tables (columns, keys, indexes, checks and
+ * triggers) in parallel. Object types are still inspected one after another in
+ * their natural order, but the tables are split into shards and each shard is
+ * inspected on a separate connection opened from the session factory. All the
+ * shards merge their objects into the shared {@link InspectionResults}.
+ * <p/>
+ * Foreign keys reference columns of the tables from the other shards, so they
+ * are inspected in a phase of their own once the preceding types are done.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class ParallelInspectionContext extends SimpleInspectionContext {
+
+    public static final Collection<MetaDataType> SHARD_OBJECT_TYPES = newHashSet(COLUMN, PRIMARY_KEY, FOREIGN_KEY,
+            INDEX, CHECK, TRIGGER, COLUMN_TRIGGER);
+
+    private final SessionFactory sessionFactory;
+    private final int threads;
+
+    public ParallelInspectionContext(InspectionManager inspectionManager, Connection connection,
+            InspectionResults inspectionResults, SessionFactory sessionFactory, int threads,
+            MetaDataType... objectTypes) {
+        super(inspectionManager, connection, inspectionResults, objectTypes);
+        this.sessionFactory = sessionFactory;
+        this.threads = threads;
+    }
+
+    @Override
+    public void inspect(InspectionScope scope, MetaDataType... objectTypes) throws SQLException {
+        List<MetaDataType> shardObjectTypes = newArrayList();
+        for (MetaDataType objectType : newTreeSet(asList(objectTypes))) {
+            if (!isShardObjectType(objectType)) {
+                inspectShards(scope, shardObjectTypes);
+                shardObjectTypes.clear();
+                super.inspect(scope, objectType);
+            } else if (FOREIGN_KEY.equals(objectType)) {
+                inspectShards(scope, shardObjectTypes);
+                shardObjectTypes.clear();
+                inspectShards(scope, newArrayList(objectType));
+            } else {
+                shardObjectTypes.add(objectType);
+            }
+        }
+        inspectShards(scope, shardObjectTypes);
+    }
+
+    /**
+     * Object type can be sharded if its inspector reads objects table by table,
+     * which is the case for inspectors having tables as the parent objects.
+     *
+     * @param objectType
+     *            to inspect.
+     * @return true if tables can be inspected in parallel for the given type.
+     * @throws SQLException
+     *             if inspector can't be resolved for the current dialect.
+     */
+    protected boolean isShardObjectType(MetaDataType objectType) throws SQLException {
+        if (!SHARD_OBJECT_TYPES.contains(objectType)) {
+            return false;
+        }
+        Inspector inspector = findInspector(objectType);
+        if (inspector instanceof InspectorResolver) {
+            inspector = ((InspectorResolver) inspector).resolve(this);
+        }
+        return inspector instanceof InspectorBase && TABLE.equals(((InspectorBase) inspector).getParentObjectType());
+    }
+
+    protected void inspectShards(InspectionScope scope, final List<MetaDataType> objectTypes) throws SQLException {
+        if (objectTypes.isEmpty()) {
+            return;
+        }
+        final MetaDataType[] shardObjectTypes = objectTypes.toArray(new MetaDataType[objectTypes.size()]);
+        List<Collection<MetaData>> shards = createShards(getInspectionResults().<Table>getObjects(TABLE));
+        if (shards.size() < 2) {
+            super.inspect(scope, shardObjectTypes);
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("Inspecting %s in %d shards", objectTypes, shards.size()));
+        }
+        ExecutorService executor = newFixedThreadPool(shards.size());
+        try {
+            List<Future<Void>> futures = newArrayList();
+            for (final Collection<MetaData> shard : shards) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        inspectShard(shard, shardObjectTypes);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                await(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    protected List<Collection<MetaData>> createShards(Collection<Table> tables) {
+        int count = min(threads, tables.size());
+        List<Collection<MetaData>> shards = newArrayList();
+        for (int i = 0; i < count; i++) {
+            shards.add(Lists.<MetaData>newArrayList());
+        }
+        int index = 0;
+        for (Table table : tables) {
+            shards.get(index++ % count).add(table);
+        }
+        return shards;
+    }
+
+    protected void inspectShard(Collection<MetaData> tables, MetaDataType... objectTypes) throws SQLException {
+        Session session = sessionFactory.openSession();
+        try {
+            InspectionContext inspectionContext = new SimpleInspectionContext(getInspectionManager(),
+                    session.getConnection(), getInspectionResults(), getObjectTypes());
+            inspectionContext.init();
+            try {
+                inspectionContext.inspect(tables, objectTypes);
+            } finally {
+                inspectionContext.close();
+            }
+        } finally {
+            closeQuietly(session);
+        }
+    }
+
+    protected void await(Future<Void> future) throws SQLException {
+        try {
+            future.get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InspectorException("Interrupted while inspecting tables", exception);
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            propagateIfPossible(cause);
+            throw new InspectorException(cause);
+        }
+    }
+
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+}
@@ -87,4 +87,9 @@ public class PostgreSQL83IndexInspector extends PostgreSQLIndexInspector {
         super.processIndex(inspectionContext, indexes, index);
         index.setPrimary(indexes.getBoolean("PRIMARY"));
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLE_NAME";
+    }
 }
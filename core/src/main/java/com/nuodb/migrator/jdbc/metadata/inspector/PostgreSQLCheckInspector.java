@@ -51,6 +51,11 @@ public class PostgreSQLCheckInspector extends TableInspectorBase<Table, TableIns
             + "CCU.TABLE_CATALOG = CC.CONSTRAINT_CATALOG AND CCU.TABLE_SCHEMA = CC.CONSTRAINT_SCHEMA "
             + "AND CCU.CONSTRAINT_NAME = CC.CONSTRAINT_NAME WHERE CCU.TABLE_SCHEMA=? AND CCU.TABLE_NAME=?";
 
+    private static final String BULK_QUERY = "SELECT * FROM INFORMATION_SCHEMA.CONSTRAINT_COLUMN_USAGE AS CCU "
+            + "INNER JOIN INFORMATION_SCHEMA.CHECK_CONSTRAINTS AS CC ON "
+            + "CCU.TABLE_CATALOG = CC.CONSTRAINT_CATALOG AND CCU.TABLE_SCHEMA = CC.CONSTRAINT_SCHEMA "
+            + "AND CCU.CONSTRAINT_NAME = CC.CONSTRAINT_NAME WHERE CCU.TABLE_SCHEMA=?";
+
     public PostgreSQLCheckInspector() {
         super(CHECK, TableInspectionScope.class);
     }
@@ -59,6 +64,9 @@ public class PostgreSQLCheckInspector extends TableInspectorBase<Table, TableIns
     protected Query createQuery(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope) {
         Collection<Object> parameters = newArrayList();
         parameters.add(tableInspectionScope.getSchema());
+        if (tableInspectionScope.getTable() == null) {
+            return new ParameterizedQuery(newQuery(BULK_QUERY), parameters);
+        }
         parameters.add(tableInspectionScope.getTable());
         return new ParameterizedQuery(newQuery(QUERY), parameters);
     }
@@ -75,4 +83,9 @@ public class PostgreSQLCheckInspector extends TableInspectorBase<Table, TableIns
             inspectionResults.addObject(check);
         }
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLE_NAME";
+    }
 }
@@ -95,4 +95,9 @@ public class SimpleColumnInspector extends TableInspectorBase<Table, TableInspec
     protected boolean supportsScope(TableInspectionScope tableInspectionScope) {
         return tableInspectionScope.getTable() != null;
     }
+
+    @Override
+    protected String getTableColumn() {
+        return "TABLE_NAME";
+    }
 }
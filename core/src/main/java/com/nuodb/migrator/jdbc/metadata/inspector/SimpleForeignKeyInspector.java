@@ -69,11 +69,18 @@ public class SimpleForeignKeyInspector extends ForeignKeyInspectorBase {
             String primaryTableName = foreignKeys.getString("PKTABLE_NAME");
             final Table primaryTable = addTable(inspectionResults, primaryCatalogName, primarySchemaName,
                     primaryTableName, addObject);
-            final Column primaryColumn = primaryTable.addColumn(foreignKeys.getString("PKCOLUMN_NAME"));
+            final Column primaryColumn;
+            // primary table may be inspected by a parallel inspection thread at the same time
+            synchronized (primaryTable) {
+                primaryColumn = primaryTable.addColumn(foreignKeys.getString("PKCOLUMN_NAME"));
+            }
 
             final Table foreignTable = addTable(inspectionResults, foreignKeys.getString("FKTABLE_CAT"),
                     foreignKeys.getString("FKTABLE_SCHEM"), foreignKeys.getString("FKTABLE_NAME"));
-            final Column foreignColumn = foreignTable.addColumn(foreignKeys.getString("FKCOLUMN_NAME"));
+            final Column foreignColumn;
+            synchronized (foreignTable) {
+                foreignColumn = foreignTable.addColumn(foreignKeys.getString("FKCOLUMN_NAME"));
+            }
 
             int position = foreignKeys.getInt("KEY_SEQ");
             if (fixPosition || position == 0) {
@@ -158,6 +158,14 @@ public class SimpleInspectionContext implements InspectionContext {
         }
     }
 
+    protected InspectionManager getInspectionManager() {
+        return inspectionManager;
+    }
+
+    protected MetaDataType[] getObjectTypes() {
+        return objectTypes;
+    }
+
     protected Inspector findInspector(MetaDataType objectType) {
         return getHandler(inspectionManager.getInspectors(), objectType);
     }
@@ -27,8 +27,6 @@
  */
 package com.nuodb.migrator.jdbc.metadata.inspector;
 
-import com.google.common.base.Optional;
-import com.google.common.base.Predicate;
 import com.google.common.base.Supplier;
 import com.google.common.collect.*;
 import com.nuodb.migrator.jdbc.metadata.Identifiable;
@@ -38,12 +36,20 @@ import com.nuodb.migrator.jdbc.metadata.MetaDataType;
 import org.apache.commons.lang3.ObjectUtils;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
 import static com.google.common.collect.Multimaps.newSetMultimap;
 import static com.google.common.collect.Sets.newLinkedHashSet;
 
 /**
+ * Thread safe inspection results, collections of objects are returned as
+ * snapshots so that they can be iterated while other inspection threads keep
+ * adding objects. Identifiable objects are indexed by type and name, the first
+ * added object wins on the name clash.
+ *
  * @author Sergey Bushik
  */
 @SuppressWarnings("unchecked")
@@ -55,21 +61,28 @@ public class SimpleInspectionResults implements InspectionResults {
                     return newLinkedHashSet();
                 }
             });
+    private Map<MetaDataType, Map<Identifier, MetaData>> objectsByName = newHashMap();
 
     @Override
-    public void addObject(MetaData object) {
-        objects.put(object.getObjectType(), object);
+    public synchronized void addObject(MetaData object) {
+        if (objects.put(object.getObjectType(), object) && object instanceof Identifiable) {
+            Map<Identifier, MetaData> objectsByName = getObjectsByName(object.getObjectType());
+            Identifier identifier = ((Identifiable) object).getIdentifier();
+            if (!objectsByName.containsKey(identifier)) {
+                objectsByName.put(identifier, object);
+            }
+        }
     }
 
     @Override
-    public void addObjects(Collection<? extends MetaData> objects) {
+    public synchronized void addObjects(Collection<? extends MetaData> objects) {
         for (MetaData object : objects) {
             addObject(object);
         }
     }
 
     @Override
-    public <M extends MetaData> M getObject(MetaDataType objectType) {
+    public synchronized <M extends MetaData> M getObject(MetaDataType objectType) {
         Set<MetaData> objectsByType = objects.get(objectType);
         return !objectsByType.isEmpty() ? (M) objectsByType.iterator().next() : null;
     }
@@ -80,29 +93,43 @@ public class SimpleInspectionResults implements InspectionResults {
     }
 
     @Override
-    public <M extends Identifiable> M getObject(MetaDataType objectType, final Identifier identifier) {
-        Optional<MetaData> identifiable = Iterables.tryFind(objects.get(objectType), new Predicate<MetaData>() {
-            @Override
-            public boolean apply(MetaData object) {
-                return object instanceof Identifiable
-                        && ObjectUtils.equals(((Identifiable) object).getIdentifier(), identifier);
-            }
-        });
-        return identifiable.isPresent() ? (M) identifiable.get() : null;
+    public synchronized <M extends Identifiable> M getObject(MetaDataType objectType, Identifier identifier) {
+        return (M) getObjectsByName(objectType).get(identifier);
     }
 
     @Override
-    public <M extends MetaData> Collection<M> getObjects(MetaDataType objectType) {
-        return (Collection<M>) objects.get(objectType);
+    public synchronized <M extends MetaData> Collection<M> getObjects(MetaDataType objectType) {
+        return (Collection<M>) newArrayList(objects.get(objectType));
     }
 
     @Override
-    public Collection<? extends MetaData> getObjects() {
-        return objects.values();
+    public synchronized Collection<? extends MetaData> getObjects() {
+        return newArrayList(objects.values());
     }
 
     @Override
-    public void removeObject(MetaData object) {
-        objects.remove(object.getObjectType(), object);
+    public synchronized void removeObject(MetaData object) {
+        if (objects.remove(object.getObjectType(), object) && object instanceof Identifiable) {
+            Map<Identifier, MetaData> objectsByName = getObjectsByName(object.getObjectType());
+            Identifier identifier = ((Identifiable) object).getIdentifier();
+            if (objectsByName.get(identifier) == object) {
+                objectsByName.remove(identifier);
+                for (MetaData namesake : objects.get(object.getObjectType())) {
+                    if (namesake instanceof Identifiable
+                            && ObjectUtils.equals(((Identifiable) namesake).getIdentifier(), identifier)) {
+                        objectsByName.put(identifier, namesake);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    protected Map<Identifier, MetaData> getObjectsByName(MetaDataType objectType) {
+        Map<Identifier, MetaData> objectsByName = this.objectsByName.get(objectType);
+        if (objectsByName == null) {
+            this.objectsByName.put(objectType, objectsByName = newHashMap());
+        }
+        return objectsByName;
     }
 }
@@ -27,9 +27,25 @@
  */
 package com.nuodb.migrator.jdbc.metadata.inspector;
 
+import com.google.common.base.Function;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.nuodb.migrator.jdbc.connection.DelegatingResultSet;
 import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.MetaDataType;
 import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.Query;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.transform;
+import static java.util.Arrays.asList;
+import static org.apache.commons.lang3.StringUtils.trim;
 
 /**
  * @author Sergey Bushik
@@ -38,6 +54,14 @@ import com.nuodb.migrator.jdbc.metadata.Table;
 public abstract class TableInspectorBase<M extends MetaData, T extends TableInspectionScope>
         extends ManagedInspectorBase<M, T> {
 
+    /**
+     * Minimum number of tables from the same schema inspected with a single
+     * query if the inspector supports bulk inspection.
+     */
+    public static final int BULK_THRESHOLD = 8;
+
+    private int bulkThreshold = BULK_THRESHOLD;
+
     public TableInspectorBase(MetaDataType objectType) {
         this(objectType, (Class<? extends T>) TableInspectionScope.class);
     }
@@ -51,6 +75,91 @@ public abstract class TableInspectorBase<M extends MetaData, T extends TableInsp
         super(objectType, parentObjectType, inspectionScopeClass);
     }
 
+    /**
+     * Groups tables by schema and inspects each group of at least bulk
+     * threshold tables with a single query, other tables are inspected one by
+     * one.
+     */
+    @Override
+    public void inspectObjects(InspectionContext inspectionContext, Collection<? extends M> objects)
+            throws SQLException {
+        if (getTableColumn() == null) {
+            super.inspectObjects(inspectionContext, objects);
+            return;
+        }
+        ListMultimap<List<String>, M> schemas = LinkedListMultimap.create();
+        for (M object : objects) {
+            Table table = (Table) object;
+            schemas.put(asList(table.getCatalog().getName(), table.getSchema().getName()), object);
+        }
+        Collection<T> inspectionScopes = newArrayList();
+        for (Map.Entry<List<String>, Collection<M>> schema : schemas.asMap().entrySet()) {
+            Collection<M> tables = schema.getValue();
+            if (tables.size() >= bulkThreshold) {
+                inspectionScopes.add((T) new BulkTableInspectionScope(schema.getKey().get(0), schema.getKey().get(1),
+                        transform(newArrayList(tables), new Function<M, String>() {
+                            @Override
+                            public String apply(M table) {
+                                return ((Table) table).getName();
+                            }
+                        })));
+            } else {
+                inspectionScopes.addAll(createInspectionScopes(tables));
+            }
+        }
+        inspectScopes(inspectionContext, inspectionScopes);
+    }
+
+    @Override
+    protected void processResultSet(InspectionContext inspectionContext, T inspectionScope, Query query,
+            ResultSet resultSet) throws SQLException {
+        if (inspectionScope instanceof BulkTableInspectionScope) {
+            resultSet = createBulkResultSet((BulkTableInspectionScope) inspectionScope, resultSet);
+        }
+        super.processResultSet(inspectionContext, inspectionScope, query, resultSet);
+    }
+
+    /**
+     * Wraps result set of a bulk query, so that rows of the tables outside of
+     * the scope are skipped.
+     *
+     * @param inspectionScope
+     *            bulk scope listing the inspected tables.
+     * @param resultSet
+     *            rows of all the tables in the schema.
+     * @return result set returning rows of the inspected tables only.
+     */
+    protected ResultSet createBulkResultSet(BulkTableInspectionScope inspectionScope, ResultSet resultSet) {
+        return new BulkResultSet(inspectionScope, resultSet, getTableColumn());
+    }
+
+    /**
+     * Checks whether rows of the given table are processed in the scope, which
+     * is always true for a single table scope.
+     *
+     * @param inspectionScope
+     *            current scope.
+     * @param table
+     *            name of the table read from the result set.
+     * @return true if the table is inspected.
+     */
+    protected boolean isInspected(TableInspectionScope inspectionScope, String table) {
+        return !(inspectionScope instanceof BulkTableInspectionScope)
+                || ((BulkTableInspectionScope) inspectionScope).containsTable(trim(table));
+    }
+
+    /**
+     * Label of the result set column holding table name. Inspectors returning
+     * not null label support bulk inspection, their queries must return rows
+     * of all the tables in the schema if the scope has no table set.
+     *
+     * @return table name column label or null if bulk inspection is not
+     *         supported.
+     */
+    protected String getTableColumn() {
+        return null;
+    }
+
     protected T createInspectionScope(M object) {
         return (T) createTableInspectionScope((Table) object);
     }
@@ -64,7 +173,41 @@ public abstract class TableInspectorBase<M extends MetaData, T extends TableInsp
         return true;
     }
 
+    public int getBulkThreshold() {
+        return bulkThreshold;
+    }
+
+    public void setBulkThreshold(int bulkThreshold) {
+        this.bulkThreshold = bulkThreshold;
+    }
+
     public static TableInspectionScope createTableInspectionScope(Table table) {
         return new TableInspectionScope(table.getCatalog().getName(), table.getSchema().getName(), table.getName());
     }
+
+    /**
+     * Skips rows of the tables outside of the bulk scope on {@link #next()}
+     */
+    static class BulkResultSet extends DelegatingResultSet {
+
+        private final BulkTableInspectionScope inspectionScope;
+        private final String tableColumn;
+
+        public BulkResultSet(BulkTableInspectionScope inspectionScope, ResultSet resultSet, String tableColumn) {
+            super(resultSet);
+            this.inspectionScope = inspectionScope;
+            this.tableColumn = tableColumn;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            ResultSet resultSet = getTarget();
+            while (resultSet.next()) {
+                if (inspectionScope.containsTable(trim(resultSet.getString(tableColumn)))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -38,6 +38,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Map;
 
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+
 /**
  * @author Sergey Bushik
  */
@@ -81,27 +83,45 @@ public class SessionFactories {
         };
     }
 
+    /**
+     * Creates session factory resolving dialect from the first opened
+     * connection, dialect and enforced table locks setting are looked up once
+     * per factory and reused for the subsequent sessions.
+     *
+     * @param connectionProvider
+     *            to open connections with.
+     * @param dialectResolver
+     *            to resolve dialect with.
+     * @return session factory.
+     */
     public static SessionFactory newSessionFactory(final ConnectionProvider connectionProvider,
             final DialectResolver dialectResolver) {
         return new SessionFactoryBase() {
 
-            private Dialect dialect;
+            private volatile Dialect dialect;
+            private volatile Boolean enforceTableLocksForDDL;
 
             @Override
             protected SessionBase open(Map<Object, Object> context) throws SQLException {
                 Connection connection = connectionProvider.getConnection();
-                if (dialect == null) {
-                    try {
-                        dialect = dialectResolver.resolve(connection);
-                    } catch (SQLException exception) {
-                        connection.close();
-                        throw exception;
-                    }
+                try {
+                    init(connection);
+                } catch (SQLException exception) {
+                    connection.close();
+                    throw exception;
                 }
-                boolean enforceTableLocksForDDL = checkEnforcedTableLocks(connection);
                 return new SessionBase(this, connection, dialect, context, enforceTableLocksForDDL);
             }
 
+            private synchronized void init(Connection connection) throws SQLException {
+                if (dialect == null) {
+                    dialect = dialectResolver.resolve(connection);
+                }
+                if (enforceTableLocksForDDL == null) {
+                    enforceTableLocksForDDL = checkEnforcedTableLocks(connection);
+                }
+            }
+
             @Override
             protected void close(Session session) throws SQLException {
                 connectionProvider.closeConnection(session.getConnection());
@@ -109,11 +129,26 @@ public class SessionFactories {
         };
     }
 
+    /**
+     * Wraps session factory with a pool of at most max size sessions reused
+     * between works.
+     *
+     * @param sessionFactory
+     *            to open pooled sessions with.
+     * @param maxSize
+     *            max number of sessions opened by the pool.
+     * @return session pool.
+     */
+    public static SessionPool newSessionPool(SessionFactory sessionFactory, int maxSize) {
+        return new SessionPool(sessionFactory, maxSize);
+    }
+
     protected static boolean checkEnforcedTableLocks(Connection connection) {
-        Statement statement;
+        Statement statement = null;
+        ResultSet rs = null;
         try {
             statement = connection.createStatement();
-            ResultSet rs = statement
+            rs = statement
                     .executeQuery("SELECT value FROM system.properties WHERE property='ENFORCE_TABLE_LOCKS_FOR_DDL';");
             if (rs.next()) {
                 return rs.getBoolean("VALUE");
@@ -125,6 +160,9 @@ public class SessionFactories {
                 return false;
             }
             return false;
+        } finally {
+            closeQuietly(rs);
+            closeQuietly(statement);
         }
         return false;
     }
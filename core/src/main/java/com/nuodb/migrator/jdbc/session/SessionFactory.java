@@ -43,4 +43,13 @@ public interface SessionFactory {
 
     void removeSessionObserver(SessionObserver sessionObserver);
 
+    /**
+     * Releases resources held by the factory, sessions opened by the factory
+     * are closed by their owners.
+     *
+     * @throws SQLException
+     *             if closing failed.
+     */
+    void close() throws SQLException;
+
 }
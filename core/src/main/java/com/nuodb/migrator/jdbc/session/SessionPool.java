@@ -0,0 +1,405 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.session;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.DatabaseInfo;
+import com.nuodb.migrator.spec.ConnectionSpec;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.utils.ValidationUtils.isNotNull;
+import static com.nuodb.migrator.utils.concurrent.ForkJoinPool.managedBlock;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Bounded pool of sessions opened by the underlying session factory. Closing of
+ * a leased session returns it to the pool, where its connection is rolled back
+ * and auto commit & transaction isolation are reset to the values the session
+ * was opened with. Idle sessions are validated before lease and evicted if the
+ * connection is broken or the session was idle for longer than max idle time.
+ * If all the sessions are leased the caller waits, the wait is managed, so that
+ * fork join pool may compensate the blocked worker.
+ *
+ * @author Sergey Bushik
+ */
+public class SessionPool implements SessionFactory {
+
+    public static final int VALIDATION_TIMEOUT = 5;
+    public static final long MAX_IDLE_TIME = 0L;
+
+    private static final long LEASE_TIMEOUT = 100L;
+
+    protected final transient Logger logger = getLogger(getClass());
+
+    private final SessionFactory sessionFactory;
+    private final int maxSize;
+    private final Semaphore leases;
+    private final BlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<PooledSession>();
+    private int validationTimeout = VALIDATION_TIMEOUT;
+    private long maxIdleTime = MAX_IDLE_TIME;
+    private volatile boolean closed;
+
+    public SessionPool(SessionFactory sessionFactory, int maxSize) {
+        isNotNull(sessionFactory, "Session factory is required");
+        this.sessionFactory = sessionFactory;
+        this.maxSize = maxSize;
+        this.leases = new Semaphore(maxSize);
+    }
+
+    @Override
+    public Session openSession() throws SQLException {
+        return openSession(null);
+    }
+
+    @Override
+    public Session openSession(Map<Object, Object> context) throws SQLException {
+        if (closed) {
+            throw new SessionException("Session pool is closed");
+        }
+        lease();
+        try {
+            PooledSession session = leaseIdleSession();
+            if (session == null) {
+                session = new PooledSession(sessionFactory.openSession());
+            }
+            session.lease(context);
+            return session;
+        } catch (SQLException exception) {
+            leases.release();
+            throw exception;
+        } catch (RuntimeException exception) {
+            leases.release();
+            throw exception;
+        }
+    }
+
+    protected void lease() throws SQLException {
+        try {
+            managedBlock(new LeaseBlocker());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new SessionException("Interrupted while waiting for a session", exception);
+        }
+    }
+
+    /**
+     * Polls most recently used idle session, evicting broken and expired ones.
+     *
+     * @return idle session or null if none is available.
+     */
+    protected PooledSession leaseIdleSession() {
+        PooledSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            if (isExpired(session) || !isValid(session)) {
+                evict(session);
+            } else {
+                break;
+            }
+        }
+        return session;
+    }
+
+    protected boolean isExpired(PooledSession session) {
+        return maxIdleTime > 0 && currentTimeMillis() - session.releaseTime > maxIdleTime;
+    }
+
+    protected boolean isValid(PooledSession session) {
+        Connection connection = session.getConnection();
+        try {
+            return !connection.isClosed() && connection.isValid(validationTimeout);
+        } catch (SQLException exception) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Session validation failed", exception);
+            }
+            return false;
+        }
+    }
+
+    protected void release(PooledSession session) throws SQLException {
+        try {
+            if (closed || !reset(session)) {
+                evict(session);
+            } else {
+                session.releaseTime = currentTimeMillis();
+                idleSessions.offerFirst(session);
+            }
+        } finally {
+            leases.release();
+        }
+    }
+
+    /**
+     * Rolls back not committed changes and restores connection state the
+     * session was opened with.
+     *
+     * @param session
+     *            to reset.
+     * @return true if session was reset and can be reused.
+     */
+    protected boolean reset(PooledSession session) {
+        Connection connection = session.getConnection();
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            if (connection.getAutoCommit() != session.autoCommit) {
+                connection.setAutoCommit(session.autoCommit);
+            }
+            if (connection.getTransactionIsolation() != session.transactionIsolation) {
+                connection.setTransactionIsolation(session.transactionIsolation);
+            }
+            return true;
+        } catch (SQLException exception) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Session reset failed", exception);
+            }
+            return false;
+        }
+    }
+
+    protected void evict(PooledSession session) {
+        if (logger.isTraceEnabled()) {
+            logger.trace(format("Evicting session %s", session.session));
+        }
+        closeQuietly(session.session);
+    }
+
+    @Override
+    public void addSessionObserver(SessionObserver sessionObserver) {
+        sessionFactory.addSessionObserver(sessionObserver);
+    }
+
+    @Override
+    public void removeSessionObserver(SessionObserver sessionObserver) {
+        sessionFactory.removeSessionObserver(sessionObserver);
+    }
+
+    /**
+     * Closes idle sessions, sessions leased at the moment are closed once
+     * released.
+     */
+    @Override
+    public void close() throws SQLException {
+        closed = true;
+        PooledSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            evict(session);
+        }
+    }
+
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getIdleSize() {
+        return idleSessions.size();
+    }
+
+    public int getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(int validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    class LeaseBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private boolean leased;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            return isReleasable() || (leased = leases.tryAcquire(LEASE_TIMEOUT, MILLISECONDS));
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return leased || (leased = leases.tryAcquire());
+        }
+    }
+
+    /**
+     * Session leased from the pool, delegates to the opened session and returns
+     * it to the pool on close.
+     */
+    @SuppressWarnings({ "NullableProblems", "unchecked" })
+    class PooledSession implements Session {
+
+        private final Session session;
+        private final boolean autoCommit;
+        private final int transactionIsolation;
+        private volatile boolean leased;
+        private long releaseTime;
+
+        PooledSession(Session session) throws SQLException {
+            this.session = session;
+            Connection connection = session.getConnection();
+            this.autoCommit = connection.getAutoCommit();
+            this.transactionIsolation = connection.getTransactionIsolation();
+        }
+
+        void lease(Map<Object, Object> context) {
+            session.clear();
+            if (context != null) {
+                session.putAll(context);
+            }
+            leased = true;
+        }
+
+        @Override
+        public ConnectionSpec getConnectionSpec() {
+            return session.getConnectionSpec();
+        }
+
+        @Override
+        public DatabaseInfo getDatabaseInfo() {
+            return session.getDatabaseInfo();
+        }
+
+        @Override
+        public Connection getConnection() {
+            return session.getConnection();
+        }
+
+        @Override
+        public Dialect getDialect() {
+            return session.getDialect();
+        }
+
+        @Override
+        public boolean shouldEnforceTableLocksForDDL() {
+            return session.shouldEnforceTableLocksForDDL();
+        }
+
+        @Override
+        public void execute(Work work, WorkManager workManager) throws Exception {
+            workManager.execute(work, this);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (leased) {
+                leased = false;
+                release(this);
+            }
+        }
+
+        @Override
+        public int size() {
+            return session.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return session.isEmpty();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return session.containsKey(key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return session.containsValue(value);
+        }
+
+        @Override
+        public Object get(Object key) {
+            return session.get(key);
+        }
+
+        @Override
+        public Object put(Object key, Object value) {
+            return session.put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return session.remove(key);
+        }
+
+        @Override
+        public void putAll(Map map) {
+            session.putAll(map);
+        }
+
+        @Override
+        public void clear() {
+            session.clear();
+        }
+
+        @Override
+        public Set keySet() {
+            return session.keySet();
+        }
+
+        @Override
+        public Collection values() {
+            return session.values();
+        }
+
+        @Override
+        public Set<Entry> entrySet() {
+            return session.entrySet();
+        }
+    }
+}
@@ -29,6 +29,8 @@ package com.nuodb.migrator.jdbc.session;
 
 import com.nuodb.migrator.utils.concurrent.ForkJoinTask;
 
+import java.util.concurrent.ExecutorService;
+
 import static com.nuodb.migrator.utils.ReflectionUtils.getClassName;
 
 /**
@@ -65,6 +67,28 @@ public abstract class WorkForkJoinTaskBase<V> extends ForkJoinTask<V> implements
     protected void init() throws Exception {
     }
 
+    /**
+     * Arranges to execute the work with the executor service, which runs works blocking on JDBC or file I/O outside
+     * of the fork join pool. The work is joined with {@link #join()} as usual, a fork join thread awaiting the work
+     * is compensated by the pool.
+     *
+     * @param executorService
+     *            executor service or null to fork the work to the pool of the current thread
+     * @return this work
+     */
+    public ForkJoinTask<V> fork(ExecutorService executorService) {
+        if (executorService == null) {
+            return fork();
+        }
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                quietlyInvoke();
+            }
+        });
+        return this;
+    }
+
     @Override
     protected boolean exec() {
         if (sessionFactory != null) {
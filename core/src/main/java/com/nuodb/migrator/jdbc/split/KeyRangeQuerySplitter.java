@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.LimitHandler;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.query.SelectQuery;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
+import static java.util.Collections.singleton;
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * Splits table rows into ranges of a unique not null key column. Boundaries of
+ * each range are found by an index probe starting from the previous boundary,
+ * so every split is read with {@code key >= ? AND key < ?} predicate instead of
+ * re-scanning the rows skipped by {@code OFFSET}. The last split is open ended.
+ *
+ * @author Sergey Bushik
+ */
+public class KeyRangeQuerySplitter extends QuerySplitterBase<PreparedStatement> {
+
+    private final Dialect dialect;
+    private final Table table;
+    private final Collection<Column> columns;
+    private final Column column;
+    private final String filter;
+    private final Map<Integer, KeyRange> keyRanges = new ConcurrentHashMap<Integer, KeyRange>();
+
+    protected KeyRangeQuerySplitter(Dialect dialect, Table table, Collection<Column> columns, Column column,
+            String filter, QueryLimit queryLimit) {
+        super(createQuery(dialect, table, columns, column, filter, null), queryLimit, null);
+        this.dialect = dialect;
+        this.table = table;
+        this.columns = columns;
+        this.column = column;
+        this.filter = filter;
+    }
+
+    @Override
+    protected boolean hasNextQuerySplit(Connection connection, int splitIndex) throws SQLException {
+        if (splitIndex == 0) {
+            return true;
+        }
+        KeyRange keyRange = keyRanges.get(splitIndex - 1);
+        return keyRange != null && keyRange.getUpper() != null;
+    }
+
+    @Override
+    protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
+        Object lower = splitIndex > 0 ? keyRanges.get(splitIndex - 1).getUpper() : null;
+        long count = getCount(getQueryLimit());
+        Object upper = getBoundary(connection, lower, count);
+        keyRanges.put(splitIndex, new KeyRange(lower, upper));
+        return upper != null ? new QueryLimit(count) : null;
+    }
+
+    /**
+     * Finds key value located at the given offset from the lower boundary,
+     * which becomes exclusive upper boundary of the split.
+     *
+     * @param connection
+     *            to probe boundary with.
+     * @param lower
+     *            inclusive lower boundary or null for the first split.
+     * @param offset
+     *            number of rows in the split.
+     * @return key value or null if there are no more rows past the offset.
+     * @throws SQLException
+     */
+    protected Object getBoundary(Connection connection, Object lower, long offset) throws SQLException {
+        Dialect dialect = getDialect();
+        SelectQuery query = createQuery(dialect, table, singleton(column), column, filter, new KeyRange(lower, null));
+        query.orderBy(column.getName(dialect));
+        boolean parameterized = dialect.supportsLimitParameters();
+        LimitHandler limitHandler = dialect.createLimitHandler(query.toString(), new QueryLimit(1L, offset));
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            statement = connection.prepareStatement(limitHandler.getLimitQuery(parameterized));
+            int index = 1;
+            index += limitHandler.bindParametersAtStart(statement, index);
+            if (lower != null) {
+                statement.setObject(index++, lower);
+            }
+            limitHandler.bindParametersAtEnd(statement, index);
+            resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getObject(1) : null;
+        } finally {
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+        }
+    }
+
+    @Override
+    public boolean isParameterized() {
+        return true;
+    }
+
+    @Override
+    protected PreparedStatement createStatement(Connection connection, QueryLimit queryLimit, int splitIndex)
+            throws SQLException {
+        return prepareStatement(connection, queryLimit, splitIndex);
+    }
+
+    @Override
+    protected PreparedStatement prepareStatement(Connection connection, QueryLimit queryLimit, int splitIndex)
+            throws SQLException {
+        KeyRange keyRange = keyRanges.get(splitIndex);
+        PreparedStatement statement = connection
+                .prepareStatement(createQuery(getDialect(), table, columns, column, filter, keyRange).toString());
+        int index = 1;
+        if (keyRange.getLower() != null) {
+            statement.setObject(index++, keyRange.getLower());
+        }
+        if (keyRange.getUpper() != null) {
+            statement.setObject(index, keyRange.getUpper());
+        }
+        return statement;
+    }
+
+    @Override
+    protected ResultSet executeStatement(PreparedStatement statement, QueryLimit queryLimit, int splitIndex)
+            throws SQLException {
+        return statement.executeQuery();
+    }
+
+    protected static SelectQuery createQuery(Dialect dialect, Table table, Collection<Column> columns, Column column,
+            String filter, KeyRange keyRange) {
+        SelectQuery query = new SelectQuery();
+        query.setQualifyNames(true);
+        query.setDialect(dialect);
+        query.from(table);
+        for (Column select : columns != null ? columns : table.getColumns()) {
+            query.column(select);
+        }
+        if (!isEmpty(filter)) {
+            query.where("(" + filter + ")");
+        }
+        if (keyRange != null) {
+            String key = column.getName(dialect);
+            if (keyRange.getLower() != null) {
+                query.where(key + " >= ?");
+            }
+            if (keyRange.getUpper() != null) {
+                query.where(key + " < ?");
+            }
+        }
+        return query;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Column getColumn() {
+        return column;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    /**
+     * Inclusive lower and exclusive upper key boundaries of a split, null
+     * boundary means the range is open on that side.
+     */
+    protected static class KeyRange {
+
+        private final Object lower;
+        private final Object upper;
+
+        public KeyRange(Object lower, Object upper) {
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        public Object getLower() {
+            return lower;
+        }
+
+        public Object getUpper() {
+            return upper;
+        }
+    }
+}
@@ -37,13 +37,22 @@ import java.sql.*;
 
 import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
 import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getOffset;
-import static java.lang.Math.min;
 
 /**
+ * Splits query into pages of limit offset queries. Number of pages is planned
+ * from a row count, which may be approximate, so the last page is open-ended
+ * and selects all the rows from its offset.
+ *
  * @author Sergey Bushik
  */
 public class LimitQuerySplitter extends QuerySplitterBase<Statement> {
 
+    /**
+     * Count of the open-ended last page, the offset is subtracted so that
+     * offset plus count doesn't overflow in row number based limit queries
+     */
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
     private final Dialect dialect;
     private final RowCountStrategy rowCountStrategy;
 
@@ -63,10 +72,9 @@ public class LimitQuerySplitter extends QuerySplitterBase<Statement> {
     @Override
     protected QueryLimit createQueryLimit(Connection connection, int splitIndex) throws SQLException {
         QueryLimit queryLimit = getQueryLimit();
-        long offset = splitIndex * getCount(queryLimit) + getOffset(queryLimit);
-        // long limit = getLimit(queryLimit);
-        long limit = min(getCount(queryLimit), getRowCount(connection) - offset);
-        return new QueryLimit(limit, offset);
+        long count = getCount(queryLimit);
+        long offset = splitIndex * count + getOffset(queryLimit);
+        return new QueryLimit(offset + count < getRowCount(connection) ? count : UNBOUNDED - offset, offset);
     }
 
     protected long getRowCount(Connection connection) throws SQLException {
@@ -28,13 +28,28 @@
 package com.nuodb.migrator.jdbc.split;
 
 import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.RowCountType;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
 import com.nuodb.migrator.jdbc.query.QueryLimit;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import com.nuodb.migrator.jdbc.query.Query;
 
+import java.sql.PreparedStatement;
 import java.sql.Statement;
+import java.util.Collection;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.collect.Iterables.size;
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
 import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getCount;
+import static com.nuodb.migrator.jdbc.query.QueryLimitUtils.getOffset;
+import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newCachingStrategy;
+import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newHandlerStrategy;
+import static java.sql.Types.*;
 
 /**
  * Static factories for creating query splitters.
@@ -44,7 +59,29 @@ import static com.nuodb.migrator.jdbc.dialect.RowCountType.EXACT;
 public class QuerySplitters {
 
     public static boolean supportsLimitSplitter(Dialect dialect, Table table, String filter) {
-        return dialect.supportsLimitOffset() && dialect.supportsRowCount(table, null, filter, EXACT);
+        return dialect.supportsLimitOffset() && getRowCountType(dialect, table, filter) != null;
+    }
+
+    /**
+     * Approximate row count read from the database statistics is preferred for
+     * planning limit splits, as exact row count scans the whole table.
+     *
+     * @param dialect
+     *            of the source database.
+     * @param table
+     *            to count rows of.
+     * @param filter
+     *            optional filter to apply.
+     * @return row count type or null if row count is not supported.
+     */
+    public static RowCountType getRowCountType(Dialect dialect, Table table, String filter) {
+        if (dialect.supportsRowCount(table, null, filter, APPROX)) {
+            return APPROX;
+        } else if (dialect.supportsRowCount(table, null, filter, EXACT)) {
+            return EXACT;
+        } else {
+            return null;
+        }
     }
 
     public static QuerySplitter<Statement> newLimitSplitter(Dialect dialect, RowCountStrategy rowCountStrategy,
@@ -52,7 +89,104 @@ public class QuerySplitters {
         return new LimitQuerySplitter(dialect, rowCountStrategy, query, queryLimit, null);
     }
 
+    /**
+     * Key range splitter requires limit offset syntax for boundary probes and
+     * a single column key, which is unique, not null and can be ordered.
+     */
+    public static boolean supportsKeyRangeSplitter(Dialect dialect, Table table, QueryLimit queryLimit) {
+        return dialect.supportsLimitOffset() && getCount(queryLimit) > 0 && getOffset(queryLimit) == 0
+                && getKeyRangeColumn(table) != null;
+    }
+
+    /**
+     * Resolves column to split table rows on, primary key is preferred over
+     * unique indexes.
+     *
+     * @param table
+     *            to find key column for.
+     * @return key column or null if table has no usable single column key.
+     */
+    public static Column getKeyRangeColumn(Table table) {
+        PrimaryKey primaryKey = table.getPrimaryKey();
+        if (primaryKey != null && isKeyRangeColumn(primaryKey.getColumns())) {
+            return getOnlyElement(primaryKey.getColumns());
+        }
+        for (Index index : table.getIndexes()) {
+            if (index.isUnique() && index.getExpression() == null && index.getFilterCondition() == null
+                    && isKeyRangeColumn(index.getColumns())) {
+                return getOnlyElement(index.getColumns());
+            }
+        }
+        return null;
+    }
+
+    private static boolean isKeyRangeColumn(Collection<Column> columns) {
+        if (size(columns) != 1) {
+            return false;
+        }
+        Column column = getOnlyElement(columns);
+        if (column.isNullable()) {
+            return false;
+        }
+        switch (column.getTypeCode()) {
+        case TINYINT:
+        case SMALLINT:
+        case INTEGER:
+        case BIGINT:
+        case NUMERIC:
+        case DECIMAL:
+        case CHAR:
+        case VARCHAR:
+        case NCHAR:
+        case NVARCHAR:
+        case DATE:
+        case TIMESTAMP:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    public static QuerySplitter<PreparedStatement> newKeyRangeSplitter(Dialect dialect, Table table,
+            Collection<Column> columns, String filter, QueryLimit queryLimit) {
+        return new KeyRangeQuerySplitter(dialect, table, columns, getKeyRangeColumn(table), filter, queryLimit);
+    }
+
     public static QuerySplitter<Statement> newNoLimitSplitter(Query query) {
         return new NoLimitQuerySplitter(query, null);
     }
+
+    /**
+     * Creates splitter for table rows, key range splitting is preferred over
+     * limit offset pages, if none of them is supported by the dialect or query
+     * limit is null the whole table is selected by a single query.
+     *
+     * @param table
+     *            to select rows from.
+     * @param columns
+     *            to select.
+     * @param filter
+     *            optional filter to apply.
+     * @param queryLimit
+     *            max number of rows per split.
+     * @return query splitter for the table.
+     */
+    public static QuerySplitter newTableSplitter(Table table, Collection<Column> columns, String filter,
+            QueryLimit queryLimit) {
+        QuerySplitter querySplitter;
+        Query query = newQuery(table, columns, filter);
+        Dialect dialect = table.getDatabase().getDialect();
+        if (queryLimit != null && supportsKeyRangeSplitter(dialect, table, queryLimit)) {
+            querySplitter = newKeyRangeSplitter(dialect, table, columns, filter, queryLimit);
+        } else if (queryLimit != null && supportsLimitSplitter(dialect, table, filter)) {
+            RowCountType rowCountType = getRowCountType(dialect, table, filter);
+            querySplitter = newLimitSplitter(dialect,
+                    newCachingStrategy(
+                            newHandlerStrategy(dialect.createRowCountHandler(table, null, filter, rowCountType))),
+                    query, queryLimit);
+        } else {
+            querySplitter = newNoLimitSplitter(query);
+        }
+        return querySplitter;
+    }
 }
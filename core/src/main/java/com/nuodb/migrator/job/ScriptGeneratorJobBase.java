@@ -79,6 +79,10 @@ public abstract class ScriptGeneratorJobBase<T extends ScriptGeneratorJobSpecBas
         return getJobSpec().getGroupScriptsBy();
     }
 
+    protected int getScriptThreads() {
+        return getJobSpec().getScriptThreads();
+    }
+
     protected Collection<JdbcTypeSpec> getJdbcTypeSpecs() {
         return getJobSpec().getJdbcTypeSpecs();
     }
@@ -64,7 +64,7 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
     protected void init() throws Exception {
         super.init();
 
-        BackupLoader backupLoader = new BackupLoader();
+        BackupLoader backupLoader = createBackupLoader();
         for (BackupLoaderListener listener : getListeners()) {
             backupLoader.addListener(listener);
         }
@@ -88,11 +88,19 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
         backupLoader.setTargetSessionFactory(createTargetSessionFactory());
         backupLoader.setTimeZone(getTimeZone());
         backupLoader.setThreads(getThreads() != null ? getThreads() : THREADS);
+        backupLoader.setIoThreads(getIoThreads());
+        backupLoader.setVirtualThreads(isVirtualThreads());
+        backupLoader.setConstraintThreads(getConstraintThreads());
+        backupLoader.setScriptThreads(getScriptThreads());
         backupLoader.setTranslationConfig(getTranslationConfig());
         backupLoader.setValueFormatRegistryResolver(createValueFormatRegistryResolver());
         setBackupLoader(backupLoader);
     }
 
+    protected BackupLoader createBackupLoader() {
+        return new BackupLoader();
+    }
+
     protected InsertTypeFactory createInsertTypeMapper() {
         return new SimpleInsertTypeFactory(getInsertType(), getTableInsertTypes());
     }
@@ -183,4 +191,16 @@ public class LoadJob extends ScriptGeneratorJobBase<LoadJobSpec> {
     protected Integer getThreads() {
         return getJobSpec().getThreads();
     }
+
+    protected Integer getIoThreads() {
+        return getJobSpec().getIoThreads();
+    }
+
+    protected boolean isVirtualThreads() {
+        return getJobSpec().isVirtualThreads();
+    }
+
+    protected Integer getConstraintThreads() {
+        return getJobSpec().getConstraintThreads();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.Schedule;
+import com.nuodb.migrator.backup.TableRowSet;
+import com.nuodb.migrator.backup.loader.BackupLoader;
+import com.nuodb.migrator.backup.loader.BackupLoaderContext;
+import com.nuodb.migrator.backup.loader.BackupLoaderManager;
+import com.nuodb.migrator.backup.loader.LoadTable;
+import com.nuodb.migrator.backup.loader.LoadTableWork;
+import com.nuodb.migrator.backup.metrics.Metrics;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.metadata.filter.MetaDataFilter;
+import com.nuodb.migrator.jdbc.metadata.inspector.InspectionScope;
+import com.nuodb.migrator.jdbc.metadata.inspector.TableInspectionScope;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.jdbc.session.Work;
+import com.nuodb.migrator.spec.ConnectionSpec;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import static com.google.common.collect.Iterables.getLast;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.ScheduleUtils.getApproxRowCount;
+import static com.nuodb.migrator.backup.ScheduleUtils.getRowSize;
+import static com.nuodb.migrator.backup.metrics.Metrics.MIGRATE;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.DATABASE;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.TABLE;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionPool;
+import static com.nuodb.migrator.migrate.RowQueue.ROW_QUEUE_SIZE;
+import static org.apache.commons.lang3.StringUtils.lowerCase;
+
+/**
+ * Migrates schema & data from the source database to the target database
+ * without intermediate backup files. Source database is inspected in place of
+ * reading backup catalog, each table row set is represented by a single
+ * in-memory chunk, which rows are read from the source table and passed to the
+ * insert works through a bounded {@link RowQueue}. At most I/O threads tables
+ * are migrated at once, each table reader holds a session leased from a source
+ * session pool of the same size. Schema & constraints are loaded the same way
+ * as for a backup load.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings({ "all" })
+public class DirectLoader extends BackupLoader {
+
+    private ConnectionSpec sourceSpec;
+    private SessionFactory sourceSessionFactory;
+    private QueryLimit queryLimit;
+    private int rowQueueSize = ROW_QUEUE_SIZE;
+    private Long lobThreshold;
+    private TempLobSideFiles lobSideFiles;
+
+    public Backup migrate() throws Exception {
+        return migrate(newHashMap());
+    }
+
+    public Backup migrate(Map context) throws Exception {
+        lobSideFiles = lobThreshold != null ? new TempLobSideFiles(lobThreshold) : null;
+        try {
+            return load(createBackupLoaderManager((BackupOps) null, context));
+        } finally {
+            if (lobSideFiles != null) {
+                lobSideFiles.close();
+            }
+        }
+    }
+
+    @Override
+    protected BackupLoaderContext createBackupLoaderContext() {
+        DirectLoaderContext directLoaderContext = new DirectLoaderContext();
+        directLoaderContext.setQueryLimit(getQueryLimit());
+        directLoaderContext.setRowQueueSize(getRowQueueSize());
+        directLoaderContext.setLobSideFiles(lobSideFiles);
+        directLoaderContext.setTablePermits(new Semaphore(getIoThreads()));
+        return directLoaderContext;
+    }
+
+    @Override
+    protected Metrics createMetrics() {
+        return new Metrics(MIGRATE);
+    }
+
+    @Override
+    protected Backup readBackup(BackupOps backupOps, Map context) throws Exception {
+        Session session = getSourceSessionFactory().openSession();
+        try {
+            return createBackup(openSourceDatabase(session));
+        } finally {
+            closeQuietly(session);
+        }
+    }
+
+    protected Database openSourceDatabase(Session session) throws SQLException {
+        ConnectionSpec sourceSpec = getSourceSpec();
+        InspectionScope inspectionScope = new TableInspectionScope(sourceSpec.getCatalog(), sourceSpec.getSchema(),
+                getTableTypes());
+        Database database = getInspectionManager()
+                .inspect(session.getConnection(), inspectionScope, getObjectTypes().toArray(new MetaDataType[0]))
+                .getObject(DATABASE);
+        database.freeze();
+        return database;
+    }
+
+    protected Backup createBackup(Database database) {
+        Backup backup = new Backup();
+        backup.setDatabase(database);
+        MetaDataFilter tableFilter = getMetaDataFilter(TABLE);
+        for (Table table : database.getTables()) {
+            if (tableFilter == null || tableFilter.accepts(table)) {
+                backup.addRowSet(createRowSet(table));
+            }
+        }
+        return backup;
+    }
+
+    /**
+     * Creates row set with a single chunk for the source table, chunk row count
+     * is incremented as rows are read from the source table.
+     *
+     * @param table
+     *            source table
+     * @return row set to load
+     */
+    protected RowSet createRowSet(Table table) {
+        RowSet rowSet = new TableRowSet(table);
+        rowSet.setName(lowerCase(table.getQualifiedName(null)));
+        for (Column column : table.getColumns()) {
+            rowSet.addColumn(column.getName(), null);
+            getLast(rowSet.getColumns()).setLobSideFiles(lobSideFiles != null && isLob(column));
+        }
+        Chunk chunk = new Chunk();
+        chunk.setName(rowSet.getName());
+        chunk.setSize(0L);
+        rowSet.addChunk(chunk);
+        return rowSet;
+    }
+
+    protected boolean isLob(Column column) {
+        switch (column.getTypeCode()) {
+        case Types.BLOB:
+        case Types.CLOB:
+        case Types.NCLOB:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    @Override
+    protected void openSourceSession(BackupLoaderContext backupLoaderContext) throws Exception {
+        SessionFactory sourceSessionFactory = getSourceSessionFactory();
+        backupLoaderContext.setSourceSessionFactory(newSessionPool(sourceSessionFactory, getIoThreads()));
+        Session sourceSession = sourceSessionFactory.openSession();
+        backupLoaderContext.setSourceSession(sourceSession);
+        backupLoaderContext.setSourceSpec(getSourceSpec());
+        try {
+            ((DirectLoaderContext) backupLoaderContext)
+                    .setSourceValueFormatRegistry(createValueFormatRegistry(sourceSession));
+        } catch (Exception exception) {
+            closeQuietly(sourceSession);
+            throw exception;
+        }
+    }
+
+    @Override
+    protected Work createLoadTablesWork(BackupLoaderManager backupLoaderManager) {
+        return new DirectTablesWork(this, backupLoaderManager);
+    }
+
+    protected LoadTableWork createLoadTableWork(LoadTable loadTable, BackupLoaderManager backupLoaderManager) {
+        return new DirectTableWork(loadTable, getTable(loadTable, backupLoaderManager.getBackupLoaderContext()),
+                backupLoaderManager);
+    }
+
+    /**
+     * Row sets of a direct migration are empty until the source tables are
+     * read, tables are weighted by the approximate row count of the source
+     * tables instead.
+     */
+    protected void addTask(Schedule<LoadTable> schedule, LoadTable loadTable,
+            BackupLoaderManager backupLoaderManager) {
+        BackupLoaderContext backupLoaderContext = backupLoaderManager.getBackupLoaderContext();
+        Table table = getTable(loadTable, backupLoaderContext);
+        long rows = table != null ? getApproxRowCount(backupLoaderContext.getSourceSession(), table, null) : 0;
+        long bytes = table != null ? rows * getRowSize(table.getColumns()) : 0;
+        schedule.addTask(loadTable, loadTable.getTable().getQualifiedName(), rows, bytes, loadTable.getThreads());
+    }
+
+    public ConnectionSpec getSourceSpec() {
+        return sourceSpec;
+    }
+
+    public void setSourceSpec(ConnectionSpec sourceSpec) {
+        this.sourceSpec = sourceSpec;
+    }
+
+    public SessionFactory getSourceSessionFactory() {
+        return sourceSessionFactory;
+    }
+
+    public void setSourceSessionFactory(SessionFactory sourceSessionFactory) {
+        this.sourceSessionFactory = sourceSessionFactory;
+    }
+
+    public QueryLimit getQueryLimit() {
+        return queryLimit;
+    }
+
+    public void setQueryLimit(QueryLimit queryLimit) {
+        this.queryLimit = queryLimit;
+    }
+
+    /**
+     * @return size in bytes of BLOB or in characters of CLOB values above which
+     *         the values are passed through temporary files instead of memory,
+     *         null if all values are passed in memory.
+     */
+    public Long getLobThreshold() {
+        return lobThreshold;
+    }
+
+    public void setLobThreshold(Long lobThreshold) {
+        this.lobThreshold = lobThreshold;
+    }
+
+    public int getRowQueueSize() {
+        return rowQueueSize;
+    }
+
+    public void setRowQueueSize(int rowQueueSize) {
+        this.rowQueueSize = rowQueueSize;
+    }
+}
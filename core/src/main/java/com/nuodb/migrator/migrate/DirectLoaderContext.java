@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.format.value.LobSideFiles;
+import com.nuodb.migrator.backup.format.value.ValueFormatRegistry;
+import com.nuodb.migrator.backup.loader.SimpleBackupLoaderContext;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Backup loader context extended with the state required to read rows
+ * directly from the source database.
+ *
+ * @author Sergey Bushik
+ */
+public class DirectLoaderContext extends SimpleBackupLoaderContext {
+
+    private QueryLimit queryLimit;
+    private int rowQueueSize;
+    private ValueFormatRegistry sourceValueFormatRegistry;
+    private LobSideFiles lobSideFiles;
+    private Semaphore tablePermits;
+
+    public QueryLimit getQueryLimit() {
+        return queryLimit;
+    }
+
+    public void setQueryLimit(QueryLimit queryLimit) {
+        this.queryLimit = queryLimit;
+    }
+
+    public int getRowQueueSize() {
+        return rowQueueSize;
+    }
+
+    public void setRowQueueSize(int rowQueueSize) {
+        this.rowQueueSize = rowQueueSize;
+    }
+
+    public ValueFormatRegistry getSourceValueFormatRegistry() {
+        return sourceValueFormatRegistry;
+    }
+
+    public void setSourceValueFormatRegistry(ValueFormatRegistry sourceValueFormatRegistry) {
+        this.sourceValueFormatRegistry = sourceValueFormatRegistry;
+    }
+
+    /**
+     * @return side files of the LOBs exceeding LOB threshold or null if LOBs
+     *         are passed in memory.
+     */
+    public LobSideFiles getLobSideFiles() {
+        return lobSideFiles;
+    }
+
+    public void setLobSideFiles(LobSideFiles lobSideFiles) {
+        this.lobSideFiles = lobSideFiles;
+    }
+
+    /**
+     * @return permits of the tables migrated at once, a table work holds a
+     *         permit from the moment it's forked until it completes.
+     */
+    public Semaphore getTablePermits() {
+        return tablePermits;
+    }
+
+    public void setTablePermits(Semaphore tablePermits) {
+        this.tablePermits = tablePermits;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.format.value.LobSideFiles;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.backup.loader.BackupLoaderManager;
+import com.nuodb.migrator.backup.loader.LoadTable;
+import com.nuodb.migrator.backup.loader.LoadTableForkWork;
+import com.nuodb.migrator.backup.loader.LoadTableWork;
+import com.nuodb.migrator.jdbc.metadata.Table;
+
+import java.util.Collection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads target table from the rows read by a paired {@link ReadTableWork}
+ * from the source table. Insert works are the same as used for a backup load,
+ * they consume rows from a bounded {@link RowQueue} rather than from chunk
+ * files. Insert works are queued on the bounded I/O executor, while the reader
+ * is run on the thread of this work, so that the reader is never queued behind
+ * the insert works waiting for its rows. The table permit acquired by
+ * {@link DirectTablesWork} is released once the work completes.
+ *
+ * @author Sergey Bushik
+ */
+public class DirectTableWork extends LoadTableWork {
+
+    private final Table sourceTable;
+    private final AtomicInteger insertWorks = new AtomicInteger();
+    private ReadTableWork readTableWork;
+
+    public DirectTableWork(LoadTable loadTable, Table sourceTable, BackupLoaderManager backupLoaderManager) {
+        super(loadTable, backupLoaderManager);
+        this.sourceTable = sourceTable;
+    }
+
+    @Override
+    protected RowReader createRowReader() {
+        DirectLoaderContext directLoaderContext = (DirectLoaderContext) getBackupLoaderManager()
+                .getBackupLoaderContext();
+        return new RowQueue(directLoaderContext.getRowQueueSize());
+    }
+
+    /**
+     * Insert works bind LOBs spilled by the reader from the temporary side
+     * files. The last insert work to complete closes the row queue, which
+     * releases the reader blocked on a full queue if the insert works are over.
+     */
+    @Override
+    protected LoadTableForkWork createLoadTableForkWork(int thread) {
+        final DirectLoaderContext directLoaderContext = (DirectLoaderContext) getBackupLoaderManager()
+                .getBackupLoaderContext();
+        return new LoadTableForkWork(getLoadTable(), createForkRowReader(thread), thread,
+                getBackupLoaderManager()) {
+            @Override
+            protected LobSideFiles createLobSideFiles() {
+                return directLoaderContext.getLobSideFiles();
+            }
+
+            @Override
+            protected boolean exec() {
+                try {
+                    return super.exec();
+                } finally {
+                    if (insertWorks.decrementAndGet() == 0) {
+                        DirectTableWork.this.getRowReader().close();
+                    }
+                }
+            }
+        };
+    }
+
+    @Override
+    protected boolean exec() {
+        try {
+            return super.exec();
+        } finally {
+            Semaphore tablePermits = ((DirectLoaderContext) getBackupLoaderManager().getBackupLoaderContext())
+                    .getTablePermits();
+            if (tablePermits != null) {
+                tablePermits.release();
+            }
+        }
+    }
+
+    @Override
+    public void execute() throws Exception {
+        RowQueue rowQueue = (RowQueue) getRowReader();
+        readTableWork = new ReadTableWork(getLoadTable(), sourceTable, rowQueue, getBackupLoaderManager());
+        insertWorks.set(getLoadTable().getThreads());
+        Collection<LoadTableForkWork> loadTableForkWorks = forkLoadTableForkWorks();
+        try {
+            readTableWork.quietlyInvoke();
+        } finally {
+            joinLoadTableForkWorks(loadTableForkWorks);
+        }
+    }
+
+    public Table getSourceTable() {
+        return sourceTable;
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.Schedule;
+import com.nuodb.migrator.backup.loader.BackupLoaderManager;
+import com.nuodb.migrator.backup.loader.LoadTable;
+import com.nuodb.migrator.backup.loader.LoadTableWork;
+import com.nuodb.migrator.backup.loader.LoadTablesWork;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+
+import java.util.concurrent.Semaphore;
+
+import static com.nuodb.migrator.utils.concurrent.ForkJoinPool.managedBlock;
+
+/**
+ * Forks direct table works in the planned order, a table work is forked once
+ * a table permit is available, so that the number of the tables migrated at
+ * once, each holding a source session, a reader and a full row queue, is
+ * bounded by the I/O threads.
+ *
+ * @author Sergey Bushik
+ */
+public class DirectTablesWork extends LoadTablesWork {
+
+    private final DirectLoader directLoader;
+
+    public DirectTablesWork(DirectLoader directLoader, BackupLoaderManager backupLoaderManager) {
+        super(backupLoaderManager);
+        this.directLoader = directLoader;
+    }
+
+    @Override
+    protected LoadTableWork createLoadTableWork(LoadTable loadTable) {
+        return directLoader.createLoadTableWork(loadTable, getBackupLoaderManager());
+    }
+
+    @Override
+    protected void forkLoadTableWork(LoadTableWork loadTableWork) throws Exception {
+        Semaphore tablePermits = ((DirectLoaderContext) getBackupLoaderManager().getBackupLoaderContext())
+                .getTablePermits();
+        if (tablePermits != null) {
+            managedBlock(new TablePermitBlocker(tablePermits));
+        }
+        loadTableWork.fork();
+    }
+
+    @Override
+    protected void addTask(Schedule<LoadTable> schedule, LoadTable loadTable) {
+        directLoader.addTask(schedule, loadTable, getBackupLoaderManager());
+    }
+
+    static class TablePermitBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private final Semaphore tablePermits;
+        private boolean acquired;
+
+        TablePermitBlocker(Semaphore tablePermits) {
+            this.tablePermits = tablePermits;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!acquired) {
+                tablePermits.acquire();
+                acquired = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return acquired || (acquired = tablePermits.tryAcquire());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.MigratorException;
+import com.nuodb.migrator.backup.loader.BackupLoader;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import com.nuodb.migrator.load.LoadJob;
+import com.nuodb.migrator.spec.ConnectionSpec;
+import com.nuodb.migrator.spec.MigrateJobSpec;
+
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newSessionTimeZoneSetter;
+import static com.nuodb.migrator.jdbc.session.SessionObservers.newTransactionIsolationSetter;
+import static java.sql.Connection.*;
+
+/**
+ * Streams rows from the source database directly into the target database,
+ * combining dump & load jobs without writing backup files.
+ *
+ * @author Sergey Bushik
+ */
+public class MigrateJob extends LoadJob {
+
+    public MigrateJob(MigrateJobSpec jobSpec) {
+        super(jobSpec);
+    }
+
+    @Override
+    protected BackupLoader createBackupLoader() {
+        DirectLoader directLoader = new DirectLoader();
+        directLoader.setSourceSpec(getSourceSpec());
+        directLoader.setSourceSessionFactory(createSourceSessionFactory());
+        directLoader.setQueryLimit(getQueryLimit());
+        directLoader.setRowQueueSize(getRowQueueSize());
+        directLoader.setLobThreshold(getLobThreshold());
+        return directLoader;
+    }
+
+    protected SessionFactory createSourceSessionFactory() {
+        SessionFactory sessionFactory = newSessionFactory(
+                createConnectionProviderFactory().createConnectionProvider(getSourceSpec()), createDialectResolver());
+        if (getSourceSpec().getTransactionIsolation() == null) {
+            sessionFactory.addSessionObserver(newTransactionIsolationSetter(
+                    new int[] { TRANSACTION_SERIALIZABLE, TRANSACTION_REPEATABLE_READ, TRANSACTION_READ_COMMITTED }));
+        }
+        sessionFactory.addSessionObserver(newSessionTimeZoneSetter(getTimeZone()));
+        return sessionFactory;
+    }
+
+    @Override
+    public void execute() throws Exception {
+        try {
+            DirectLoader directLoader = (DirectLoader) getBackupLoader();
+            directLoader.migrate();
+        } catch (MigratorException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new MigrateException(exception);
+        }
+    }
+
+    @Override
+    public MigrateJobSpec getJobSpec() {
+        return (MigrateJobSpec) super.getJobSpec();
+    }
+
+    @Override
+    protected Map<String, Object> getFormatAttributes() {
+        return newHashMap();
+    }
+
+    protected ConnectionSpec getSourceSpec() {
+        return getJobSpec().getSourceSpec();
+    }
+
+    protected QueryLimit getQueryLimit() {
+        return getJobSpec().getQueryLimit();
+    }
+
+    protected int getRowQueueSize() {
+        return getJobSpec().getRowQueueSize();
+    }
+
+    protected Long getLobThreshold() {
+        return getJobSpec().getLobThreshold();
+    }
+}
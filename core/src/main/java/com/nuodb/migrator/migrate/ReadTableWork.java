@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.format.value.LobSideFiles;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.backup.loader.BackupLoaderManager;
+import com.nuodb.migrator.backup.loader.LoadTable;
+import com.nuodb.migrator.backup.metrics.Metrics;
+import com.nuodb.migrator.backup.metrics.TableMetrics;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.dialect.FetchMode;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.StatementCallback;
+import com.nuodb.migrator.jdbc.session.WorkForkJoinTaskBase;
+import com.nuodb.migrator.jdbc.split.QuerySplit;
+import com.nuodb.migrator.jdbc.split.QuerySplitter;
+import com.nuodb.migrator.utils.ObjectUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.BackupMessages.READ_TABLE_WORK;
+import static com.nuodb.migrator.backup.format.value.LobSideFiles.LOB_SIDE_FILES;
+import static com.nuodb.migrator.backup.format.value.ValueHandleListBuilder.newBuilder;
+import static com.nuodb.migrator.backup.metrics.MetricsSampler.SAMPLE_RATE;
+import static com.nuodb.migrator.context.ContextUtils.getMessage;
+import static com.nuodb.migrator.jdbc.JdbcUtils.closeQuietly;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.newTableSplitter;
+import static java.util.Arrays.asList;
+
+/**
+ * Work which selects rows of a source table and passes them to the row queue
+ * consumed by the target table insert works. Table is read split by split,
+ * each split is streamed through its own result set.
+ *
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class ReadTableWork extends WorkForkJoinTaskBase {
+
+    private final LoadTable loadTable;
+    private final Table table;
+    private final RowQueue rowQueue;
+    private final BackupLoaderManager backupLoaderManager;
+
+    private DirectLoaderContext directLoaderContext;
+    private QuerySplitter querySplitter;
+    private ResultSet resultSet;
+    private TableMetrics tableMetrics;
+
+    public ReadTableWork(LoadTable loadTable, Table table, RowQueue rowQueue,
+            BackupLoaderManager backupLoaderManager) {
+        super(backupLoaderManager, backupLoaderManager.getBackupLoaderContext().getSourceSessionFactory());
+        this.loadTable = loadTable;
+        this.table = table;
+        this.rowQueue = rowQueue;
+        this.backupLoaderManager = backupLoaderManager;
+    }
+
+    @Override
+    public String getName() {
+        return getMessage(READ_TABLE_WORK, loadTable.getRowSet().getName());
+    }
+
+    @Override
+    protected void init() throws Exception {
+        directLoaderContext = (DirectLoaderContext) backupLoaderManager.getBackupLoaderContext();
+        querySplitter = newTableSplitter(table, table.getColumns(), null, directLoaderContext.getQueryLimit());
+        Metrics metrics = directLoaderContext.getMetrics();
+        String name = loadTable.getRowSet().getName();
+        tableMetrics = metrics != null ? metrics.getTableMetrics(name) : new TableMetrics(name);
+    }
+
+    @Override
+    public void execute() throws Exception {
+        Chunk chunk = loadTable.getRowSet().getChunks().iterator().next();
+        Connection connection = getSession().getConnection();
+        long number = 0;
+        boolean canWrite = true;
+        while (canWrite && backupLoaderManager.canExecute(this) && querySplitter.hasNextQuerySplit(connection)) {
+            QuerySplit querySplit = querySplitter.getNextQuerySplit(connection);
+            try {
+                resultSet = openResultSet(querySplit);
+                ValueHandleList valueHandleList = newBuilder(connection, resultSet)
+                        .withDialect(getSession().getDialect()).withFields(table.getColumns())
+                        .withTimeZone(directLoaderContext.getTimeZone())
+                        .withValueFormatRegistry(directLoaderContext.getSourceValueFormatRegistry()).build();
+                initLobSideFiles(valueHandleList);
+                while (canWrite && backupLoaderManager.canExecute(this) && resultSet.next()) {
+                    Value[] values = new Value[valueHandleList.size()];
+                    int index = 0;
+                    for (ValueHandle valueHandle : valueHandleList) {
+                        values[index++] = valueHandle.getValueFormat().getValue(valueHandle.getJdbcValueAccess(),
+                                valueHandle.getJdbcValueAccessOptions());
+                    }
+                    chunk.incrementRowCount();
+                    if ((number & (SAMPLE_RATE - 1)) == 0) {
+                        tableMetrics.recordQueueDepth(rowQueue.size());
+                    }
+                    canWrite = rowQueue.writeRow(new Row(chunk, values, number++));
+                }
+            } finally {
+                closeResultSet();
+            }
+        }
+    }
+
+    /**
+     * Spills LOBs of the columns marked by the row set to the temporary side
+     * files, so that the queued rows don't hold them in memory.
+     */
+    protected void initLobSideFiles(ValueHandleList valueHandleList) {
+        LobSideFiles lobSideFiles = directLoaderContext.getLobSideFiles();
+        if (lobSideFiles == null) {
+            return;
+        }
+        int index = 0;
+        for (Column column : loadTable.getRowSet().getColumns()) {
+            ValueHandle valueHandle = valueHandleList.get(index++);
+            if (column.isLobSideFiles()) {
+                Map<String, Object> options = valueHandle.getJdbcValueAccessOptions();
+                if (options == null) {
+                    valueHandle.setJdbcValueAccessOptions(options = newHashMap());
+                }
+                options.put(LOB_SIDE_FILES, lobSideFiles);
+            }
+        }
+    }
+
+    /**
+     * Marks row queue finished once the work is over, whether it succeeded,
+     * failed or could not even open a session, so that readers won't wait.
+     */
+    @Override
+    protected boolean exec() {
+        try {
+            return super.exec();
+        } finally {
+            rowQueue.finish();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        super.close();
+        closeResultSet();
+    }
+
+    protected ResultSet openResultSet(QuerySplit querySplit) throws SQLException {
+        final Dialect dialect = getSession().getDialect();
+        return querySplit.getResultSet(getSession().getConnection(), new StatementCallback() {
+            @Override
+            public void executeStatement(Statement statement) throws SQLException {
+                dialect.setFetchMode(statement, new FetchMode(true));
+            }
+        });
+    }
+
+    protected void closeResultSet() throws SQLException {
+        if (resultSet != null) {
+            Statement statement = resultSet.getStatement();
+            closeQuietly(resultSet);
+            closeQuietly(statement);
+            resultSet = null;
+        }
+    }
+
+    public LoadTable getLoadTable() {
+        return loadTable;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectUtils.toString(this, asList("loadTable", "table"));
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static com.nuodb.migrator.utils.concurrent.ForkJoinPool.managedBlock;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Bounded hand off of rows between a thread reading a source table and the
+ * threads inserting rows into a target table. Reader blocks once the queue is
+ * full, which throttles source reads to the speed of target inserts. Blocking
+ * is done through {@link ForkJoinPool#managedBlock} so that the pool can
+ * compensate blocked worker threads.
+ *
+ * @author Sergey Bushik
+ */
+public class RowQueue implements RowReader {
+
+    public static final int ROW_QUEUE_SIZE = 1000;
+
+    private static final long TIMEOUT = 100L;
+
+    private final BlockingQueue<Row> rows;
+    private volatile boolean finished;
+    private volatile boolean closed;
+
+    public RowQueue() {
+        this(ROW_QUEUE_SIZE);
+    }
+
+    public RowQueue(int capacity) {
+        this.rows = new ArrayBlockingQueue<Row>(capacity);
+    }
+
+    /**
+     * Enqueues row, waiting for the free space if the queue is full.
+     *
+     * @param row
+     *            to enqueue.
+     * @return true if row was enqueued or false if queue is closed by reading
+     *         side and no more rows will be consumed.
+     * @throws InterruptedException
+     *             if interrupted while waiting.
+     */
+    public boolean writeRow(final Row row) throws InterruptedException {
+        WriteRowBlocker blocker = new WriteRowBlocker(row);
+        managedBlock(blocker);
+        return blocker.written && !closed;
+    }
+
+    /**
+     * Signals that no more rows will be written, readers will drain the queue
+     * and receive null afterwards.
+     */
+    public void finish() {
+        finished = true;
+    }
+
+    @Override
+    public Row readRow() {
+        ReadRowBlocker blocker = new ReadRowBlocker();
+        try {
+            managedBlock(blocker);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new MigrateException(exception);
+        }
+        return blocker.row;
+    }
+
+    /**
+     * Closes queue releasing blocked writer, rows which are not read yet are
+     * discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        rows.clear();
+    }
+
+    /**
+     * @return number of rows enqueued and not yet read
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    protected boolean isDrained() {
+        return closed || (finished && rows.isEmpty());
+    }
+
+    class WriteRowBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private final Row row;
+        private boolean written;
+
+        WriteRowBlocker(Row row) {
+            this.row = row;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            return isReleasable() || (written = rows.offer(row, TIMEOUT, MILLISECONDS));
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return closed || written || (written = rows.offer(row));
+        }
+    }
+
+    class ReadRowBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private Row row;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            return isReleasable() || (row = rows.poll(TIMEOUT, MILLISECONDS)) != null;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (closed) {
+                row = null;
+                return true;
+            }
+            return row != null || (row = rows.poll()) != null || isDrained();
+        }
+    }
+}
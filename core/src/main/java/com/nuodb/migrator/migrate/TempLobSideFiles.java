@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.format.value.LobSideFiles;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static java.nio.file.Files.createTempDirectory;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+
+/**
+ * Side files of the LOBs passed from the source to the target database, which
+ * are kept in a temporary directory and deleted as soon as they are bound to
+ * the target statement.
+ *
+ * @author Sergey Bushik
+ */
+public class TempLobSideFiles extends LobSideFiles implements Closeable {
+
+    private static final String PREFIX = "lob";
+
+    private final File dir;
+
+    public TempLobSideFiles(long threshold) throws IOException {
+        super(null, PREFIX, threshold);
+        this.dir = createTempDirectory("migrator-lobs").toFile();
+    }
+
+    @Override
+    protected OutputStream openOutput(String sideFile) throws Exception {
+        return new FileOutputStream(new File(dir, sideFile));
+    }
+
+    @Override
+    protected InputStream openInput(String sideFile) throws Exception {
+        return new FileInputStream(new File(dir, sideFile));
+    }
+
+    @Override
+    protected void release(String sideFile) {
+        deleteQuietly(new File(dir, sideFile));
+    }
+
+    @Override
+    public void close() {
+        deleteQuietly(dir);
+    }
+
+    public File getDir() {
+        return dir;
+    }
+}
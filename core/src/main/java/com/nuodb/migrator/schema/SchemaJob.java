@@ -35,10 +35,12 @@ import com.nuodb.migrator.jdbc.metadata.filter.MetaDataFilterManager;
 import com.nuodb.migrator.jdbc.metadata.generator.CompositeScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.FileScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.NamingStrategy;
+import com.nuodb.migrator.jdbc.metadata.generator.ParallelScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.ScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.ScriptGeneratorManager;
 import com.nuodb.migrator.jdbc.metadata.generator.SessionScriptExporter;
 import com.nuodb.migrator.jdbc.metadata.generator.Script;
+import com.nuodb.migrator.jdbc.metadata.inspector.InspectionManager;
 import com.nuodb.migrator.jdbc.metadata.inspector.InspectionScope;
 import com.nuodb.migrator.jdbc.metadata.inspector.TableInspectionScope;
 import com.nuodb.migrator.jdbc.session.Session;
@@ -63,6 +65,7 @@ import static com.nuodb.migrator.jdbc.metadata.MetaDataType.TYPES;
 import static com.nuodb.migrator.jdbc.metadata.generator.HasTablesScriptGenerator.GROUP_SCRIPTS_BY;
 import static com.nuodb.migrator.jdbc.metadata.generator.WriterScriptExporter.SYSTEM_OUT;
 import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionPool;
 import static com.nuodb.migrator.jdbc.type.JdbcTypeOptions.newOptions;
 
 /**
@@ -73,7 +76,9 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
 
     public static final String EMPTY_DATABASE_ERROR = "com.nuodb.migrator.schema.empty.database.error";
 
+    private SessionFactory sourceSessionFactory;
     private Session sourceSession;
+    private SessionFactory targetSessionFactory;
     private Session targetSession;
     private ScriptExporter scriptExporter;
     private ScriptGeneratorManager scriptGeneratorManager;
@@ -92,6 +97,7 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
         ConnectionSpec sourceSpec = getSourceSpec();
         SessionFactory sourceSessionFactory = newSessionFactory(
                 createConnectionProviderFactory().createConnectionProvider(sourceSpec), createDialectResolver());
+        setSourceSessionFactory(sourceSessionFactory);
         Session sourceSession = sourceSessionFactory.openSession();
         setSourceSession(sourceSession);
 
@@ -100,6 +106,7 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
         if (targetSpec != null) {
             SessionFactory targetSessionFactory = newSessionFactory(
                     createConnectionProviderFactory().createConnectionProvider(targetSpec), createDialectResolver());
+            setTargetSessionFactory(targetSessionFactory);
             targetSession = targetSessionFactory.openSession();
         }
         setTargetSession(targetSession);
@@ -112,7 +119,9 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
         Collection<ScriptExporter> exporters = newArrayList();
         Session targetSession = getTargetSession();
         if (targetSession != null) {
-            exporters.add(new SessionScriptExporter(targetSession));
+            int scriptThreads = getScriptThreads();
+            exporters.add(scriptThreads > 1 ? new ParallelScriptExporter(getTargetSessionFactory(), scriptThreads)
+                    : new SessionScriptExporter(targetSession));
         }
         ResourceSpec outputSpec = getOutputSpec();
         if (outputSpec != null) {
@@ -144,8 +153,22 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
     protected Database inspect() throws SQLException {
         InspectionScope inspectionScope = new TableInspectionScope(getSourceSpec().getCatalog(),
                 getSourceSpec().getSchema(), getTableTypes());
-        return createInspectionManager().inspect(getSourceSession().getConnection(), inspectionScope, TYPES)
-                .getObject(DATABASE);
+        InspectionManager inspectionManager = createInspectionManager();
+        SessionFactory sessionPool = null;
+        int inspectionThreads = getInspectionThreads();
+        if (inspectionThreads > 1) {
+            sessionPool = newSessionPool(getSourceSessionFactory(), inspectionThreads);
+            inspectionManager.setSessionFactory(sessionPool);
+            inspectionManager.setThreads(inspectionThreads);
+        }
+        try {
+            Database database = inspectionManager.inspect(getSourceSession().getConnection(), inspectionScope, TYPES)
+                    .getObject(DATABASE);
+            database.freeze();
+            return database;
+        } finally {
+            closeQuietly(sessionPool);
+        }
     }
 
     protected ScriptGeneratorManager createScriptGeneratorManager() throws SQLException {
@@ -195,6 +218,10 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
         return getJobSpec().getMetaDataFilterManager();
     }
 
+    protected int getInspectionThreads() {
+        return getJobSpec().getInspectionThreads();
+    }
+
     protected boolean isFailOnEmptyDatabase() {
         return getJobSpec().isFailOnEmptyDatabase();
     }
@@ -211,6 +238,22 @@ public class SchemaJob extends ScriptGeneratorJobBase<SchemaJobSpec> {
         return getJobSpec().getTranslationConfig();
     }
 
+    protected SessionFactory getSourceSessionFactory() {
+        return sourceSessionFactory;
+    }
+
+    protected void setSourceSessionFactory(SessionFactory sourceSessionFactory) {
+        this.sourceSessionFactory = sourceSessionFactory;
+    }
+
+    protected SessionFactory getTargetSessionFactory() {
+        return targetSessionFactory;
+    }
+
+    protected void setTargetSessionFactory(SessionFactory targetSessionFactory) {
+        this.targetSessionFactory = targetSessionFactory;
+    }
+
     protected Session getSourceSession() {
         return sourceSession;
     }
@@ -48,6 +48,8 @@ public class DumpJobSpec extends JobSpecBase {
     private Collection<BackupWriterListener> listeners = newArrayList();
     private Collection<MigrationMode> migrationModes = newHashSet(DATA, SCHEMA);
     private Integer threads;
+    private Integer ioThreads;
+    private boolean virtualThreads;
     private TimeZone timeZone;
     private ConnectionSpec sourceSpec;
     private ResourceSpec outputSpec;
@@ -83,6 +85,22 @@ public class DumpJobSpec extends JobSpecBase {
         this.threads = threads;
     }
 
+    public Integer getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(Integer ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
     public TimeZone getTimeZone() {
         return timeZone;
     }
@@ -131,6 +149,14 @@ public class DumpJobSpec extends JobSpecBase {
         return metaDataSpec.getTableTypes();
     }
 
+    public int getInspectionThreads() {
+        return metaDataSpec.getInspectionThreads();
+    }
+
+    public void setInspectionThreads(int inspectionThreads) {
+        metaDataSpec.setInspectionThreads(inspectionThreads);
+    }
+
     public void setMetaDataFilterManager(MetaDataFilterManager metaDataFilterManager) {
         metaDataSpec.setMetaDataFilterManager(metaDataFilterManager);
     }
@@ -180,6 +206,10 @@ public class DumpJobSpec extends JobSpecBase {
             return false;
         if (threads != null ? !threads.equals(that.threads) : that.threads != null)
             return false;
+        if (ioThreads != null ? !ioThreads.equals(that.ioThreads) : that.ioThreads != null)
+            return false;
+        if (virtualThreads != that.virtualThreads)
+            return false;
         if (timeZone != null ? !timeZone.equals(that.timeZone) : that.timeZone != null)
             return false;
 
@@ -191,6 +221,8 @@ public class DumpJobSpec extends JobSpecBase {
         int result = super.hashCode();
         result = 31 * result + (migrationModes != null ? migrationModes.hashCode() : 0);
         result = 31 * result + (threads != null ? threads.hashCode() : 0);
+        result = 31 * result + (ioThreads != null ? ioThreads.hashCode() : 0);
+        result = 31 * result + (virtualThreads ? 1 : 0);
         result = 31 * result + (timeZone != null ? timeZone.hashCode() : 0);
         result = 31 * result + (sourceSpec != null ? sourceSpec.hashCode() : 0);
         result = 31 * result + (outputSpec != null ? outputSpec.hashCode() : 0);
@@ -60,6 +60,9 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
     private ConnectionSpec targetSpec;
     private TimeZone timeZone;
     private Integer threads;
+    private Integer ioThreads;
+    private boolean virtualThreads;
+    private Integer constraintThreads;
 
     public CommitStrategy getCommitStrategy() {
         return commitStrategy;
@@ -129,6 +132,30 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         this.threads = threads;
     }
 
+    public Integer getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(Integer ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public Integer getConstraintThreads() {
+        return constraintThreads;
+    }
+
+    public void setConstraintThreads(Integer constraintThreads) {
+        this.constraintThreads = constraintThreads;
+    }
+
     public Map<String, InsertType> getTableInsertTypes() {
         return tableInsertTypes;
     }
@@ -172,6 +199,13 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
             return false;
         if (threads != null ? !threads.equals(that.threads) : that.threads != null)
             return false;
+        if (ioThreads != null ? !ioThreads.equals(that.ioThreads) : that.ioThreads != null)
+            return false;
+        if (virtualThreads != that.virtualThreads)
+            return false;
+        if (constraintThreads != null ? !constraintThreads.equals(that.constraintThreads)
+                : that.constraintThreads != null)
+            return false;
 
         return true;
     }
@@ -187,6 +221,9 @@ public class LoadJobSpec extends ScriptGeneratorJobSpecBase {
         result = 31 * result + (targetSpec != null ? targetSpec.hashCode() : 0);
         result = 31 * result + (timeZone != null ? timeZone.hashCode() : 0);
         result = 31 * result + (threads != null ? threads.hashCode() : 0);
+        result = 31 * result + (ioThreads != null ? ioThreads.hashCode() : 0);
+        result = 31 * result + (virtualThreads ? 1 : 0);
+        result = 31 * result + (constraintThreads != null ? constraintThreads.hashCode() : 0);
         return result;
     }
 }
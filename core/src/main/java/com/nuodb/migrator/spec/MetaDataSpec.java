@@ -45,10 +45,12 @@ public class MetaDataSpec extends SpecBase {
 
     public static final Collection<MetaDataType> OBJECT_TYPES = newArrayList(TYPES);
     public static final String[] TABLE_TYPES = new String[] { TABLE };
+    public static final int INSPECTION_THREADS = 1;
 
     private Collection<MetaDataType> objectTypes = OBJECT_TYPES;
     private MetaDataFilterManager metaDataFilterManager = new MetaDataFilterManager();
     private String[] tableTypes = TABLE_TYPES;
+    private int inspectionThreads = INSPECTION_THREADS;
 
     public Collection<MetaDataType> getObjectTypes() {
         return objectTypes;
@@ -79,6 +81,14 @@ public class MetaDataSpec extends SpecBase {
         this.tableTypes = tableTypes;
     }
 
+    public int getInspectionThreads() {
+        return inspectionThreads;
+    }
+
+    public void setInspectionThreads(int inspectionThreads) {
+        this.inspectionThreads = inspectionThreads;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -97,6 +107,8 @@ public class MetaDataSpec extends SpecBase {
             return false;
         if (!Arrays.equals(tableTypes, that.tableTypes))
             return false;
+        if (inspectionThreads != that.inspectionThreads)
+            return false;
 
         return true;
     }
@@ -107,6 +119,7 @@ public class MetaDataSpec extends SpecBase {
         result = 31 * result + (objectTypes != null ? objectTypes.hashCode() : 0);
         result = 31 * result + (metaDataFilterManager != null ? metaDataFilterManager.hashCode() : 0);
         result = 31 * result + (tableTypes != null ? Arrays.hashCode(tableTypes) : 0);
+        result = 31 * result + inspectionThreads;
         return result;
     }
 }
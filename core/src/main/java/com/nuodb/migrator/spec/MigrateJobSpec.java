@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.spec;
+
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+
+import static com.nuodb.migrator.migrate.RowQueue.ROW_QUEUE_SIZE;
+
+/**
+ * Specification of the direct migration from the source database to the target
+ * database, no input or output backup is involved.
+ *
+ * @author Sergey Bushik
+ */
+public class MigrateJobSpec extends LoadJobSpec {
+
+    private ConnectionSpec sourceSpec;
+    private QueryLimit queryLimit;
+    private int rowQueueSize = ROW_QUEUE_SIZE;
+    private Long lobThreshold;
+
+    public ConnectionSpec getSourceSpec() {
+        return sourceSpec;
+    }
+
+    public void setSourceSpec(ConnectionSpec sourceSpec) {
+        this.sourceSpec = sourceSpec;
+    }
+
+    public QueryLimit getQueryLimit() {
+        return queryLimit;
+    }
+
+    public void setQueryLimit(QueryLimit queryLimit) {
+        this.queryLimit = queryLimit;
+    }
+
+    public int getRowQueueSize() {
+        return rowQueueSize;
+    }
+
+    public void setRowQueueSize(int rowQueueSize) {
+        this.rowQueueSize = rowQueueSize;
+    }
+
+    public Long getLobThreshold() {
+        return lobThreshold;
+    }
+
+    public void setLobThreshold(Long lobThreshold) {
+        this.lobThreshold = lobThreshold;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        if (!super.equals(o))
+            return false;
+
+        MigrateJobSpec that = (MigrateJobSpec) o;
+
+        if (rowQueueSize != that.rowQueueSize)
+            return false;
+        if (queryLimit != null ? !queryLimit.equals(that.queryLimit) : that.queryLimit != null)
+            return false;
+        if (lobThreshold != null ? !lobThreshold.equals(that.lobThreshold) : that.lobThreshold != null)
+            return false;
+        if (sourceSpec != null ? !sourceSpec.equals(that.sourceSpec) : that.sourceSpec != null)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (sourceSpec != null ? sourceSpec.hashCode() : 0);
+        result = 31 * result + (queryLimit != null ? queryLimit.hashCode() : 0);
+        result = 31 * result + rowQueueSize;
+        result = 31 * result + (lobThreshold != null ? lobThreshold.hashCode() : 0);
+        return result;
+    }
+}
@@ -50,6 +50,8 @@ import static com.nuodb.migrator.utils.Collections.newPrioritySet;
  */
 public class ScriptGeneratorJobSpecBase extends JobSpecBase {
 
+    public static final int SCRIPT_THREADS = 1;
+
     private MetaDataFilterManager metaDataFilterManager = new MetaDataFilterManager();
     private GroupScriptsBy groupScriptsBy = GroupScriptsBy.TABLE;
     private Collection<JdbcTypeSpec> jdbcTypeSpecs = newArrayList();
@@ -60,6 +62,7 @@ public class ScriptGeneratorJobSpecBase extends JobSpecBase {
     private Collection<ScriptType> scriptTypes = newHashSet(ScriptType.values());
     private ConnectionSpec targetSpec;
     private TranslationConfig translationConfig = new TranslationConfig();
+    private int scriptThreads = SCRIPT_THREADS;
 
     public MetaDataFilterManager getMetaDataFilterManager() {
         return metaDataFilterManager;
@@ -89,10 +92,26 @@ public class ScriptGeneratorJobSpecBase extends JobSpecBase {
         return metaDataSpec.getTableTypes();
     }
 
+    public int getInspectionThreads() {
+        return metaDataSpec.getInspectionThreads();
+    }
+
+    public void setInspectionThreads(int inspectionThreads) {
+        metaDataSpec.setInspectionThreads(inspectionThreads);
+    }
+
     public void setObjectTypes(Collection<MetaDataType> objectTypes) {
         metaDataSpec.setObjectTypes(objectTypes);
     }
 
+    public int getScriptThreads() {
+        return scriptThreads;
+    }
+
+    public void setScriptThreads(int scriptThreads) {
+        this.scriptThreads = scriptThreads;
+    }
+
     public TranslationConfig getTranslationConfig() {
         return translationConfig;
     }
@@ -192,6 +211,8 @@ public class ScriptGeneratorJobSpecBase extends JobSpecBase {
         if (translationConfig != null ? !translationConfig.equals(that.translationConfig)
                 : that.translationConfig != null)
             return false;
+        if (scriptThreads != that.scriptThreads)
+            return false;
         return true;
     }
 
@@ -208,6 +229,7 @@ public class ScriptGeneratorJobSpecBase extends JobSpecBase {
         result = 31 * result + (namingStrategies != null ? namingStrategies.hashCode() : 0);
         result = 31 * result + (targetSpec != null ? targetSpec.hashCode() : 0);
         result = 31 * result + (translationConfig != null ? translationConfig.hashCode() : 0);
+        result = 31 * result + scriptThreads;
         return result;
     }
 }
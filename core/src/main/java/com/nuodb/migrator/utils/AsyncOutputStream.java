@@ -0,0 +1,343 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils;
+
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.newBlockingExecutorService;
+import static com.nuodb.migrator.utils.concurrent.ForkJoinPool.managedBlock;
+import static java.lang.Runtime.getRuntime;
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+/**
+ * Output stream handing filled blocks of bytes over to a writer task, so that the thread producing the bytes is not
+ * stalled by the blocking writes to the underlying stream. Blocks are recycled through a fixed ring of buffers, two
+ * by default, and the producer waits for a free buffer once the writer falls behind. The writer task is submitted to
+ * the executor once blocks are handed over and completes as soon as the handed over blocks are written, so streams
+ * share the threads of the executor and hold none while idle. Flush and close return after all blocks handed over
+ * before them are written, I/O errors of the writer task are rethrown to the producer by the next call.
+ *
+ * @author Sergey Bushik
+ */
+public class AsyncOutputStream extends OutputStream {
+
+    public static final int BUFFERS = 2;
+
+    private static final Executor EXECUTOR = newBlockingExecutorService("async-output",
+            getRuntime().availableProcessors(), false);
+
+    private final OutputStream out;
+    private final Executor executor;
+    private final BlockingQueue<Block> blocks;
+    private final BlockingQueue<byte[]> buffers;
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private byte[] buffer;
+    private int count;
+    private boolean closed;
+    private volatile IOException failure;
+
+    public AsyncOutputStream(OutputStream out, int bufferSize) {
+        this(out, bufferSize, BUFFERS);
+    }
+
+    public AsyncOutputStream(OutputStream out, int bufferSize, int bufferCount) {
+        this(out, bufferSize, bufferCount, null);
+    }
+
+    /**
+     * @param out
+     *            underlying output stream
+     * @param bufferSize
+     *            size of a block
+     * @param bufferCount
+     *            number of buffers in the ring
+     * @param executor
+     *            executor running the writer task or null to use the executor shared by the streams
+     */
+    public AsyncOutputStream(OutputStream out, int bufferSize, int bufferCount, Executor executor) {
+        if (bufferSize <= 0 || bufferCount <= 0) {
+            throw new IllegalArgumentException("Buffer size and buffer count should be positive");
+        }
+        this.out = out;
+        this.executor = executor != null ? executor : EXECUTOR;
+        this.blocks = new ArrayBlockingQueue<Block>(bufferCount + 1);
+        this.buffers = new ArrayBlockingQueue<byte[]>(bufferCount);
+        for (int index = 1; index < bufferCount; index++) {
+            buffers.add(new byte[bufferSize]);
+        }
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkOpen();
+        if (count == buffer.length) {
+            writeBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkOpen();
+        while (len > 0) {
+            if (count == buffer.length) {
+                writeBuffer();
+            }
+            int length = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, length);
+            count += length;
+            off += length;
+            len -= length;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        if (count > 0) {
+            writeBuffer();
+        }
+        await(new Block(Block.FLUSH));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (count > 0 && failure == null) {
+                put(new Block(buffer, count));
+            }
+        } finally {
+            closed = true;
+            buffer = null;
+            await(new Block(Block.CLOSE));
+        }
+    }
+
+    protected void writeBuffer() throws IOException {
+        put(new Block(buffer, count));
+        buffer = take();
+        count = 0;
+        checkFailure();
+    }
+
+    protected void await(Block block) throws IOException {
+        put(block);
+        try {
+            block.await();
+        } catch (InterruptedException exception) {
+            throw interrupted(exception);
+        }
+        checkFailure();
+    }
+
+    protected void put(Block block) throws IOException {
+        try {
+            blocks.put(block);
+        } catch (InterruptedException exception) {
+            throw interrupted(exception);
+        }
+        write();
+    }
+
+    /**
+     * Submits writer task unless the task is already running
+     */
+    protected void write() throws IOException {
+        if (writing.compareAndSet(false, true)) {
+            try {
+                executor.execute(new WriteBlocks());
+            } catch (RejectedExecutionException exception) {
+                writing.set(false);
+                failure = new IOException("Writer task rejected", exception);
+                releaseBlocks();
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Releases producer waiting for the blocks which won't be written, the underlying stream is closed if closing
+     * block is handed over
+     */
+    protected void releaseBlocks() {
+        Block block;
+        while ((block = blocks.poll()) != null) {
+            if (block.type == Block.WRITE) {
+                buffers.add(block.buffer);
+            } else if (block.type == Block.CLOSE) {
+                closeQuietly(out);
+            }
+            block.release();
+        }
+    }
+
+    protected byte[] take() throws IOException {
+        BufferBlocker blocker = new BufferBlocker();
+        try {
+            managedBlock(blocker);
+        } catch (InterruptedException exception) {
+            throw interrupted(exception);
+        }
+        return blocker.buffer;
+    }
+
+    protected void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        checkFailure();
+    }
+
+    protected void checkFailure() throws IOException {
+        IOException failure = this.failure;
+        if (failure != null) {
+            throw new IOException(failure.getMessage(), failure);
+        }
+    }
+
+    private static IOException interrupted(InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        InterruptedIOException interrupted = new InterruptedIOException();
+        interrupted.initCause(exception);
+        return interrupted;
+    }
+
+    class WriteBlocks implements Runnable {
+
+        @Override
+        public void run() {
+            do {
+                Block block;
+                while ((block = blocks.poll()) != null) {
+                    write(block);
+                }
+                writing.set(false);
+            } while (!blocks.isEmpty() && writing.compareAndSet(false, true));
+        }
+
+        protected void write(Block block) {
+            try {
+                switch (block.type) {
+                case Block.WRITE:
+                    if (failure == null) {
+                        out.write(block.buffer, 0, block.length);
+                    }
+                    break;
+                case Block.FLUSH:
+                    if (failure == null) {
+                        out.flush();
+                    }
+                    break;
+                case Block.CLOSE:
+                    if (failure == null) {
+                        out.flush();
+                    }
+                    out.close();
+                    break;
+                }
+            } catch (IOException exception) {
+                if (failure == null) {
+                    failure = exception;
+                }
+            } finally {
+                if (block.type == Block.WRITE) {
+                    buffers.add(block.buffer);
+                }
+                block.release();
+            }
+        }
+    }
+
+    class BufferBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private byte[] buffer;
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (buffer == null) {
+                buffer = buffers.take();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return buffer != null || (buffer = buffers.poll()) != null;
+        }
+    }
+
+    static class Block {
+
+        static final int WRITE = 0;
+        static final int FLUSH = 1;
+        static final int CLOSE = 2;
+
+        private final int type;
+        private final byte[] buffer;
+        private final int length;
+        private final CountDownLatch latch;
+
+        Block(byte[] buffer, int length) {
+            this.type = WRITE;
+            this.buffer = buffer;
+            this.length = length;
+            this.latch = null;
+        }
+
+        Block(int type) {
+            this.type = type;
+            this.buffer = null;
+            this.length = 0;
+            this.latch = new CountDownLatch(1);
+        }
+
+        void await() throws InterruptedException {
+            latch.await();
+        }
+
+        void release() {
+            if (latch != null) {
+                latch.countDown();
+            }
+        }
+    }
+}
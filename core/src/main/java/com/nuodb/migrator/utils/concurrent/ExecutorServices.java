@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.concurrent;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Creates executor services for the works blocking on JDBC calls and file I/O. Such works are not bound by the
+ * number of processors, but by the size of the session pools: an executor service runs up to the given number of
+ * threads, retiring threads idle for longer than {@link #KEEP_ALIVE_TIME}, and queues the other works in the order
+ * they are submitted. On JDK 21 and later works can be run on virtual threads instead, which are looked up
+ * reflectively, so the code is compiled and run on the older JDKs as well.
+ *
+ * @author Sergey Bushik
+ */
+public class ExecutorServices {
+
+    public static final long KEEP_ALIVE_TIME = 60L;
+    public static final TimeUnit KEEP_ALIVE_TIME_UNIT = SECONDS;
+
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+
+    private ExecutorServices() {
+    }
+
+    /**
+     * @return true if JVM supports virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * Creates executor service for blocking works. Works are started in the order they are submitted, so the order
+     * planned by the caller is kept, and a work submitted once all the threads are busy waits in the queue rather
+     * than in a thread of its own. Works should not wait for the works submitted after them.
+     *
+     * @param name
+     *            prefix of the names of the threads
+     * @param threads
+     *            maximum number of works executed concurrently
+     * @param virtualThreads
+     *            runs works on virtual threads if virtual threads are supported
+     * @return executor service
+     */
+    public static ExecutorService newBlockingExecutorService(String name, int threads, boolean virtualThreads) {
+        ThreadFactory threadFactory = virtualThreads && isVirtualThreadsSupported() ? VIRTUAL_THREAD_FACTORY
+                : new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build();
+        ThreadPoolExecutor executorService = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_TIME,
+                KEEP_ALIVE_TIME_UNIT, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executorService.allowCoreThreadTimeOut(true);
+        return executorService;
+    }
+
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (Exception exception) {
+            return null;
+        }
+    }
+}
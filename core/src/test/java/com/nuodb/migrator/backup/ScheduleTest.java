@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup;
+
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ScheduleTest {
+
+    @Test
+    public void testLargestFirst() {
+        Schedule<String> schedule = new Schedule<String>(2);
+        schedule.addTask("small", "small", 10, 100, 1);
+        schedule.addTask("large", "large", 1000, 10000, 1);
+        schedule.addTask("medium", "medium", 0, 1000, 1);
+        schedule.addTask("rows", "rows", 500, 0, 1);
+        assertEquals(schedule.getItems(), asList("large", "medium", "rows", "small"));
+    }
+
+    @Test
+    public void testMakespan() {
+        Schedule<String> schedule = new Schedule<String>(2);
+        schedule.addTask("a", "a", 0, 300, 1);
+        schedule.addTask("b", "b", 0, 200, 1);
+        schedule.addTask("c", "c", 0, 200, 1);
+        schedule.addTask("d", "d", 0, 100, 1);
+        schedule.addTask("e", "e", 0, 100, 1);
+        assertEquals(schedule.getWeight(), 900);
+        assertEquals(schedule.getMakespan(), 500);
+    }
+
+    @Test
+    public void testSplitTask() {
+        Schedule<String> schedule = new Schedule<String>(4);
+        schedule.addTask("large", "large", 0, 1001, 3);
+        schedule.addTask("small", "small", 0, 300, 1);
+        long[] loads = schedule.getLoads();
+        assertEquals(loads[0], 334);
+        assertEquals(loads[1], 334);
+        assertEquals(loads[2], 333);
+        assertEquals(loads[3], 300);
+        assertEquals(schedule.getMakespan(), 334);
+    }
+
+    @Test
+    public void testReport() {
+        Schedule<String> schedule = new Schedule<String>(2);
+        schedule.addTask("a", "a", 10, 300, 1);
+        schedule.addTask("b", "b", 20, 200, 1);
+        assertEquals(schedule.summary(), "Schedule of 2 task(s) on 2 thread(s), estimated makespan 300 of total 500");
+        assertEquals(schedule.report().split("\\R").length, 3);
+        assertTrue(schedule.report().startsWith(schedule.summary()));
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.bson;
+
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.NumberValue;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.number;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class BsonFormatTest {
+
+    @Test
+    public void testWriteReadValues() {
+        RowSet rowSet = new RowSet();
+        rowSet.setColumns(newArrayList(new Column("c1", STRING), new Column("c2", STRING), new Column("c3", STRING),
+                new Column("c4", STRING), new Column("c5", BINARY), new Column("c6", STRING)));
+        Value[] values = new Value[] { number(42L), number(0.25), number(new BigDecimal("10.50")), string("text"),
+                binary(new byte[] { 1, 2 }), string(null) };
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BsonOutput output = new BsonOutput();
+        output.setRowSet(rowSet);
+        output.setOutputStream(outputStream);
+        output.init();
+        output.writeStart();
+        output.writeValues(values);
+        output.writeEnd();
+        output.close();
+
+        BsonInput input = new BsonInput();
+        input.setRowSet(rowSet);
+        input.setInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+        input.init();
+        input.readStart();
+        Value[] read = input.readValues();
+        assertNull(input.readValues());
+        input.readEnd();
+        input.close();
+
+        assertTrue(read[0] instanceof NumberValue);
+        assertEquals(((NumberValue) read[0]).asLong(), 42L);
+        assertTrue(read[1] instanceof NumberValue);
+        assertEquals(((NumberValue) read[1]).asDouble(), 0.25);
+        for (int index = 0; index < values.length; index++) {
+            assertEquals(read[index].asString(), values[index].asString());
+        }
+    }
+}
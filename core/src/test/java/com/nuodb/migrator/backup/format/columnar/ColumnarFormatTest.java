@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.columnar;
+
+import com.nuodb.migrator.backup.Column;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.InputException;
+import com.nuodb.migrator.backup.format.value.NumberValue;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.ATTRIBUTE_BLOCK_ROWS;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.ATTRIBUTE_COMPRESSION;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.FOOTER;
+import static com.nuodb.migrator.backup.format.columnar.ColumnarFormat.MAGIC;
+import static com.nuodb.migrator.backup.format.value.ValueType.BINARY;
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.binary;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.number;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.string;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ColumnarFormatTest {
+
+    private static final int ROWS = 10;
+
+    private RowSet rowSet;
+    private List<Value[]> rows;
+
+    @BeforeMethod
+    public void setUp() {
+        rowSet = new RowSet();
+        rowSet.setColumns(newArrayList(new Column("id", STRING), new Column("price", STRING),
+                new Column("amount", STRING), new Column("status", STRING), new Column("name", STRING),
+                new Column("data", BINARY), new Column("mixed", STRING)));
+        rows = newArrayList();
+        for (int row = 0; row < ROWS; row++) {
+            rows.add(new Value[] { number(1000L + row), number(row * 0.5), number(new BigDecimal(row + ".25")),
+                    string(row % 2 == 0 ? "open" : "closed"), string(row % 3 == 0 ? null : "name " + row),
+                    binary(row % 4 == 0 ? null : new byte[] { (byte) row, 2, 3 }),
+                    row % 2 == 0 ? number((long) row) : string("text " + row) });
+        }
+    }
+
+    @DataProvider(name = "compressions")
+    public Object[][] createCompressions() {
+        return new Object[][] { { "none" }, { "deflate" }, { "gzip" } };
+    }
+
+    @Test(dataProvider = "compressions")
+    public void testWriteReadValues(String compression) {
+        byte[] chunk = write(compression, 3);
+        List<Value[]> read = read(chunk);
+        assertEquals(read.size(), rows.size());
+        for (int row = 0; row < rows.size(); row++) {
+            Value[] expected = rows.get(row);
+            Value[] actual = read.get(row);
+            for (int column = 0; column < expected.length; column++) {
+                assertEquals(actual[column].isNull(), expected[column].isNull());
+                assertEquals(actual[column].asString(), expected[column].asString());
+            }
+            assertTrue(actual[0] instanceof NumberValue);
+            assertTrue(actual[1] instanceof NumberValue);
+            assertTrue(actual[2] instanceof NumberValue);
+        }
+    }
+
+    @Test
+    public void testFooter() throws Exception {
+        byte[] chunk = write("deflate", 4);
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(chunk, chunk.length - 12, 12));
+        long footer = input.readLong();
+        assertEquals(input.readInt(), MAGIC);
+        assertEquals(chunk[(int) footer], FOOTER);
+        assertEquals(chunk[(int) footer + 1], 3);
+    }
+
+    @Test(expectedExceptions = InputException.class)
+    public void testChecksum() {
+        byte[] chunk = write("none", ROWS);
+        chunk[chunk.length / 2] ^= 0x55;
+        read(chunk);
+    }
+
+    protected byte[] write(String compression, int blockRows) {
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_COMPRESSION, compression);
+        attributes.put(ATTRIBUTE_BLOCK_ROWS, String.valueOf(blockRows));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ColumnarOutput output = new ColumnarOutput();
+        output.setAttributes(attributes);
+        output.setRowSet(rowSet);
+        output.setOutputStream(outputStream);
+        output.init();
+        output.writeStart();
+        for (Value[] values : rows) {
+            output.writeValues(values);
+        }
+        output.writeEnd();
+        output.close();
+        return outputStream.toByteArray();
+    }
+
+    protected List<Value[]> read(byte[] chunk) {
+        ColumnarInput input = new ColumnarInput();
+        input.setRowSet(rowSet);
+        input.setInputStream(new ByteArrayInputStream(chunk));
+        input.init();
+        input.readStart();
+        List<Value[]> read = newArrayList();
+        Value[] values;
+        while ((values = input.readValues()) != null) {
+            read.add(values);
+        }
+        assertNull(input.readValues());
+        input.readEnd();
+        input.close();
+        return read;
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CharStreams;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class LobSideFilesTest {
+
+    private static final long THRESHOLD = 4;
+
+    private Map<String, ByteArrayOutputStream> sideFiles;
+    private LobSideFiles lobSideFiles;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        sideFiles = newHashMap();
+        BackupOps backupOps = mock(BackupOps.class);
+        given(backupOps.openOutput(anyString())).willAnswer(new Answer<OutputStream>() {
+            @Override
+            public OutputStream answer(InvocationOnMock invocation) throws Throwable {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                sideFiles.put((String) invocation.getArguments()[0], output);
+                return output;
+            }
+        });
+        given(backupOps.openInput(anyString())).willAnswer(new Answer<InputStream>() {
+            @Override
+            public InputStream answer(InvocationOnMock invocation) throws Throwable {
+                return new ByteArrayInputStream(sideFiles.get(invocation.getArguments()[0]).toByteArray());
+            }
+        });
+        lobSideFiles = new LobSideFiles(backupOps, "schema.table", THRESHOLD);
+    }
+
+    @Test
+    public void testInlineBlob() throws Exception {
+        Value value = lobSideFiles.getValue(createBlob(new byte[] { 1, 2, 3 }));
+        assertTrue(sideFiles.isEmpty());
+
+        JdbcValueAccess<Object> access = mock(JdbcValueAccess.class);
+        lobSideFiles.setBlobValue(value, access, null);
+        verify(access).setValue(new byte[] { 1, 2, 3 }, null);
+    }
+
+    @Test
+    public void testSideFileBlob() throws Exception {
+        final byte[] bytes = new byte[] { 1, 2, 3, 4, 5 };
+        Value value = lobSideFiles.getValue(createBlob(bytes));
+        assertEquals(sideFiles.keySet().iterator().next(), "schema.table.1.lob");
+
+        JdbcValueAccess<Object> access = mock(JdbcValueAccess.class);
+        final byte[][] bound = new byte[1][];
+        willAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                bound[0] = ByteStreams.toByteArray((InputStream) invocation.getArguments()[0]);
+                return null;
+            }
+        }).given(access).setValue(any(InputStream.class), anyMap());
+        lobSideFiles.setBlobValue(value, access, null);
+        assertEquals(bound[0], bytes);
+    }
+
+    @Test
+    public void testSideFileClob() throws Exception {
+        Value value = lobSideFiles.getValue(createClob("large text"));
+        assertEquals(sideFiles.get("schema.table.1.lob").toString("UTF-8"), "large text");
+
+        JdbcValueAccess<Object> access = mock(JdbcValueAccess.class);
+        final String[] bound = new String[1];
+        willAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                bound[0] = CharStreams.toString((Reader) invocation.getArguments()[0]);
+                return null;
+            }
+        }).given(access).setValue(any(Reader.class), anyMap());
+        lobSideFiles.setClobValue(value, access, null);
+        assertEquals(bound[0], "large text");
+    }
+
+    @Test
+    public void testNullClob() throws Exception {
+        Value value = lobSideFiles.getValue((Clob) null);
+        assertNull(value.asString());
+
+        JdbcValueAccess<Object> access = mock(JdbcValueAccess.class);
+        lobSideFiles.setClobValue(value, access, null);
+        verify(access).setValue(null, null);
+    }
+
+    @Test
+    public void testEmptyClob() throws Exception {
+        Value value = lobSideFiles.getValue(createClob(""));
+
+        JdbcValueAccess<Object> access = mock(JdbcValueAccess.class);
+        lobSideFiles.setClobValue(value, access, null);
+        verify(access).setValue("", null);
+    }
+
+    protected Blob createBlob(byte[] bytes) throws Exception {
+        Blob blob = mock(Blob.class);
+        given(blob.length()).willReturn((long) bytes.length);
+        given(blob.getBinaryStream()).willReturn(new ByteArrayInputStream(bytes));
+        return blob;
+    }
+
+    protected Clob createClob(String string) throws Exception {
+        Clob clob = mock(Clob.class);
+        given(clob.length()).willReturn((long) string.length());
+        given(clob.getCharacterStream()).willReturn(new StringReader(string));
+        return clob;
+    }
+}
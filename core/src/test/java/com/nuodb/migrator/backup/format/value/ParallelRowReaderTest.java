@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.backup.Backup;
+import com.nuodb.migrator.backup.BackupOps;
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.FormatFactory;
+import com.nuodb.migrator.backup.format.Input;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.backup.format.value.RowReaders.newParallelRowReader;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ParallelRowReaderTest {
+
+    private static final int CHUNKS = 4;
+    private static final int ROWS = 3;
+
+    private RowSet rowSet;
+    private BackupOps backupOps;
+    private FormatFactory formatFactory;
+    private Map<String, Object> formatAttributes = newHashMap();
+
+    @BeforeMethod
+    public void setUp() {
+        rowSet = new RowSet();
+        rowSet.setBackup(new Backup("csv"));
+        for (int index = 0; index < CHUNKS; index++) {
+            Chunk chunk = new Chunk();
+            chunk.setName("chunk" + index);
+            rowSet.addChunk(chunk);
+        }
+        backupOps = mock(BackupOps.class);
+        formatFactory = mock(FormatFactory.class);
+        when(formatFactory.createInput(anyString(), anyMap())).thenAnswer(new Answer<Input>() {
+            @Override
+            public Input answer(InvocationOnMock invocation) throws Throwable {
+                Input input = mock(Input.class);
+                Value[] values = new Value[0];
+                when(input.readValues()).thenReturn(values, values, values, null);
+                return input;
+            }
+        });
+    }
+
+    @Test
+    public void testReadRows() {
+        ParallelRowReader rowReader = newParallelRowReader(rowSet, backupOps, formatFactory, formatAttributes);
+        Collection<Chunk> chunks = newHashSet();
+        Row row;
+        int rows = 0;
+        while ((row = rowReader.readRow()) != null) {
+            assertEquals(row.getNumber(), rows++ % ROWS);
+            chunks.add(row.getChunk());
+        }
+        rowReader.close();
+        assertEquals(rows, CHUNKS * ROWS);
+        assertEquals(chunks.size(), CHUNKS);
+        assertEquals(rowReader.getRowCount(), CHUNKS * ROWS);
+    }
+
+    @Test
+    public void testReadRowsByForks() throws Exception {
+        ParallelRowReader rowReader = newParallelRowReader(rowSet, backupOps, formatFactory, formatAttributes);
+        ExecutorService executor = newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> futures = newArrayList();
+            for (int thread = 0; thread < 2; thread++) {
+                final RowReader fork = rowReader.fork();
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int rows = 0;
+                        while (fork.readRow() != null) {
+                            rows++;
+                        }
+                        assertNull(fork.readRow());
+                        return rows;
+                    }
+                }));
+            }
+            int rows = 0;
+            for (Future<Integer> future : futures) {
+                rows += future.get(10, SECONDS);
+            }
+            assertEquals(rows, CHUNKS * ROWS);
+            assertEquals(rowReader.getRowCount(), CHUNKS * ROWS);
+            assertEquals(rowReader.getWaitTime(), 0);
+        } finally {
+            executor.shutdownNow();
+            rowReader.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import com.nuodb.migrator.backup.format.value.TemporalParser.Shape;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Map;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.backup.format.value.TemporalParser.getTemporalParser;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * @author Sergey Bushik
+ */
+public class TemporalParserTest {
+
+    private static final Shape[] SHAPES = { Shape.TIMESTAMP, Shape.DATE, Shape.YEAR, Shape.TIME,
+            Shape.TIME_FRACTION };
+
+    @DataProvider(name = "values")
+    public Object[][] createValues() {
+        return new Object[][] { { "2013-07-21 10:12:42", Shape.TIMESTAMP, Timestamp.valueOf("2013-07-21 10:12:42") },
+                { "2013-07-21 10:12:42.123456789", Shape.TIMESTAMP,
+                        Timestamp.valueOf("2013-07-21 10:12:42.123456789") },
+                { "2013-7-1", Shape.DATE, Date.valueOf("2013-07-01") },
+                { "2013", Shape.YEAR, Date.valueOf("2013-01-01") },
+                { "10:12:42", Shape.TIME, Time.valueOf("10:12:42") },
+                { "10:12:42.5", Shape.TIME_FRACTION, new Time(Time.valueOf("10:12:42").getTime() + 500) } };
+    }
+
+    @Test(dataProvider = "values")
+    public void testParse(String value, Shape shape, java.util.Date expected) {
+        TemporalParser temporalParser = new TemporalParser(SHAPES);
+        assertEquals(temporalParser.parse(value), expected);
+        assertEquals(temporalParser.getShape(), shape);
+    }
+
+    @Test
+    public void testShapeChange() {
+        TemporalParser temporalParser = new TemporalParser(SHAPES);
+        temporalParser.parse("2013-07-21 10:12:42");
+        assertEquals(temporalParser.getShape(), Shape.TIMESTAMP);
+        assertEquals(temporalParser.parse("2013-07-21"), Date.valueOf("2013-07-21"));
+        assertEquals(temporalParser.getShape(), Shape.DATE);
+    }
+
+    @Test
+    public void testNoMatch() {
+        TemporalParser temporalParser = new TemporalParser(Shape.DATE, Shape.YEAR);
+        assertNull(temporalParser.parse("10:12:42"));
+        assertNull(temporalParser.parse("2013-07-21x"));
+        assertNull(temporalParser.parse("13"));
+        assertNull(temporalParser.getShape());
+    }
+
+    @Test
+    public void testCachedParser() {
+        Map<String, Object> options = newHashMap();
+        TemporalParser temporalParser = getTemporalParser(options, SHAPES);
+        assertSame(getTemporalParser(options, SHAPES), temporalParser);
+        assertSame(options.get(TemporalParser.TEMPORAL_PARSER), temporalParser);
+    }
+}
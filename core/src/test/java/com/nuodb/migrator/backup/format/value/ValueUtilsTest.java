@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.format.value;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static com.nuodb.migrator.backup.format.value.ValueType.STRING;
+import static com.nuodb.migrator.backup.format.value.ValueUtils.number;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ValueUtilsTest {
+
+    @DataProvider(name = "numbers")
+    public Object[][] createNumbers() {
+        return new Object[][] { { 7 }, { (short) -3 }, { Long.MAX_VALUE }, { 0.1 }, { 1.5e300 }, { 1.1f },
+                { new BigDecimal("123.4500") }, { new BigDecimal("1E+3") },
+                { new BigDecimal("123456789012345678901234567890.12") }, { new BigInteger("98765432109876543210") } };
+    }
+
+    @Test(dataProvider = "numbers")
+    public void testNumberAsString(Number number) {
+        Value value = number(number);
+        assertEquals(value.asString(), number.toString());
+        assertEquals(value.asBytes(), number.toString().getBytes(US_ASCII));
+        assertEquals(value.getValueType(), STRING);
+        assertFalse(value.isNull());
+    }
+
+    @Test
+    public void testNumberValue() {
+        NumberValue value = (NumberValue) number(42L);
+        assertTrue(value.isLong());
+        assertEquals(value.asLong(), 42L);
+        assertEquals(value.asBigDecimal(), BigDecimal.valueOf(42L));
+
+        value = (NumberValue) ValueUtils.decimal(12345L, 2);
+        assertFalse(value.isLong());
+        assertEquals(value.asBigDecimal(), new BigDecimal("123.45"));
+        assertEquals(value.asString(), "123.45");
+
+        value = (NumberValue) number(new BigDecimal("100"));
+        assertTrue(value.isLong());
+        assertEquals(value.asLong(), 100L);
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.backup.format.value.ValueHandle;
+import com.nuodb.migrator.backup.format.value.ValueHandleList;
+import com.nuodb.migrator.jdbc.commit.MultiRowCommitStrategy;
+import com.nuodb.migrator.jdbc.dialect.BulkInsertHandler;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import com.nuodb.migrator.jdbc.query.InsertQueryBuilder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Sergey Bushik
+ */
+public class BulkInsertTest {
+
+    private static final int COLUMNS = 2;
+    private static final int ROWS_PER_STATEMENT = 4;
+    private static final int BATCH_SIZE = 8;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private List<Integer> columns;
+    private List<Integer> inserted;
+    private BulkInsert bulkInsert;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        given(connection.prepareStatement(anyString())).willReturn(statement);
+        given(statement.getConnection()).willReturn(connection);
+
+        Table table = createTable(null, "schema", "table");
+        for (int column = 0; column < COLUMNS; column++) {
+            table.addColumn("column" + column);
+        }
+        NuoDBDialect dialect = new NuoDBDialect();
+        InsertQuery insertQuery = new InsertQueryBuilder().dialect(dialect).into(table).build();
+        BulkInsertHandler bulkInsertHandler = dialect.createBulkInsertHandler(insertQuery);
+
+        MultiRowCommitStrategy commitStrategy = new MultiRowCommitStrategy();
+        commitStrategy.setRowsPerStatement(ROWS_PER_STATEMENT);
+        commitStrategy.setBatchSize(BATCH_SIZE);
+        columns = newArrayList();
+        inserted = newArrayList();
+        bulkInsert = new BulkInsert(connection, bulkInsertHandler, commitStrategy) {
+            @Override
+            protected ValueHandleList createValueHandleList(PreparedStatement statement, int column) {
+                columns.add(column);
+                ValueHandleList valueHandleList = mock(ValueHandleList.class);
+                given(valueHandleList.iterator()).willReturn(Collections.<ValueHandle>emptyIterator());
+                return valueHandleList;
+            }
+
+            @Override
+            protected void inserted(int rows) {
+                inserted.add(rows);
+            }
+        };
+    }
+
+    /**
+     * Verifies 7 rows are inserted with statements for 4, 2 and 1 rows and
+     * that rows of each statement are bound starting at the right parameter.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testInsert() throws Exception {
+        assertEquals(bulkInsert.getMaxRows(), ROWS_PER_STATEMENT);
+        for (int row = 0; row < 7; row++) {
+            bulkInsert.addRow(new Value[COLUMNS]);
+        }
+        assertTrue(inserted.isEmpty());
+        bulkInsert.finish();
+
+        verify(connection).prepareStatement(
+                "INSERT INTO \"schema\".\"table\" (\"column0\", \"column1\") VALUES (?, ?), (?, ?), (?, ?), (?, ?)");
+        verify(connection).prepareStatement(
+                "INSERT INTO \"schema\".\"table\" (\"column0\", \"column1\") VALUES (?, ?), (?, ?)");
+        verify(connection)
+                .prepareStatement("INSERT INTO \"schema\".\"table\" (\"column0\", \"column1\") VALUES (?, ?)");
+        assertEquals(columns, newArrayList(1, 3, 5, 7, 1, 3, 1));
+        assertEquals(inserted, newArrayList(7));
+        verify(statement, times(3)).addBatch();
+        verify(statement, times(3)).executeBatch();
+    }
+
+    /**
+     * Verifies rows are reported once the batch holding them is executed,
+     * which happens on the third statement of 4 rows for the batch of 8 rows.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testInsertBatch() throws Exception {
+        for (int row = 0; row < 13; row++) {
+            bulkInsert.addRow(new Value[COLUMNS]);
+            assertEquals(inserted, row < 11 ? newArrayList() : newArrayList(12));
+        }
+        bulkInsert.finish();
+        assertEquals(inserted, newArrayList(12, 1));
+    }
+
+    /**
+     * Verifies rows of a failed batch are not reported as inserted.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testInsertFailure() throws Exception {
+        given(statement.executeBatch()).willThrow(new SQLException());
+        for (int row = 0; row < 7; row++) {
+            bulkInsert.addRow(new Value[COLUMNS]);
+        }
+        try {
+            bulkInsert.finish();
+            fail("SQLException expected");
+        } catch (SQLException exception) {
+            assertTrue(inserted.isEmpty());
+        }
+    }
+}
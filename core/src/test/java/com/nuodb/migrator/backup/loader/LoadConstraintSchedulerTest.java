@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
+import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static com.google.common.collect.Iterables.getLast;
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoadConstraintSchedulerTest {
+
+    private Table users;
+    private Table orders;
+    private Table items;
+    private LoadConstraint usersPrimaryKey;
+    private LoadConstraint ordersIndex;
+    private LoadConstraint itemsIndex;
+    private LoadConstraint ordersForeignKey;
+    private LoadConstraints loadConstraints;
+    private BackupLoaderManager backupLoaderManager;
+
+    @BeforeMethod
+    public void setUp() {
+        Schema schema = new Schema("schema");
+        users = schema.addTable("users");
+        orders = schema.addTable("orders");
+        items = schema.addTable("items");
+        users.setPrimaryKey(new PrimaryKey(valueOf("users_pk")));
+        orders.addIndex(new Index(valueOf("orders_idx")));
+        items.addIndex(new Index(valueOf("items_idx")));
+        ForeignKey foreignKey = new ForeignKey(valueOf("orders_fk"));
+        orders.addForeignKey(foreignKey);
+        foreignKey.setPrimaryTable(users);
+
+        loadConstraints = new LoadConstraints();
+        usersPrimaryKey = loadConstraints.addPrimaryKey(users.getPrimaryKey());
+        ordersIndex = loadConstraints.addIndex(orders.getIndex(valueOf("orders_idx")));
+        itemsIndex = loadConstraints.addIndex(items.getIndex(valueOf("items_idx")));
+        ordersForeignKey = loadConstraints.addForeignKey(foreignKey);
+
+        BackupLoaderContext backupLoaderContext = mock(BackupLoaderContext.class);
+        when(backupLoaderContext.getLoadConstraints()).thenReturn(loadConstraints);
+        backupLoaderManager = mock(BackupLoaderManager.class);
+        when(backupLoaderManager.getBackupLoaderContext()).thenReturn(backupLoaderContext);
+    }
+
+    @Test
+    public void testForeignKeyWaitsForTables() {
+        TestScheduler scheduler = new TestScheduler(backupLoaderManager, 4);
+
+        scheduler.loadTableDone(orders);
+        scheduler.loadConstraints();
+        assertEquals(scheduler.loaded, newArrayList(ordersIndex));
+
+        scheduler.loadConstraintDone(ordersIndex);
+        scheduler.loadTableDone(items);
+        scheduler.loadConstraints();
+        assertEquals(scheduler.loaded, newArrayList(ordersIndex, itemsIndex));
+
+        scheduler.loadTableDone(users);
+        scheduler.loadConstraints();
+        assertEquals(scheduler.loaded, newArrayList(ordersIndex, itemsIndex, usersPrimaryKey));
+
+        scheduler.loadConstraintDone(usersPrimaryKey);
+        scheduler.loadConstraints();
+        assertEquals(getLast(scheduler.loaded), ordersForeignKey);
+
+        scheduler.loadConstraintDone(itemsIndex);
+        scheduler.loadConstraintDone(ordersForeignKey);
+        assertFalse(scheduler.done);
+        scheduler.loadConstraints();
+        assertTrue(scheduler.done);
+
+        List<String> criticalPath = scheduler.getCriticalPath();
+        assertEquals(criticalPath.size(), 3);
+        assertTrue(criticalPath.get(0).startsWith("data of schema.users"));
+        assertTrue(criticalPath.get(2).startsWith("ForeignKey orders_fk"));
+    }
+
+    @Test
+    public void testThreads() {
+        TestScheduler scheduler = new TestScheduler(backupLoaderManager, 1);
+        scheduler.loadTableDone(orders);
+        scheduler.loadTableDone(items);
+        scheduler.loadConstraints();
+        assertEquals(scheduler.loaded, newArrayList(ordersIndex));
+
+        scheduler.loadConstraintDone(ordersIndex);
+        scheduler.loadConstraints();
+        assertEquals(scheduler.loaded, newArrayList(ordersIndex, itemsIndex));
+    }
+
+    static class TestScheduler extends LoadConstraintScheduler {
+
+        private final List<LoadConstraint> loaded = newArrayList();
+        private boolean done;
+
+        public TestScheduler(BackupLoaderManager backupLoaderManager, int threads) {
+            super(null, backupLoaderManager, threads);
+        }
+
+        @Override
+        protected void loadConstraint(LoadConstraint loadConstraint) {
+            loaded.add(loadConstraint);
+        }
+
+        @Override
+        protected void loadConstraintsDone() {
+            done = true;
+        }
+    }
+}
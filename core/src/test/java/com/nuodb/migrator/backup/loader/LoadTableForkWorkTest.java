@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.RowReader;
+import com.nuodb.migrator.jdbc.commit.PipelinedCommitStrategy;
+import com.nuodb.migrator.jdbc.connection.ConnectionProvider;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.Query;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionPool;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoadTableForkWorkTest {
+
+    private static final int IO_THREADS = 2;
+    private static final int BATCHES_IN_FLIGHT = 2;
+    private static final int FORKS = IO_THREADS * 3;
+
+    private ExecutorService executorService;
+    private SimpleBackupLoaderManager backupLoaderManager;
+    private LoadTable loadTable;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        ConnectionProvider connectionProvider = mock(ConnectionProvider.class);
+        when(connectionProvider.getConnection()).thenAnswer(new Answer<Connection>() {
+            @Override
+            public Connection answer(InvocationOnMock invocation) throws Throwable {
+                Connection connection = mock(Connection.class);
+                PreparedStatement statement = mock(PreparedStatement.class);
+                when(connection.prepareStatement(anyString())).thenReturn(statement);
+                return connection;
+            }
+        });
+        SessionFactory sessionFactory = newSessionFactory(connectionProvider, new NuoDBDialect(), false);
+
+        PipelinedCommitStrategy commitStrategy = new PipelinedCommitStrategy();
+        commitStrategy.setBatchesInFlight(BATCHES_IN_FLIGHT);
+
+        BackupLoader backupLoader = new BackupLoader();
+        backupLoader.setIoThreads(IO_THREADS);
+        backupLoader.setCommitStrategy(commitStrategy);
+
+        executorService = newFixedThreadPool(FORKS);
+        BackupLoaderContext backupLoaderContext = new SimpleBackupLoaderContext();
+        backupLoaderContext.setCommitStrategy(commitStrategy);
+        backupLoaderContext.setIoExecutorService(executorService);
+        backupLoaderContext.setTargetSessionFactory(newSessionPool(sessionFactory, IO_THREADS));
+        backupLoaderContext.setCommitSessionFactory(backupLoader.createCommitSessionFactory(sessionFactory));
+        backupLoaderManager = new SimpleBackupLoaderManager();
+        backupLoaderManager.setBackupLoaderContext(backupLoaderContext);
+
+        RowSet rowSet = new RowSet();
+        rowSet.setName("users");
+        loadTable = new LoadTable(rowSet, mock(Table.class), mock(Query.class), FORKS);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Runs more pipelined forks than sessions in the pool of the loading works. Each running fork waits for another
+     * one to run alongside, so that all the sessions of the pool are leased while the forks open their commit
+     * sessions.
+     */
+    @Test(timeOut = 10000)
+    public void testPipelinedForks() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(IO_THREADS);
+        RowReader rowReader = new RowReader() {
+            @Override
+            public Row readRow() {
+                try {
+                    barrier.await(5, SECONDS);
+                } catch (Exception exception) {
+                    throw new RuntimeException(exception);
+                }
+                return null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Collection<LoadTableForkWork> forks = newArrayList();
+        for (int thread = 0; thread < FORKS; thread++) {
+            LoadTableForkWork fork = new LoadTableForkWork(loadTable, rowReader, thread, backupLoaderManager);
+            fork.fork(executorService);
+            forks.add(fork);
+        }
+        for (LoadTableForkWork fork : forks) {
+            fork.join();
+        }
+        assertTrue(backupLoaderManager.getFailures().isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.loader;
+
+import com.nuodb.migrator.backup.Chunk;
+import com.nuodb.migrator.backup.RowSet;
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.jdbc.session.Work;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class SimpleBackupLoaderManagerTest {
+
+    private SimpleBackupLoaderManager backupLoaderManager;
+    private Row row;
+
+    @BeforeMethod
+    public void setUp() {
+        backupLoaderManager = new SimpleBackupLoaderManager();
+        RowSet rowSet = new RowSet();
+        Chunk chunk = new Chunk();
+        rowSet.addChunk(chunk);
+        row = new Row(chunk, new Value[0], 1);
+    }
+
+    @Test
+    public void testWorkListener() {
+        BackupLoaderListener workListener = mock(BackupLoaderListener.class);
+        backupLoaderManager.addWorkListener(workListener);
+        assertTrue(backupLoaderManager.hasListeners());
+        assertFalse(backupLoaderManager.hasLoadListeners());
+
+        backupLoaderManager.afterLoadRow(mock(Work.class), mock(LoadTable.class), row);
+        verify(workListener, never()).onLoadRow(any(LoadRowEvent.class));
+    }
+
+    @Test
+    public void testLoadListener() {
+        BackupLoaderListener workListener = mock(BackupLoaderListener.class);
+        BackupLoaderListener loadListener = mock(BackupLoaderListener.class);
+        backupLoaderManager.addWorkListener(workListener);
+        backupLoaderManager.addListener(loadListener);
+        assertTrue(backupLoaderManager.hasLoadListeners());
+
+        backupLoaderManager.afterLoadRow(mock(Work.class), mock(LoadTable.class), row);
+        verify(workListener, never()).onLoadRow(any(LoadRowEvent.class));
+        verify(loadListener, times(1)).onLoadRow(any(LoadRowEvent.class));
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.backup.metrics;
+
+import org.testng.annotations.Test;
+
+import static com.nuodb.migrator.backup.metrics.MetricsSampler.SAMPLE_RATE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class TableMetricsTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int bucket = Histogram.getBucket(value);
+            assertTrue(Histogram.getLowest(bucket) <= value && value < Histogram.getLowest(bucket + 1));
+        }
+        assertEquals(Histogram.getBucket(Long.MAX_VALUE), Histogram.getBucket(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void testPercentile() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(histogram.getCount(), 1000);
+        assertEquals(histogram.getMean(), 500);
+        assertEquals(histogram.getMax(), 1000);
+        long median = histogram.getPercentile(50);
+        assertTrue(median >= 500 && median < 500 * 1.125, "Median " + median);
+        long percentile99 = histogram.getPercentile(99);
+        assertTrue(percentile99 >= 990 && percentile99 <= 1000, "99th percentile " + percentile99);
+        assertEquals(histogram.getPercentile(100), 1000);
+        assertEquals(new Histogram().getPercentile(99), 0);
+    }
+
+    @Test
+    public void testSampler() {
+        TableMetrics tableMetrics = new TableMetrics("t1");
+        MetricsSampler metricsSampler = new MetricsSampler(tableMetrics.getPart(1));
+        metricsSampler.start();
+        int rows = SAMPLE_RATE * 2 + 10;
+        for (int row = 0; row < rows; row++) {
+            metricsSampler.startRow();
+            metricsSampler.fetched();
+            metricsSampler.encoded();
+            metricsSampler.written();
+            metricsSampler.endRow(10);
+        }
+        assertEquals(tableMetrics.getRows(), SAMPLE_RATE * 2 + 1);
+        metricsSampler.finish();
+        assertEquals(tableMetrics.getRows(), rows);
+        assertEquals(tableMetrics.getBytes(), rows * 10);
+        assertEquals(tableMetrics.getFetchTimeHistogram().getCount(), 3);
+        assertEquals(tableMetrics.getWriteTimeHistogram().getCount(), 3);
+        assertEquals(tableMetrics.getPart(1).getRows(), rows);
+        assertEquals(tableMetrics.getParts(), 1);
+    }
+
+    @Test
+    public void testQueueDepth() {
+        TableMetrics tableMetrics = new TableMetrics("t1");
+        tableMetrics.enqueue(1);
+        tableMetrics.enqueue(1);
+        tableMetrics.dequeue(1);
+        assertEquals(tableMetrics.getQueueDepth(), 1);
+        assertEquals(tableMetrics.getMaxQueueDepth(), 2);
+        tableMetrics.recordQueueDepth(5);
+        assertEquals(tableMetrics.getMaxQueueDepth(), 5);
+    }
+
+    @Test
+    public void testReport() {
+        Metrics metrics = new Metrics(Metrics.DUMP);
+        TableMetrics tableMetrics = metrics.getTableMetrics("s1.\"t1\"");
+        tableMetrics.getPart(0).addRows(100, 1000);
+        tableMetrics.getPart(0).afterCommit(2000);
+        String report = metrics.report(tableMetrics, 1);
+        assertTrue(report.startsWith("{\"time\":1,\"job\":\"dump\",\"table\":\"s1.\\\"t1\\\"\","), report);
+        assertTrue(report.contains("\"rows\":100,\"bytes\":1000,"), report);
+        assertTrue(report.contains("\"commitTime\":2,"), report);
+        assertTrue(metrics.report(tableMetrics.getPart(0), 1).contains("\"part\":0"));
+        metrics.close();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.Query;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * @author Sergey Bushik
+ */
+public class AdaptiveCommitStrategyTest {
+
+    @DataProvider(name = "update")
+    public Object[][] createUpdateData() {
+        return new Object[][] {
+                // fast batch grows no more than twice
+                { 1000L, 100L, 2000L },
+                // slow batch shrinks to the target latency
+                { 1000L, 10000L, 100L },
+                // very slow batch is kept at the floor
+                { 1000L, 100000L, 50L },
+                // batch is kept at the ceiling
+                { 40000L, 1L, 50000L } };
+    }
+
+    @Test(dataProvider = "update")
+    public void testUpdate(long rows, long time, long batchSize) {
+        AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(rows, 50, 50000, 1000);
+        adaptiveBatchSize.update(rows, rows * 10, MILLISECONDS.toNanos(time), true);
+        assertEquals(adaptiveBatchSize.getBatchSize(), batchSize);
+        assertEquals(adaptiveBatchSize.getBytesPerBatch(), rows * 10);
+    }
+
+    @Test
+    public void testPartialBatch() {
+        AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(1000, 50, 50000, 1000);
+        adaptiveBatchSize.update(10, 0, MILLISECONDS.toNanos(500), false);
+        assertEquals(adaptiveBatchSize.getBatchSize(), 1000);
+        assertEquals(adaptiveBatchSize.getRows(), 10);
+        assertEquals(adaptiveBatchSize.getRowsPerSecond(), 20);
+    }
+
+    @Test
+    public void testCommitExecutor() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        given(statement.getConnection()).willReturn(connection);
+        Query query = mock(Query.class);
+
+        AdaptiveCommitStrategy commitStrategy = new AdaptiveCommitStrategy();
+        commitStrategy.setBatchSize(100);
+        AdaptiveCommitExecutor commitExecutor = (AdaptiveCommitExecutor) commitStrategy.createCommitExecutor(
+                statement, query);
+        assertSame(commitExecutor.getBatchSize(), commitStrategy.getBatchSize(query));
+        for (int row = 0; row < 150; row++) {
+            commitExecutor.addBytes(8);
+            commitExecutor.execute();
+        }
+        commitExecutor.finish();
+
+        verify(statement, times(150)).addBatch();
+        verify(statement, times(2)).executeBatch();
+        verify(connection, times(2)).commit();
+        AdaptiveBatchSize batchSize = commitStrategy.getBatchSizes().get(query);
+        assertEquals(batchSize.getBatches(), 2);
+        assertEquals(batchSize.getRows(), 150);
+        assertEquals(batchSize.getBytes(), 1200);
+    }
+}
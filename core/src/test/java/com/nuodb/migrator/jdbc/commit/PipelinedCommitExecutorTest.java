@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.commit;
+
+import com.nuodb.migrator.jdbc.query.Query;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.collect.Maps.newHashMap;
+import static com.nuodb.migrator.jdbc.commit.PipelinedCommitStrategy.ATTRIBUTE_BATCHES_IN_FLIGHT;
+import static java.util.Arrays.asList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Sergey Bushik
+ */
+public class PipelinedCommitExecutorTest {
+
+    private static final long BATCH_SIZE = 2;
+
+    private Connection connection1;
+    private Connection connection2;
+    private PreparedStatement statement1;
+    private PreparedStatement statement2;
+    private PipelinedCommitExecutor commitExecutor;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection1 = mock(Connection.class);
+        connection2 = mock(Connection.class);
+        statement1 = mock(PreparedStatement.class);
+        statement2 = mock(PreparedStatement.class);
+        given(statement1.getConnection()).willReturn(connection1);
+        given(statement2.getConnection()).willReturn(connection2);
+
+        PipelinedCommitStrategy commitStrategy = new PipelinedCommitStrategy();
+        commitStrategy.setBatchSize(BATCH_SIZE);
+        commitExecutor = commitStrategy.createCommitExecutor(asList(statement1, statement2), mock(Query.class));
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        assertSame(commitExecutor.getStatement(), statement1);
+        for (int row = 0; row < 7; row++) {
+            commitExecutor.execute();
+            assertSame(commitExecutor.getStatement(), row < 2 || row > 4 ? statement1 : statement2);
+        }
+        commitExecutor.finish();
+
+        verify(statement1, times(4)).addBatch();
+        verify(statement2, times(3)).addBatch();
+        verify(statement1, times(2)).executeBatch();
+        verify(statement2, times(1)).executeBatch();
+        verify(connection1, times(2)).commit();
+        verify(connection2, times(1)).commit();
+    }
+
+    @Test
+    public void testExecuteFailure() throws Exception {
+        SQLException failure = new SQLException();
+        given(statement1.executeBatch()).willThrow(failure);
+        try {
+            for (int row = 0; row < 6; row++) {
+                commitExecutor.execute();
+            }
+            fail("Failure of the batch is expected to be rethrown");
+        } catch (SQLException exception) {
+            assertSame(exception, failure);
+        } finally {
+            commitExecutor.close();
+        }
+        verify(connection1, never()).commit();
+        verify(statement2, never()).executeBatch();
+    }
+
+    @Test
+    public void testCloseAwaitsBatch() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicBoolean executed = new AtomicBoolean();
+        given(statement1.executeBatch()).willAnswer(new Answer<int[]>() {
+            @Override
+            public int[] answer(InvocationOnMock invocation) throws Throwable {
+                started.countDown();
+                Thread.sleep(200);
+                executed.set(true);
+                return new int[0];
+            }
+        });
+        for (int row = 0; row < 3; row++) {
+            commitExecutor.execute();
+        }
+        started.await();
+        commitExecutor.close();
+        assertTrue(executed.get());
+    }
+
+    @Test
+    public void testDaemonThread() throws Exception {
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        given(statement1.executeBatch()).willAnswer(new Answer<int[]>() {
+            @Override
+            public int[] answer(InvocationOnMock invocation) throws Throwable {
+                thread.set(Thread.currentThread());
+                return new int[0];
+            }
+        });
+        for (int row = 0; row < 3; row++) {
+            commitExecutor.execute();
+        }
+        commitExecutor.finish();
+        assertTrue(thread.get().isDaemon());
+        assertTrue(thread.get().getName().startsWith("commit-"));
+    }
+
+    @Test
+    public void testAttributes() {
+        PipelinedCommitStrategy commitStrategy = new PipelinedCommitStrategy();
+        Map<String, Object> attributes = newHashMap();
+        attributes.put(ATTRIBUTE_BATCHES_IN_FLIGHT, "3");
+        commitStrategy.setAttributes(attributes);
+        assertEquals(commitStrategy.getBatchesInFlight(), 3);
+    }
+}
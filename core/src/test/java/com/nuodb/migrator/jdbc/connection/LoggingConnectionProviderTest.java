@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.connection;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LoggingConnectionProviderTest {
+
+    private static final String QUERY = "INSERT INTO T VALUES (?, ?)";
+
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private Statement statement;
+    private QueryLogger queryLogger;
+    private LoggingConnectionProvider connectionProvider;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        preparedStatement = mock(PreparedStatement.class);
+        statement = mock(Statement.class);
+        given(connection.prepareStatement(QUERY)).willReturn(preparedStatement);
+        given(connection.createStatement()).willReturn(statement);
+
+        ConnectionProvider driverConnectionProvider = mock(ConnectionProvider.class);
+        given(driverConnectionProvider.getConnection()).willReturn(connection);
+        queryLogger = mock(QueryLogger.class);
+        connectionProvider = new LoggingConnectionProvider(driverConnectionProvider, new SimpleQueryFormatFactory(),
+                queryLogger);
+    }
+
+    @Test
+    public void testLoggingDisabled() throws Exception {
+        given(queryLogger.isEnabled()).willReturn(false);
+
+        Connection proxy = connectionProvider.getConnection();
+        assertTrue(proxy instanceof ConnectionProxy);
+        assertFalse(proxy instanceof LoggingConnection);
+        assertSame(((ConnectionProxy) proxy).getConnection(), connection);
+        assertSame(proxy.prepareStatement(QUERY), preparedStatement);
+        assertSame(proxy.createStatement(), statement);
+        verify(queryLogger, never()).log(anyString());
+    }
+
+    @Test
+    public void testLoggingEnabled() throws Exception {
+        given(queryLogger.isEnabled()).willReturn(true);
+
+        Connection proxy = connectionProvider.getConnection();
+        assertTrue(proxy instanceof LoggingConnection);
+
+        PreparedStatement loggingPreparedStatement = proxy.prepareStatement(QUERY);
+        assertSame(loggingPreparedStatement.getConnection(), proxy);
+        loggingPreparedStatement.setString(1, "value");
+        loggingPreparedStatement.setNull(2, 0);
+        loggingPreparedStatement.executeUpdate();
+        verify(preparedStatement).setString(1, "value");
+        verify(preparedStatement).executeUpdate();
+        verify(queryLogger).log("INSERT INTO T VALUES ('value', NULL)");
+
+        Statement loggingStatement = proxy.createStatement();
+        assertSame(loggingStatement.getConnection(), proxy);
+        loggingStatement.execute("DELETE FROM T");
+        verify(statement).execute("DELETE FROM T");
+        verify(queryLogger).log("DELETE FROM T");
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.dialect;
+
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.InsertQuery;
+import com.nuodb.migrator.jdbc.query.InsertQueryBuilder;
+import org.testng.annotations.Test;
+
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.MSSQL_SERVER;
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.ORACLE;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static com.nuodb.migrator.jdbc.query.InsertType.REPLACE;
+import static org.apache.commons.lang3.StringUtils.countMatches;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class BulkInsertHandlerTest {
+
+    private static final int COLUMNS = 3;
+
+    protected InsertQuery createInsertQuery(Dialect dialect) {
+        Table table = createTable(null, "schema", "table");
+        for (int column = 0; column < COLUMNS; column++) {
+            table.addColumn("column" + column);
+        }
+        return new InsertQueryBuilder().dialect(dialect).into(table).qualifyNames(false).build();
+    }
+
+    @Test
+    public void testBulkInsert() {
+        Dialect dialect = new NuoDBDialect();
+        InsertQuery insertQuery = createInsertQuery(dialect);
+        assertTrue(dialect.supportsBulkInsert(insertQuery));
+
+        BulkInsertHandler bulkInsertHandler = dialect.createBulkInsertHandler(insertQuery);
+        assertEquals(bulkInsertHandler.getMaxRows(), SimpleDialect.MAX_BULK_INSERT_ROWS);
+        assertEquals(bulkInsertHandler.createBulkInsertQuery(2).toString(),
+                "INSERT INTO \"table\" (\"column0\", \"column1\", \"column2\") VALUES (?, ?, ?), (?, ?, ?)");
+        assertEquals(insertQuery.getRows(), 1);
+    }
+
+    @Test
+    public void testMaxRows() {
+        Dialect dialect = new MSSQLServerDialect(MSSQL_SERVER);
+        BulkInsertHandler bulkInsertHandler = dialect.createBulkInsertHandler(createInsertQuery(dialect));
+        assertEquals(bulkInsertHandler.getMaxRows(), 2099 / COLUMNS);
+    }
+
+    @Test
+    public void testOracleBulkInsert() {
+        Dialect dialect = new OracleDialect(ORACLE);
+        InsertQuery insertQuery = createInsertQuery(dialect);
+        assertTrue(dialect.supportsBulkInsert(insertQuery));
+
+        String query = dialect.createBulkInsertHandler(insertQuery).createBulkInsertQuery(3).toString();
+        assertTrue(query.startsWith("INSERT ALL INTO "));
+        assertTrue(query.endsWith(" SELECT 1 FROM DUAL"));
+        assertEquals(countMatches(query, "VALUES (?, ?, ?)"), 3);
+
+        insertQuery.setInsertType(REPLACE);
+        assertFalse(dialect.supportsBulkInsert(insertQuery));
+    }
+}
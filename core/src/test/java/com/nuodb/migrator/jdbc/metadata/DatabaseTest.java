@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.google.common.collect.Iterables.get;
+import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class DatabaseTest {
+
+    private Database database;
+
+    @BeforeMethod
+    public void setUp() {
+        database = new Database();
+        Catalog catalog = database.addCatalog("catalog");
+        for (String name : new String[] { "s1", "s2" }) {
+            Schema schema = catalog.addSchema(name);
+            Table users = schema.addTable("users");
+            users.addColumn(valueOf("name"), 2);
+            users.addColumn(valueOf("id"), 1);
+            users.addForeignKey(new ForeignKey(valueOf("fk_" + name)));
+            schema.addTable("orders").addColumn("id");
+        }
+    }
+
+    @Test
+    public void testFreeze() {
+        assertEquals(database.findTables("users").size(), 2);
+        database.freeze();
+
+        assertTrue(database.isFrozen());
+        assertEquals(database.getSchemas().size(), 2);
+        assertEquals(database.getTables().size(), 4);
+        assertEquals(database.findTables("USERS").size(), 2);
+        assertEquals(database.findTables("s2.users").size(), 1);
+        assertEquals(database.findTables("catalog.s1.orders").size(), 1);
+        assertTrue(database.findTables("missing").isEmpty());
+
+        Table users = database.findTable("s1.users");
+        assertTrue(users.isFrozen());
+        assertEquals(get(users.getColumns(), 0).getName(), "id");
+        assertEquals(get(users.getColumns(), 1).getName(), "name");
+        assertSame(users.getColumns(), users.getColumns());
+        assertNotNull(users.getForeignKey(valueOf("FK_S1")));
+        assertNull(users.getForeignKey(valueOf("fk_s2")));
+
+        Table orders = database.findTable("s1.orders");
+        assertSame(orders.getColumn("id").getIdentifier(), users.getColumn("id").getIdentifier());
+    }
+
+    @Test(expectedExceptions = MetaDataException.class)
+    public void testFrozenAddTable() {
+        database.freeze();
+        database.getCatalog("catalog").getSchema("s1").addTable("items");
+    }
+
+    @Test(expectedExceptions = MetaDataException.class)
+    public void testFrozenAddColumn() {
+        database.freeze();
+        database.findTable("s1.users").addColumn("email");
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.generator;
+
+import com.nuodb.migrator.jdbc.connection.ConnectionProvider;
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.ForeignKey;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
+import com.nuodb.migrator.jdbc.metadata.Schema;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Lists.newCopyOnWriteArrayList;
+import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ParallelScriptExporterTest {
+
+    private static final String USE_SCHEMA = "USE \"schema\"";
+    private static final String CREATE_USERS = "CREATE TABLE \"users\" (\"user_id\" INTEGER)";
+    private static final String CREATE_ORDERS = "CREATE TABLE \"orders\" (\"user_id\" INTEGER)";
+    private static final String CREATE_ORDERS_INDEX = "CREATE INDEX \"orders_idx\" ON \"orders\" (\"user_id\")";
+    private static final String CREATE_ORDERS_FOREIGN_KEY = "ALTER TABLE \"orders\" ADD CONSTRAINT \"orders_fk\"";
+    private static final String FAILED = "FAILED";
+
+    private List<String> executed;
+    private List<List<String>> sessions;
+    private ParallelScriptExporter scriptExporter;
+    private Collection<Script> scripts;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        executed = newCopyOnWriteArrayList();
+        sessions = newCopyOnWriteArrayList();
+        ConnectionProvider connectionProvider = mock(ConnectionProvider.class);
+        when(connectionProvider.getConnection()).thenAnswer(new Answer<Connection>() {
+            @Override
+            public Connection answer(InvocationOnMock invocation) throws Throwable {
+                return createConnection();
+            }
+        });
+        scriptExporter = new ParallelScriptExporter(
+                newSessionFactory(connectionProvider, new NuoDBDialect(), false), 3);
+
+        Schema schema = new Schema("schema");
+        Table users = schema.addTable("users");
+        Table orders = schema.addTable("orders");
+        Index index = new Index(valueOf("orders_idx"));
+        orders.addIndex(index);
+        ForeignKey foreignKey = new ForeignKey(valueOf("orders_fk"));
+        orders.addForeignKey(foreignKey);
+        foreignKey.setPrimaryTable(users);
+
+        Script useSchema = new Script(USE_SCHEMA);
+        useSchema.setObject(schema);
+        useSchema.setUseSchema(true);
+        scripts = newArrayList(useSchema, newScript(CREATE_USERS, users), newScript(CREATE_ORDERS, orders),
+                newScript(CREATE_ORDERS_INDEX, index), newScript(CREATE_ORDERS_FOREIGN_KEY, foreignKey));
+    }
+
+    protected Connection createConnection() throws SQLException {
+        final List<String> session = newCopyOnWriteArrayList();
+        sessions.add(session);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeUpdate(anyString())).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) throws Throwable {
+                String sql = (String) invocation.getArguments()[0];
+                if (sql.equals(FAILED)) {
+                    throw new SQLException("Script failed");
+                }
+                session.add(sql);
+                executed.add(sql);
+                return 0;
+            }
+        });
+        return connection;
+    }
+
+    protected Script newScript(String sql, MetaData object) {
+        Script script = new Script(sql);
+        script.setObject(object);
+        return script;
+    }
+
+    @Test
+    public void testExportScripts() throws Exception {
+        scriptExporter.open();
+        scriptExporter.exportScripts(scripts);
+        scriptExporter.close();
+
+        assertTrue(executed.indexOf(CREATE_ORDERS) < executed.indexOf(CREATE_ORDERS_INDEX));
+        assertTrue(executed.indexOf(CREATE_ORDERS_INDEX) < executed.indexOf(CREATE_ORDERS_FOREIGN_KEY));
+        assertTrue(executed.indexOf(CREATE_USERS) < executed.indexOf(CREATE_ORDERS_FOREIGN_KEY));
+        assertTrue(sessions.size() <= 3);
+        for (List<String> session : sessions) {
+            if (!session.isEmpty()) {
+                assertEquals(session.get(0), USE_SCHEMA);
+            }
+        }
+        executed.removeAll(newArrayList(USE_SCHEMA));
+        assertEquals(executed.size(), 4);
+    }
+
+    @Test
+    public void testBarrier() throws Exception {
+        scripts.add(new Script(FAILED));
+        scripts.add(newScript(CREATE_USERS, null));
+        scriptExporter.open();
+        try {
+            scriptExporter.exportScripts(scripts);
+            fail("Failed script is expected to fail the export");
+        } catch (SQLException exception) {
+            assertEquals(exception.getMessage(), "Script failed");
+        } finally {
+            scriptExporter.close();
+        }
+        executed.removeAll(newArrayList(USE_SCHEMA));
+        assertEquals(executed.size(), 4);
+        assertEquals(executed.get(3), CREATE_ORDERS_FOREIGN_KEY);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.generator;
+
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Database;
+import com.nuodb.migrator.jdbc.metadata.Index;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static com.nuodb.migrator.jdbc.metadata.Identifier.valueOf;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.INDEX;
+import static com.nuodb.migrator.utils.Priority.HIGH;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ScriptGeneratorManagerTest {
+
+    private Database database;
+    private Index index;
+    private NamingStrategy<Index> namingStrategy;
+    private ScriptGeneratorManager scriptGeneratorManager;
+
+    @BeforeMethod
+    public void setUp() {
+        database = new Database();
+        Table table = database.addCatalog("catalog").addSchema("schema").addTable("users");
+        index = new Index(valueOf("users_idx"));
+        table.addIndex(index);
+
+        namingStrategy = mock(NamingStrategy.class);
+        when(namingStrategy.getName(eq(index), any(ScriptGeneratorManager.class), anyBoolean())).thenReturn(
+                "users_idx");
+        CompositeNamingStrategy<Index> compositeNamingStrategy = new CompositeNamingStrategy<Index>(INDEX);
+        compositeNamingStrategy.addNamingStrategy(namingStrategy);
+
+        scriptGeneratorManager = new ScriptGeneratorManager();
+        scriptGeneratorManager.setTargetDialect(new NuoDBDialect());
+        scriptGeneratorManager.addNamingStrategy(compositeNamingStrategy, HIGH);
+    }
+
+    @Test
+    public void testNameMemoized() {
+        database.freeze();
+        ScriptGeneratorManager context = scriptGeneratorManager.createContext();
+
+        assertEquals(scriptGeneratorManager.getName(index), "users_idx");
+        assertEquals(context.getName(index), "users_idx");
+        assertEquals(context.createContext().getName(index), "users_idx");
+        verify(namingStrategy, times(1)).getName(eq(index), any(ScriptGeneratorManager.class), anyBoolean());
+    }
+
+    @Test
+    public void testNameNotMemoized() {
+        assertEquals(scriptGeneratorManager.getName(index), "users_idx");
+        assertEquals(scriptGeneratorManager.getName(index), "users_idx");
+        verify(namingStrategy, times(2)).getName(eq(index), any(ScriptGeneratorManager.class), anyBoolean());
+    }
+
+    @Test
+    public void testContext() {
+        scriptGeneratorManager.addAttribute("attribute", "value");
+        ScriptGeneratorManager context = scriptGeneratorManager.createContext();
+        assertSame(context.getNamingStrategy(INDEX), scriptGeneratorManager.getNamingStrategy(INDEX));
+
+        context.addAttribute("attribute", "context");
+        context.removeAttribute("other");
+        assertEquals(context.getAttribute("attribute"), "context");
+        assertEquals(scriptGeneratorManager.getAttribute("attribute"), "value");
+
+        context.removeAttribute("attribute");
+        assertNull(context.getAttribute("attribute"));
+        assertEquals(scriptGeneratorManager.getAttribute("attribute"), "value");
+    }
+}
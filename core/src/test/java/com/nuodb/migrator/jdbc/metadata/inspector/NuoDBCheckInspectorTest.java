@@ -27,8 +27,10 @@
  */
 package com.nuodb.migrator.jdbc.metadata.inspector;
 
+import com.nuodb.migrator.jdbc.dialect.Dialect;
 import com.nuodb.migrator.jdbc.metadata.Check;
 import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.MetaData;
 import com.nuodb.migrator.jdbc.metadata.Table;
 import org.testng.annotations.Test;
 
@@ -37,13 +39,18 @@ import java.sql.ResultSet;
 import java.util.Collection;
 
 import static com.google.common.collect.Iterables.get;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataType.CHECK;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createColumn;
 import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
@@ -95,4 +102,37 @@ public class NuoDBCheckInspectorTest extends InspectorTestBase {
         check = column.addCheck(new Check(checkName2, checkClause2));
         assertEquals(get(checks, 1), check);
     }
+
+    @Test
+    public void testInspectBulk() throws Exception {
+        PreparedStatement query = mock(PreparedStatement.class);
+        given(getConnection().prepareStatement(anyString(), anyInt(), anyInt())).willReturn(query);
+
+        ResultSet resultSet = mock(ResultSet.class);
+        given(query.executeQuery()).willReturn(resultSet);
+
+        given(resultSet.next()).willReturn(true, true, true, false);
+
+        String catalogName = null;
+        String schemaName = "schema";
+        given(resultSet.getString("SCHEMA")).willReturn(schemaName);
+        given(resultSet.getString("TABLENAME")).willReturn("table1", "table1", "other", "table2", "table2");
+        given(resultSet.getString("CONSTRAINTNAME")).willReturn("table1$check", "table2$check");
+        given(resultSet.getString("CONSTRAINTTEXT")).willReturn("column1 > 0", "column2 > 0");
+
+        Collection<MetaData> tables = newArrayList();
+        tables.add(createTable(catalogName, schemaName, "table1"));
+        tables.add(createTable(catalogName, schemaName, "table2"));
+        ((NuoDBCheckInspector) getInspector()).setBulkThreshold(tables.size());
+        willResolveDialect(getInspectionManager(), mock(Dialect.class));
+        InspectionResults inspectionResults = getInspectionManager().inspect(getConnection(), tables, CHECK);
+        verify(query).setObject(1, schemaName);
+        verify(query, never()).setObject(eq(2), anyObject());
+
+        Collection<Check> checks = inspectionResults.getObjects(CHECK);
+        assertNotNull(checks);
+        assertEquals(checks.size(), 2);
+        assertEquals(get(checks, 0).getTable().getName(), "table1");
+        assertEquals(get(checks, 1).getTable().getName(), "table2");
+    }
 }
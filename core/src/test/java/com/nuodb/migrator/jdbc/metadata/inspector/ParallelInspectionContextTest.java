@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.metadata.inspector;
+
+import com.google.common.collect.Lists;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import com.nuodb.migrator.jdbc.metadata.MetaDataType;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.session.Session;
+import com.nuodb.migrator.jdbc.session.SessionFactory;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.google.common.collect.Maps.newConcurrentMap;
+import static com.google.common.collect.Sets.newHashSet;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.COLUMN;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.FOREIGN_KEY;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataType.INDEX;
+import static com.nuodb.migrator.jdbc.metadata.inspector.InspectionResultsUtils.addTable;
+import static com.nuodb.migrator.jdbc.metadata.inspector.InspectorTestBase.willResolveDialect;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ParallelInspectionContextTest {
+
+    private static final int TABLES = 16;
+    private static final int THREADS = 4;
+
+    private Connection connection;
+    private SessionFactory sessionFactory;
+    private InspectionManager inspectionManager;
+    private InspectionResults inspectionResults;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connection = mock(Connection.class);
+        sessionFactory = mock(SessionFactory.class);
+        given(sessionFactory.openSession()).will(new Answer<Session>() {
+            @Override
+            public Session answer(InvocationOnMock invocation) throws Throwable {
+                Session session = mock(Session.class);
+                given(session.getConnection()).willReturn(mock(Connection.class));
+                return session;
+            }
+        });
+        inspectionManager = new InspectionManager();
+        inspectionManager.setInspectors(Lists.<Inspector>newArrayList());
+        inspectionManager.setSessionFactory(sessionFactory);
+        inspectionManager.setThreads(THREADS);
+        willResolveDialect(inspectionManager, mock(Dialect.class));
+
+        inspectionResults = new SimpleInspectionResults();
+        for (int i = 0; i < TABLES; i++) {
+            addTable(inspectionResults, null, "schema", "table" + i);
+        }
+    }
+
+    @Test
+    public void testCreateInspectionContext() throws Exception {
+        InspectionContext inspectionContext = inspectionManager.createInspectionContext(connection,
+                inspectionResults, COLUMN);
+        assertTrue(inspectionContext instanceof ParallelInspectionContext);
+
+        inspectionManager.setThreads(1);
+        inspectionContext = inspectionManager.createInspectionContext(connection, inspectionResults, COLUMN);
+        assertFalse(inspectionContext instanceof ParallelInspectionContext);
+    }
+
+    /**
+     * Verifies every table is inspected exactly once for each sharded type and
+     * that tables are spread over connections other than the main one.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testInspectShards() throws Exception {
+        Collection<MetaDataType> objectTypes = newArrayList(COLUMN, FOREIGN_KEY, INDEX);
+        Collection<RecordingInspector> inspectors = newArrayList();
+        for (MetaDataType objectType : objectTypes) {
+            RecordingInspector inspector = new RecordingInspector(objectType);
+            inspectionManager.addInspector(inspector);
+            inspectors.add(inspector);
+        }
+        ParallelInspectionContext inspectionContext = new ParallelInspectionContext(inspectionManager, connection,
+                inspectionResults, sessionFactory, THREADS, objectTypes.toArray(new MetaDataType[0]));
+        inspectionContext.inspect(new TableInspectionScope(null, "schema", (String) null),
+                objectTypes.toArray(new MetaDataType[0]));
+
+        for (RecordingInspector inspector : inspectors) {
+            assertEquals(inspector.tables.size(), TABLES);
+            Collection<Connection> connections = newHashSet(inspector.tables.values());
+            assertEquals(connections.size(), THREADS);
+            assertFalse(connections.contains(connection));
+        }
+    }
+
+    static class RecordingInspector extends TableInspectorBase<Table, TableInspectionScope> {
+
+        private final Map<String, Connection> tables = newConcurrentMap();
+
+        RecordingInspector(MetaDataType objectType) {
+            super(objectType);
+        }
+
+        @Override
+        public void inspectScope(InspectionContext inspectionContext, TableInspectionScope tableInspectionScope)
+                throws SQLException {
+            Connection previous = tables.put(tableInspectionScope.getTable(), inspectionContext.getConnection());
+            assertTrue(previous == null);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.session;
+
+import com.nuodb.migrator.jdbc.connection.ConnectionProvider;
+import com.nuodb.migrator.jdbc.dialect.Dialect;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionFactory;
+import static com.nuodb.migrator.jdbc.session.SessionFactories.newSessionPool;
+import static java.sql.Connection.TRANSACTION_READ_COMMITTED;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class SessionPoolTest {
+
+    private ConnectionProvider connectionProvider;
+    private SessionPool sessionPool;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connectionProvider = mock(ConnectionProvider.class);
+        when(connectionProvider.getConnection()).thenAnswer(new Answer<Connection>() {
+            @Override
+            public Connection answer(InvocationOnMock invocation) throws Throwable {
+                Connection connection = mock(Connection.class);
+                when(connection.getAutoCommit()).thenReturn(true);
+                when(connection.getTransactionIsolation()).thenReturn(TRANSACTION_READ_COMMITTED);
+                when(connection.isValid(anyInt())).thenReturn(true);
+                return connection;
+            }
+        });
+        sessionPool = newSessionPool(newSessionFactory(connectionProvider, mock(Dialect.class), false), 2);
+    }
+
+    @Test
+    public void testReuseSession() throws Exception {
+        Session session = sessionPool.openSession();
+        Connection connection = session.getConnection();
+        session.close();
+        assertEquals(sessionPool.getIdleSize(), 1);
+
+        session = sessionPool.openSession();
+        assertSame(session.getConnection(), connection);
+        session.close();
+        verify(connectionProvider, times(1)).getConnection();
+        verify(connectionProvider, never()).closeConnection(any(Connection.class));
+    }
+
+    @Test
+    public void testResetSession() throws Exception {
+        Session session = sessionPool.openSession();
+        Connection connection = session.getConnection();
+        when(connection.getAutoCommit()).thenReturn(false);
+        session.close();
+        verify(connection).rollback();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    public void testEvictInvalidSession() throws Exception {
+        Session session = sessionPool.openSession();
+        Connection connection = session.getConnection();
+        session.close();
+        when(connection.isValid(anyInt())).thenReturn(false);
+
+        session = sessionPool.openSession();
+        assertNotSame(session.getConnection(), connection);
+        verify(connectionProvider).closeConnection(connection);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        Session session1 = sessionPool.openSession();
+        Session session2 = sessionPool.openSession();
+        Connection connection1 = session1.getConnection();
+        Connection connection2 = session2.getConnection();
+        session1.close();
+        sessionPool.close();
+        verify(connectionProvider).closeConnection(connection1);
+        verify(connectionProvider, never()).closeConnection(connection2);
+        session2.close();
+        verify(connectionProvider).closeConnection(connection2);
+    }
+
+    @Test(expectedExceptions = SessionException.class)
+    public void testOpenClosed() throws SQLException {
+        sessionPool.close();
+        sessionPool.openSession();
+    }
+}
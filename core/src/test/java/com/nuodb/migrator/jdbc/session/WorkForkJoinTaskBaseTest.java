@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.session;
+
+import com.nuodb.migrator.utils.concurrent.ForkJoinPool;
+import com.nuodb.migrator.utils.concurrent.RecursiveAction;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.newBlockingExecutorService;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Sergey Bushik
+ */
+public class WorkForkJoinTaskBaseTest {
+
+    private static final int WORKS = 8;
+
+    private ForkJoinPool forkJoinPool;
+    private ExecutorService executorService;
+
+    @BeforeMethod
+    public void setUp() {
+        forkJoinPool = new ForkJoinPool(1);
+        executorService = newBlockingExecutorService("test-io", WORKS, true);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        forkJoinPool.shutdownNow();
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Works blocked on each other would dead lock a pool of a single thread, forked to the executor service they are
+     * executed concurrently and joined by the fork join task
+     */
+    @Test(timeOut = 10000)
+    public void testForkToExecutorService() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(WORKS);
+        final Collection<BlockingWork> works = newArrayList();
+        forkJoinPool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                for (int index = 0; index < WORKS; index++) {
+                    BlockingWork work = new BlockingWork(latch);
+                    work.fork(executorService);
+                    works.add(work);
+                }
+                for (BlockingWork work : works) {
+                    work.join();
+                }
+            }
+        });
+        assertEquals(works.size(), WORKS);
+        for (BlockingWork work : works) {
+            assertTrue(work.isDone());
+            assertTrue(work.isExecuted());
+        }
+    }
+
+    @Test(timeOut = 10000)
+    public void testForkToExecutorServiceFailure() throws Exception {
+        final BlockingWork work = new BlockingWork(null);
+        try {
+            forkJoinPool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    work.fork(executorService).join();
+                }
+            });
+            fail("Work failure is expected to propagate on join");
+        } catch (RuntimeException exception) {
+            assertTrue(work.isCompletedAbnormally());
+        }
+    }
+
+    static class BlockingWork extends WorkForkJoinTaskBase<Void> {
+
+        private final CountDownLatch latch;
+        private volatile boolean executed;
+
+        public BlockingWork(CountDownLatch latch) {
+            super(null, (Session) null);
+            this.latch = latch;
+        }
+
+        @Override
+        protected boolean exec() {
+            try {
+                latch.countDown();
+                latch.await(5, SECONDS);
+            } catch (InterruptedException exception) {
+                throw new IllegalStateException(exception);
+            }
+            executed = latch.getCount() == 0;
+            return true;
+        }
+
+        @Override
+        public void execute() throws Exception {
+        }
+
+        public boolean isExecuted() {
+            return executed;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.metadata.Column;
+import com.nuodb.migrator.jdbc.metadata.PrimaryKey;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createIndex;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.getKeyRangeColumn;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.newKeyRangeSplitter;
+import static java.sql.Types.BIGINT;
+import static java.sql.Types.BLOB;
+import static java.util.Collections.singleton;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class KeyRangeQuerySplitterTest {
+
+    private Table table;
+    private Column id;
+
+    @BeforeMethod
+    public void setUp() {
+        table = createTable(null, "schema", "table");
+        id = table.addColumn("id");
+        id.setTypeCode(BIGINT);
+        id.setNullable(false);
+        table.addColumn("name");
+    }
+
+    @Test
+    public void testPrimaryKeyColumn() {
+        PrimaryKey primaryKey = new PrimaryKey();
+        primaryKey.addColumn(id, 0);
+        table.setPrimaryKey(primaryKey);
+        assertEquals(getKeyRangeColumn(table), id);
+    }
+
+    @Test
+    public void testUniqueIndexColumn() {
+        table.addIndex(createIndex("idx", singleton(id), true));
+        assertEquals(getKeyRangeColumn(table), id);
+    }
+
+    @Test
+    public void testNoKeyRangeColumn() {
+        assertNull(getKeyRangeColumn(table));
+
+        id.setNullable(true);
+        table.addIndex(createIndex("idx", singleton(id), true));
+        assertNull(getKeyRangeColumn(table));
+
+        id.setNullable(false);
+        id.setTypeCode(BLOB);
+        assertNull(getKeyRangeColumn(table));
+    }
+
+    @Test
+    public void testQuerySplits() throws Exception {
+        PrimaryKey primaryKey = new PrimaryKey();
+        primaryKey.addColumn(id, 0);
+        table.setPrimaryKey(primaryKey);
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement boundary = mock(PreparedStatement.class);
+        ResultSet boundaryResultSet = mock(ResultSet.class);
+        given(connection.prepareStatement(startsWith("SELECT \"id\" FROM"))).willReturn(boundary);
+        given(boundary.executeQuery()).willReturn(boundaryResultSet);
+        given(boundaryResultSet.next()).willReturn(true, false);
+        given(boundaryResultSet.getObject(1)).willReturn(100L);
+
+        QuerySplitter<PreparedStatement> querySplitter = newKeyRangeSplitter(new NuoDBDialect(), table,
+                table.getColumns(), null, new QueryLimit(100L));
+
+        assertTrue(querySplitter.hasNextQuerySplit(connection));
+        QuerySplit first = querySplitter.getNextQuerySplit(connection);
+        assertEquals(first.getQueryLimit(), new QueryLimit(100L));
+        assertTrue(querySplitter.hasNextQuerySplit(connection));
+        QuerySplit last = querySplitter.getNextQuerySplit(connection);
+        assertNull(last.getQueryLimit());
+        assertFalse(querySplitter.hasNextQuerySplit(connection));
+
+        PreparedStatement split = mock(PreparedStatement.class);
+        given(connection.prepareStatement(anyString())).willReturn(split);
+        last.getResultSet(connection);
+        verify(connection)
+                .prepareStatement("SELECT \"id\", \"name\" FROM \"schema\".\"table\" WHERE \"id\" >= ?");
+        verify(split).setObject(1, 100L);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.jdbc.split;
+
+import com.nuodb.migrator.jdbc.dialect.NuoDBDialect;
+import com.nuodb.migrator.jdbc.dialect.PostgreSQLDialect;
+import com.nuodb.migrator.jdbc.metadata.Table;
+import com.nuodb.migrator.jdbc.query.QueryLimit;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static com.nuodb.migrator.jdbc.dialect.RowCountType.APPROX;
+import static com.nuodb.migrator.jdbc.metadata.DatabaseInfos.POSTGRE_SQL;
+import static com.nuodb.migrator.jdbc.metadata.MetaDataUtils.createTable;
+import static com.nuodb.migrator.jdbc.query.Queries.newQuery;
+import static com.nuodb.migrator.jdbc.split.LimitQuerySplitter.UNBOUNDED;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.getRowCountType;
+import static com.nuodb.migrator.jdbc.split.QuerySplitters.newLimitSplitter;
+import static com.nuodb.migrator.jdbc.split.RowCountStrategies.newProvidedStrategy;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class LimitQuerySplitterTest {
+
+    @Test
+    public void testApproxRowCountType() {
+        Table table = createTable(null, "schema", "table");
+        assertEquals(getRowCountType(new PostgreSQLDialect(POSTGRE_SQL), table, null), APPROX);
+        assertNull(getRowCountType(new NuoDBDialect(), table, null));
+    }
+
+    @Test
+    public void testOpenEndedLastSplit() throws Exception {
+        Connection connection = mock(Connection.class);
+        QuerySplitter<Statement> querySplitter = newLimitSplitter(new NuoDBDialect(), newProvidedStrategy(250),
+                newQuery("SELECT * FROM \"table\""), new QueryLimit(100L));
+
+        assertTrue(querySplitter.hasNextQuerySplit(connection));
+        assertEquals(querySplitter.getNextQuerySplit(connection).getQueryLimit(), new QueryLimit(100L, 0L));
+        assertTrue(querySplitter.hasNextQuerySplit(connection));
+        assertEquals(querySplitter.getNextQuerySplit(connection).getQueryLimit(), new QueryLimit(100L, 100L));
+        assertTrue(querySplitter.hasNextQuerySplit(connection));
+        assertEquals(querySplitter.getNextQuerySplit(connection).getQueryLimit(),
+                new QueryLimit(UNBOUNDED - 200L, 200L));
+        assertFalse(querySplitter.hasNextQuerySplit(connection));
+    }
+
+    @Test
+    public void testUnderestimatedRowCount() throws Exception {
+        Connection connection = mock(Connection.class);
+        QuerySplitter<Statement> querySplitter = newLimitSplitter(new NuoDBDialect(), newProvidedStrategy(0),
+                newQuery("SELECT * FROM \"table\""), new QueryLimit(100L));
+
+        assertTrue(querySplitter.hasNextQuerySplit(connection));
+        assertEquals(querySplitter.getNextQuerySplit(connection).getQueryLimit(), new QueryLimit(UNBOUNDED, 0L));
+        assertFalse(querySplitter.hasNextQuerySplit(connection));
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.nuodb.migrator.backup.format.value.Row;
+import com.nuodb.migrator.backup.format.value.Value;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.*;
+
+/**
+ * @author Sergey Bushik
+ */
+public class RowQueueTest {
+
+    @Test
+    public void testReadRows() throws Exception {
+        final RowQueue rowQueue = new RowQueue(2);
+        final int rows = 100;
+        ExecutorService executor = newSingleThreadExecutor();
+        try {
+            Future<Boolean> writer = executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    for (int number = 0; number < rows; number++) {
+                        assertTrue(rowQueue.writeRow(new Row(null, new Value[0], number)));
+                    }
+                    rowQueue.finish();
+                    return true;
+                }
+            });
+            for (int number = 0; number < rows; number++) {
+                Row row = rowQueue.readRow();
+                assertNotNull(row);
+                assertEquals(row.getNumber(), number);
+            }
+            assertNull(rowQueue.readRow());
+            assertTrue(writer.get(10, SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCloseReleasesWriter() throws Exception {
+        final RowQueue rowQueue = new RowQueue(1);
+        ExecutorService executor = newSingleThreadExecutor();
+        try {
+            Future<Boolean> writer = executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    rowQueue.writeRow(new Row(null, new Value[0], 0));
+                    return rowQueue.writeRow(new Row(null, new Value[0], 1));
+                }
+            });
+            rowQueue.close();
+            assertFalse(writer.get(10, SECONDS));
+            assertNull(rowQueue.readRow());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.migrate;
+
+import com.google.common.io.ByteStreams;
+import com.nuodb.migrator.backup.format.value.Value;
+import com.nuodb.migrator.jdbc.type.JdbcValueAccess;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.Blob;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+/**
+ * @author Sergey Bushik
+ */
+@SuppressWarnings("unchecked")
+public class TempLobSideFilesTest {
+
+    private TempLobSideFiles lobSideFiles;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        lobSideFiles = new TempLobSideFiles(2);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        lobSideFiles.close();
+        assertFalse(lobSideFiles.getDir().exists());
+    }
+
+    @Test
+    public void testSideFileDeletedOnceBound() throws Exception {
+        byte[] bytes = new byte[] { 1, 2, 3 };
+        Blob blob = mock(Blob.class);
+        given(blob.length()).willReturn((long) bytes.length);
+        given(blob.getBinaryStream()).willReturn(new ByteArrayInputStream(bytes));
+        Value value = lobSideFiles.getValue(blob);
+        assertEquals(lobSideFiles.getDir().list().length, 1);
+
+        JdbcValueAccess<Object> access = mock(JdbcValueAccess.class);
+        final byte[][] bound = new byte[1][];
+        willAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                bound[0] = ByteStreams.toByteArray((InputStream) invocation.getArguments()[0]);
+                return null;
+            }
+        }).given(access).setValue(any(InputStream.class), anyMap());
+        lobSideFiles.setBlobValue(value, access, null);
+
+        assertEquals(bound[0], bytes);
+        assertEquals(lobSideFiles.getDir().list().length, 0);
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static com.nuodb.migrator.utils.AsyncOutputStream.BUFFERS;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.newBlockingExecutorService;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * @author Sergey Bushik
+ */
+public class AsyncOutputStreamTest {
+
+    private static final int STREAMS = 3;
+
+    @Test
+    public void testWrite() throws Exception {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        OutputStream output = new AsyncOutputStream(target, 7);
+        for (int index = 0; index < 1000; index++) {
+            byte[] bytes = ("row " + index + "\n").getBytes();
+            output.write(bytes);
+            output.write(index);
+            expected.write(bytes);
+            expected.write(index);
+        }
+        output.flush();
+        assertEquals(target.toByteArray(), expected.toByteArray());
+        output.write(new byte[] { 1, 2, 3 }, 1, 2);
+        expected.write(new byte[] { 1, 2, 3 }, 1, 2);
+        output.close();
+        assertEquals(target.toByteArray(), expected.toByteArray());
+    }
+
+    /**
+     * Streams share a single writer thread, which is held only while blocks are written
+     */
+    @Test(timeOut = 10000)
+    public void testSharedExecutor() throws Exception {
+        ExecutorService executorService = newBlockingExecutorService("test-output", 1, false);
+        try {
+            List<ByteArrayOutputStream> targets = newArrayList();
+            List<OutputStream> outputs = newArrayList();
+            for (int stream = 0; stream < STREAMS; stream++) {
+                ByteArrayOutputStream target = new ByteArrayOutputStream();
+                targets.add(target);
+                outputs.add(new AsyncOutputStream(target, 5, BUFFERS, executorService));
+            }
+            for (int index = 0; index < 100; index++) {
+                for (int stream = 0; stream < STREAMS; stream++) {
+                    outputs.get(stream).write(("stream " + stream + "\n").getBytes());
+                }
+            }
+            for (int stream = 0; stream < STREAMS; stream++) {
+                outputs.get(stream).close();
+                assertEquals(targets.get(stream).size(), 100 * ("stream " + stream + "\n").length());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        OutputStream target = new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+            }
+        };
+        OutputStream output = new AsyncOutputStream(target, 4);
+        output.write(new byte[] { 1, 2 });
+        output.close();
+        assertEquals(((ByteArrayOutputStream) target).toByteArray(), new byte[] { 1, 2 });
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testWriteFailure() throws Exception {
+        OutputStream target = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("No space left on device");
+            }
+        };
+        OutputStream output = new AsyncOutputStream(target, 4);
+        try {
+            output.write(new byte[] { 1, 2, 3, 4, 5 });
+            output.flush();
+            fail("Write failure is expected to be rethrown");
+        } catch (IOException exception) {
+            assertEquals(exception.getCause().getMessage(), "No space left on device");
+        }
+        try {
+            output.close();
+            fail("Write failure is expected to be rethrown on close");
+        } catch (IOException exception) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2015, NuoDB, Inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of NuoDB, Inc. nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL NUODB, INC. BE LIABLE FOR ANY DIRECT, INDIRECT,
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.nuodb.migrator.utils.concurrent;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.collect.Lists.newCopyOnWriteArrayList;
+import static com.nuodb.migrator.utils.concurrent.ExecutorServices.newBlockingExecutorService;
+import static java.lang.Math.max;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * @author Sergey Bushik
+ */
+public class ExecutorServicesTest {
+
+    private static final int THREADS = 2;
+    private static final int WORKS = 6;
+
+    @Test(timeOut = 10000)
+    public void testThreads() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService executorService = newBlockingExecutorService("test-io", THREADS, false);
+        for (int work = 0; work < WORKS; work++) {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    int current = running.incrementAndGet();
+                    maxRunning.set(max(maxRunning.get(), current));
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5, SECONDS));
+        assertTrue(maxRunning.get() <= THREADS);
+    }
+
+    @Test(timeOut = 10000)
+    public void testOrder() throws Exception {
+        final List<Integer> order = newCopyOnWriteArrayList();
+        ExecutorService executorService = newBlockingExecutorService("test-io", 1, false);
+        for (int work = 0; work < WORKS; work++) {
+            final int index = work;
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(index);
+                }
+            });
+        }
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5, SECONDS));
+        assertEquals(order, asList(0, 1, 2, 3, 4, 5));
+    }
+}